@@ -1,13 +1,21 @@
 package com.chitieu.web.controller;
 
 import com.chitieu.domain.model.Account;
+import com.chitieu.domain.model.BalanceAsOf;
+import com.chitieu.domain.model.JournalEntry;
+import com.chitieu.domain.model.NetWorthAsOf;
+import com.chitieu.domain.model.Transfer;
 import com.chitieu.domain.service.AccountService;
+import com.chitieu.domain.service.LedgerService;
 import com.chitieu.web.dto.AccountRequest;
+import com.chitieu.web.dto.TransferRequest;
 import com.chitieu.web.security.SecurityUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,7 +24,10 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AccountController {
 
+    private static final int MAX_JOURNAL_ENTRIES = 500;
+
     private final AccountService accountService;
+    private final LedgerService ledgerService;
     private final SecurityUtils securityUtils;
 
     @GetMapping
@@ -51,6 +62,47 @@ public class AccountController {
         return ResponseEntity.ok(accountService.updateAccount(id, account));
     }
 
+    /**
+     * Moves money between two of the caller's accounts atomically
+     */
+    @PostMapping("/transfers")
+    public ResponseEntity<Transfer> transfer(@RequestBody TransferRequest request) {
+        UUID userId = securityUtils.getCurrentUserId();
+        try {
+            return ResponseEntity.ok(ledgerService.transfer(userId, request.getFromAccountId(),
+                    request.getToAccountId(), request.getAmount(), request.getNote()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Balance at the end of the given day
+     */
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<BalanceAsOf> getBalanceAsOf(@PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(ledgerService.getBalanceAsOf(securityUtils.getCurrentUserId(), id, asOf));
+    }
+
+    @GetMapping("/net-worth")
+    public ResponseEntity<NetWorthAsOf> getNetWorthAsOf(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(ledgerService.getNetWorthAsOf(securityUtils.getCurrentUserId(), asOf));
+    }
+
+    /**
+     * The account's journal entries, newest first
+     */
+    @GetMapping("/{id}/journal")
+    public ResponseEntity<List<JournalEntry>> getJournal(@PathVariable UUID id,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit <= 0 || limit > MAX_JOURNAL_ENTRIES) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ledgerService.getJournal(securityUtils.getCurrentUserId(), id, limit));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAccount(@PathVariable UUID id) {
         accountService.deleteAccount(id);
@@ -1,15 +1,22 @@
 package com.chitieu.web.controller;
 
+import com.chitieu.domain.cache.CacheStats;
+import com.chitieu.domain.model.CategorySpendingReport;
+import com.chitieu.domain.model.RuleStats;
+import com.chitieu.domain.model.TimeResolution;
 import com.chitieu.domain.service.AnalyticsService;
+import com.chitieu.domain.service.RecommendationEngine;
 import com.chitieu.web.security.SecurityUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.math.BigDecimal;
-import java.util.Map;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -18,12 +25,35 @@ import java.util.UUID;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final RecommendationEngine recommendationEngine;
     private final SecurityUtils securityUtils;
 
+    /**
+     * Expenses by category over a date range (granularity: total, day, week,
+     * month; default range: the last 12 calendar months)
+     */
     @GetMapping("/category")
-    public ResponseEntity<Map<String, BigDecimal>> getSpendingByCategory() {
+    public ResponseEntity<CategorySpendingReport> getSpendingByCategory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "total") String granularity) {
         UUID userId = securityUtils.getCurrentUserId();
-        return ResponseEntity.ok(analyticsService.getSpendingByCategory(userId));
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1).minusMonths(11);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TimeResolution resolution = null;
+        if (!"total".equalsIgnoreCase(granularity)) {
+            try {
+                resolution = TimeResolution.valueOf(granularity.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        return ResponseEntity.ok(analyticsService.getSpendingByCategory(userId, start, end, resolution));
     }
 
     @GetMapping("/suggestion")
@@ -31,4 +61,20 @@ public class AnalyticsController {
         UUID userId = securityUtils.getCurrentUserId();
         return ResponseEntity.ok(analyticsService.generateAISuggestion(userId));
     }
+
+    /**
+     * Get the compiled recommendation rules and how often each has fired
+     */
+    @GetMapping("/rules")
+    public ResponseEntity<List<RuleStats>> getRuleStats() {
+        return ResponseEntity.ok(recommendationEngine.stats());
+    }
+
+    /**
+     * Get hit, miss and invalidation counters of the spending analytics cache
+     */
+    @GetMapping("/cache-stats")
+    public ResponseEntity<CacheStats> getCacheStats() {
+        return ResponseEntity.ok(analyticsService.getCacheStats());
+    }
 }
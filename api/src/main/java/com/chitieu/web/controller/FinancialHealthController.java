@@ -1,15 +1,28 @@
 package com.chitieu.web.controller;
 
+import com.chitieu.domain.cache.CacheStats;
+import com.chitieu.domain.cache.FinancialHealthCache;
+import com.chitieu.domain.model.BalanceHistory;
 import com.chitieu.domain.model.FinancialHealthMetrics;
+import com.chitieu.domain.model.FreedomSimulation;
+import com.chitieu.domain.model.HealthSnapshot;
+import com.chitieu.domain.model.PeerBenchmark;
+import com.chitieu.domain.model.TimeResolution;
+import com.chitieu.domain.repository.HealthSnapshotRepositoryPort;
+import com.chitieu.domain.service.BalanceHistoryService;
 import com.chitieu.domain.service.FinancialHealthAssessmentService;
+import com.chitieu.domain.service.FreedomSimulationService;
+import com.chitieu.domain.service.PeerBenchmarkService;
+import com.chitieu.domain.service.RecommendationEngine;
 import com.chitieu.web.dto.FinancialHealthResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,6 +33,12 @@ import java.util.UUID;
 public class FinancialHealthController {
 
     private final FinancialHealthAssessmentService assessmentService;
+    private final FinancialHealthCache healthCache;
+    private final HealthSnapshotRepositoryPort snapshotRepository;
+    private final BalanceHistoryService balanceHistoryService;
+    private final FreedomSimulationService simulationService;
+    private final PeerBenchmarkService peerBenchmarkService;
+    private final RecommendationEngine recommendationEngine;
 
     /**
      * Get comprehensive financial health score
@@ -65,12 +84,41 @@ public class FinancialHealthController {
                 .totalAssets(metrics.getTotalAssets())
                 .totalLiabilities(metrics.getTotalLiabilities())
                 .rating(metrics.getNetWorthRating().name())
-                .trend("STABLE") // TODO: Calculate from historical data
+                .growthRate(metrics.getNetWorthGrowthRate())
+                .trend(metrics.getNetWorthTrend())
                 .build();
 
         return ResponseEntity.ok(netWorth);
     }
 
+    /**
+     * Get net worth history downsampled to at most a few hundred points
+     * (resolution: auto, day, week, month; default range: last year)
+     */
+    @GetMapping("/net-worth/history")
+    public ResponseEntity<BalanceHistory> getNetWorthHistory(Authentication authentication,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "auto") String resolution) {
+        UUID userId = getUserIdFromAuth(authentication);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TimeResolution requested = null;
+        if (!"auto".equalsIgnoreCase(resolution)) {
+            try {
+                requested = TimeResolution.valueOf(resolution.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        return ResponseEntity.ok(balanceHistoryService.getNetWorthHistory(userId, start, end, requested));
+    }
+
     /**
      * Get liquidity ratio
      */
@@ -162,6 +210,27 @@ public class FinancialHealthController {
         return ResponseEntity.ok(freedom);
     }
 
+    /**
+     * Simulate years to financial freedom under volatile returns and savings
+     * (p10/p50/p90 bands; paths and horizon are capped server-side)
+     */
+    @GetMapping("/fi-simulation")
+    public ResponseEntity<FreedomSimulation> simulateFinancialFreedom(Authentication authentication,
+            @RequestParam(defaultValue = "10000") int paths,
+            @RequestParam(defaultValue = "600") int horizonMonths,
+            @RequestParam(defaultValue = "0.10") java.math.BigDecimal annualReturn,
+            @RequestParam(defaultValue = "0.15") java.math.BigDecimal returnVolatility,
+            @RequestParam(defaultValue = "0.10") java.math.BigDecimal savingsVolatility,
+            @RequestParam(required = false) Long seed) {
+        if (paths <= 0 || horizonMonths <= 0 || returnVolatility.signum() < 0 || savingsVolatility.signum() < 0
+                || annualReturn.compareTo(java.math.BigDecimal.ONE.negate()) <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        UUID userId = getUserIdFromAuth(authentication);
+        return ResponseEntity.ok(simulationService.simulate(userId, paths, horizonMonths, annualReturn,
+                returnVolatility, savingsVolatility, seed));
+    }
+
     /**
      * Get comprehensive monthly report
      */
@@ -170,6 +239,51 @@ public class FinancialHealthController {
         return getFinancialHealthScore(authentication);
     }
 
+    /**
+     * Get the latest nightly snapshot without recalculating
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<HealthSnapshot> getLatestSnapshot(Authentication authentication) {
+        UUID userId = getUserIdFromAuth(authentication);
+        return snapshotRepository.findLatest(userId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get daily snapshots in a date range (default: last 90 days)
+     */
+    @GetMapping("/history")
+    public ResponseEntity<List<HealthSnapshot>> getHistory(Authentication authentication,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        UUID userId = getUserIdFromAuth(authentication);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(90);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(snapshotRepository.findByUserIdBetween(userId, start, end));
+    }
+
+    /**
+     * Get how the latest snapshot compares with other users, overall and
+     * within the same net worth rating
+     */
+    @GetMapping("/peer-benchmark")
+    public ResponseEntity<List<PeerBenchmark>> getPeerBenchmark(Authentication authentication) {
+        UUID userId = getUserIdFromAuth(authentication);
+        return ResponseEntity.ok(peerBenchmarkService.benchmark(userId));
+    }
+
+    /**
+     * Get hit, miss and coalesce counters of the financial health cache
+     */
+    @GetMapping("/cache-stats")
+    public ResponseEntity<CacheStats> getCacheStats() {
+        return ResponseEntity.ok(healthCache.stats());
+    }
+
     // Helper methods
     private UUID getUserIdFromAuth(Authentication authentication) {
         if (authentication != null && authentication.getPrincipal() instanceof com.chitieu.web.security.UserPrincipal) {
@@ -201,7 +315,8 @@ public class FinancialHealthController {
                         .totalAssets(metrics.getTotalAssets())
                         .totalLiabilities(metrics.getTotalLiabilities())
                         .rating(metrics.getNetWorthRating().name())
-                        .trend("STABLE")
+                        .growthRate(metrics.getNetWorthGrowthRate())
+                        .trend(metrics.getNetWorthTrend())
                         .build())
                 .liquidity(FinancialHealthResponse.LiquidityData.builder()
                         .liquidAssets(metrics.getLiquidAssets())
@@ -285,44 +400,6 @@ public class FinancialHealthController {
     }
 
     private List<String> generateRecommendations(FinancialHealthMetrics metrics) {
-        List<String> recommendations = new ArrayList<>();
-
-        // Net Worth recommendations
-        if (metrics.getNetWorthRating() == com.chitieu.domain.model.NetWorthRating.POOR) {
-            recommendations.add("Tài sản ròng của bạn đang âm. Ưu tiên trả nợ và tăng tài sản.");
-        }
-
-        // Liquidity recommendations
-        if (metrics.getLiquiditySafetyLevel() == com.chitieu.domain.model.LiquiditySafetyLevel.CRITICAL ||
-                metrics.getLiquiditySafetyLevel() == com.chitieu.domain.model.LiquiditySafetyLevel.LOW) {
-            recommendations.add("Xây dựng quỹ dự phòng ít nhất 3-6 tháng chi tiêu thiết yếu.");
-        }
-
-        // Budget recommendations
-        if (metrics.getBudgetCompliance() == com.chitieu.domain.model.BudgetCompliance.POOR) {
-            if (metrics.getNeedsPercent().compareTo(java.math.BigDecimal.valueOf(70)) > 0) {
-                recommendations.add("Chi tiêu thiết yếu quá cao. Tìm cách giảm chi phí sinh hoạt.");
-            }
-            if (metrics.getSavingsPercent().compareTo(java.math.BigDecimal.valueOf(10)) < 0) {
-                recommendations.add("Tỷ lệ tiết kiệm quá thấp. Mục tiêu tối thiểu là 20% thu nhập.");
-            }
-        }
-
-        // Debt recommendations
-        if (metrics.getDebtRiskLevel() == com.chitieu.domain.model.DebtRiskLevel.HIGH ||
-                metrics.getDebtRiskLevel() == com.chitieu.domain.model.DebtRiskLevel.CRITICAL) {
-            recommendations.add("Tỷ lệ nợ quá cao. Ưu tiên trả nợ lãi suất cao trước.");
-        }
-
-        // Financial Freedom recommendations
-        if (metrics.getYearsToFreedom().compareTo(java.math.BigDecimal.valueOf(20)) > 0) {
-            recommendations.add("Tăng tỷ lệ tiết kiệm và đầu tư để rút ngắn thời gian đạt tự do tài chính.");
-        }
-
-        if (recommendations.isEmpty()) {
-            recommendations.add("Tuyệt vời! Tài chính của bạn đang rất khỏe mạnh. Tiếp tục duy trì!");
-        }
-
-        return recommendations;
+        return recommendationEngine.recommendForHealth(metrics);
     }
 }
@@ -0,0 +1,50 @@
+package com.chitieu.web.controller;
+
+import com.chitieu.domain.model.RecurringTransaction;
+import com.chitieu.domain.service.RecurringTransactionService;
+import com.chitieu.web.dto.RecurringTransactionRequest;
+import com.chitieu.web.security.SecurityUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/recurring-transactions")
+@RequiredArgsConstructor
+public class RecurringTransactionController {
+
+    private final RecurringTransactionService recurringService;
+    private final SecurityUtils securityUtils;
+
+    @GetMapping
+    public ResponseEntity<List<RecurringTransaction>> getMyRecurringTransactions() {
+        UUID userId = securityUtils.getCurrentUserId();
+        return ResponseEntity.ok(recurringService.getUserRecurringTransactions(userId));
+    }
+
+    @PostMapping
+    public ResponseEntity<RecurringTransaction> create(@RequestBody RecurringTransactionRequest request) {
+        UUID userId = securityUtils.getCurrentUserId();
+        try {
+            return ResponseEntity.ok(recurringService.create(userId, RecurringTransaction.builder()
+                    .accountId(request.getAccountId())
+                    .amount(request.getAmount())
+                    .category(request.getCategory())
+                    .type(request.getType())
+                    .description(request.getDescription())
+                    .schedule(request.getSchedule())
+                    .build()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable UUID id) {
+        recurringService.delete(securityUtils.getCurrentUserId(), id);
+        return ResponseEntity.noContent().build();
+    }
+}
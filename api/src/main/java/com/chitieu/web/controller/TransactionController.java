@@ -1,15 +1,43 @@
 package com.chitieu.web.controller;
 
+import com.chitieu.domain.model.GroupCommitStats;
+import com.chitieu.domain.model.RecordedTransaction;
+import com.chitieu.domain.model.StatementImportStatus;
 import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.model.TransactionCursor;
+import com.chitieu.domain.model.TransactionFilter;
+import com.chitieu.domain.model.TransactionPage;
+import com.chitieu.domain.service.IdempotencyService;
+import com.chitieu.domain.service.StatementImportService;
+import com.chitieu.domain.service.TransactionExportService;
+import com.chitieu.domain.service.TransactionGroupCommitter;
 import com.chitieu.domain.service.TransactionService;
+import com.chitieu.domain.statement.ExportFormat;
+import com.chitieu.domain.statement.StatementFormat;
 import com.chitieu.web.dto.TransactionRequest;
 import com.chitieu.web.security.SecurityUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/transactions")
@@ -17,11 +45,23 @@ import java.util.UUID;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionGroupCommitter groupCommitter;
+    private final StatementImportService importService;
+    private final TransactionExportService exportService;
     private final SecurityUtils securityUtils;
 
+    /**
+     * Records a transaction. With an Idempotency-Key header, retries of the
+     * same request return the first result instead of recording it again.
+     */
     @PostMapping
-    public ResponseEntity<Object> recordTransaction(@RequestBody TransactionRequest request) {
+    public CompletableFuture<ResponseEntity<Object>> recordTransaction(@RequestBody TransactionRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         UUID userId = securityUtils.getCurrentUserId();
+        if (request.getDescription() != null
+                && request.getDescription().length() > TransactionRequest.MAX_DESCRIPTION_LENGTH) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
 
         Transaction transaction = Transaction.builder()
                 .amount(request.getAmount())
@@ -29,18 +69,195 @@ public class TransactionController {
                 .type(request.getType() != null ? request.getType() : "EXPENSE")
                 .date(LocalDate.now())
                 .accountId(request.getAccountId())
+                .description(request.getDescription())
                 .build();
 
-        transactionService.recordTransaction(userId, transaction);
-
-        java.util.Map<String, String> response = new java.util.HashMap<>();
+        java.util.Map<String, Object> response = new java.util.HashMap<>();
         response.put("message", "Transaction recorded successfully");
-        return ResponseEntity.ok(response);
+
+        if (idempotencyKey == null) {
+            // Answered once the row is committed, possibly alongside other requests
+            return groupCommitter.submit(userId, transaction)
+                    .thenApply(transactionId -> {
+                        response.put("transactionId", transactionId);
+                        return ResponseEntity.<Object>ok(response);
+                    })
+                    .exceptionally(e -> {
+                        if (e instanceof CompletionException && e.getCause() != null) {
+                            e = e.getCause();
+                        }
+                        if (e instanceof RejectedExecutionException) {
+                            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+                        }
+                        throw e instanceof RuntimeException ? (RuntimeException) e : new CompletionException(e);
+                    });
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyService.MAX_KEY_LENGTH) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        RecordedTransaction recorded = transactionService.recordTransaction(userId, transaction, idempotencyKey);
+        if (recorded.getOutcome() == RecordedTransaction.Outcome.KEY_REUSED) {
+            response.put("message", "Idempotency-Key was already used for a different request");
+            return CompletableFuture.completedFuture(ResponseEntity.unprocessableEntity().body(response));
+        }
+        response.put("transactionId", recorded.getTransactionId());
+        return CompletableFuture.completedFuture(ResponseEntity.ok()
+                .header("Idempotent-Replayed",
+                        String.valueOf(recorded.getOutcome() == RecordedTransaction.Outcome.REPLAYED))
+                .body(response));
     }
 
+    /**
+     * Searches description and category, e.g. {@code q=ca phe} also finds
+     * "Cà phê sữa"; best matches first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Transaction>> searchTransactions(@RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        UUID userId = securityUtils.getCurrentUserId();
+        try {
+            return ResponseEntity.ok(transactionService.searchTransactions(userId, q, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/group-commit/stats")
+    public ResponseEntity<GroupCommitStats> getGroupCommitStats() {
+        return ResponseEntity.ok(groupCommitter.getStats());
+    }
+
+    /**
+     * Transactions newest first. Pass the returned {@code nextCursor} back as
+     * {@code cursor} with the same filters to fetch the next page.
+     */
     @GetMapping
-    public ResponseEntity<java.util.List<Transaction>> getUserTransactions() {
+    public ResponseEntity<TransactionPage> getUserTransactions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) UUID accountId,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount) {
+        UUID userId = securityUtils.getCurrentUserId();
+
+        if (limit <= 0 || (from != null && to != null && from.isAfter(to))
+                || (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (type != null && !"INCOME".equals(type) && !"EXPENSE".equals(type)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TransactionCursor after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                after = TransactionCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        TransactionFilter filter = TransactionFilter.builder()
+                .from(from)
+                .to(to)
+                .type(type)
+                .categories(category != null ? new HashSet<>(category) : null)
+                .accountId(accountId)
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .build();
+        return ResponseEntity.ok(transactionService.getUserTransactions(userId, filter, after, limit));
+    }
+
+    /**
+     * Starts a background import of a CSV, OFX or QIF statement into one
+     * account. The format is taken from the file name unless given; poll the
+     * returned job for progress.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<StatementImportStatus> importStatement(@RequestParam("file") MultipartFile file,
+            @RequestParam UUID accountId,
+            @RequestParam(required = false) String format) throws IOException {
+        UUID userId = securityUtils.getCurrentUserId();
+
+        StatementFormat statementFormat;
+        try {
+            statementFormat = format != null ? StatementFormat.valueOf(format.toUpperCase(Locale.ROOT))
+                    : StatementFormat.fromFileName(file.getOriginalFilename());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (statementFormat == null || file.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // The upload is gone once this request ends, so the job reads a copy
+        Path copy = Files.createTempFile("statement-", ".upload");
+        try {
+            file.transferTo(copy);
+        } catch (IOException e) {
+            Files.deleteIfExists(copy);
+            throw e;
+        }
+        try {
+            return ResponseEntity.accepted().body(importService.submit(userId, accountId, statementFormat, copy));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<StatementImportStatus> getImportStatus(@PathVariable UUID jobId) {
         UUID userId = securityUtils.getCurrentUserId();
-        return ResponseEntity.ok(transactionService.getUserTransactions(userId));
+        return importService.getStatus(userId, jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Downloads transactions oldest first as CSV or NDJSON, streamed from the
+     * database without loading the history into memory
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        UUID userId = securityUtils.getCurrentUserId();
+
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                exportService.export(userId, from, to, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                exportService.export(userId, from, to, exportFormat, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType() + ";charset=UTF-8")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 }
@@ -26,7 +26,11 @@ public class UserController {
     public ResponseEntity<User> updateMyProfile(
             @AuthenticationPrincipal UserPrincipal principal,
             @RequestBody User userUpdate) {
-        return ResponseEntity.ok(userService.updateProfile(principal.getId(), userUpdate));
+        try {
+            return ResponseEntity.ok(userService.updateProfile(principal.getId(), userUpdate));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/search")
@@ -44,6 +44,7 @@ public class FinancialHealthResponse {
         private final BigDecimal totalAssets;
         private final BigDecimal totalLiabilities;
         private final String rating; // EXCELLENT, GOOD, FAIR, POOR
+        private final BigDecimal growthRate; // Year over year, null without history
         private final String trend; // UP, DOWN, STABLE
     }
 
@@ -0,0 +1,15 @@
+package com.chitieu.web.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+public class RecurringTransactionRequest {
+    private BigDecimal amount;
+    private String category;
+    private String type; // INCOME, EXPENSE
+    private UUID accountId;
+    private String description;
+    private String schedule; // Cron, e.g. "0 9 1 * *" for 09:00 on the 1st of every month
+}
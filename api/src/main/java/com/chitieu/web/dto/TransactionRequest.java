@@ -12,8 +12,11 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 public class TransactionRequest {
+    public static final int MAX_DESCRIPTION_LENGTH = 255;
+
     private BigDecimal amount;
     private String category;
     private String type; // INCOME, EXPENSE
     private UUID accountId;
+    private String description;
 }
@@ -0,0 +1,116 @@
+package com.chitieu.domain.finance;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Years to financial freedom for a batch of scenarios: the month-by-month
+ * loop the assessment service used to run, the closed-form solver, and the
+ * solver's double[] batch form.
+ * <p>
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar FinancialFreedomSolver -prof gc}
+ * to see the allocation per scenario next to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FinancialFreedomSolverBenchmark {
+
+    private static final BigDecimal MONTHS_PER_YEAR = new BigDecimal("12");
+
+    @Param({ "256" })
+    private int scenarios;
+
+    private BigDecimal[] current;
+    private BigDecimal[] target;
+    private BigDecimal[] savings;
+    private BigDecimal[] annualReturn;
+
+    private double[] currentValues;
+    private double[] targetValues;
+    private double[] savingsValues;
+    private double[] annualReturnValues;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        current = new BigDecimal[scenarios];
+        target = new BigDecimal[scenarios];
+        savings = new BigDecimal[scenarios];
+        annualReturn = new BigDecimal[scenarios];
+        currentValues = new double[scenarios];
+        targetValues = new double[scenarios];
+        savingsValues = new double[scenarios];
+        annualReturnValues = new double[scenarios];
+        for (int i = 0; i < scenarios; i++) {
+            // Net worth up to 1bn VND against a 25x-expenses target, 1m-30m saved a month, 0-12% a year
+            current[i] = BigDecimal.valueOf(random.nextInt(1_000_000_000));
+            target[i] = BigDecimal.valueOf(1_000_000_000L + random.nextInt(2_000_000_000));
+            savings[i] = BigDecimal.valueOf(1_000_000 + random.nextInt(30_000_000));
+            annualReturn[i] = BigDecimal.valueOf(random.nextInt(13), 2);
+            currentValues[i] = current[i].doubleValue();
+            targetValues[i] = target[i].doubleValue();
+            savingsValues[i] = savings[i].doubleValue();
+            annualReturnValues[i] = annualReturn[i].doubleValue();
+        }
+    }
+
+    @Benchmark
+    public void monthByMonthLoop(Blackhole blackhole) {
+        for (int i = 0; i < scenarios; i++) {
+            blackhole.consume(iterativeYears(current[i], target[i], savings[i], annualReturn[i]));
+        }
+    }
+
+    @Benchmark
+    public void closedFormSolver(Blackhole blackhole) {
+        for (int i = 0; i < scenarios; i++) {
+            blackhole.consume(FinancialFreedomSolver.yearsToTarget(current[i], target[i], savings[i],
+                    annualReturn[i]));
+        }
+    }
+
+    @Benchmark
+    public double[] batchSolver() {
+        return FinancialFreedomSolver.yearsToTarget(currentValues, targetValues, savingsValues, annualReturnValues);
+    }
+
+    /**
+     * The loop the solver replaced: compound month by month up to the cap
+     */
+    private static BigDecimal iterativeYears(BigDecimal current, BigDecimal target, BigDecimal monthlySavings,
+            BigDecimal annualReturn) {
+        if (monthlySavings.compareTo(BigDecimal.ZERO) <= 0) {
+            return new BigDecimal("-1");
+        }
+        if (current.compareTo(target) >= 0) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal monthlyRate = annualReturn.divide(MONTHS_PER_YEAR, 6, RoundingMode.HALF_UP);
+        int months = 0;
+        BigDecimal accumulated = current;
+        while (accumulated.compareTo(target) < 0 && months < FinancialFreedomSolver.MAX_MONTHS) {
+            accumulated = accumulated.multiply(BigDecimal.ONE.add(monthlyRate)).add(monthlySavings);
+            months++;
+        }
+        return new BigDecimal(months).divide(MONTHS_PER_YEAR, 1, RoundingMode.HALF_UP);
+    }
+}
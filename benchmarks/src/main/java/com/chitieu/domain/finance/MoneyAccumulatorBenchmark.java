@@ -0,0 +1,86 @@
+package com.chitieu.domain.finance;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing a user's worth of transaction amounts: the BigDecimal reduce the
+ * aggregation loops used, against {@link MoneyAccumulator} fed the same
+ * BigDecimals and fed {@link Money} values.
+ * <p>
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar MoneyAccumulator -prof gc}; the
+ * gc.alloc.rate.norm column is the bytes allocated per sum, which the reduce
+ * spends on an intermediate BigDecimal per addition.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyAccumulatorBenchmark {
+
+    @Param({ "1000", "100000" })
+    private int amounts;
+
+    private BigDecimal[] decimals;
+    private Money[] money;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        decimals = new BigDecimal[amounts];
+        money = new Money[amounts];
+        for (int i = 0; i < amounts; i++) {
+            // Amounts up to 5m with two decimals, so all of them fit in minor units
+            decimals[i] = BigDecimal.valueOf(random.nextInt(5_000_000_00), 2);
+            money[i] = Money.of(decimals[i]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalReduce() {
+        return Arrays.stream(decimals).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalLoop() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BigDecimal amount : decimals) {
+            sum = sum.add(amount);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public BigDecimal accumulatorOfBigDecimals() {
+        MoneyAccumulator sum = new MoneyAccumulator();
+        for (BigDecimal amount : decimals) {
+            sum.add(amount);
+        }
+        return sum.toBigDecimal();
+    }
+
+    @Benchmark
+    public BigDecimal accumulatorOfMoney() {
+        MoneyAccumulator sum = new MoneyAccumulator();
+        for (Money amount : money) {
+            sum.add(amount);
+        }
+        return sum.toBigDecimal();
+    }
+}
@@ -0,0 +1,374 @@
+package com.chitieu.domain.anomaly;
+
+import com.chitieu.domain.model.SpendingAnomaly;
+import com.chitieu.domain.model.SpendingAnomalyType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Streaming per-user, per-category expense statistics held in primitive
+ * arrays. Each (user, category) key keeps an EWMA mean and variance of the
+ * log amount, decayed frequencies of amount ranges and a time-decayed count
+ * of recent expenses, so an expense is scored and folded in with O(1) work
+ * and no history reads.
+ * <p>
+ * Keys are spread over independently locked stripes, each an open-addressing
+ * table that doubles when three quarters full. A key is the user id and the
+ * full category name; the category's hash only speeds up the comparison. Stripes serialise separately
+ * for checkpointing.
+ */
+public final class SpendingStatsTable {
+
+    /** Half-decade amount ranges starting at 1,000 */
+    static final int AMOUNT_BUCKETS = 12;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final double RECENT_DECAY_MILLIS = 24 * 60 * 60 * 1000.0; // one day
+    private static final double MIN_VARIANCE = 1e-4;
+    private static final double RARE_AMOUNT_SHARE = 0.05;
+    private static final int FORMAT_VERSION = 2;
+
+    private final Stripe[] stripes;
+    private final double alpha;
+    private final double zThreshold;
+    private final int minObservations;
+    private final double burstCount;
+    private final long newCategoryMillis;
+    private final long cooldownMillis;
+
+    /**
+     * @param alpha             EWMA weight of each new expense
+     * @param zThreshold        log-amount z-score from which an expense is a spike
+     * @param minObservations   expenses needed in a category before spikes are flagged
+     * @param burstCount        recent expenses that make a burst in a new category
+     * @param newCategoryMillis how long after its first expense a category counts as new
+     * @param cooldownMillis    minimum time between two alerts for the same key
+     */
+    public SpendingStatsTable(int stripeCount, double alpha, double zThreshold, int minObservations,
+            double burstCount, long newCategoryMillis, long cooldownMillis) {
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripeCount))];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(INITIAL_CAPACITY);
+        }
+        this.alpha = alpha;
+        this.zThreshold = zThreshold;
+        this.minObservations = minObservations;
+        this.burstCount = burstCount;
+        this.newCategoryMillis = newCategoryMillis;
+        this.cooldownMillis = cooldownMillis;
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Scores a positive expense against the key's statistics so far, then
+     * folds it in. Returns the anomaly it raises, or null.
+     */
+    public SpendingAnomaly observe(UUID userId, String category, double amount, long nowMillis) {
+        long hi = userId.getMostSignificantBits();
+        long lo = userId.getLeastSignificantBits();
+        int cat = category.hashCode();
+        long hash = hash(hi, lo, cat);
+        Stripe stripe = stripes[(int) (hash >>> 32) & (stripes.length - 1)];
+
+        double logAmount = Math.log(amount);
+        int bucket = bucketOf(amount);
+        synchronized (stripe) {
+            int i = stripe.findOrInsert(hi, lo, cat, category, (int) hash, nowMillis);
+            SpendingAnomaly anomaly = score(stripe, i, userId, category, amount, logAmount, bucket, nowMillis);
+            stripe.update(i, logAmount, bucket, nowMillis, alpha);
+            if (anomaly != null) {
+                stripe.lastAlert[i] = nowMillis;
+            }
+            stripe.dirty = true;
+            return anomaly;
+        }
+    }
+
+    private SpendingAnomaly score(Stripe s, int i, UUID userId, String category, double amount, double logAmount,
+            int bucket, long now) {
+        if (s.lastAlert[i] != 0 && now - s.lastAlert[i] < cooldownMillis) {
+            return null;
+        }
+
+        if (s.count[i] >= minObservations) {
+            double z = (logAmount - s.mean[i]) / Math.sqrt(Math.max(s.var[i], MIN_VARIANCE));
+            double share = s.freqTotal[i] > 0 ? s.freq[i * AMOUNT_BUCKETS + bucket] / s.freqTotal[i] : 0;
+            if (z >= zThreshold && share < RARE_AMOUNT_SHARE) {
+                return SpendingAnomaly.builder()
+                        .userId(userId)
+                        .category(category)
+                        .amount(amount)
+                        .type(SpendingAnomalyType.AMOUNT_SPIKE)
+                        .typicalAmount(Math.exp(s.mean[i]))
+                        .score(z)
+                        .build();
+            }
+        }
+
+        // Rounded so that expenses minutes apart still count as whole ones
+        double recent = s.decayedRecent(i, now) + 1;
+        if (now - s.firstSeen[i] < newCategoryMillis && Math.round(recent) >= burstCount) {
+            return SpendingAnomaly.builder()
+                    .userId(userId)
+                    .category(category)
+                    .amount(amount)
+                    .type(SpendingAnomalyType.CATEGORY_BURST)
+                    .typicalAmount(s.count[i] > 0 ? Math.exp(s.mean[i]) : amount)
+                    .score(recent)
+                    .build();
+        }
+        return null;
+    }
+
+    /**
+     * Serialises a stripe, or returns null if it has not changed since the
+     * last call
+     */
+    public byte[] snapshotIfDirty(int stripeIndex) {
+        Stripe stripe = stripes[stripeIndex];
+        synchronized (stripe) {
+            if (!stripe.dirty) {
+                return null;
+            }
+            stripe.dirty = false;
+            return stripe.toBytes();
+        }
+    }
+
+    /**
+     * Loads serialised entries, routing each to its stripe by key
+     *
+     * @throws IllegalArgumentException if the data is of another format
+     */
+    public void restore(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.getInt() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported anomaly checkpoint format");
+        }
+        int entries = buffer.getInt();
+        for (int e = 0; e < entries; e++) {
+            long hi = buffer.getLong();
+            long lo = buffer.getLong();
+            byte[] name = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(name);
+            String category = new String(name, StandardCharsets.UTF_8);
+            int cat = category.hashCode();
+            long hash = hash(hi, lo, cat);
+            Stripe stripe = stripes[(int) (hash >>> 32) & (stripes.length - 1)];
+            synchronized (stripe) {
+                int i = stripe.findOrInsert(hi, lo, cat, category, (int) hash, 0);
+                stripe.read(i, buffer);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    static int bucketOf(double amount) {
+        int bucket = (int) Math.floor(2 * Math.log10(amount / 1000));
+        return Math.max(0, Math.min(AMOUNT_BUCKETS - 1, bucket));
+    }
+
+    private static long hash(long hi, long lo, int cat) {
+        long h = hi * 0x9E3779B97F4A7C15L ^ lo;
+        h = (h ^ (h >>> 31)) * 0xBF58476D1CE4E5B9L ^ cat;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    private static final class Stripe {
+        int size;
+        boolean dirty;
+
+        boolean[] used;
+        long[] hi;
+        long[] lo;
+        int[] cat; // Hash of category
+        String[] category;
+        int[] count;
+        double[] mean; // EWMA of ln(amount)
+        double[] var;
+        float[] freq; // AMOUNT_BUCKETS decayed weights per key
+        double[] freqTotal;
+        double[] recent; // Expense count decayed by RECENT_DECAY_MILLIS
+        long[] recentAt;
+        long[] firstSeen;
+        long[] lastAlert;
+
+        Stripe(int capacity) {
+            allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            used = new boolean[capacity];
+            hi = new long[capacity];
+            lo = new long[capacity];
+            cat = new int[capacity];
+            category = new String[capacity];
+            count = new int[capacity];
+            mean = new double[capacity];
+            var = new double[capacity];
+            freq = new float[capacity * AMOUNT_BUCKETS];
+            freqTotal = new double[capacity];
+            recent = new double[capacity];
+            recentAt = new long[capacity];
+            firstSeen = new long[capacity];
+            lastAlert = new long[capacity];
+        }
+
+        int findOrInsert(long h, long l, int c, String name, int hash, long now) {
+            int mask = used.length - 1;
+            int i = hash & mask;
+            while (used[i]) {
+                if (hi[i] == h && lo[i] == l && cat[i] == c && category[i].equals(name)) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            if ((size + 1) * 4 > used.length * 3) {
+                grow();
+                return findOrInsert(h, l, c, name, hash, now);
+            }
+            used[i] = true;
+            hi[i] = h;
+            lo[i] = l;
+            cat[i] = c;
+            category[i] = name;
+            firstSeen[i] = now;
+            recentAt[i] = now;
+            size++;
+            return i;
+        }
+
+        double decayedRecent(int i, long now) {
+            long elapsed = Math.max(0, now - recentAt[i]);
+            return recent[i] * Math.exp(-elapsed / RECENT_DECAY_MILLIS);
+        }
+
+        // West's incremental EWMA; the first expenses are averaged evenly so early stats settle fast
+        void update(int i, double x, int bucket, long now, double alpha) {
+            int n = count[i];
+            double weight = Math.max(alpha, 1.0 / (n + 1));
+            if (n == 0) {
+                mean[i] = x;
+                var[i] = 0;
+            } else {
+                double diff = x - mean[i];
+                double increment = weight * diff;
+                mean[i] += increment;
+                var[i] = (1 - weight) * (var[i] + diff * increment);
+            }
+            if (n < Integer.MAX_VALUE) {
+                count[i] = n + 1;
+            }
+
+            int base = i * AMOUNT_BUCKETS;
+            float decay = (float) (1 - alpha);
+            for (int b = 0; b < AMOUNT_BUCKETS; b++) {
+                freq[base + b] *= decay;
+            }
+            freq[base + bucket] += 1;
+            freqTotal[i] = freqTotal[i] * (1 - alpha) + 1;
+
+            recent[i] = decayedRecent(i, now) + 1;
+            recentAt[i] = now;
+        }
+
+        private void grow() {
+            boolean[] oldUsed = used;
+            long[] oldHi = hi;
+            long[] oldLo = lo;
+            int[] oldCat = cat;
+            String[] oldCategory = category;
+            int[] oldCount = count;
+            double[] oldMean = mean;
+            double[] oldVar = var;
+            float[] oldFreq = freq;
+            double[] oldFreqTotal = freqTotal;
+            double[] oldRecent = recent;
+            long[] oldRecentAt = recentAt;
+            long[] oldFirstSeen = firstSeen;
+            long[] oldLastAlert = lastAlert;
+
+            allocate(oldUsed.length * 2);
+            int mask = used.length - 1;
+            for (int j = 0; j < oldUsed.length; j++) {
+                if (!oldUsed[j]) {
+                    continue;
+                }
+                int i = (int) hash(oldHi[j], oldLo[j], oldCat[j]) & mask;
+                while (used[i]) {
+                    i = (i + 1) & mask;
+                }
+                used[i] = true;
+                hi[i] = oldHi[j];
+                lo[i] = oldLo[j];
+                cat[i] = oldCat[j];
+                category[i] = oldCategory[j];
+                count[i] = oldCount[j];
+                mean[i] = oldMean[j];
+                var[i] = oldVar[j];
+                System.arraycopy(oldFreq, j * AMOUNT_BUCKETS, freq, i * AMOUNT_BUCKETS, AMOUNT_BUCKETS);
+                freqTotal[i] = oldFreqTotal[j];
+                recent[i] = oldRecent[j];
+                recentAt[i] = oldRecentAt[j];
+                firstSeen[i] = oldFirstSeen[j];
+                lastAlert[i] = oldLastAlert[j];
+            }
+        }
+
+        byte[] toBytes() {
+            int entryBytes = 8 + 8 + 2 + 4 + 8 + 8 + 8 + 8 + 8 + 8 + 8 + AMOUNT_BUCKETS * 4;
+            byte[][] names = new byte[used.length][];
+            int length = 8;
+            for (int i = 0; i < used.length; i++) {
+                if (used[i]) {
+                    names[i] = category[i].getBytes(StandardCharsets.UTF_8);
+                    length += entryBytes + names[i].length;
+                }
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            buffer.putInt(FORMAT_VERSION).putInt(size);
+            for (int i = 0; i < used.length; i++) {
+                if (!used[i]) {
+                    continue;
+                }
+                buffer.putLong(hi[i]).putLong(lo[i]).putShort((short) names[i].length).put(names[i])
+                        .putInt(count[i]).putDouble(mean[i]).putDouble(var[i])
+                        .putDouble(freqTotal[i]).putDouble(recent[i])
+                        .putLong(recentAt[i]).putLong(firstSeen[i]).putLong(lastAlert[i]);
+                for (int b = 0; b < AMOUNT_BUCKETS; b++) {
+                    buffer.putFloat(freq[i * AMOUNT_BUCKETS + b]);
+                }
+            }
+            return buffer.array();
+        }
+
+        void read(int i, ByteBuffer buffer) {
+            count[i] = buffer.getInt();
+            mean[i] = buffer.getDouble();
+            var[i] = buffer.getDouble();
+            freqTotal[i] = buffer.getDouble();
+            recent[i] = buffer.getDouble();
+            recentAt[i] = buffer.getLong();
+            firstSeen[i] = buffer.getLong();
+            lastAlert[i] = buffer.getLong();
+            for (int b = 0; b < AMOUNT_BUCKETS; b++) {
+                freq[i * AMOUNT_BUCKETS + b] = buffer.getFloat();
+            }
+        }
+    }
+}
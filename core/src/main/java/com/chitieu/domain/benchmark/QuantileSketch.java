@@ -0,0 +1,188 @@
+package com.chitieu.domain.benchmark;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Mergeable quantile sketch with a fixed relative accuracy, in the style of
+ * DDSketch. Values are counted in logarithmic buckets whose bounds grow by
+ * {@code (1 + a) / (1 - a)}, so any value is known to within {@code a} of its
+ * magnitude. The bucket layout is a constant of the class, which is what makes
+ * sketches from different nodes mergeable by adding counts.
+ * <p>
+ * Counts are signed, so a value can be removed again. This lets a sketch
+ * track the latest value of each user: when a user's value changes the old
+ * one is removed and the new one added.
+ */
+public final class QuantileSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    /** Magnitudes below this are counted as zero */
+    static final double MIN_MAGNITUDE = 1e-3;
+    /** Magnitudes above this share the outermost bucket */
+    static final double MAX_MAGNITUDE = 1e9;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int BUCKETS_PER_SIGN = (int) Math.ceil(Math.log(MAX_MAGNITUDE / MIN_MAGNITUDE) / LOG_GAMMA);
+    private static final int ZERO = BUCKETS_PER_SIGN;
+    private static final int SIZE = 2 * BUCKETS_PER_SIGN + 1;
+    private static final byte FORMAT_VERSION = 1;
+
+    // Ordered by value: most negative first, zero in the middle
+    private final long[] counts = new long[SIZE];
+    private long total;
+
+    public synchronized void add(double value) {
+        counts[index(value)]++;
+        total++;
+    }
+
+    public synchronized void remove(double value) {
+        counts[index(value)]--;
+        total--;
+    }
+
+    public void merge(QuantileSketch other) {
+        long[] theirs;
+        long theirTotal;
+        synchronized (other) {
+            theirs = other.counts.clone();
+            theirTotal = other.total;
+        }
+        synchronized (this) {
+            for (int i = 0; i < SIZE; i++) {
+                counts[i] += theirs[i];
+            }
+            total += theirTotal;
+        }
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    /**
+     * Immutable rank table of the current counts, answering rank queries in
+     * constant time.
+     */
+    public synchronized Ranks freeze() {
+        long[] cumulative = new long[SIZE];
+        long running = 0;
+        for (int i = 0; i < SIZE; i++) {
+            running += counts[i];
+            cumulative[i] = running;
+        }
+        return new Ranks(cumulative, total);
+    }
+
+    /**
+     * Sparse encoding: version, total, number of non-empty buckets, then
+     * (bucket, count) pairs.
+     */
+    public synchronized byte[] toBytes() {
+        int nonEmpty = 0;
+        for (long count : counts) {
+            if (count != 0) {
+                nonEmpty++;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 4 + nonEmpty * 12);
+        buffer.put(FORMAT_VERSION).putLong(total).putInt(nonEmpty);
+        for (int i = 0; i < SIZE; i++) {
+            if (counts[i] != 0) {
+                buffer.putInt(i).putLong(counts[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported sketch format: " + version);
+        }
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.total = buffer.getLong();
+        int nonEmpty = buffer.getInt();
+        for (int i = 0; i < nonEmpty; i++) {
+            int bucket = buffer.getInt();
+            sketch.counts[bucket] = buffer.getLong();
+        }
+        return sketch;
+    }
+
+    static int index(double value) {
+        double magnitude = Math.abs(value);
+        if (!(magnitude >= MIN_MAGNITUDE)) {
+            return ZERO; // Also NaN
+        }
+        int k = (int) Math.ceil(Math.log(magnitude / MIN_MAGNITUDE) / LOG_GAMMA);
+        k = Math.max(1, Math.min(BUCKETS_PER_SIGN, k));
+        return value > 0 ? ZERO + k : ZERO - k;
+    }
+
+    /**
+     * Value within the relative accuracy of everything counted in the bucket
+     */
+    static double value(int bucket) {
+        if (bucket == ZERO) {
+            return 0;
+        }
+        int k = Math.abs(bucket - ZERO);
+        double magnitude = MIN_MAGNITUDE * Math.exp(k * LOG_GAMMA) * 2 / (1 + GAMMA);
+        return bucket > ZERO ? magnitude : -magnitude;
+    }
+
+    public static final class Ranks {
+        private final long[] cumulative;
+        private final long total;
+
+        private Ranks(long[] cumulative, long total) {
+            this.cumulative = cumulative;
+            this.total = total;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * Share of counted values below {@code value}, counting half of those
+         * in the same bucket; NaN when the sketch is empty.
+         */
+        public double rank(double value) {
+            if (total <= 0) {
+                return Double.NaN;
+            }
+            int bucket = index(value);
+            long below = bucket == 0 ? 0 : cumulative[bucket - 1];
+            long same = cumulative[bucket] - below;
+            double rank = (below + same / 2.0) / total;
+            return Math.max(0, Math.min(1, rank));
+        }
+
+        /**
+         * Smallest value with at least a {@code q} share of the counts at or
+         * below it, to within the relative accuracy; NaN when empty.
+         */
+        public double quantile(double q) {
+            if (total <= 0) {
+                return Double.NaN;
+            }
+            long target = Math.max(1, (long) Math.ceil(Math.max(0, Math.min(1, q)) * total));
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] >= target) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return value(low);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.chitieu.domain.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class CacheStats {
+    private final int size;
+    private final int maxSize;
+    private final long ttlSeconds;
+    private final long hits;
+    private final long misses;
+    private final long coalesced; // Requests that joined a load already in flight
+    private final long evictions;
+    private final long invalidations;
+}
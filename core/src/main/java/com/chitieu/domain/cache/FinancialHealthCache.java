@@ -0,0 +1,44 @@
+package com.chitieu.domain.cache;
+
+import com.chitieu.domain.event.FinancialDataChangedEvent;
+import com.chitieu.domain.model.FinancialHealthMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Per-user cache of {@link FinancialHealthMetrics}, dropped as soon as any of
+ * the user's financial data changes.
+ */
+@Component
+@Slf4j
+public class FinancialHealthCache {
+
+    private final SingleFlightCache<UUID, FinancialHealthMetrics> cache;
+
+    public FinancialHealthCache(
+            @Value("${chitieu.health-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${chitieu.health-cache.max-size:10000}") int maxSize) {
+        this.cache = new SingleFlightCache<>(ttlSeconds, TimeUnit.SECONDS, maxSize);
+    }
+
+    public FinancialHealthMetrics get(UUID userId, Function<UUID, FinancialHealthMetrics> loader) {
+        return cache.get(userId, loader);
+    }
+
+    // Runs after commit when published inside a transaction, immediately otherwise
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFinancialDataChanged(FinancialDataChangedEvent event) {
+        log.debug("Invalidating financial health cache for user: {}", event.getUserId());
+        cache.invalidate(event.getUserId());
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
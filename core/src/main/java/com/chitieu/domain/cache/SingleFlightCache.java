@@ -0,0 +1,167 @@
+package com.chitieu.domain.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded TTL cache in which concurrent misses for the same key share a single
+ * load. Invalidating a key drops both its cached value and any load in flight,
+ * so a load that started before the invalidation is never stored.
+ */
+public class SingleFlightCache<K, V> {
+
+    private final ConcurrentHashMap<K, Slot<V>> slots = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public SingleFlightCache(long ttl, TimeUnit unit, int maxSize) {
+        if (ttl <= 0 || maxSize <= 0) {
+            throw new IllegalArgumentException("TTL and max size must be positive");
+        }
+        this.ttlNanos = unit.toNanos(ttl);
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        Slot<V> current = slots.get(key);
+        if (current != null) {
+            if (!current.future.isDone()) {
+                coalesced.increment();
+                return await(current.future);
+            }
+            if (!current.isExpired(System.nanoTime())) {
+                hits.increment();
+                return await(current.future);
+            }
+        }
+
+        Slot<V> fresh = new Slot<>();
+        Slot<V> installed = slots.compute(key, (k, existing) -> existing == current ? fresh : existing);
+        if (installed != fresh) {
+            // Another caller replaced the stale slot first; share its load
+            coalesced.increment();
+            return await(installed.future);
+        }
+
+        misses.increment();
+        if (slots.size() > maxSize) {
+            evict();
+        }
+        try {
+            V value = loader.apply(key);
+            fresh.complete(value, System.nanoTime() + ttlNanos);
+            return value;
+        } catch (RuntimeException | Error e) {
+            slots.remove(key, fresh);
+            fresh.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(K key) {
+        if (slots.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+
+    public void invalidateAll() {
+        slots.clear();
+    }
+
+    public CacheStats stats() {
+        return CacheStats.builder()
+                .size(slots.size())
+                .maxSize(maxSize)
+                .ttlSeconds(TimeUnit.NANOSECONDS.toSeconds(ttlNanos))
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .coalesced(coalesced.sum())
+                .evictions(evictions.sum())
+                .invalidations(invalidations.sum())
+                .build();
+    }
+
+    /**
+     * Drops expired entries, then the oldest completed ones until the cache is
+     * back under 90% of its capacity. Loads in flight are never evicted.
+     */
+    private synchronized void evict() {
+        if (slots.size() <= maxSize) {
+            return;
+        }
+        long now = System.nanoTime();
+        List<Map.Entry<K, Slot<V>>> completed = new ArrayList<>();
+        for (Map.Entry<K, Slot<V>> entry : slots.entrySet()) {
+            Slot<V> slot = entry.getValue();
+            if (!slot.future.isDone()) {
+                continue;
+            }
+            if (slot.isExpired(now)) {
+                remove(entry);
+            } else {
+                completed.add(entry);
+            }
+        }
+
+        int target = Math.max(1, maxSize * 9 / 10);
+        if (slots.size() <= target) {
+            return;
+        }
+        completed.sort(Comparator.comparingLong(e -> e.getValue().expiresAt));
+        for (Map.Entry<K, Slot<V>> entry : completed) {
+            if (slots.size() <= target) {
+                break;
+            }
+            remove(entry);
+        }
+    }
+
+    private void remove(Map.Entry<K, Slot<V>> entry) {
+        if (slots.remove(entry.getKey(), entry.getValue())) {
+            evictions.increment();
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Slot<V> {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        volatile long expiresAt;
+
+        void complete(V value, long expiresAt) {
+            this.expiresAt = expiresAt;
+            future.complete(value);
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
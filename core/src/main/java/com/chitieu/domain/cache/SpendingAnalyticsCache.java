@@ -0,0 +1,67 @@
+package com.chitieu.domain.cache;
+
+import com.chitieu.domain.event.FinancialDataChangedEvent;
+import com.chitieu.domain.model.CategorySpendingReport;
+import com.chitieu.domain.model.TimeResolution;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Category spending reports keyed by user and window. Every window of a user
+ * is dropped as soon as any of that user's financial data changes.
+ * <p>
+ * Keys carry the user's generation, which a change bumps. Dropping a user's
+ * windows is then one map update however large the cache is; the orphaned
+ * entries are never read again and leave by expiry or eviction.
+ */
+@Component
+@Slf4j
+public class SpendingAnalyticsCache {
+
+    private final SingleFlightCache<Window, CategorySpendingReport> cache;
+    private final Map<UUID, Long> generations = new ConcurrentHashMap<>();
+
+    public SpendingAnalyticsCache(
+            @Value("${chitieu.analytics-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${chitieu.analytics-cache.max-size:20000}") int maxSize) {
+        this.cache = new SingleFlightCache<>(ttlSeconds, TimeUnit.SECONDS, maxSize);
+    }
+
+    public CategorySpendingReport get(UUID userId, LocalDate from, LocalDate to, TimeResolution granularity,
+            Supplier<CategorySpendingReport> loader) {
+        long generation = generations.getOrDefault(userId, 0L);
+        return cache.get(new Window(userId, generation, from, to, granularity), window -> loader.get());
+    }
+
+    // Runs after commit when published inside a transaction, immediately otherwise
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFinancialDataChanged(FinancialDataChangedEvent event) {
+        log.debug("Invalidating spending analytics cache for user: {}", event.getUserId());
+        generations.merge(event.getUserId(), 1L, Long::sum);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Window {
+        private final UUID userId;
+        private final long generation;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final TimeResolution granularity; // null for a single period
+    }
+}
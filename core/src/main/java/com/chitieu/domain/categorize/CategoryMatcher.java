@@ -0,0 +1,273 @@
+package com.chitieu.domain.categorize;
+
+import com.chitieu.domain.model.CategoryRule;
+import com.chitieu.domain.search.SearchText;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Immutable Aho-Corasick automaton over the patterns of all category rules.
+ * One pass over a description finds every pattern in it, however many rules
+ * there are; the longest pattern found decides the category.
+ * <p>
+ * Patterns and descriptions are folded by {@link SearchText#fold}, leaving 37
+ * symbols (a-z, 0-9 and space). Both are padded with a space on each side, so
+ * patterns only match whole words: "grab" matches "GRAB*8812" but not
+ * "grabbed". Transitions are stored in flat arrays, children of a state
+ * sorted by symbol.
+ */
+public final class CategoryMatcher {
+
+    private static final int SYMBOLS = 37;
+    private static final byte[] SYMBOL = new byte[128];
+
+    static {
+        Arrays.fill(SYMBOL, (byte) -1);
+        SYMBOL[' '] = 0;
+        for (char c = 'a'; c <= 'z'; c++) {
+            SYMBOL[c] = (byte) (1 + c - 'a');
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            SYMBOL[c] = (byte) (27 + c - '0');
+        }
+    }
+
+    private final int[] rootNext; // Dense transitions of the root, 0 back to root
+    private final int[] childStart; // Children of state s are [childStart[s], childStart[s + 1])
+    private final byte[] childSymbol;
+    private final int[] childState;
+    private final int[] fail;
+    private final int[] output; // Rule ending at the state, or -1
+    private final int[] outputLink; // Nearest state on the fail chain with an output, or 0
+    private final CategoryRule[] rules;
+    private final String[] patterns; // Folded, unpadded
+    private final int[] lengths;
+
+    private CategoryMatcher(int[] rootNext, int[] childStart, byte[] childSymbol, int[] childState, int[] fail,
+            int[] output, int[] outputLink, CategoryRule[] rules, String[] patterns, int[] lengths) {
+        this.rootNext = rootNext;
+        this.childStart = childStart;
+        this.childSymbol = childSymbol;
+        this.childState = childState;
+        this.fail = fail;
+        this.output = output;
+        this.outputLink = outputLink;
+        this.rules = rules;
+        this.patterns = patterns;
+        this.lengths = lengths;
+    }
+
+    /**
+     * Compiles the enabled rules. Rules whose pattern folds to nothing are
+     * skipped and described in {@code errors}; of rules with the same folded
+     * pattern the last one wins.
+     */
+    public static CategoryMatcher compile(List<CategoryRule> rules, List<String> errors) {
+        Trie trie = new Trie();
+        CategoryRule[] kept = new CategoryRule[rules.size()];
+        String[] folded = new String[rules.size()];
+        int count = 0;
+        for (CategoryRule rule : rules) {
+            if (!rule.isEnabled()) {
+                continue;
+            }
+            String pattern = SearchText.fold(rule.getPattern());
+            if (pattern.isEmpty() || rule.getCategory() == null || rule.getCategory().isBlank()) {
+                errors.add(rule.getId() + ": empty pattern or category");
+                continue;
+            }
+            int state = trie.insert(" " + pattern + " ");
+            int previous = trie.output[state];
+            if (previous >= 0) {
+                kept[previous] = rule;
+            } else {
+                trie.output[state] = count;
+                kept[count] = rule;
+                folded[count] = pattern;
+                count++;
+            }
+        }
+        int[] lengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            lengths[i] = folded[i].length();
+        }
+        return trie.compile(Arrays.copyOf(kept, count), Arrays.copyOf(folded, count), lengths);
+    }
+
+    /**
+     * Index of the rule with the longest pattern in the folded text, or -1
+     */
+    public int match(String folded) {
+        int best = -1;
+        int state = step(0, 0);
+        int length = folded.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? folded.charAt(i) : ' ';
+            int symbol = c < 128 ? SYMBOL[c] : -1;
+            if (symbol < 0) {
+                // Not produced by fold; treat as a word break
+                symbol = 0;
+            }
+            state = step(state, symbol);
+            for (int s = output[state] >= 0 ? state : outputLink[state]; s != 0; s = outputLink[s]) {
+                int rule = output[s];
+                if (best < 0 || lengths[rule] > lengths[best]) {
+                    best = rule;
+                }
+            }
+        }
+        return best;
+    }
+
+    public CategoryRule rule(int index) {
+        return rules[index];
+    }
+
+    /**
+     * Folded pattern of the rule, which identifies the merchant it matched
+     */
+    public String pattern(int index) {
+        return patterns[index];
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    public int states() {
+        return fail.length;
+    }
+
+    private int step(int state, int symbol) {
+        while (state != 0) {
+            int next = child(state, symbol);
+            if (next >= 0) {
+                return next;
+            }
+            state = fail[state];
+        }
+        return rootNext[symbol];
+    }
+
+    private int child(int state, int symbol) {
+        for (int i = childStart[state], end = childStart[state + 1]; i < end; i++) {
+            int s = childSymbol[i];
+            if (s == symbol) {
+                return childState[i];
+            }
+            if (s > symbol) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Growable trie with first-child/next-sibling links, only used while
+     * compiling
+     */
+    private static final class Trie {
+        int size = 1;
+        int[] firstChild = new int[1024];
+        int[] nextSibling = new int[1024];
+        byte[] symbol = new byte[1024];
+        int[] output = new int[1024];
+
+        Trie() {
+            Arrays.fill(firstChild, -1);
+            Arrays.fill(nextSibling, -1);
+            Arrays.fill(output, -1);
+        }
+
+        int insert(String padded) {
+            int state = 0;
+            for (int i = 0; i < padded.length(); i++) {
+                byte s = SYMBOL[padded.charAt(i)];
+                int child = firstChild[state];
+                while (child >= 0 && symbol[child] != s) {
+                    child = nextSibling[child];
+                }
+                if (child < 0) {
+                    child = add(s);
+                    nextSibling[child] = firstChild[state];
+                    firstChild[state] = child;
+                }
+                state = child;
+            }
+            return state;
+        }
+
+        private int add(byte s) {
+            if (size == firstChild.length) {
+                int capacity = size * 2;
+                firstChild = grow(firstChild, capacity);
+                nextSibling = grow(nextSibling, capacity);
+                output = grow(output, capacity);
+                symbol = Arrays.copyOf(symbol, capacity);
+            }
+            symbol[size] = s;
+            return size++;
+        }
+
+        private static int[] grow(int[] array, int capacity) {
+            int[] grown = Arrays.copyOf(array, capacity);
+            Arrays.fill(grown, array.length, capacity, -1);
+            return grown;
+        }
+
+        CategoryMatcher compile(CategoryRule[] rules, String[] patterns, int[] lengths) {
+            // Flatten children, sorted by symbol
+            int[] childStart = new int[size + 1];
+            byte[] childSymbol = new byte[Math.max(0, size - 1)];
+            int[] childState = new int[Math.max(0, size - 1)];
+            int edges = 0;
+            int[] bySymbol = new int[SYMBOLS];
+            for (int state = 0; state < size; state++) {
+                childStart[state] = edges;
+                Arrays.fill(bySymbol, -1);
+                for (int child = firstChild[state]; child >= 0; child = nextSibling[child]) {
+                    bySymbol[symbol[child]] = child;
+                }
+                for (int s = 0; s < SYMBOLS; s++) {
+                    if (bySymbol[s] >= 0) {
+                        childSymbol[edges] = (byte) s;
+                        childState[edges] = bySymbol[s];
+                        edges++;
+                    }
+                }
+            }
+            childStart[size] = edges;
+
+            int[] rootNext = new int[SYMBOLS];
+            for (int i = childStart[0]; i < childStart[1]; i++) {
+                rootNext[childSymbol[i]] = childState[i];
+            }
+
+            int[] fail = new int[size];
+            int[] outputLink = new int[size];
+            int[] stateOutput = Arrays.copyOf(output, size);
+            CategoryMatcher matcher = new CategoryMatcher(rootNext, childStart, childSymbol, childState, fail,
+                    stateOutput, outputLink, rules, patterns, lengths);
+
+            // Breadth first, so a state's fail target is final before its children's
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int i = childStart[0]; i < childStart[1]; i++) {
+                queue.add(childState[i]);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (int i = childStart[state]; i < childStart[state + 1]; i++) {
+                    int child = childState[i];
+                    int target = matcher.step(fail[state], childSymbol[i]);
+                    fail[child] = target;
+                    outputLink[child] = stateOutput[target] >= 0 ? target : outputLink[target];
+                    queue.add(child);
+                }
+            }
+            return matcher;
+        }
+    }
+}
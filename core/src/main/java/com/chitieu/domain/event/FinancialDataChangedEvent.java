@@ -0,0 +1,16 @@
+package com.chitieu.domain.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a user's transactions, account balances or debts change,
+ * so that derived views of that user's finances can be dropped.
+ */
+@Getter
+@RequiredArgsConstructor
+public class FinancialDataChangedEvent {
+    private final UUID userId;
+}
@@ -0,0 +1,109 @@
+package com.chitieu.domain.finance;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable matrix of cross rates between every pair of known currencies,
+ * built once from each currency's rate to the base currency. Converting is a
+ * map lookup per currency and one multiplication.
+ * <p>
+ * A currency without a rate cannot be converted; callers leave such amounts
+ * out of their totals, as the SQL aggregates that join the rates table do.
+ */
+public final class ExchangeRates {
+
+    private final String baseCurrency;
+    private final Map<String, Integer> index;
+    private final BigDecimal[][] cross; // cross[from][to], units of to per unit of from
+    private final Map<String, BigDecimal> ratesToBase;
+    private final LocalDateTime loadedAt;
+
+    private ExchangeRates(String baseCurrency, Map<String, Integer> index, BigDecimal[][] cross,
+            Map<String, BigDecimal> ratesToBase, LocalDateTime loadedAt) {
+        this.baseCurrency = baseCurrency;
+        this.index = index;
+        this.cross = cross;
+        this.ratesToBase = ratesToBase;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * @param ratesToBase units of the base currency per unit of each currency;
+     *                    non-positive rates are ignored and the base
+     *                    currency's own rate is always 1
+     */
+    public static ExchangeRates of(String baseCurrency, Map<String, BigDecimal> ratesToBase) {
+        Map<String, BigDecimal> rates = new TreeMap<>();
+        ratesToBase.forEach((currency, rate) -> {
+            if (currency != null && rate != null && rate.signum() > 0) {
+                rates.put(currency, rate);
+            }
+        });
+        rates.put(baseCurrency, BigDecimal.ONE);
+
+        Map<String, Integer> index = new HashMap<>();
+        BigDecimal[] toBase = new BigDecimal[rates.size()];
+        for (Map.Entry<String, BigDecimal> rate : rates.entrySet()) {
+            toBase[index.size()] = rate.getValue();
+            index.put(rate.getKey(), index.size());
+        }
+        BigDecimal[][] cross = new BigDecimal[toBase.length][toBase.length];
+        for (int from = 0; from < toBase.length; from++) {
+            for (int to = 0; to < toBase.length; to++) {
+                cross[from][to] = from == to ? BigDecimal.ONE : toBase[from].divide(toBase[to], MathContext.DECIMAL64);
+            }
+        }
+        return new ExchangeRates(baseCurrency, index, cross, Collections.unmodifiableMap(rates),
+                LocalDateTime.now());
+    }
+
+    /**
+     * The amount in {@code to}, rounded to {@link Money#SCALE} decimals. Null
+     * currencies are taken as the base currency.
+     *
+     * @throws IllegalArgumentException if either currency has no rate
+     */
+    public BigDecimal convert(BigDecimal amount, String from, String to) {
+        String source = from != null ? from : baseCurrency;
+        String target = to != null ? to : baseCurrency;
+        if (amount == null || amount.signum() == 0 || source.equals(target)) {
+            return amount;
+        }
+        BigDecimal rate = cross[indexOf(source)][indexOf(target)];
+        return rate == BigDecimal.ONE ? amount : amount.multiply(rate).setScale(Money.SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    public boolean supports(String currency) {
+        return index.containsKey(currency);
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    /**
+     * Units of the base currency per unit of each known currency
+     */
+    public Map<String, BigDecimal> getRatesToBase() {
+        return ratesToBase;
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    private int indexOf(String currency) {
+        Integer i = index.get(currency);
+        if (i == null) {
+            throw new IllegalArgumentException("No exchange rate for " + currency);
+        }
+        return i;
+    }
+}
@@ -0,0 +1,184 @@
+package com.chitieu.domain.finance;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Closed-form inversion of the monthly-compounding annuity used for the
+ * years-to-financial-freedom estimate.
+ * <p>
+ * After n months a balance C with monthly savings S and monthly rate r grows to
+ * {@code C(1+r)^n + S((1+r)^n - 1)/r}. Solving for the first n that reaches the
+ * target T gives {@code n = ceil(ln((T + S/r) / (C + S/r)) / ln(1+r))}, which is
+ * evaluated in double precision and then confirmed with BigDecimal so that the
+ * result matches month-by-month compounding exactly.
+ */
+public final class FinancialFreedomSolver {
+
+    /** Horizon cap: 100 years */
+    public static final int MAX_MONTHS = 1200;
+
+    private static final BigDecimal MONTHS_PER_YEAR = BigDecimal.valueOf(12);
+    private static final BigDecimal NOT_REACHABLE = BigDecimal.valueOf(-1);
+    private static final MathContext PRECISION = MathContext.DECIMAL128;
+    // Rounding error allowed on a month count or a six-place rate before it is settled exactly
+    private static final double SETTLE_TOLERANCE = 1e-6;
+
+    private FinancialFreedomSolver() {
+    }
+
+    /**
+     * Years until {@code current} reaches {@code target}, rounded to one decimal.
+     * Returns -1 when there are no savings and 0 when the target is already met.
+     */
+    public static BigDecimal yearsToTarget(BigDecimal current, BigDecimal target, BigDecimal monthlySavings,
+            BigDecimal annualReturn) {
+        if (monthlySavings.signum() <= 0) {
+            return NOT_REACHABLE;
+        }
+        if (current.compareTo(target) >= 0) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal monthlyRate = monthlyRate(annualReturn);
+        int months = monthsToTarget(current, target, monthlySavings, monthlyRate);
+        return BigDecimal.valueOf(months).divide(MONTHS_PER_YEAR, 1, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * First month in [1, {@link #MAX_MONTHS}] at which the balance reaches the
+     * target, or {@link #MAX_MONTHS} if it never does within the horizon.
+     * Expects {@code current < target} and positive savings.
+     */
+    public static int monthsToTarget(BigDecimal current, BigDecimal target, BigDecimal monthlySavings,
+            BigDecimal monthlyRate) {
+        int estimate = estimateMonths(current.doubleValue(), target.doubleValue(),
+                monthlySavings.doubleValue(), monthlyRate.doubleValue());
+        if (estimate >= MAX_MONTHS && !reaches(current, target, monthlySavings, monthlyRate, MAX_MONTHS)) {
+            return MAX_MONTHS;
+        }
+
+        // The double estimate can be off by one month around exact ties; settle it exactly
+        int months = Math.max(1, Math.min(MAX_MONTHS, estimate));
+        while (months > 1 && reaches(current, target, monthlySavings, monthlyRate, months - 1)) {
+            months--;
+        }
+        while (months < MAX_MONTHS && !reaches(current, target, monthlySavings, monthlyRate, months)) {
+            months++;
+        }
+        return months;
+    }
+
+    /**
+     * Batch form for what-if sliders: evaluates each (current, target, savings,
+     * annual return) scenario in double precision, with the same -1 / 0 / capped
+     * conventions as {@link #yearsToTarget}. Results are years, unrounded to the month.
+     * <p>
+     * A scenario only falls back to compounding when its estimate lies within
+     * rounding error of a whole month, and only to BigDecimal when its monthly
+     * rate is a rounding tie, so a slider sweep allocates nothing per scenario.
+     */
+    public static double[] yearsToTarget(double[] current, double[] target, double[] monthlySavings,
+            double[] annualReturn) {
+        int n = current.length;
+        if (target.length != n || monthlySavings.length != n || annualReturn.length != n) {
+            throw new IllegalArgumentException("Scenario arrays must have the same length");
+        }
+        double[] years = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (monthlySavings[i] <= 0) {
+                years[i] = -1;
+            } else if (current[i] >= target[i]) {
+                years[i] = 0;
+            } else {
+                double rate = monthlyRate(annualReturn[i]);
+                double exact = exactMonths(current[i], target[i], monthlySavings[i], rate);
+                int months;
+                if (!(exact < MAX_MONTHS)) {
+                    months = MAX_MONTHS;
+                } else {
+                    months = Math.max(1, (int) Math.ceil(exact));
+                    // Only an estimate next to a whole month can take the wrong ceiling
+                    if (Math.abs(exact - Math.rint(exact)) < SETTLE_TOLERANCE) {
+                        if (months > 1
+                                && futureValue(current[i], monthlySavings[i], rate, months - 1) >= target[i]) {
+                            months--;
+                        } else if (months < MAX_MONTHS
+                                && futureValue(current[i], monthlySavings[i], rate, months) < target[i]) {
+                            months++;
+                        }
+                    }
+                }
+                years[i] = months / 12.0;
+            }
+        }
+        return years;
+    }
+
+    public static BigDecimal monthlyRate(BigDecimal annualReturn) {
+        return annualReturn.divide(MONTHS_PER_YEAR, 6, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * {@link #monthlyRate(BigDecimal)} without the BigDecimal: the quotient
+     * rounded to six places is the same double unless it is a half-way tie,
+     * which is left to the decimal rounding
+     */
+    static double monthlyRate(double annualReturn) {
+        double micros = annualReturn / 12 * 1e6;
+        if (Math.abs(Math.abs(micros - Math.floor(micros)) - 0.5) < SETTLE_TOLERANCE) {
+            return monthlyRate(BigDecimal.valueOf(annualReturn)).doubleValue();
+        }
+        return Math.round(micros) / 1e6;
+    }
+
+    /**
+     * Double-precision estimate of the month count, clamped to {@link #MAX_MONTHS}
+     */
+    static int estimateMonths(double current, double target, double savings, double rate) {
+        double months = Math.ceil(exactMonths(current, target, savings, rate));
+        if (Double.isNaN(months) || months >= MAX_MONTHS) {
+            return MAX_MONTHS;
+        }
+        return (int) Math.max(0, months);
+    }
+
+    /**
+     * Fractional month count at which the balance meets the target; infinite
+     * or NaN when it never does
+     */
+    private static double exactMonths(double current, double target, double savings, double rate) {
+        if (rate == 0) {
+            return (target - current) / savings;
+        }
+        double floor = savings / rate;
+        double base = current + floor;
+        if (base <= 0) {
+            // Balance never grows past -S/r; only possible if the target is below that
+            return Double.POSITIVE_INFINITY;
+        }
+        return Math.log((target + floor) / base) / Math.log1p(rate);
+    }
+
+    private static boolean reaches(BigDecimal current, BigDecimal target, BigDecimal savings, BigDecimal rate,
+            int months) {
+        return futureValue(current, savings, rate, months).compareTo(target) >= 0;
+    }
+
+    private static BigDecimal futureValue(BigDecimal current, BigDecimal savings, BigDecimal rate, int months) {
+        if (rate.signum() == 0) {
+            return current.add(savings.multiply(BigDecimal.valueOf(months)));
+        }
+        BigDecimal growth = BigDecimal.ONE.add(rate).pow(months, PRECISION);
+        BigDecimal annuity = savings.multiply(growth.subtract(BigDecimal.ONE), PRECISION).divide(rate, PRECISION);
+        return current.multiply(growth, PRECISION).add(annuity, PRECISION);
+    }
+
+    private static double futureValue(double current, double savings, double rate, int months) {
+        if (rate == 0) {
+            return current + savings * months;
+        }
+        double growth = Math.pow(1 + rate, months);
+        return current * growth + savings * (growth - 1) / rate;
+    }
+}
@@ -0,0 +1,103 @@
+package com.chitieu.domain.finance;
+
+import java.math.BigDecimal;
+
+/**
+ * Amount in minor units (hundredths of a VND) backed by a {@code long}.
+ * Arithmetic throws {@link ArithmeticException} on overflow; callers that may
+ * exceed the range should use {@link MoneyAccumulator}, which falls back to
+ * {@link BigDecimal}.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long MAX_UNSCALED_AT_SCALE_0 = Long.MAX_VALUE / 100;
+    private static final long MAX_UNSCALED_AT_SCALE_1 = Long.MAX_VALUE / 10;
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Exact conversion; throws {@link ArithmeticException} if the amount has more
+     * than two decimals or does not fit in a long of minor units
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinor(toMinorUnits(amount));
+    }
+
+    /**
+     * True if {@code amount} converts to minor units without rounding or overflow
+     */
+    public static boolean isRepresentable(BigDecimal amount) {
+        int scale = amount.scale();
+        if (scale > SCALE) {
+            return amount.stripTrailingZeros().scale() <= SCALE && amount.precision() <= 18;
+        }
+        return amount.precision() - scale <= 16;
+    }
+
+    static long toMinorUnits(BigDecimal amount) {
+        int scale = amount.scale();
+        if (scale >= 0 && scale <= SCALE && amount.precision() <= 18) {
+            // Fits in a long without going through BigInteger
+            long unscaled = amount.unscaledValue().longValue();
+            if (scale == SCALE) {
+                return unscaled;
+            }
+            long max = scale == 1 ? MAX_UNSCALED_AT_SCALE_1 : MAX_UNSCALED_AT_SCALE_0;
+            if (Math.abs(unscaled) <= max) {
+                return unscaled * (scale == 1 ? 10 : 100);
+            }
+        }
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money && ((Money) o).minorUnits == minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.chitieu.domain.finance;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Mutable sum for hot aggregation loops. Amounts with at most two decimals are
+ * added as {@code long} minor units; anything else, and any sum that would
+ * overflow, spills into an exact {@link BigDecimal} remainder.
+ * <p>
+ * The result carries the largest scale among the added amounts, so it equals
+ * what a {@code reduce(BigDecimal.ZERO, BigDecimal::add)} over the same values
+ * would return. Not thread-safe.
+ */
+public final class MoneyAccumulator {
+
+    private long minorUnits;
+    private BigDecimal spill;
+    private int scale;
+
+    public MoneyAccumulator add(BigDecimal amount) {
+        if (amount == null) {
+            return this;
+        }
+        int amountScale = amount.scale();
+        if (amountScale > scale) {
+            scale = amountScale;
+        }
+        // At most 16 integer digits, so the minor-unit value cannot overflow
+        if (amountScale >= 0 && amountScale <= Money.SCALE && amount.precision() <= 16) {
+            long minor = Money.toMinorUnits(amount);
+            long sum = minorUnits + minor;
+            // Overflow iff both operands share a sign that the result does not
+            if (((minorUnits ^ sum) & (minor ^ sum)) >= 0) {
+                minorUnits = sum;
+                return this;
+            }
+        }
+        spill = spill == null ? amount : spill.add(amount);
+        return this;
+    }
+
+    public MoneyAccumulator add(Money amount) {
+        long minor = amount.getMinorUnits();
+        scale = Math.max(scale, Money.SCALE);
+        long sum = minorUnits + minor;
+        if (((minorUnits ^ sum) & (minor ^ sum)) >= 0) {
+            minorUnits = sum;
+        } else {
+            BigDecimal value = amount.toBigDecimal();
+            spill = spill == null ? value : spill.add(value);
+        }
+        return this;
+    }
+
+    public MoneyAccumulator add(MoneyAccumulator other) {
+        if (other.scale > scale) {
+            scale = other.scale;
+        }
+        long sum = minorUnits + other.minorUnits;
+        if (((minorUnits ^ sum) & (other.minorUnits ^ sum)) >= 0) {
+            minorUnits = sum;
+        } else {
+            BigDecimal value = BigDecimal.valueOf(other.minorUnits, Money.SCALE);
+            spill = spill == null ? value : spill.add(value);
+        }
+        if (other.spill != null) {
+            spill = spill == null ? other.spill : spill.add(other.spill);
+        }
+        return this;
+    }
+
+    /**
+     * True while the whole sum is held in the long; {@link #toMoney()} is then exact
+     */
+    public boolean isCompact() {
+        return spill == null;
+    }
+
+    public int signum() {
+        if (spill == null) {
+            return Long.signum(minorUnits);
+        }
+        return toBigDecimal().signum();
+    }
+
+    public Money toMoney() {
+        if (spill != null) {
+            return Money.of(toBigDecimal());
+        }
+        return Money.ofMinor(minorUnits);
+    }
+
+    public BigDecimal toBigDecimal() {
+        BigDecimal compact = BigDecimal.valueOf(minorUnits, Money.SCALE);
+        BigDecimal total = spill == null ? compact : compact.add(spill);
+        // The sum has no digits beyond the largest input scale, so this is exact
+        return total.setScale(Math.max(scale, 0), RoundingMode.UNNECESSARY);
+    }
+}
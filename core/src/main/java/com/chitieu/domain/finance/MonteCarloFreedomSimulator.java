@@ -0,0 +1,133 @@
+package com.chitieu.domain.finance;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Monte Carlo counterpart of {@link FinancialFreedomSolver}. Each path
+ * compounds the balance month by month as {@code B(1+r) + S}, with the
+ * monthly return r and savings S drawn from normal distributions.
+ * <p>
+ * Paths are split across a fork-join pool in ranges of {@link #LEAF_PATHS}.
+ * Each range owns a {@link SplittableRandom} split off its parent before
+ * forking, so a seed always reproduces the same result regardless of
+ * scheduling. Results go straight into a shared primitive array; nothing is
+ * allocated per path.
+ */
+public final class MonteCarloFreedomSimulator {
+
+    private static final int LEAF_PATHS = 256;
+    private static final double MONTHS_PER_YEAR = 12.0;
+
+    private final ForkJoinPool pool;
+
+    public MonteCarloFreedomSimulator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Months until each path reaches {@code target}: 0 if already there,
+     * {@code horizonMonths + 1} if never within the horizon. Volatilities are
+     * annual standard deviations of the return and relative ones of savings.
+     */
+    public int[] simulate(double current, double target, double monthlySavings, double annualReturn,
+            double returnVolatility, double savingsVolatility, int paths, int horizonMonths, long seed) {
+        int[] months = new int[paths];
+        if (current >= target) {
+            return months;
+        }
+        PathModel model = new PathModel(current, target, monthlySavings,
+                annualReturn / MONTHS_PER_YEAR, returnVolatility / Math.sqrt(MONTHS_PER_YEAR),
+                savingsVolatility, horizonMonths);
+        pool.invoke(new PathRange(model, months, 0, paths, new SplittableRandom(seed)));
+        return months;
+    }
+
+    /**
+     * Nearest-rank percentiles (0 < q <= 1) of a result of {@link #simulate},
+     * counted in a histogram instead of sorting.
+     */
+    public static int[] percentiles(int[] months, int horizonMonths, double... quantiles) {
+        int[] histogram = new int[horizonMonths + 2];
+        for (int m : months) {
+            histogram[m]++;
+        }
+        int[] result = new int[quantiles.length];
+        for (int q = 0; q < quantiles.length; q++) {
+            long rank = Math.max(1, (long) Math.ceil(quantiles[q] * months.length));
+            long seen = 0;
+            int m = 0;
+            while (m < histogram.length - 1 && (seen += histogram[m]) < rank) {
+                m++;
+            }
+            result[q] = m;
+        }
+        return result;
+    }
+
+    private static final class PathModel {
+        final double current;
+        final double target;
+        final double savings;
+        final double meanReturn;
+        final double returnStdDev;
+        final double savingsStdDev;
+        final int horizonMonths;
+
+        PathModel(double current, double target, double savings, double meanReturn, double returnStdDev,
+                double savingsVolatility, int horizonMonths) {
+            this.current = current;
+            this.target = target;
+            this.savings = savings;
+            this.meanReturn = meanReturn;
+            this.returnStdDev = returnStdDev;
+            this.savingsStdDev = Math.abs(savings) * savingsVolatility;
+            this.horizonMonths = horizonMonths;
+        }
+
+        int run(SplittableRandom random) {
+            double balance = current;
+            for (int month = 1; month <= horizonMonths; month++) {
+                double rate = meanReturn + returnStdDev * random.nextGaussian();
+                double saved = savingsStdDev > 0 ? savings + savingsStdDev * random.nextGaussian() : savings;
+                balance = balance * (1 + rate) + saved;
+                if (balance >= target) {
+                    return month;
+                }
+            }
+            return horizonMonths + 1;
+        }
+    }
+
+    private static final class PathRange extends RecursiveAction {
+        private final PathModel model;
+        private final int[] months;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        PathRange(PathModel model, int[] months, int from, int to, SplittableRandom random) {
+            this.model = model;
+            this.months = months;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_PATHS) {
+                for (int i = from; i < to; i++) {
+                    months[i] = model.run(random);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            // Split before forking so the streams do not depend on scheduling
+            PathRange right = new PathRange(model, months, mid, to, random.split());
+            PathRange left = new PathRange(model, months, from, mid, random);
+            invokeAll(left, right);
+        }
+    }
+}
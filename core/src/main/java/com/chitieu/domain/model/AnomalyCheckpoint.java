@@ -0,0 +1,18 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.time.LocalDateTime;
+
+/**
+ * Serialised stripe of the spending anomaly detector's state on one node
+ */
+@Getter
+@Builder
+public class AnomalyCheckpoint {
+    private final String nodeId;
+    private final int stripe;
+    private final byte[] data;
+    private final int entries;
+    private final LocalDateTime updatedAt;
+}
@@ -0,0 +1,21 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Balance of an account at the end of a day, from the entries dated up to it
+ */
+@Getter
+@Builder
+public class BalanceAsOf {
+    private final UUID accountId;
+    private final String accountName;
+    private final String currency;
+    private final LocalDate asOf;
+    private final BigDecimal balance;
+    private final long sequence; // Journal position the answer was computed at; 0 if never journaled
+}
@@ -0,0 +1,19 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Balance of an account after its first {@code sequence} journal entries
+ */
+@Getter
+@Builder
+public class BalanceCheckpoint {
+    private final UUID accountId;
+    private final long sequence;
+    private final BigDecimal balance;
+    private final LocalDateTime createdAt;
+}
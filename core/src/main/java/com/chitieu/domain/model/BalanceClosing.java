@@ -0,0 +1,19 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Balance of an account at the end of {@code closingDate}, from every entry
+ * dated up to it, including ones posted later with an earlier date
+ */
+@Getter
+@Builder
+public class BalanceClosing {
+    private final UUID accountId;
+    private final LocalDate closingDate;
+    private final BigDecimal balance;
+}
@@ -0,0 +1,16 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Builder
+public class BalanceHistory {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final TimeResolution resolution;
+    private final List<BalancePoint> points;
+    private final String currency; // Net worth only; an account's history is in its own currency
+}
@@ -0,0 +1,27 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Closing balance of one account, or of all of a user's accounts when
+ * {@code accountId} is null, over one bucket.
+ */
+@Getter
+@Builder
+public class BalanceHistoryEntry {
+    private final UUID userId;
+    private final UUID accountId;
+    private final TimeResolution resolution;
+    private final LocalDate bucketStart;
+    private final BigDecimal balance; // Last value in the bucket
+    private final BigDecimal minBalance;
+    private final BigDecimal maxBalance;
+
+    public LocalDate getBucketEnd() {
+        return resolution.bucketEnd(bucketStart);
+    }
+}
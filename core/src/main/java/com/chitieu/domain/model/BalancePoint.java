@@ -0,0 +1,15 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Builder
+public class BalancePoint {
+    private final LocalDate date; // Bucket start
+    private final BigDecimal balance;
+    private final BigDecimal minBalance;
+    private final BigDecimal maxBalance;
+}
@@ -0,0 +1,22 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of a batch job over the user table, keyed by job name. A run for
+ * the same date resumes after {@code lastUserId}.
+ */
+@Getter
+@Builder
+public class BatchCheckpoint {
+    private final String jobName;
+    private final LocalDate runDate;
+    private final UUID lastUserId;
+    private final long processedCount;
+    private final boolean completed;
+    private final LocalDateTime updatedAt;
+}
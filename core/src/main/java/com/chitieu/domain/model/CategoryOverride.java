@@ -0,0 +1,19 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Category a user chose for a merchant, learned from their own transactions
+ * and preferred over the shared rules
+ */
+@Getter
+@Builder
+public class CategoryOverride {
+    private final UUID userId;
+    private final String merchantKey;
+    private final String category;
+    private final LocalDateTime updatedAt;
+}
@@ -0,0 +1,18 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Merchant or keyword that puts a transaction in a category when its
+ * description contains {@code pattern} as whole words, ignoring case and
+ * accents
+ */
+@Getter
+@Builder
+public class CategoryRule {
+    private final String id;
+    private final String pattern;
+    private final String category;
+    private final boolean enabled;
+}
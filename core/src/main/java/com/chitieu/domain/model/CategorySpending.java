@@ -0,0 +1,20 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Expenses of one period grouped by category, largest first. Both period
+ * bounds are inclusive.
+ */
+@Getter
+@Builder
+public class CategorySpending {
+    private final LocalDate periodStart;
+    private final LocalDate periodEnd;
+    private final BigDecimal total;
+    private final Map<String, BigDecimal> categories;
+}
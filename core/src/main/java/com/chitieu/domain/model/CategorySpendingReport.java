@@ -0,0 +1,23 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Category breakdown of a user's expenses over an inclusive date range, in
+ * total and per period. Without a granularity there is a single period.
+ */
+@Getter
+@Builder
+public class CategorySpendingReport {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final TimeResolution granularity;
+    private final BigDecimal total;
+    private final Map<String, BigDecimal> categories;
+    private final List<CategorySpending> periods;
+}
@@ -0,0 +1,21 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Sum and count of a user's transactions of one type and category, as
+ * aggregated by the database. {@code periodStart} is only set by the
+ * per-period finders.
+ */
+@Getter
+@Builder
+public class CategoryTotal {
+    private final LocalDate periodStart;
+    private final String type; // INCOME, EXPENSE
+    private final String category;
+    private final BigDecimal totalAmount;
+    private final long transactionCount;
+}
@@ -18,6 +18,8 @@ public class FinancialHealthMetrics {
     private final BigDecimal totalAssets;
     private final BigDecimal totalLiabilities;
     private final NetWorthRating netWorthRating;
+    private final BigDecimal netWorthGrowthRate; // Year over year, null without history
+    private final String netWorthTrend; // UP, DOWN, STABLE
 
     // Liquidity
     private final BigDecimal liquidAssets;
@@ -45,6 +47,7 @@ public class FinancialHealthMetrics {
     private final BigDecimal financialFreedomNumber;
     private final BigDecimal currentProgress;
     private final BigDecimal yearsToFreedom;
+    private final BigDecimal monthlySavings; // 3-month average income minus expenses
     private final BigDecimal monthlyExpense;
 
     // Overall Score
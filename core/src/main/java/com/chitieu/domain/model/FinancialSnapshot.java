@@ -0,0 +1,41 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Immutable fold of a user's accounts, debts and transactions. Every
+ * financial health metric is derived from these sums.
+ */
+@Getter
+@Builder
+public class FinancialSnapshot {
+    private final UUID userId;
+    private final LocalDate asOf;
+
+    // Accounts
+    private final BigDecimal totalAssets; // Positive balances of any account
+    private final BigDecimal liquidAssets; // CASH, BANK, E_WALLET
+    private final BigDecimal creditCardDebt; // Negative CREDIT balances (absolute)
+    private final BigDecimal creditCardMinimumPayments; // 3% of credit card debt
+
+    // Debts (BORROW, ACTIVE)
+    private final BigDecimal activeLoanDebt;
+    private final BigDecimal activeLoanMonthlyPayments; // 1/12 of each loan
+
+    // Last month (inclusive of the start date)
+    private final BigDecimal incomeLastMonth;
+    private final BigDecimal needsLastMonth;
+    private final BigDecimal wantsLastMonth;
+
+    // Last 3 months
+    private final BigDecimal incomeLast3Months;
+    private final BigDecimal expensesLast3Months;
+    private final BigDecimal essentialExpensesLast3Months;
+
+    // Last 12 months
+    private final BigDecimal expensesLast12Months;
+}
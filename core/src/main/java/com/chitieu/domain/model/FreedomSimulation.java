@@ -0,0 +1,35 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Percentile bands of years to financial freedom over simulated market paths.
+ * A band is -1 when that share of paths does not reach the target within the
+ * horizon.
+ */
+@Getter
+@Builder
+public class FreedomSimulation {
+    private final UUID userId;
+
+    // Inputs
+    private final BigDecimal currentNetWorth;
+    private final BigDecimal targetAmount;
+    private final BigDecimal monthlySavings;
+    private final BigDecimal expectedAnnualReturn;
+    private final BigDecimal returnVolatility;
+    private final BigDecimal savingsVolatility;
+    private final int paths;
+    private final int horizonMonths;
+    private final long seed;
+
+    // Results
+    private final BigDecimal yearsP10;
+    private final BigDecimal yearsP50;
+    private final BigDecimal yearsP90;
+    private final BigDecimal probabilityOfFreedom; // Share of paths reaching the target, 0-1
+    private final long elapsedMillis;
+}
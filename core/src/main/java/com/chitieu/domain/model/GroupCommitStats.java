@@ -0,0 +1,23 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class GroupCommitStats {
+    private final boolean enabled;
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final long submitted;
+    private final long rejected; // Queue full or shutting down
+    private final long batches;
+    private final long committed;
+    private final long fallbackBatches; // Failed as a group and retried one by one
+    private final double batchSizeP50;
+    private final double batchSizeP99;
+    private final long maxBatchSize;
+    private final double commitMillisP50;
+    private final double commitMillisP99;
+    private final double maxCommitMillis;
+}
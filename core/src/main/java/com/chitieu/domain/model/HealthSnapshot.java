@@ -0,0 +1,31 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Compact daily record of a user's financial health, written by the nightly
+ * batch and used for growth rates and trends.
+ */
+@Getter
+@Builder
+public class HealthSnapshot {
+    private final UUID userId;
+    private final LocalDate snapshotDate;
+    private final int overallScore;
+
+    private final BigDecimal netWorth;
+    private final BigDecimal totalAssets;
+    private final BigDecimal totalLiabilities;
+    private final NetWorthRating netWorthRating;
+
+    private final BigDecimal liquidAssets;
+    private final BigDecimal liquidityMonths;
+    private final BigDecimal savingsPercent;
+    private final BigDecimal debtToIncomeRatio;
+    private final BigDecimal currentProgress; // % of FI number
+    private final BigDecimal yearsToFreedom;
+}
@@ -0,0 +1,20 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A client-supplied Idempotency-Key that has already been used, with the
+ * fingerprint of the request it was first sent with and what it produced.
+ */
+@Getter
+@Builder
+public class IdempotencyRecord {
+    private final UUID userId;
+    private final String key;
+    private final String requestHash;
+    private final UUID transactionId;
+    private final LocalDateTime createdAt;
+}
@@ -0,0 +1,28 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One leg of a journal. The amounts of all legs sharing a journal id sum to
+ * zero; a positive amount on an ACCOUNT leg raises the account's balance.
+ */
+@Getter
+@Builder
+public class JournalEntry {
+    private final UUID id;
+    private final UUID journalId;
+    private final UUID userId;
+    private final UUID accountId; // Null on nominal ledgers
+    private final LedgerAccount ledger;
+    private final BigDecimal amount;
+    private final Long sequence; // Position in the account's journal, from 1; null on nominal ledgers
+    private final JournalKind kind;
+    private final String memo;
+    private final LocalDate effectiveDate; // Value date, e.g. the transaction's date; may be in the past
+    private final LocalDateTime createdAt;
+}
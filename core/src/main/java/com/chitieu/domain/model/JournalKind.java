@@ -0,0 +1,8 @@
+package com.chitieu.domain.model;
+
+public enum JournalKind {
+    TRANSACTION, // Income or expense recorded against an account
+    TRANSFER, // Between two of the user's accounts
+    OPENING_BALANCE, // Balance given when the account was created
+    ADJUSTMENT // Balance set by hand on an existing account
+}
@@ -0,0 +1,13 @@
+package com.chitieu.domain.model;
+
+/**
+ * Side of a journal entry. ACCOUNT entries move a user's account; the
+ * nominal ledgers stand for the world outside the user's accounts so that
+ * every journal balances to zero.
+ */
+public enum LedgerAccount {
+    ACCOUNT,
+    INCOME,
+    EXPENSE,
+    EQUITY // Opening balances and manual adjustments
+}
@@ -0,0 +1,16 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+
+/**
+ * Cached balance of an account together with the number of journal entries
+ * it reflects
+ */
+@Getter
+@Builder
+public class LedgerBalance {
+    private final BigDecimal balance;
+    private final long sequence;
+}
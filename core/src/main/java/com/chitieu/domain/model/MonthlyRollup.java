@@ -0,0 +1,18 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class MonthlyRollup {
+    private final UUID userId;
+    private final YearMonth month;
+    private final String type; // INCOME, EXPENSE
+    private final String category;
+    private final BigDecimal totalAmount;
+    private final long transactionCount;
+}
@@ -0,0 +1,18 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class NetWorthAsOf {
+    private final UUID userId;
+    private final LocalDate asOf;
+    private final BigDecimal netWorth;
+    private final String currency; // Of the net worth; accounts keep their own
+    private final List<BalanceAsOf> accounts;
+}
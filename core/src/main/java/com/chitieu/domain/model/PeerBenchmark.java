@@ -0,0 +1,19 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+
+/**
+ * Where a user's metric stands among a cohort of users, e.g. "better than
+ * 72% of users"
+ */
+@Getter
+@Builder
+public class PeerBenchmark {
+    private final PeerMetric metric;
+    private final String cohort; // ALL or NET_WORTH_<rating>
+    private final BigDecimal value;
+    private final BigDecimal betterThanPercent; // 0-100
+    private final long sampleSize;
+}
@@ -0,0 +1,30 @@
+package com.chitieu.domain.model;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/**
+ * Health metrics benchmarked against other users
+ */
+public enum PeerMetric {
+    SAVINGS_PERCENT(HealthSnapshot::getSavingsPercent, true),
+    LIQUIDITY_MONTHS(HealthSnapshot::getLiquidityMonths, true),
+    DEBT_TO_INCOME_RATIO(HealthSnapshot::getDebtToIncomeRatio, false),
+    OVERALL_SCORE(s -> BigDecimal.valueOf(s.getOverallScore()), true);
+
+    private final Function<HealthSnapshot, BigDecimal> extractor;
+    private final boolean higherIsBetter;
+
+    PeerMetric(Function<HealthSnapshot, BigDecimal> extractor, boolean higherIsBetter) {
+        this.extractor = extractor;
+        this.higherIsBetter = higherIsBetter;
+    }
+
+    public BigDecimal valueOf(HealthSnapshot snapshot) {
+        return extractor.apply(snapshot);
+    }
+
+    public boolean isHigherBetter() {
+        return higherIsBetter;
+    }
+}
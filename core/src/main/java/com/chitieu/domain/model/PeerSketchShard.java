@@ -0,0 +1,20 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.time.LocalDateTime;
+
+/**
+ * One node's serialised quantile sketch for a metric and cohort. The
+ * cohort-wide sketch is the merge of every node's shard.
+ */
+@Getter
+@Builder
+public class PeerSketchShard {
+    private final String nodeId;
+    private final PeerMetric metric;
+    private final String cohort;
+    private final byte[] data;
+    private final long sampleCount;
+    private final LocalDateTime updatedAt;
+}
@@ -0,0 +1,22 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Declarative recommendation: when {@code condition} holds over a user's
+ * facts, {@code message} is shown. Rules of a group are evaluated in
+ * ascending priority; a fallback rule only fires if no other rule of its
+ * group did.
+ */
+@Getter
+@Builder
+public class RecommendationRule {
+    private final String id;
+    private final String group; // health, spending
+    private final int priority;
+    private final String condition;
+    private final String message;
+    private final boolean fallback;
+    private final boolean enabled;
+}
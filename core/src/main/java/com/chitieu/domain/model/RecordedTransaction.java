@@ -0,0 +1,18 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class RecordedTransaction {
+    private final UUID transactionId;
+    private final Outcome outcome;
+
+    public enum Outcome {
+        CREATED,
+        REPLAYED, // Same key and request seen before; nothing was written
+        KEY_REUSED // Same key sent with a different request; nothing was written
+    }
+}
@@ -0,0 +1,26 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Template recorded as a transaction on every run of its schedule
+ */
+@Getter
+@Builder
+public class RecurringTransaction {
+    private final UUID id;
+    private final UUID userId;
+    private final UUID accountId;
+    private final BigDecimal amount;
+    private final String category;
+    private final String type; // INCOME, EXPENSE
+    private final String description;
+    private final String schedule; // Cron expression, see RecurrenceSchedule
+    private final LocalDateTime nextRunAt; // Null once the schedule has ended
+    private final LocalDateTime lastRunAt;
+    private final LocalDateTime createdAt;
+}
@@ -0,0 +1,14 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class RuleStats {
+    private final String id;
+    private final String group;
+    private final int priority;
+    private final String condition;
+    private final long hits;
+}
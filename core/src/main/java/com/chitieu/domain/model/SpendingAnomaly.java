@@ -0,0 +1,16 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class SpendingAnomaly {
+    private final UUID userId;
+    private final String category;
+    private final double amount;
+    private final SpendingAnomalyType type;
+    private final double typicalAmount; // Geometric EWMA mean of past amounts
+    private final double score; // z-score of the log amount, or the recent expense count for bursts
+}
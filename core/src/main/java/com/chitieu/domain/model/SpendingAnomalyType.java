@@ -0,0 +1,6 @@
+package com.chitieu.domain.model;
+
+public enum SpendingAnomalyType {
+    AMOUNT_SPIKE, // Far above the user's usual amount for the category
+    CATEGORY_BURST // Several expenses in a category the user only just started using
+}
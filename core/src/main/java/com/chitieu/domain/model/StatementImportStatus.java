@@ -0,0 +1,30 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress of one statement import. Counters are a point-in-time view while
+ * the job is RUNNING and final once it is COMPLETED or FAILED.
+ */
+@Getter
+@Builder
+public class StatementImportStatus {
+    private final UUID jobId;
+    private final UUID accountId;
+    private final String format;
+    private final String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private final long totalBytes;
+    private final long bytesRead;
+    private final int percentComplete;
+    private final long rowsRead;
+    private final long imported;
+    private final long duplicates;
+    private final long rejected;
+    private final List<String> errors; // First errors only, prefixed with the line or record number
+    private final Instant startedAt;
+    private final Instant finishedAt;
+}
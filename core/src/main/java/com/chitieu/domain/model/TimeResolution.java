@@ -0,0 +1,48 @@
+package com.chitieu.domain.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket sizes for balance history. Weeks start on Monday.
+ */
+public enum TimeResolution {
+    DAY, WEEK, MONTH;
+
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate bucketEnd(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> bucketStart(date).plusDays(6);
+            case MONTH -> date.with(TemporalAdjusters.lastDayOfMonth());
+        };
+    }
+
+    public LocalDate nextBucket(LocalDate bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+
+    /**
+     * Number of buckets touched by the inclusive range
+     */
+    public long bucketsBetween(LocalDate from, LocalDate to) {
+        return switch (this) {
+            case DAY -> ChronoUnit.DAYS.between(from, to) + 1;
+            case WEEK -> ChronoUnit.WEEKS.between(bucketStart(from), bucketStart(to)) + 1;
+            case MONTH -> ChronoUnit.MONTHS.between(bucketStart(from), bucketStart(to)) + 1;
+        };
+    }
+}
@@ -15,4 +15,5 @@ public class Transaction {
     private final String type; // INCOME, EXPENSE
     private final LocalDate date;
     private final UUID accountId;
+    private final String description;
 }
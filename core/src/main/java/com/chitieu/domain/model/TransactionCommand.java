@@ -0,0 +1,15 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.util.UUID;
+
+/**
+ * A transaction to record for a user, as queued by batched writers
+ */
+@Getter
+@Builder
+public class TransactionCommand {
+    private final UUID userId;
+    private final Transaction transaction;
+}
@@ -0,0 +1,24 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Optional criteria for listing a user's transactions; null or empty fields
+ * do not filter. Date and amount bounds are inclusive.
+ */
+@Getter
+@Builder
+public class TransactionFilter {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final String type;
+    private final Set<String> categories;
+    private final UUID accountId;
+    private final BigDecimal minAmount;
+    private final BigDecimal maxAmount;
+}
@@ -0,0 +1,17 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.util.List;
+
+/**
+ * One page of transactions, newest first. {@code nextCursor} is null on the
+ * last page.
+ */
+@Getter
+@Builder
+public class TransactionPage {
+    private final List<Transaction> items;
+    private final String nextCursor;
+    private final int limit;
+}
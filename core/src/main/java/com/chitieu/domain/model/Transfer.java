@@ -0,0 +1,20 @@
+package com.chitieu.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class Transfer {
+    private final UUID journalId;
+    private final UUID fromAccountId;
+    private final UUID toAccountId;
+    private final BigDecimal amount;
+    private final String note;
+    private final BigDecimal fromBalance; // After the transfer
+    private final BigDecimal toBalance;
+    private final LocalDateTime createdAt;
+}
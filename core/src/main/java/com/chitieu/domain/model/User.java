@@ -17,4 +17,5 @@ public class User {
     private String email;
     private String password;
     private String fullName;
+    private String baseCurrency; // Currency totals are reported in; the system's when null
 }
@@ -1,6 +1,7 @@
 package com.chitieu.domain.repository;
 
 import com.chitieu.domain.model.Account;
+import com.chitieu.domain.model.LedgerBalance;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,9 +11,41 @@ public interface AccountRepositoryPort {
 
     Optional<Account> findById(UUID id);
 
+    /**
+     * The balance is only written when the account is created; after that it
+     * moves through {@link #incrementBalance} alone
+     */
     Account save(Account account);
 
+    /**
+     * Adds {@code delta} to the balance and counts one more journal entry in
+     * one UPDATE ... RETURNING, so concurrent writers never lose an update
+     * and the row stays locked until the caller's transaction ends. Empty if
+     * the user has no such account.
+     */
+    Optional<LedgerBalance> incrementBalance(UUID userId, UUID accountId, java.math.BigDecimal delta);
+
+    /**
+     * Empty if the account has no journal entries yet
+     */
+    Optional<LedgerBalance> findLedgerBalance(UUID accountId);
+
+    /**
+     * Overwrites the cached balance, unless entries past {@code sequence}
+     * have been journaled since it was computed
+     */
+    boolean repairBalance(UUID accountId, long sequence, java.math.BigDecimal balance);
+
+    /**
+     * Accounts with journal entries, in id order after {@code after}
+     */
+    List<UUID> findJournaledAccountIds(UUID after, int limit);
+
     void deleteById(UUID id);
 
+    /**
+     * Each user's total across accounts, in the base currency at the stored
+     * exchange rates
+     */
     java.util.Map<UUID, java.math.BigDecimal> findTotalBalanceByUserIds(List<UUID> userIds);
 }
@@ -0,0 +1,13 @@
+package com.chitieu.domain.repository;
+
+import com.chitieu.domain.model.AnomalyCheckpoint;
+import java.util.List;
+
+public interface AnomalyCheckpointRepositoryPort {
+    List<AnomalyCheckpoint> findByNodeId(String nodeId);
+
+    /**
+     * Inserts the checkpoint or replaces the one for the same node and stripe
+     */
+    void save(AnomalyCheckpoint checkpoint);
+}
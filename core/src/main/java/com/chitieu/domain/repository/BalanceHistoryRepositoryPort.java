@@ -0,0 +1,37 @@
+package com.chitieu.domain.repository;
+
+import com.chitieu.domain.model.BalanceHistoryEntry;
+import com.chitieu.domain.model.TimeResolution;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Balance time series. A null {@code accountId} addresses the user's total
+ * across all accounts.
+ */
+public interface BalanceHistoryRepositoryPort {
+    /**
+     * Sets the day bucket of each of the user's accounts and of their total
+     * to the balances committed now, widening its min/max. Recordings of one
+     * user are serialised, so the last one written read the latest balances.
+     */
+    void recordCurrent(UUID userId, LocalDate day);
+
+    /**
+     * Entries of every resolution whose bucket starts within [from, to]
+     */
+    List<BalanceHistoryEntry> findInRange(UUID userId, UUID accountId, LocalDate from, LocalDate to);
+
+    /**
+     * Most recent entry whose bucket starts before {@code date}
+     */
+    Optional<BalanceHistoryEntry> findLatestBefore(UUID userId, UUID accountId, LocalDate date);
+
+    /**
+     * Folds {@code source} buckets that start before {@code olderThan} into
+     * {@code target} buckets and deletes them. Returns the number folded.
+     */
+    int downsample(TimeResolution source, TimeResolution target, LocalDate olderThan);
+}
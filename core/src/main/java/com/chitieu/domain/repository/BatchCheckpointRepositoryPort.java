@@ -0,0 +1,10 @@
+package com.chitieu.domain.repository;
+
+import com.chitieu.domain.model.BatchCheckpoint;
+import java.util.Optional;
+
+public interface BatchCheckpointRepositoryPort {
+    Optional<BatchCheckpoint> findByJobName(String jobName);
+
+    void save(BatchCheckpoint checkpoint);
+}
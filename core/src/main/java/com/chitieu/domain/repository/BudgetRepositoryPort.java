@@ -1,11 +1,19 @@
 package com.chitieu.domain.repository;
 
 import com.chitieu.domain.model.Budget;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface BudgetRepositoryPort {
     List<Budget> findByUserId(UUID userId);
 
     void save(Budget budget);
+
+    /**
+     * Adds {@code delta} to the spent amount of the user's budget for the
+     * category in one UPDATE ... RETURNING; empty if there is none
+     */
+    Optional<Budget> incrementSpent(UUID userId, String category, BigDecimal delta);
 }
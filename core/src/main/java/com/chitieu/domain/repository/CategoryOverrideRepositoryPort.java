@@ -0,0 +1,14 @@
+package com.chitieu.domain.repository;
+
+import com.chitieu.domain.model.CategoryOverride;
+import java.util.List;
+import java.util.UUID;
+
+public interface CategoryOverrideRepositoryPort {
+    List<CategoryOverride> findByUserId(UUID userId);
+
+    /**
+     * Inserts the override or replaces the user's one for the same merchant
+     */
+    void save(CategoryOverride override);
+}
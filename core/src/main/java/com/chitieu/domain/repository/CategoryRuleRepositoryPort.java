@@ -0,0 +1,8 @@
+package com.chitieu.domain.repository;
+
+import com.chitieu.domain.model.CategoryRule;
+import java.util.List;
+
+public interface CategoryRuleRepositoryPort {
+    List<CategoryRule> findAll();
+}
@@ -0,0 +1,21 @@
+package com.chitieu.domain.repository;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public interface ExchangeRateRepositoryPort {
+    /**
+     * Units of the base currency per unit of each currency
+     */
+    Map<String, BigDecimal> findAll();
+
+    /**
+     * Inserts the rates or replaces those of the same currencies
+     */
+    void saveAll(Map<String, BigDecimal> ratesToBase);
+
+    /**
+     * Currencies of accounts that have no rate, which every total leaves out
+     */
+    java.util.List<String> findAccountCurrenciesWithoutRate();
+}
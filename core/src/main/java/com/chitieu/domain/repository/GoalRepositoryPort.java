@@ -17,6 +17,7 @@ public interface GoalRepositoryPort {
 
     void addMember(UUID goalId, UUID userId, java.math.BigDecimal targetAmount, GoalRole role);
 
+    // Both amounts change by in-place increments, safe under concurrent contributions
     void updateContribution(UUID goalId, UUID userId, java.math.BigDecimal amount);
 
     void deductAmount(UUID goalId, java.math.BigDecimal amount);
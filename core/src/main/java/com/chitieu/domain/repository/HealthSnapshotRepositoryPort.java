@@ -0,0 +1,26 @@
+package com.chitieu.domain.repository;
+
+import com.chitieu.domain.model.HealthSnapshot;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface HealthSnapshotRepositoryPort {
+    /**
+     * Inserts the snapshot or replaces the one for the same user and date
+     */
+    void save(HealthSnapshot snapshot);
+
+    Optional<HealthSnapshot> findLatest(UUID userId);
+
+    /**
+     * Latest snapshot of each of the given users that has one
+     */
+    List<HealthSnapshot> findLatestByUserIds(Collection<UUID> userIds);
+
+    Optional<HealthSnapshot> findLatestOnOrBefore(UUID userId, LocalDate date);
+
+    List<HealthSnapshot> findByUserIdBetween(UUID userId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,23 @@
+package com.chitieu.domain.repository;
+
+import com.chitieu.domain.model.IdempotencyRecord;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface IdempotencyKeyRepositoryPort {
+    Optional<IdempotencyRecord> find(UUID userId, String key);
+
+    /**
+     * Inserts the key unless it exists, within the caller's transaction. A
+     * concurrent claim of the same key blocks on the unique index until the
+     * other transaction ends.
+     *
+     * @return true if this call inserted the key
+     */
+    boolean claim(UUID userId, String key, String requestHash);
+
+    void complete(UUID userId, String key, UUID transactionId);
+
+    int deleteCreatedBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,70 @@
+package com.chitieu.domain.repository;
+
+import com.chitieu.domain.model.BalanceCheckpoint;
+import com.chitieu.domain.model.BalanceClosing;
+import com.chitieu.domain.model.JournalEntry;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Append-only journal; entries are never updated or deleted
+ */
+public interface JournalRepositoryPort {
+    void append(List<JournalEntry> entries);
+
+    /**
+     * Newest first
+     */
+    List<JournalEntry> findByAccountId(UUID accountId, int limit);
+
+    /**
+     * Sum of the account's entries dated in (after, upTo]; a null
+     * {@code after} counts from its first entry
+     */
+    BigDecimal sumEffectiveBetween(UUID accountId, LocalDate after, LocalDate upTo);
+
+    Optional<LocalDate> findFirstEffectiveDate(UUID accountId);
+
+    /**
+     * Dates entries journaled without a value date by when they were posted;
+     * returns how many
+     */
+    int backfillEffectiveDates();
+
+    /**
+     * Sum of the account's entries with sequence in (afterSequence, upToSequence]
+     */
+    BigDecimal sumBetween(UUID accountId, long afterSequence, long upToSequence);
+
+    void saveCheckpoint(UUID accountId, long sequence, BigDecimal balance);
+
+    /**
+     * Latest checkpoint at or before {@code sequence}
+     */
+    Optional<BalanceCheckpoint> findCheckpoint(UUID accountId, long sequence);
+
+    /**
+     * Latest closing of the account at or before {@code date}
+     */
+    Optional<BalanceClosing> findClosing(UUID accountId, LocalDate date);
+
+    Optional<LocalDate> findLatestClosingDate(UUID accountId);
+
+    /**
+     * Adds a backdated entry's amount to the account's closings on or after
+     * its date. Called under the account's row lock, in the posting's DB
+     * transaction.
+     */
+    void shiftClosings(UUID accountId, LocalDate from, BigDecimal amount);
+
+    /**
+     * Stores the account's balance at the end of {@code date}: the latest
+     * closing before it, or the balance before the account's first entry,
+     * plus the entries dated since. Holds the account's row lock while
+     * summing, so a posting either is counted or shifts the new closing.
+     */
+    BalanceClosing closeBalance(UUID accountId, LocalDate date);
+}
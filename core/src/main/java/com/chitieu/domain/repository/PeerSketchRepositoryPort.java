@@ -0,0 +1,15 @@
+package com.chitieu.domain.repository;
+
+import com.chitieu.domain.model.PeerSketchShard;
+import java.util.List;
+
+public interface PeerSketchRepositoryPort {
+    List<PeerSketchShard> findAll();
+
+    List<PeerSketchShard> findByNodeId(String nodeId);
+
+    /**
+     * Inserts the shard or replaces the one for the same node, metric and cohort
+     */
+    void save(PeerSketchShard shard);
+}
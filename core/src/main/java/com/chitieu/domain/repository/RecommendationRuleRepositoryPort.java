@@ -0,0 +1,8 @@
+package com.chitieu.domain.repository;
+
+import com.chitieu.domain.model.RecommendationRule;
+import java.util.List;
+
+public interface RecommendationRuleRepositoryPort {
+    List<RecommendationRule> findAll();
+}
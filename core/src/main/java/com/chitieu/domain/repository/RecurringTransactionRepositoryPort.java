@@ -0,0 +1,34 @@
+package com.chitieu.domain.repository;
+
+import com.chitieu.domain.model.RecurringTransaction;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RecurringTransactionRepositoryPort {
+    RecurringTransaction save(RecurringTransaction recurringTransaction);
+
+    Optional<RecurringTransaction> findById(UUID id);
+
+    List<RecurringTransaction> findByUserId(UUID userId);
+
+    void deleteById(UUID id);
+
+    /**
+     * Schedules whose next run is in [from, to), ordered by next run then id
+     */
+    List<RecurringTransaction> findRunsBetween(LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * The page of {@link #findRunsBetween} that follows the given run
+     */
+    List<RecurringTransaction> findRunsAfter(LocalDateTime afterRunAt, UUID afterId, LocalDateTime to, int limit);
+
+    /**
+     * Moves the schedule from the run at {@code expectedRunAt} to
+     * {@code nextRunAt}. False if the schedule no longer has that run, e.g.
+     * because another node has already recorded it.
+     */
+    boolean advance(UUID id, LocalDateTime expectedRunAt, LocalDateTime nextRunAt);
+}
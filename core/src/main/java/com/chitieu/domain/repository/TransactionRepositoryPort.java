@@ -1,13 +1,83 @@
 package com.chitieu.domain.repository;
 
+import com.chitieu.domain.model.CategoryTotal;
+import com.chitieu.domain.model.TimeResolution;
 import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.model.TransactionCommand;
+import com.chitieu.domain.model.TransactionCursor;
+import com.chitieu.domain.model.TransactionFilter;
+import com.chitieu.domain.model.TransactionPage;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface TransactionRepositoryPort {
     List<Transaction> findByUserId(UUID userId);
 
-    void save(UUID userId, Transaction transaction);
+    /**
+     * Up to {@code limit} matching transactions after {@code after} (from the
+     * newest when null), ordered by transaction date and id descending
+     */
+    TransactionPage findPage(UUID userId, TransactionFilter filter, TransactionCursor after, int limit);
+
+    // Range finders and aggregates below: both bounds are inclusive
+    List<Transaction> findByAccountIdAndDateBetween(UUID userId, UUID accountId, LocalDate from, LocalDate to);
+
+    /**
+     * Feeds every transaction in the range to {@code sink}, oldest first, from
+     * a forward-only cursor; rows are not retained after the sink returns
+     */
+    void forEachByUserIdAndDateBetween(UUID userId, LocalDate from, LocalDate to, Consumer<Transaction> sink);
+
+    Map<String, BigDecimal> sumByCategory(UUID userId, String type, LocalDate from, LocalDate to);
+
+    List<CategoryTotal> sumByTypeAndCategory(UUID userId, LocalDate from, LocalDate to);
+
+    // One row per bucket and category; periodStart is the unclipped bucket start
+    List<CategoryTotal> sumByCategoryPerPeriod(UUID userId, String type, LocalDate from, LocalDate to,
+            TimeResolution resolution);
+
+    /**
+     * @return id of the stored transaction
+     */
+    UUID save(UUID userId, Transaction transaction);
 
     long countByUserId(UUID userId);
+
+    /**
+     * Inserts the transactions into one account as JDBC batches and folds them
+     * into the monthly rollups, all in one database transaction. Account
+     * balances and budgets are left to the caller.
+     */
+    void saveAll(UUID userId, UUID accountId, List<Transaction> transactions);
+
+    /**
+     * Inserts transactions of any users as JDBC batches with their rollup
+     * deltas; ids are returned in command order. Balances and budgets are
+     * left to the caller.
+     */
+    List<UUID> saveAll(List<TransactionCommand> commands);
+
+    /**
+     * The user's transactions whose search text matches every folded term,
+     * best match first. A term matches a word containing it, or a word close
+     * enough by trigram similarity to tolerate a typo.
+     */
+    List<Transaction> search(UUID userId, List<String> terms, int limit);
+
+    /**
+     * Creates the trigram index used by {@link #search}; fails if the
+     * database cannot provide pg_trgm and btree_gin
+     */
+    void createSearchIndex();
+
+    /**
+     * Fills the search text of up to {@code limit} rows stored without one,
+     * in id order after {@code after} (null to start). Returns the last id
+     * visited, or null once no rows remain.
+     */
+    UUID backfillSearchText(UUID after, int limit);
 }
@@ -0,0 +1,23 @@
+package com.chitieu.domain.repository;
+
+import com.chitieu.domain.model.MonthlyRollup;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+public interface TransactionRollupRepositoryPort {
+    List<MonthlyRollup> findByUserId(UUID userId);
+
+    List<MonthlyRollup> findByUserIdFromMonth(UUID userId, YearMonth fromMonth);
+
+    void increment(UUID userId, YearMonth month, String type, String category, BigDecimal amount, long count);
+
+    /**
+     * Recomputes the user's rollups from their transactions; increments for
+     * the user wait for it, or it for them, so none is lost or counted twice
+     */
+    void rebuildForUser(UUID userId);
+
+    boolean isEmpty();
+}
@@ -14,5 +14,13 @@ public interface UserRepositoryPort {
 
     List<User> findAll();
 
+    List<UUID> findAllIds();
+
+    /**
+     * Keyset page of user ids in ascending order, starting after {@code afterId}
+     * (from the beginning when null)
+     */
+    List<UUID> findIdsAfter(UUID afterId, int limit);
+
     User save(User user);
 }
@@ -0,0 +1,32 @@
+package com.chitieu.domain.rules;
+
+/**
+ * Compiled node of a rule condition. Booleans are 1 and 0; a missing fact
+ * is NaN and makes the condition false.
+ */
+@FunctionalInterface
+interface Condition {
+
+    double eval(double[] facts);
+
+    static boolean truthy(double value) {
+        return value != 0 && !Double.isNaN(value);
+    }
+
+    static Condition constant(double value) {
+        return new Constant(value);
+    }
+
+    final class Constant implements Condition {
+        private final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double eval(double[] facts) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.chitieu.domain.rules;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Fact vector laid out for one {@link RuleSet}. Facts no rule refers to are
+ * dropped on set; unset facts are missing (NaN).
+ */
+public final class Facts {
+
+    private static final double UNKNOWN_SYMBOL = -1;
+
+    private final Map<String, Integer> slots;
+    private final Map<String, Double> symbols;
+    private final double[] values;
+
+    Facts(Map<String, Integer> slots, Map<String, Double> symbols) {
+        this.slots = slots;
+        this.symbols = symbols;
+        this.values = new double[slots.size()];
+        Arrays.fill(values, Double.NaN);
+    }
+
+    public boolean isUsed(String name) {
+        return slots.containsKey(name);
+    }
+
+    public Facts set(String name, double value) {
+        Integer slot = slots.get(name);
+        if (slot != null) {
+            values[slot] = value;
+        }
+        return this;
+    }
+
+    public Facts set(String name, BigDecimal value) {
+        return value != null ? set(name, value.doubleValue()) : this;
+    }
+
+    public Facts setSymbol(String name, Object symbol) {
+        if (symbol != null) {
+            set(name, symbols.getOrDefault(symbol.toString(), UNKNOWN_SYMBOL));
+        }
+        return this;
+    }
+
+    double[] values() {
+        return values;
+    }
+}
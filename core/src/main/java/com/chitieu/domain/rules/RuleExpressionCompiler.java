@@ -0,0 +1,299 @@
+package com.chitieu.domain.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a rule condition into a tree of {@link Condition} nodes over a
+ * fact vector. Grammar:
+ *
+ * <pre>
+ * expr    := and ('or' and)*
+ * and     := not ('and' not)*
+ * not     := 'not' not | compare
+ * compare := sum (('==' | '!=' | '&lt;' | '&lt;=' | '&gt;' | '&gt;=') sum
+ *                 | 'in' '(' sum (',' sum)* ')')?
+ * sum     := product (('+' | '-') product)*
+ * product := unary (('*' | '/') unary)*
+ * unary   := '-' unary | number | 'symbol' | fact | 'true' | 'false' | '(' expr ')'
+ * </pre>
+ *
+ * Fact names such as {@code savingsPercent} or {@code category.Food} are
+ * resolved to slots of the vector once, at compile time, and quoted symbols
+ * to numeric ids, so evaluation is only array reads and arithmetic. Constant
+ * subtrees are folded.
+ */
+final class RuleExpressionCompiler {
+
+    private final Map<String, Integer> slots;
+    private final Map<String, Double> symbols;
+    private final String source;
+    private final List<String> tokens;
+    private int position;
+
+    private RuleExpressionCompiler(String source, Map<String, Integer> slots, Map<String, Double> symbols) {
+        this.source = source;
+        this.slots = slots;
+        this.symbols = symbols;
+        this.tokens = tokenize(source);
+    }
+
+    /**
+     * Compiles {@code source}, adding any new fact names and symbols to the
+     * given tables
+     */
+    static Condition compile(String source, Map<String, Integer> slots, Map<String, Double> symbols) {
+        RuleExpressionCompiler compiler = new RuleExpressionCompiler(source, slots, symbols);
+        Condition condition = compiler.parseOr();
+        if (compiler.position < compiler.tokens.size()) {
+            throw compiler.error("Unexpected '" + compiler.tokens.get(compiler.position) + "'");
+        }
+        return condition;
+    }
+
+    private Condition parseOr() {
+        Condition left = parseAnd();
+        while (accept("or")) {
+            Condition l = left;
+            Condition r = parseAnd();
+            left = fold(f -> Condition.truthy(l.eval(f)) || Condition.truthy(r.eval(f)) ? 1 : 0, l, r);
+        }
+        return left;
+    }
+
+    private Condition parseAnd() {
+        Condition left = parseNot();
+        while (accept("and")) {
+            Condition l = left;
+            Condition r = parseNot();
+            left = fold(f -> Condition.truthy(l.eval(f)) && Condition.truthy(r.eval(f)) ? 1 : 0, l, r);
+        }
+        return left;
+    }
+
+    private Condition parseNot() {
+        if (accept("not")) {
+            Condition operand = parseNot();
+            return fold(f -> Condition.truthy(operand.eval(f)) ? 0 : 1, operand);
+        }
+        return parseCompare();
+    }
+
+    // Any comparison involving a missing fact (NaN) is false
+    private Condition parseCompare() {
+        Condition l = parseSum();
+        if (accept("in")) {
+            expect("(");
+            List<Condition> options = new ArrayList<>();
+            do {
+                options.add(parseSum());
+            } while (accept(","));
+            expect(")");
+            Condition[] values = options.toArray(new Condition[0]);
+            return fold(f -> {
+                double v = l.eval(f);
+                for (Condition option : values) {
+                    if (v == option.eval(f)) {
+                        return 1;
+                    }
+                }
+                return 0;
+            }, append(l, values));
+        }
+        String op = peek();
+        if (op == null) {
+            return l;
+        }
+        switch (op) {
+            case "==": {
+                position++;
+                Condition r = parseSum();
+                return fold(f -> l.eval(f) == r.eval(f) ? 1 : 0, l, r);
+            }
+            case "!=": {
+                position++;
+                Condition r = parseSum();
+                return fold(f -> {
+                    double a = l.eval(f);
+                    double b = r.eval(f);
+                    return a == a && b == b && a != b ? 1 : 0;
+                }, l, r);
+            }
+            case "<": {
+                position++;
+                Condition r = parseSum();
+                return fold(f -> l.eval(f) < r.eval(f) ? 1 : 0, l, r);
+            }
+            case "<=": {
+                position++;
+                Condition r = parseSum();
+                return fold(f -> l.eval(f) <= r.eval(f) ? 1 : 0, l, r);
+            }
+            case ">": {
+                position++;
+                Condition r = parseSum();
+                return fold(f -> l.eval(f) > r.eval(f) ? 1 : 0, l, r);
+            }
+            case ">=": {
+                position++;
+                Condition r = parseSum();
+                return fold(f -> l.eval(f) >= r.eval(f) ? 1 : 0, l, r);
+            }
+            default:
+                return l;
+        }
+    }
+
+    private Condition parseSum() {
+        Condition left = parseProduct();
+        while (true) {
+            Condition l = left;
+            if (accept("+")) {
+                Condition r = parseProduct();
+                left = fold(f -> l.eval(f) + r.eval(f), l, r);
+            } else if (accept("-")) {
+                Condition r = parseProduct();
+                left = fold(f -> l.eval(f) - r.eval(f), l, r);
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Condition parseProduct() {
+        Condition left = parseUnary();
+        while (true) {
+            Condition l = left;
+            if (accept("*")) {
+                Condition r = parseUnary();
+                left = fold(f -> l.eval(f) * r.eval(f), l, r);
+            } else if (accept("/")) {
+                Condition r = parseUnary();
+                // Division by zero yields a missing value rather than infinity
+                left = fold(f -> {
+                    double d = r.eval(f);
+                    return d == 0 ? Double.NaN : l.eval(f) / d;
+                }, l, r);
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Condition parseUnary() {
+        if (accept("-")) {
+            Condition operand = parseUnary();
+            return fold(f -> -operand.eval(f), operand);
+        }
+        if (accept("(")) {
+            Condition inner = parseOr();
+            expect(")");
+            return inner;
+        }
+        String token = peek();
+        if (token == null) {
+            throw error("Unexpected end of condition");
+        }
+        position++;
+        if (token.equals("true") || token.equals("false")) {
+            return Condition.constant(token.equals("true") ? 1 : 0);
+        }
+        if (token.charAt(0) == '\'') {
+            String symbol = token.substring(1, token.length() - 1);
+            return Condition.constant(symbols.computeIfAbsent(symbol, s -> (double) (symbols.size() + 1)));
+        }
+        char first = token.charAt(0);
+        if (Character.isDigit(first) || first == '.') {
+            try {
+                return Condition.constant(Double.parseDouble(token));
+            } catch (NumberFormatException e) {
+                throw error("Invalid number '" + token + "'");
+            }
+        }
+        if (Character.isLetter(first) || first == '_') {
+            int slot = slots.computeIfAbsent(token, name -> slots.size());
+            return f -> f[slot];
+        }
+        throw error("Unexpected '" + token + "'");
+    }
+
+    private static Condition fold(Condition node, Condition... operands) {
+        for (Condition operand : operands) {
+            if (!(operand instanceof Condition.Constant)) {
+                return node;
+            }
+        }
+        return Condition.constant(node.eval(new double[0]));
+    }
+
+    private static Condition[] append(Condition first, Condition[] rest) {
+        Condition[] all = new Condition[rest.length + 1];
+        all[0] = first;
+        System.arraycopy(rest, 0, all, 1, rest.length);
+        return all;
+    }
+
+    private String peek() {
+        return position < tokens.size() ? tokens.get(position) : null;
+    }
+
+    private boolean accept(String token) {
+        if (token.equals(peek())) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) {
+        if (!accept(token)) {
+            throw error("Expected '" + token + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " in condition: " + source);
+    }
+
+    private static List<String> tokenize(String source) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        int n = source.length();
+        while (i < n) {
+            char c = source.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'') {
+                int end = source.indexOf('\'', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated symbol in condition: " + source);
+                }
+                tokens.add(source.substring(i, end + 1));
+                i = end + 1;
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < n && Character.isDigit(source.charAt(i + 1)))) {
+                int start = i;
+                while (i < n && (Character.isDigit(source.charAt(i)) || source.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(source.substring(start, i));
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < n && (Character.isLetterOrDigit(source.charAt(i)) || source.charAt(i) == '_'
+                        || source.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(source.substring(start, i));
+            } else if ((c == '=' || c == '!' || c == '<' || c == '>') && i + 1 < n && source.charAt(i + 1) == '=') {
+                tokens.add(source.substring(i, i + 2));
+                i += 2;
+            } else if ("<>+-*/(),".indexOf(c) >= 0) {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else {
+                throw new IllegalArgumentException("Unexpected '" + c + "' in condition: " + source);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,141 @@
+package com.chitieu.domain.rules;
+
+import com.chitieu.domain.model.RecommendationRule;
+import com.chitieu.domain.model.RuleStats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Immutable set of compiled rules sharing one fact layout. Conditions are
+ * compiled once; evaluating a group walks a priority-ordered array of
+ * condition trees over a primitive fact vector.
+ */
+public final class RuleSet {
+
+    private final Map<String, Integer> slots;
+    private final Map<String, Double> symbols;
+    private final Map<String, CompiledRule[]> groups;
+
+    private RuleSet(Map<String, Integer> slots, Map<String, Double> symbols, Map<String, CompiledRule[]> groups) {
+        this.slots = slots;
+        this.symbols = symbols;
+        this.groups = groups;
+    }
+
+    /**
+     * Compiles the enabled rules. Rules that fail to compile are skipped and
+     * described in {@code errors}. Hit counters of rules with the same id in
+     * {@code previous} carry over.
+     */
+    public static RuleSet compile(List<RecommendationRule> rules, RuleSet previous, List<String> errors) {
+        Map<String, Integer> slots = new HashMap<>();
+        Map<String, Double> symbols = new HashMap<>();
+        Map<String, List<CompiledRule>> byGroup = new HashMap<>();
+
+        for (RecommendationRule rule : rules) {
+            if (!rule.isEnabled()) {
+                continue;
+            }
+            try {
+                Condition condition = RuleExpressionCompiler.compile(rule.getCondition(), slots, symbols);
+                LongAdder hits = previous != null ? previous.hitsOf(rule.getId()) : null;
+                byGroup.computeIfAbsent(rule.getGroup(), g -> new ArrayList<>())
+                        .add(new CompiledRule(rule, condition, hits != null ? hits : new LongAdder()));
+            } catch (IllegalArgumentException e) {
+                errors.add(rule.getId() + ": " + e.getMessage());
+            }
+        }
+
+        Map<String, CompiledRule[]> groups = new HashMap<>();
+        byGroup.forEach((group, compiled) -> {
+            compiled.sort(Comparator.comparingInt((CompiledRule r) -> r.rule.getPriority())
+                    .thenComparing(r -> r.rule.getId()));
+            groups.put(group, compiled.toArray(new CompiledRule[0]));
+        });
+        return new RuleSet(slots, symbols, groups);
+    }
+
+    public Facts newFacts() {
+        return new Facts(slots, symbols);
+    }
+
+    /**
+     * Messages of the matching rules of {@code group} in priority order, or
+     * of its fallback rules if none match. With {@code firstOnly} evaluation
+     * stops at the first match.
+     */
+    public List<String> evaluate(String group, Facts facts, boolean firstOnly) {
+        CompiledRule[] rules = groups.get(group);
+        List<String> messages = new ArrayList<>();
+        if (rules == null) {
+            return messages;
+        }
+        double[] values = facts.values();
+        for (CompiledRule rule : rules) {
+            if (!rule.rule.isFallback() && Condition.truthy(rule.condition.eval(values))) {
+                rule.hits.increment();
+                messages.add(rule.rule.getMessage());
+                if (firstOnly) {
+                    return messages;
+                }
+            }
+        }
+        if (messages.isEmpty()) {
+            for (CompiledRule rule : rules) {
+                if (rule.rule.isFallback() && Condition.truthy(rule.condition.eval(values))) {
+                    rule.hits.increment();
+                    messages.add(rule.rule.getMessage());
+                    if (firstOnly) {
+                        break;
+                    }
+                }
+            }
+        }
+        return messages;
+    }
+
+    public List<RuleStats> stats() {
+        List<RuleStats> stats = new ArrayList<>();
+        groups.values().forEach(rules -> {
+            for (CompiledRule rule : rules) {
+                stats.add(RuleStats.builder()
+                        .id(rule.rule.getId())
+                        .group(rule.rule.getGroup())
+                        .priority(rule.rule.getPriority())
+                        .condition(rule.rule.getCondition())
+                        .hits(rule.hits.sum())
+                        .build());
+            }
+        });
+        stats.sort(Comparator.comparing(RuleStats::getGroup).thenComparingInt(RuleStats::getPriority));
+        return stats;
+    }
+
+    private LongAdder hitsOf(String ruleId) {
+        for (CompiledRule[] rules : groups.values()) {
+            for (CompiledRule rule : rules) {
+                if (rule.rule.getId().equals(ruleId)) {
+                    return rule.hits;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class CompiledRule {
+        final RecommendationRule rule;
+        final Condition condition;
+        final LongAdder hits;
+
+        CompiledRule(RecommendationRule rule, Condition condition, LongAdder hits) {
+            this.rule = rule;
+            this.condition = condition;
+            this.hits = hits;
+        }
+    }
+}
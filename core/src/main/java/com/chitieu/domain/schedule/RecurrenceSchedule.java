@@ -0,0 +1,59 @@
+package com.chitieu.domain.schedule;
+
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Cron schedule of a recurring transaction. Accepts the usual five fields
+ * (minute hour day-of-month month day-of-week), Spring's six with seconds,
+ * or a macro such as {@code @monthly}. Times are server local time.
+ */
+public final class RecurrenceSchedule {
+
+    /** Anything more frequent is a mistake for rent, salaries or subscriptions */
+    public static final Duration MIN_INTERVAL = Duration.ofHours(1);
+
+    private final String expression;
+    private final CronExpression cron;
+
+    private RecurrenceSchedule(String expression, CronExpression cron) {
+        this.expression = expression;
+        this.cron = cron;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression is malformed, never
+     *                                  fires, or fires more often than hourly
+     */
+    public static RecurrenceSchedule parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Schedule is required");
+        }
+        String trimmed = expression.trim();
+        String spring = !trimmed.startsWith("@") && trimmed.split("\\s+").length == 5 ? "0 " + trimmed : trimmed;
+        RecurrenceSchedule schedule = new RecurrenceSchedule(trimmed, CronExpression.parse(spring));
+
+        LocalDateTime first = schedule.next(LocalDateTime.now());
+        LocalDateTime second = first != null ? schedule.next(first) : null;
+        if (first == null) {
+            throw new IllegalArgumentException("Schedule never fires: " + trimmed);
+        }
+        if (second != null && Duration.between(first, second).compareTo(MIN_INTERVAL) < 0) {
+            throw new IllegalArgumentException("Schedule fires more often than hourly: " + trimmed);
+        }
+        return schedule;
+    }
+
+    /**
+     * First run strictly after {@code after}, or null when there is none
+     */
+    public LocalDateTime next(LocalDateTime after) {
+        return cron.next(after);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+}
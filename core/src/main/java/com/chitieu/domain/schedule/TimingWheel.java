@@ -0,0 +1,146 @@
+package com.chitieu.domain.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Level 0 has one bucket per tick; each level
+ * above spans a full revolution of the one below in each bucket, so adding
+ * and expiring an item is O(1) however far ahead its deadline is. When a
+ * higher level's bucket comes due its items cascade down a level.
+ * <p>
+ * Items fire at most one tick after their deadline and never before it.
+ * Not thread-safe.
+ */
+public final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Level<T>> levels = new ArrayList<>();
+    private long currentTime; // Start of the current level 0 tick
+    private int size;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Invalid timing wheel " + tickMillis + "ms x " + wheelSize);
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = Math.floorDiv(startMillis, tickMillis) * tickMillis;
+        levels.add(new Level<>(tickMillis, wheelSize));
+    }
+
+    /**
+     * Schedules the item; returns false without keeping it if the deadline
+     * has already passed, in which case the caller should run it now
+     */
+    public boolean add(T item, long deadlineMillis) {
+        if (deadlineMillis < currentTime) {
+            return false;
+        }
+        place(new Entry<>(item, deadlineMillis));
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis}, handing every item whose deadline
+     * has passed to {@code expired}
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        while (currentTime + tickMillis <= nowMillis) {
+            currentTime += tickMillis;
+            List<Entry<T>> due = levels.get(0).take(currentTime - tickMillis);
+            if (due != null) {
+                size -= due.size();
+                for (Entry<T> entry : due) {
+                    expired.accept(entry.item);
+                }
+            }
+            cascade(expired);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(Consumer<T> expired) {
+        for (int i = 1; i < levels.size(); i++) {
+            Level<T> level = levels.get(i);
+            if (currentTime % level.tickMillis != 0) {
+                return;
+            }
+            List<Entry<T>> moving = level.take(currentTime);
+            if (moving == null) {
+                continue;
+            }
+            for (Entry<T> entry : moving) {
+                if (entry.deadline < currentTime) {
+                    size--;
+                    expired.accept(entry.item);
+                } else {
+                    place(entry);
+                }
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        for (int i = 0;; i++) {
+            if (i == levels.size()) {
+                levels.add(new Level<>(Math.multiplyExact(levels.get(i - 1).tickMillis, wheelSize), wheelSize));
+            }
+            Level<T> level = levels.get(i);
+            long levelStart = Math.floorDiv(currentTime, level.tickMillis) * level.tickMillis;
+            if (entry.deadline < levelStart + level.tickMillis * wheelSize) {
+                level.put(entry);
+                return;
+            }
+        }
+    }
+
+    private static final class Level<T> {
+        final long tickMillis;
+        final List<Entry<T>>[] buckets;
+
+        @SuppressWarnings("unchecked")
+        Level(long tickMillis, int wheelSize) {
+            this.tickMillis = tickMillis;
+            this.buckets = new List[wheelSize];
+        }
+
+        void put(Entry<T> entry) {
+            int index = index(entry.deadline);
+            if (buckets[index] == null) {
+                buckets[index] = new ArrayList<>();
+            }
+            buckets[index].add(entry);
+        }
+
+        /**
+         * Removes the bucket covering the tick that starts at {@code time}
+         */
+        List<Entry<T>> take(long time) {
+            int index = index(time);
+            List<Entry<T>> bucket = buckets[index];
+            buckets[index] = null;
+            return bucket;
+        }
+
+        private int index(long time) {
+            return (int) Math.floorMod(Math.floorDiv(time, tickMillis), (long) buckets.length);
+        }
+    }
+
+    private static final class Entry<T> {
+        final T item;
+        final long deadline;
+
+        Entry(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+}
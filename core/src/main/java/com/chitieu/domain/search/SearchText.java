@@ -0,0 +1,57 @@
+package com.chitieu.domain.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Folds text for search: lower case, Vietnamese diacritics removed
+ * ("Cà phê Đà Lạt" becomes "ca phe da lat") and anything other than letters
+ * and digits collapsed to single spaces. Stored text and queries are folded
+ * the same way so they compare as plain ASCII.
+ */
+public final class SearchText {
+
+    public static final int MAX_TERMS = 8;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private SearchText() {
+    }
+
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        // đ is a letter of its own, not d plus a mark, so NFD leaves it alone
+        String replaced = text.replace('đ', 'd').replace('Đ', 'd');
+        String stripped = MARKS.matcher(Normalizer.normalize(replaced, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Text stored alongside a transaction for searching
+     */
+    public static String of(String description, String category) {
+        String folded = (fold(description) + " " + fold(category)).trim();
+        return folded.length() > 500 ? folded.substring(0, 500) : folded;
+    }
+
+    /**
+     * Distinct folded words of a query, at most {@link #MAX_TERMS}
+     */
+    public static List<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : fold(query).split(" ")) {
+            if (!term.isEmpty() && terms.size() < MAX_TERMS) {
+                terms.add(term);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+}
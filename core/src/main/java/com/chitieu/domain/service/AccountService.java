@@ -13,7 +13,20 @@ public interface AccountService {
 
     Account updateAccount(UUID id, Account account);
 
-    void updateBalance(UUID id, java.math.BigDecimal amount, String type);
+    /**
+     * Applies an INCOME or EXPENSE amount to the user's account as one atomic
+     * increment, journaled as effective on {@code effectiveDate} (today when
+     * null); a zero amount journals nothing
+     */
+    void updateBalance(UUID userId, UUID id, java.math.BigDecimal amount, String type,
+            java.time.LocalDate effectiveDate);
+
+    /**
+     * Applies a day's INCOME and EXPENSE totals to the user's account as one
+     * journal effective on {@code date}; zero totals post nothing
+     */
+    void applyDailyTotals(UUID userId, UUID id, java.time.LocalDate date, java.math.BigDecimal income,
+            java.math.BigDecimal expense);
 
     void deleteAccount(UUID id);
 }
@@ -1,10 +1,19 @@
 package com.chitieu.domain.service;
 
+import com.chitieu.domain.event.FinancialDataChangedEvent;
 import com.chitieu.domain.model.Account;
+import com.chitieu.domain.model.JournalEntry;
+import com.chitieu.domain.model.JournalKind;
+import com.chitieu.domain.model.LedgerAccount;
 import com.chitieu.domain.repository.AccountRepositoryPort;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,15 +22,36 @@ import java.util.UUID;
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepositoryPort accountRepository;
+    private final LedgerService ledgerService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<Account> getUserAccounts(UUID userId) {
         return accountRepository.findByUserId(userId);
     }
 
+    /**
+     * The starting balance is journaled as the account's opening balance
+     */
     @Override
+    @Transactional
     public Account createAccount(Account account) {
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(Account.builder()
+                .name(account.getName())
+                .type(account.getType())
+                .balance(BigDecimal.ZERO)
+                .currency(account.getCurrency())
+                .creditLimit(account.getCreditLimit())
+                .userId(account.getUserId())
+                .build());
+        if (account.getBalance() != null && account.getBalance().signum() != 0) {
+            ledgerService.post(saved.getUserId(), JournalKind.OPENING_BALANCE, null, List.of(
+                    LedgerService.accountLeg(saved.getId(), account.getBalance()),
+                    LedgerService.nominalLeg(LedgerAccount.EQUITY, account.getBalance().negate())));
+            saved = getAccountById(saved.getId());
+        }
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(saved.getUserId()));
+        return saved;
     }
 
     @Override
@@ -30,45 +60,74 @@ public class AccountServiceImpl implements AccountService {
                 .orElseThrow(() -> new RuntimeException("Account not found"));
     }
 
+    /**
+     * A balance different from the current one is journaled as an adjustment
+     */
     @Override
+    @Transactional
     public Account updateAccount(UUID id, Account account) {
         Account existing = getAccountById(id);
         Account updated = Account.builder()
                 .id(existing.getId())
                 .name(account.getName())
                 .type(account.getType())
-                .balance(account.getBalance())
                 .currency(account.getCurrency())
                 .creditLimit(account.getCreditLimit())
                 .userId(existing.getUserId())
                 .build();
-        return accountRepository.save(updated);
+        accountRepository.save(updated);
+        if (account.getBalance() != null && account.getBalance().compareTo(existing.getBalance()) != 0) {
+            BigDecimal delta = account.getBalance().subtract(existing.getBalance());
+            ledgerService.post(existing.getUserId(), JournalKind.ADJUSTMENT, null, List.of(
+                    LedgerService.accountLeg(id, delta),
+                    LedgerService.nominalLeg(LedgerAccount.EQUITY, delta.negate())));
+        }
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(existing.getUserId()));
+        return getAccountById(id);
     }
 
     @Override
-    public void updateBalance(UUID id, java.math.BigDecimal amount, String type) {
-        Account account = getAccountById(id);
-        java.math.BigDecimal newBalance;
-        if ("INCOME".equals(type)) {
-            newBalance = account.getBalance().add(amount);
-        } else {
-            newBalance = account.getBalance().subtract(amount);
+    public void updateBalance(UUID userId, UUID id, BigDecimal amount, String type, LocalDate effectiveDate) {
+        if (amount.signum() == 0) {
+            // Nothing to journal, but the account must still be the user's
+            accountRepository.findById(id)
+                    .filter(account -> account.getUserId().equals(userId))
+                    .orElseThrow(() -> new RuntimeException("Account not found"));
+            return;
         }
+        boolean income = "INCOME".equals(type);
+        BigDecimal delta = income ? amount : amount.negate();
+        ledgerService.post(userId, JournalKind.TRANSACTION, null, effectiveDate, List.of(
+                LedgerService.accountLeg(id, delta),
+                LedgerService.nominalLeg(income ? LedgerAccount.INCOME : LedgerAccount.EXPENSE, delta.negate())));
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId));
+    }
 
-        Account updated = Account.builder()
-                .id(account.getId())
-                .name(account.getName())
-                .type(account.getType())
-                .balance(newBalance)
-                .currency(account.getCurrency())
-                .creditLimit(account.getCreditLimit())
-                .userId(account.getUserId())
-                .build();
-        accountRepository.save(updated);
+    @Override
+    public void applyDailyTotals(UUID userId, UUID id, LocalDate date, BigDecimal income, BigDecimal expense) {
+        List<JournalEntry> legs = new ArrayList<>(3);
+        BigDecimal delta = income.subtract(expense);
+        if (delta.signum() != 0) {
+            legs.add(LedgerService.accountLeg(id, delta));
+        }
+        if (income.signum() != 0) {
+            legs.add(LedgerService.nominalLeg(LedgerAccount.INCOME, income.negate()));
+        }
+        if (expense.signum() != 0) {
+            legs.add(LedgerService.nominalLeg(LedgerAccount.EXPENSE, expense));
+        }
+        if (legs.isEmpty()) {
+            return;
+        }
+        ledgerService.post(userId, JournalKind.TRANSACTION, null, date, legs);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId));
     }
 
     @Override
     public void deleteAccount(UUID id) {
-        accountRepository.deleteById(id);
+        accountRepository.findById(id).ifPresent(account -> {
+            accountRepository.deleteById(id);
+            eventPublisher.publishEvent(new FinancialDataChangedEvent(account.getUserId()));
+        });
     }
 }
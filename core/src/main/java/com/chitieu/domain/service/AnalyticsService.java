@@ -1,35 +1,198 @@
 package com.chitieu.domain.service;
 
-import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.cache.CacheStats;
+import com.chitieu.domain.cache.SpendingAnalyticsCache;
+import com.chitieu.domain.finance.MoneyAccumulator;
+import com.chitieu.domain.model.CategorySpending;
+import com.chitieu.domain.model.CategorySpendingReport;
+import com.chitieu.domain.model.CategoryTotal;
+import com.chitieu.domain.model.MonthlyRollup;
+import com.chitieu.domain.model.TimeResolution;
 import com.chitieu.domain.repository.TransactionRepositoryPort;
+import com.chitieu.domain.repository.TransactionRollupRepositoryPort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AnalyticsService {
 
+    /** Label for expenses recorded without a category */
+    public static final String UNCATEGORIZED = "Uncategorized";
+
+    private static final String EXPENSE = "EXPENSE";
+
+    private final TransactionRollupRepositoryPort rollupRepository;
     private final TransactionRepositoryPort transactionRepository;
+    private final SpendingAnalyticsCache spendingCache;
+    private final RecommendationEngine recommendationEngine;
+
+    /**
+     * Category breakdown of expenses in the inclusive range, split into
+     * periods of the given granularity (a single period when null). A
+     * granularity that would yield too many periods is coarsened.
+     */
+    public CategorySpendingReport getSpendingByCategory(UUID userId, LocalDate from, LocalDate to,
+            TimeResolution granularity) {
+        TimeResolution resolution = granularity == null ? null
+                : BalanceHistoryService.chooseResolution(from, to, granularity);
+        return spendingCache.get(userId, from, to, resolution,
+                () -> computeSpendingByCategory(userId, from, to, resolution));
+    }
+
+    public CacheStats getCacheStats() {
+        return spendingCache.stats();
+    }
+
+    private CategorySpendingReport computeSpendingByCategory(UUID userId, LocalDate from, LocalDate to,
+            TimeResolution resolution) {
+        // Keyed by period start clipped to the range
+        Map<LocalDate, Map<String, MoneyAccumulator>> byPeriod = resolution == TimeResolution.DAY
+                || resolution == TimeResolution.WEEK
+                        ? bucketedExpenses(userId, from, to, resolution)
+                        : monthlyExpenses(userId, from, to);
+
+        Map<String, MoneyAccumulator> overall = new HashMap<>();
+        List<CategorySpending> periods = new ArrayList<>();
+        if (resolution == null) {
+            byPeriod.values().forEach(sums -> merge(overall, sums));
+            periods.add(toSpending(from, to, overall));
+        } else {
+            for (LocalDate bucket = resolution.bucketStart(from); !bucket.isAfter(to);
+                    bucket = resolution.nextBucket(bucket)) {
+                LocalDate periodStart = clip(bucket, from);
+                LocalDate periodEnd = resolution.bucketEnd(bucket);
+                Map<String, MoneyAccumulator> sums = byPeriod.getOrDefault(periodStart, Map.of());
+                merge(overall, sums);
+                periods.add(toSpending(periodStart, periodEnd.isAfter(to) ? to : periodEnd, sums));
+            }
+        }
 
-    public Map<String, BigDecimal> getSpendingByCategory(UUID userId) {
-        return transactionRepository.findByUserId(userId).stream()
-                .filter(t -> "EXPENSE".equals(t.getType()))
-                .collect(Collectors.groupingBy(
-                        Transaction::getCategory,
-                        Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)));
+        Map<String, BigDecimal> categories = toSortedMap(overall);
+        return CategorySpendingReport.builder()
+                .from(from)
+                .to(to)
+                .granularity(resolution)
+                .total(sum(categories))
+                .categories(categories)
+                .periods(periods)
+                .build();
     }
 
+    /**
+     * Whole months come from the rollups; only a partial first or last month
+     * is summed from the transactions.
+     */
+    private Map<LocalDate, Map<String, MoneyAccumulator>> monthlyExpenses(UUID userId, LocalDate from,
+            LocalDate to) {
+        YearMonth first = YearMonth.from(from);
+        YearMonth last = YearMonth.from(to);
+        Map<LocalDate, Map<String, MoneyAccumulator>> byPeriod = new HashMap<>();
+
+        for (MonthlyRollup rollup : rollupRepository.findByUserIdFromMonth(userId, first)) {
+            YearMonth month = rollup.getMonth();
+            if (EXPENSE.equals(rollup.getType()) && !month.isAfter(last) && isWhole(month, from, to)) {
+                add(byPeriod.computeIfAbsent(month.atDay(1), m -> new HashMap<>()),
+                        rollup.getCategory(), rollup.getTotalAmount());
+            }
+        }
+
+        for (YearMonth month : first.equals(last) ? List.of(first) : List.of(first, last)) {
+            if (isWhole(month, from, to)) {
+                continue;
+            }
+            LocalDate start = clip(month.atDay(1), from);
+            LocalDate end = month.atEndOfMonth().isAfter(to) ? to : month.atEndOfMonth();
+            Map<String, MoneyAccumulator> sums = byPeriod.computeIfAbsent(start, m -> new HashMap<>());
+            transactionRepository.sumByCategory(userId, EXPENSE, start, end)
+                    .forEach((category, amount) -> add(sums, category, amount));
+        }
+        return byPeriod;
+    }
+
+    private Map<LocalDate, Map<String, MoneyAccumulator>> bucketedExpenses(UUID userId, LocalDate from,
+            LocalDate to, TimeResolution resolution) {
+        Map<LocalDate, Map<String, MoneyAccumulator>> byPeriod = new HashMap<>();
+        for (CategoryTotal total : transactionRepository.sumByCategoryPerPeriod(userId, EXPENSE, from, to,
+                resolution)) {
+            add(byPeriod.computeIfAbsent(clip(total.getPeriodStart(), from), p -> new HashMap<>()),
+                    total.getCategory(), total.getTotalAmount());
+        }
+        return byPeriod;
+    }
+
+    /**
+     * First matching spending rule over this and last calendar month's
+     * category totals
+     */
     public String generateAISuggestion(UUID userId) {
-        // AI Logic Simulation
-        Map<String, BigDecimal> spending = getSpendingByCategory(userId);
-        if (spending.getOrDefault("Food", BigDecimal.ZERO).compareTo(new BigDecimal("5000000")) > 0) {
-            return "Your Dining expense is high. Reducing eating out could save you 20% this month.";
+        LocalDate today = LocalDate.now();
+        CategorySpendingReport report = getSpendingByCategory(userId,
+                today.withDayOfMonth(1).minusMonths(1), today, TimeResolution.MONTH);
+        CategorySpending previous = report.getPeriods().get(0);
+        CategorySpending current = report.getPeriods().get(report.getPeriods().size() - 1);
+
+        return recommendationEngine.firstMatch(RecommendationEngine.SPENDING, facts -> {
+            facts.set("monthExpenses", current.getTotal())
+                    .set("prevMonthExpenses", previous.getTotal());
+            current.getCategories().forEach((category, amount) -> facts.set("category." + category, amount));
+            previous.getCategories().forEach((category, amount) -> facts.set("categoryPrev." + category, amount));
+        }).orElse("");
+    }
+
+    private static boolean isWhole(YearMonth month, LocalDate from, LocalDate to) {
+        return !month.atDay(1).isBefore(from) && !month.atEndOfMonth().isAfter(to);
+    }
+
+    private static LocalDate clip(LocalDate date, LocalDate from) {
+        return date.isBefore(from) ? from : date;
+    }
+
+    private static void add(Map<String, MoneyAccumulator> sums, String category, BigDecimal amount) {
+        if (amount != null) {
+            sums.computeIfAbsent(category != null ? category : UNCATEGORIZED, c -> new MoneyAccumulator())
+                    .add(amount);
         }
-        return "Your financial health is stable. Keep tracking your daily transactions.";
+    }
+
+    private static void merge(Map<String, MoneyAccumulator> into, Map<String, MoneyAccumulator> sums) {
+        sums.forEach((category, total) -> add(into, category, total.toBigDecimal()));
+    }
+
+    private static CategorySpending toSpending(LocalDate start, LocalDate end, Map<String, MoneyAccumulator> sums) {
+        Map<String, BigDecimal> categories = toSortedMap(sums);
+        return CategorySpending.builder()
+                .periodStart(start)
+                .periodEnd(end)
+                .total(sum(categories))
+                .categories(categories)
+                .build();
+    }
+
+    // Largest category first
+    private static Map<String, BigDecimal> toSortedMap(Map<String, MoneyAccumulator> sums) {
+        Map<String, BigDecimal> sorted = new LinkedHashMap<>(sums.size() * 2);
+        sums.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().toBigDecimal()))
+                .sorted(Map.Entry.<String, BigDecimal>comparingByValue(Comparator.reverseOrder()))
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+
+    private static BigDecimal sum(Map<String, BigDecimal> categories) {
+        MoneyAccumulator total = new MoneyAccumulator();
+        categories.values().forEach(total::add);
+        return total.toBigDecimal();
     }
 }
@@ -0,0 +1,223 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.event.FinancialDataChangedEvent;
+import com.chitieu.domain.finance.ExchangeRates;
+import com.chitieu.domain.model.BalanceHistory;
+import com.chitieu.domain.model.BalanceHistoryEntry;
+import com.chitieu.domain.model.BalancePoint;
+import com.chitieu.domain.model.TimeResolution;
+import com.chitieu.domain.repository.BalanceHistoryRepositoryPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves balance history at a bounded number of points and ages old daily
+ * buckets into weekly, then monthly, ones.
+ * <p>
+ * Nothing is recorded on the write path. A user whose finances changed is
+ * marked after commit, and a background flush records the day's balances of
+ * each marked user from what is committed by then, so a burst of writes
+ * costs one recording.
+ */
+@Service
+@Slf4j
+public class BalanceHistoryService {
+
+    /** Upper bound on points returned for any range */
+    public static final int MAX_POINTS = 366;
+
+    private final BalanceHistoryRepositoryPort historyRepository;
+    private final ExchangeRateService exchangeRateService;
+    private final int dailyRetentionDays;
+    private final int weeklyRetentionDays;
+    private final Set<UUID> changedUsers = ConcurrentHashMap.newKeySet();
+
+    public BalanceHistoryService(BalanceHistoryRepositoryPort historyRepository,
+            ExchangeRateService exchangeRateService,
+            @Value("${chitieu.balance-history.daily-retention-days:90}") int dailyRetentionDays,
+            @Value("${chitieu.balance-history.weekly-retention-days:730}") int weeklyRetentionDays) {
+        this.historyRepository = historyRepository;
+        this.exchangeRateService = exchangeRateService;
+        this.dailyRetentionDays = dailyRetentionDays;
+        this.weeklyRetentionDays = Math.max(dailyRetentionDays, weeklyRetentionDays);
+    }
+
+    /**
+     * Net worth (total of all account balances) over [from, to]. With a null
+     * resolution the finest one that fits in {@link #MAX_POINTS} is used; a
+     * requested resolution is coarsened if it would exceed that.
+     * <p>
+     * Daily totals are stored in the base currency of the rates table and
+     * reported in the user's base currency at today's rates.
+     */
+    public BalanceHistory getNetWorthHistory(UUID userId, LocalDate from, LocalDate to, TimeResolution resolution) {
+        BalanceHistory history = getHistory(userId, null, from, to, resolution);
+        ExchangeRates rates = exchangeRateService.current();
+        String currency = exchangeRateService.baseCurrencyOf(userId);
+        String stored = rates.getBaseCurrency();
+        List<BalancePoint> points = history.getPoints();
+        if (!currency.equals(stored)) {
+            points = new ArrayList<>(points.size());
+            for (BalancePoint point : history.getPoints()) {
+                points.add(BalancePoint.builder()
+                        .date(point.getDate())
+                        .balance(rates.convert(point.getBalance(), stored, currency))
+                        .minBalance(rates.convert(point.getMinBalance(), stored, currency))
+                        .maxBalance(rates.convert(point.getMaxBalance(), stored, currency))
+                        .build());
+            }
+        }
+        return BalanceHistory.builder()
+                .from(history.getFrom())
+                .to(history.getTo())
+                .resolution(history.getResolution())
+                .points(points)
+                .currency(currency)
+                .build();
+    }
+
+    public BalanceHistory getAccountHistory(UUID userId, UUID accountId, LocalDate from, LocalDate to,
+            TimeResolution resolution) {
+        return getHistory(userId, accountId, from, to, resolution);
+    }
+
+    private BalanceHistory getHistory(UUID userId, UUID accountId, LocalDate from, LocalDate to,
+            TimeResolution requested) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        TimeResolution resolution = chooseResolution(from, to, requested);
+
+        // Week and month buckets starting before the range may still end inside it
+        LocalDate lowerBound = TimeResolution.MONTH.bucketStart(from).minusDays(6);
+        List<BalanceHistoryEntry> entries = new ArrayList<>(
+                historyRepository.findInRange(userId, accountId, lowerBound, to));
+        entries.sort(Comparator.comparing(BalanceHistoryEntry::getBucketEnd));
+
+        // Closing value carried into the range from before it
+        BigDecimal carried = historyRepository.findLatestBefore(userId, accountId, lowerBound)
+                .map(BalanceHistoryEntry::getBalance)
+                .orElse(null);
+
+        // Each stored bucket lands in the target bucket holding its end date
+        LocalDate firstBucket = resolution.bucketStart(from);
+        LocalDate lastBucket = resolution.bucketStart(to);
+        TreeMap<LocalDate, BalancePoint> buckets = new TreeMap<>();
+        for (BalanceHistoryEntry entry : entries) {
+            LocalDate bucket = resolution.bucketStart(entry.getBucketEnd());
+            if (bucket.isBefore(firstBucket)) {
+                carried = entry.getBalance();
+                continue;
+            }
+            if (bucket.isAfter(lastBucket)) {
+                bucket = lastBucket;
+            }
+            buckets.merge(bucket, toPoint(bucket, entry), BalanceHistoryService::mergeLater);
+        }
+
+        // One point per bucket, forward-filling buckets without changes
+        List<BalancePoint> points = new ArrayList<>();
+        for (LocalDate bucket = firstBucket; !bucket.isAfter(lastBucket); bucket = resolution.nextBucket(bucket)) {
+            BalancePoint point = buckets.get(bucket);
+            if (point != null) {
+                points.add(point);
+                carried = point.getBalance();
+            } else if (carried != null) {
+                points.add(BalancePoint.builder()
+                        .date(bucket)
+                        .balance(carried)
+                        .minBalance(carried)
+                        .maxBalance(carried)
+                        .build());
+            }
+        }
+
+        return BalanceHistory.builder()
+                .from(from)
+                .to(to)
+                .resolution(resolution)
+                .points(points)
+                .build();
+    }
+
+    static TimeResolution chooseResolution(LocalDate from, LocalDate to, TimeResolution requested) {
+        TimeResolution[] candidates = TimeResolution.values();
+        int start = requested != null ? requested.ordinal() : 0;
+        for (int i = start; i < candidates.length; i++) {
+            if (candidates[i].bucketsBetween(from, to) <= MAX_POINTS) {
+                return candidates[i];
+            }
+        }
+        return TimeResolution.MONTH;
+    }
+
+    // Runs after commit when published inside a transaction, immediately otherwise
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFinancialDataChanged(FinancialDataChangedEvent event) {
+        changedUsers.add(event.getUserId());
+    }
+
+    /**
+     * Records today's balances of every user marked since the last flush. A
+     * user whose recording fails stays marked for the next one.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${chitieu.balance-history.flush-ms:1000}")
+    public void flush() {
+        LocalDate today = LocalDate.now();
+        for (UUID userId : changedUsers) {
+            changedUsers.remove(userId);
+            try {
+                historyRepository.recordCurrent(userId, today);
+            } catch (RuntimeException e) {
+                changedUsers.add(userId);
+                log.warn("Could not record balance history for user {}", userId, e);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${chitieu.balance-history.downsample-cron:0 15 3 * * *}")
+    public void downsample() {
+        LocalDate today = LocalDate.now();
+        int days = historyRepository.downsample(TimeResolution.DAY, TimeResolution.WEEK,
+                today.minusDays(dailyRetentionDays));
+        int weeks = historyRepository.downsample(TimeResolution.WEEK, TimeResolution.MONTH,
+                today.minusDays(weeklyRetentionDays));
+        log.info("Balance history downsampled: {} daily buckets into weeks, {} weekly buckets into months",
+                days, weeks);
+    }
+
+    private static BalancePoint toPoint(LocalDate bucket, BalanceHistoryEntry entry) {
+        return BalancePoint.builder()
+                .date(bucket)
+                .balance(entry.getBalance())
+                .minBalance(Optional.ofNullable(entry.getMinBalance()).orElse(entry.getBalance()))
+                .maxBalance(Optional.ofNullable(entry.getMaxBalance()).orElse(entry.getBalance()))
+                .build();
+    }
+
+    // Entries arrive in end-date order, so the later one supplies the closing balance
+    private static BalancePoint mergeLater(BalancePoint earlier, BalancePoint later) {
+        return BalancePoint.builder()
+                .date(earlier.getDate())
+                .balance(later.getBalance())
+                .minBalance(earlier.getMinBalance().min(later.getMinBalance()))
+                .maxBalance(earlier.getMaxBalance().max(later.getMaxBalance()))
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.chitieu.domain.service;
 
+import com.chitieu.domain.finance.Money;
 import com.chitieu.domain.model.Budget;
 import com.chitieu.domain.model.Transaction;
 import com.chitieu.domain.repository.BudgetRepositoryPort;
@@ -9,7 +10,10 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -17,53 +21,74 @@ import java.util.UUID;
 @Slf4j
 public class BudgetService {
 
+    private static final int[] ALERT_THRESHOLDS = { 50, 80, 100 }; // Percent of limit
+
     private final BudgetRepositoryPort budgetRepository;
 
-    public void updateAndCheckBudgets(UUID userId, Transaction transaction) {
+    /**
+     * Charges an expense to its category budget with one atomic increment and
+     * raises threshold alerts. Returns the budget after the charge, if any.
+     */
+    public Optional<Budget> updateAndCheckBudgets(UUID userId, Transaction transaction) {
         if (!"EXPENSE".equals(transaction.getType())) {
-            return;
+            return Optional.empty();
         }
+        return charge(userId, transaction.getCategory(), transaction.getAmount());
+    }
 
-        List<Budget> budgets = budgetRepository.findByUserId(userId);
-        budgets.stream()
-                .filter(b -> b.getCategory().equals(transaction.getCategory()))
-                .findFirst()
-                .ifPresent(budget -> {
-                    BigDecimal newSpent = budget.getSpentAmount().add(transaction.getAmount());
-
-                    // Business Rule: Alerts at 50%, 80%, 100%
-                    checkThresholds(budget, newSpent);
+    /**
+     * Adds bulk expense totals per category to the user's budgets, one
+     * increment per category. Returns the budgets after the charges.
+     */
+    public List<Budget> applySpending(UUID userId, Map<String, BigDecimal> spentByCategory) {
+        List<Budget> charged = new ArrayList<>(spentByCategory.size());
+        spentByCategory.forEach((category, spent) -> charge(userId, category, spent).ifPresent(charged::add));
+        return charged;
+    }
 
-                    Budget updatedBudget = Budget.builder()
-                            .id(budget.getId())
-                            .category(budget.getCategory())
-                            .limitAmount(budget.getLimitAmount())
-                            .spentAmount(newSpent)
-                            .userId(userId)
-                            .build();
+    public void validateHardLimit(Budget budget) {
+        if (budget.getSpentAmount().compareTo(budget.getLimitAmount()) > 0) {
+            log.error("STRICT_LIMIT_EXCEEDED: Budget overflown for {}", budget.getCategory());
+            // Optional: Throw exception here if we want to BLOCK the transaction
+            // However, per requirements, we primarily need alerts.
+        }
+    }
 
-                    budgetRepository.save(updatedBudget);
-                });
+    private Optional<Budget> charge(UUID userId, String category, BigDecimal amount) {
+        Optional<Budget> updated = budgetRepository.incrementSpent(userId, category, amount);
+        // Business Rule: Alerts at 50%, 80%, 100%
+        updated.ifPresent(budget -> checkThresholds(budget, budget.getSpentAmount().subtract(amount)));
+        return updated;
     }
 
-    private void checkThresholds(Budget budget, BigDecimal newSpent) {
+    private void checkThresholds(Budget budget, BigDecimal previousSpent) {
         BigDecimal limit = budget.getLimitAmount();
         if (limit.compareTo(BigDecimal.ZERO) <= 0)
             return;
 
-        BigDecimal oldPercentage = budget.getSpentAmount().divide(limit, 2, RoundingMode.HALF_UP);
-        BigDecimal newPercentage = newSpent.divide(limit, 2, RoundingMode.HALF_UP);
+        long oldPercent = percentOfLimit(previousSpent, limit);
+        long newPercent = percentOfLimit(budget.getSpentAmount(), limit);
 
-        checkAndNotify(budget.getCategory(), newPercentage, oldPercentage, new BigDecimal("0.50"), "50%");
-        checkAndNotify(budget.getCategory(), newPercentage, oldPercentage, new BigDecimal("0.80"), "80%");
-        checkAndNotify(budget.getCategory(), newPercentage, oldPercentage, new BigDecimal("1.00"), "100%");
+        for (int threshold : ALERT_THRESHOLDS) {
+            if (newPercent >= threshold && oldPercent < threshold) {
+                log.warn("BUDGET_ALERT: Category {} reached {}% of budget!", budget.getCategory(), threshold);
+                // In a real app, this would trigger a notification service (Push, Email, etc.)
+            }
+        }
     }
 
-    private void checkAndNotify(String category, BigDecimal newPct, BigDecimal oldPct, BigDecimal threshold,
-            String label) {
-        if (newPct.compareTo(threshold) >= 0 && oldPct.compareTo(threshold) < 0) {
-            log.warn("BUDGET_ALERT: Category {} reached {} of budget!", category, label);
-            // In a real app, this would trigger a notification service (Push, Email, etc.)
+    /**
+     * spent / limit as a whole percentage, rounded half-up from two decimals of
+     * the ratio. Computed in minor units when the amounts allow it.
+     */
+    private long percentOfLimit(BigDecimal spent, BigDecimal limit) {
+        if (spent.signum() >= 0 && Money.isRepresentable(spent) && Money.isRepresentable(limit)) {
+            long spentMinor = Money.of(spent).getMinorUnits();
+            long limitMinor = Money.of(limit).getMinorUnits();
+            if (spentMinor <= Long.MAX_VALUE / 200 && limitMinor <= Long.MAX_VALUE / 200) {
+                return (spentMinor * 200 + limitMinor) / (2 * limitMinor);
+            }
         }
+        return spent.divide(limit, 2, RoundingMode.HALF_UP).movePointRight(2).longValue();
     }
 }
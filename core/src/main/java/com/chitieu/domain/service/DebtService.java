@@ -1,8 +1,10 @@
 package com.chitieu.domain.service;
 
+import com.chitieu.domain.event.FinancialDataChangedEvent;
 import com.chitieu.domain.model.Debt;
 import com.chitieu.domain.repository.DebtRepositoryPort;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,13 +15,16 @@ import java.util.UUID;
 public class DebtService {
 
     private final DebtRepositoryPort debtRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Debt> getUserDebts(UUID userId) {
         return debtRepository.findByUserId(userId);
     }
 
     public Debt createDebt(Debt debt) {
-        return debtRepository.save(debt);
+        Debt saved = debtRepository.save(debt);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(saved.getUserId()));
+        return saved;
     }
 
     public Debt markAsPaid(UUID debtId) {
@@ -38,6 +43,8 @@ public class DebtService {
                 .note(debt.getNote())
                 .build();
 
-        return debtRepository.save(updated);
+        Debt saved = debtRepository.save(updated);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(debt.getUserId()));
+        return saved;
     }
 }
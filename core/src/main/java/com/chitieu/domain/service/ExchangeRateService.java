@@ -0,0 +1,204 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.cache.SingleFlightCache;
+import com.chitieu.domain.finance.ExchangeRates;
+import com.chitieu.domain.model.Account;
+import com.chitieu.domain.model.User;
+import com.chitieu.domain.repository.ExchangeRateRepositoryPort;
+import com.chitieu.domain.repository.UserRepositoryPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts amounts between currencies for aggregates over accounts held in
+ * more than one currency.
+ * <p>
+ * Rates live in the exchange_rates table, which the SQL aggregates join, and
+ * are optionally fed from a local file of {@code CODE=rate} lines (units of
+ * the base currency per unit). Each reload compiles them into an immutable
+ * {@link ExchangeRates} matrix that replaces the previous one in a single
+ * write, so a conversion never sees a half-updated set of rates.
+ * <p>
+ * Accounts in a currency without a rate are left out of every total rather
+ * than counted at par; each reload logs the currencies missing a rate.
+ */
+@Service
+@Slf4j
+public class ExchangeRateService {
+
+    private final ExchangeRateRepositoryPort exchangeRateRepository;
+    private final UserRepositoryPort userRepository;
+    private final String baseCurrency;
+    private final String ratesLocation;
+    private final SingleFlightCache<UUID, String> baseCurrencies;
+    private volatile ExchangeRates rates;
+
+    public ExchangeRateService(ExchangeRateRepositoryPort exchangeRateRepository,
+            UserRepositoryPort userRepository,
+            @Value("${chitieu.fx.base-currency:VND}") String baseCurrency,
+            @Value("${chitieu.fx.rates-location:}") String ratesLocation,
+            @Value("${chitieu.fx.user-currency-ttl-minutes:10}") long userCurrencyTtlMinutes,
+            @Value("${chitieu.fx.user-currency-cache-size:10000}") int userCurrencyCacheSize) {
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.userRepository = userRepository;
+        this.baseCurrency = baseCurrency;
+        this.ratesLocation = ratesLocation;
+        this.baseCurrencies = new SingleFlightCache<>(userCurrencyTtlMinutes, TimeUnit.MINUTES, userCurrencyCacheSize);
+        // Base currency only until the database is reachable
+        this.rates = ExchangeRates.of(baseCurrency, Map.of());
+    }
+
+    public ExchangeRates current() {
+        return rates;
+    }
+
+    /**
+     * @throws IllegalArgumentException if either currency has no rate
+     */
+    public BigDecimal convert(BigDecimal amount, String from, String to) {
+        return rates.convert(amount, from, to);
+    }
+
+    public boolean supports(String currency) {
+        return rates.supports(currency);
+    }
+
+    /**
+     * The currency the user's totals are reported in, cached per user
+     */
+    public String baseCurrencyOf(UUID userId) {
+        return baseCurrencies.get(userId, id -> userRepository.findById(id)
+                .map(User::getBaseCurrency)
+                .orElse(baseCurrency));
+    }
+
+    /**
+     * Drops the cached base currency after the user changes it
+     */
+    public void invalidateBaseCurrency(UUID userId) {
+        baseCurrencies.invalidate(userId);
+    }
+
+    /**
+     * Copies of the accounts with balances and credit limits in
+     * {@code currency}; accounts already in it are returned as they are and
+     * accounts in a currency without a rate are left out
+     */
+    public List<Account> inCurrency(List<Account> accounts, String currency) {
+        ExchangeRates current = rates;
+        List<Account> converted = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            String from = account.getCurrency() != null ? account.getCurrency() : baseCurrency;
+            if (from.equals(currency)) {
+                converted.add(account);
+                continue;
+            }
+            if (!current.supports(from) || !current.supports(currency)) {
+                log.warn("Leaving account {} out of totals: no exchange rate between {} and {}", account.getId(),
+                        from, currency);
+                continue;
+            }
+            converted.add(Account.builder()
+                    .id(account.getId())
+                    .name(account.getName())
+                    .type(account.getType())
+                    .balance(current.convert(account.getBalance(), from, currency))
+                    .currency(currency)
+                    .creditLimit(current.convert(account.getCreditLimit(), from, currency))
+                    .userId(account.getUserId())
+                    .build());
+        }
+        return converted;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${chitieu.fx.reload-ms:300000}", initialDelayString = "${chitieu.fx.reload-ms:300000}")
+    public void reload() {
+        Map<String, BigDecimal> stored = exchangeRateRepository.findAll();
+        if (!ratesLocation.isBlank()) {
+            Map<String, BigDecimal> changed = new HashMap<>();
+            readRatesFile().forEach((currency, rate) -> {
+                BigDecimal previous = stored.get(currency);
+                if (previous == null || previous.compareTo(rate) != 0) {
+                    changed.put(currency, rate);
+                }
+            });
+            if (!changed.isEmpty()) {
+                // Stored first, so the SQL aggregates convert at the same rates
+                exchangeRateRepository.saveAll(changed);
+                stored.putAll(changed);
+            }
+        }
+        if (!stored.containsKey(baseCurrency)) {
+            exchangeRateRepository.saveAll(Map.of(baseCurrency, BigDecimal.ONE));
+        }
+        install(stored);
+
+        List<String> missing = exchangeRateRepository.findAccountCurrenciesWithoutRate();
+        if (!missing.isEmpty()) {
+            log.warn("No exchange rate for account currencies {}; those accounts are left out of totals", missing);
+        }
+    }
+
+    private void install(Map<String, BigDecimal> ratesToBase) {
+        ExchangeRates next = ExchangeRates.of(baseCurrency, ratesToBase);
+        if (sameRates(next.getRatesToBase(), rates.getRatesToBase())) {
+            return;
+        }
+        rates = next;
+        log.info("Loaded exchange rates for {} currencies against {}", next.getRatesToBase().size(), baseCurrency);
+    }
+
+    private Map<String, BigDecimal> readRatesFile() {
+        Map<String, BigDecimal> fileRates = new HashMap<>();
+        try (Reader reader = Files.newBufferedReader(Path.of(ratesLocation), StandardCharsets.UTF_8)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            for (String currency : properties.stringPropertyNames()) {
+                try {
+                    BigDecimal rate = new BigDecimal(properties.getProperty(currency).trim());
+                    if (currency.matches("[A-Z]{3}") && rate.signum() > 0) {
+                        fileRates.put(currency, rate);
+                    } else {
+                        log.warn("Skipping exchange rate {}={}", currency, rate);
+                    }
+                } catch (NumberFormatException e) {
+                    log.warn("Skipping exchange rate {}: not a number", currency);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read exchange rates from {}: {}", ratesLocation, e.getMessage());
+        }
+        return fileRates;
+    }
+
+    private static boolean sameRates(Map<String, BigDecimal> a, Map<String, BigDecimal> b) {
+        if (!a.keySet().equals(b.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, BigDecimal> rate : a.entrySet()) {
+            if (rate.getValue().compareTo(b.get(rate.getKey())) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,9 +1,9 @@
 package com.chitieu.domain.service;
 
+import com.chitieu.domain.cache.FinancialHealthCache;
+import com.chitieu.domain.finance.FinancialFreedomSolver;
 import com.chitieu.domain.model.*;
-import com.chitieu.domain.repository.AccountRepositoryPort;
-import com.chitieu.domain.repository.DebtRepositoryPort;
-import com.chitieu.domain.repository.TransactionRepositoryPort;
+import com.chitieu.domain.repository.HealthSnapshotRepositoryPort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,36 +11,62 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FinancialHealthAssessmentService {
 
-    private final AccountRepositoryPort accountRepository;
-    private final DebtRepositoryPort debtRepository;
-    private final TransactionRepositoryPort transactionRepository;
-
-    private static final List<String> ESSENTIAL_CATEGORIES = Arrays.asList(
-            "Food", "Housing", "Transportation", "Healthcare", "Utilities");
-
-    private static final List<String> WANTS_CATEGORIES = Arrays.asList(
-            "Entertainment", "Shopping", "Dining", "Travel", "Hobbies");
+    private static final BigDecimal THREE = new BigDecimal("3");
+    private static final BigDecimal SIX = new BigDecimal("6");
+    private static final BigDecimal TWELVE = new BigDecimal("12");
+    private static final BigDecimal FIFTEEN = new BigDecimal("15");
+    private static final BigDecimal TWENTY = new BigDecimal("20");
+    private static final BigDecimal THIRTY = new BigDecimal("30");
+    private static final BigDecimal FORTY = new BigDecimal("40");
+    private static final BigDecimal FIFTY = new BigDecimal("50");
+    private static final BigDecimal SIXTY = new BigDecimal("60");
+    private static final BigDecimal SEVENTY = new BigDecimal("70");
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    private static final BigDecimal EXCELLENT_GROWTH_RATE = new BigDecimal("0.20");
+    private static final BigDecimal GOOD_GROWTH_RATE = new BigDecimal("0.05");
+    private static final BigDecimal FI_MULTIPLIER = new BigDecimal("25"); // 4% rule
+    private static final BigDecimal ASSUMED_ANNUAL_RETURN = new BigDecimal("0.10");
+    private static final BigDecimal TREND_THRESHOLD = new BigDecimal("0.02"); // +/-2% over a month
+
+    // How far a history snapshot may predate its target date and still count
+    private static final int SNAPSHOT_TOLERANCE_DAYS = 31;
+
+    private final FinancialSnapshotAggregator snapshotAggregator;
+    private final FinancialHealthCache healthCache;
+    private final HealthSnapshotRepositoryPort snapshotRepository;
 
     /**
-     * Calculate comprehensive financial health metrics
+     * Calculate comprehensive financial health metrics, served from the
+     * per-user cache while the user's data is unchanged
      */
     public FinancialHealthMetrics calculateFinancialHealth(UUID userId) {
+        return healthCache.get(userId, this::computeFinancialHealth);
+    }
+
+    /**
+     * Calculate metrics from current data, bypassing the cache
+     */
+    public FinancialHealthMetrics computeFinancialHealth(UUID userId) {
         log.info("Calculating financial health for user: {}", userId);
 
+        // Load every source once and derive all metrics from the same snapshot
+        FinancialSnapshot snapshot = snapshotAggregator.load(userId);
+
         // Calculate all metrics
-        NetWorthMetrics netWorth = calculateNetWorth(userId);
-        LiquidityMetrics liquidity = calculateLiquidity(userId);
-        BudgetRuleMetrics budgetRule = calculate503020Rule(userId);
-        DebtMetrics debtMetrics = calculateDebtToIncome(userId);
-        FinancialFreedomMetrics freedom = calculateFinancialFreedom(userId);
+        NetWorthMetrics netWorth = calculateNetWorth(snapshot);
+        LiquidityMetrics liquidity = calculateLiquidity(snapshot);
+        BudgetRuleMetrics budgetRule = calculate503020Rule(snapshot);
+        DebtMetrics debtMetrics = calculateDebtToIncome(snapshot);
+        FinancialFreedomMetrics freedom = calculateFinancialFreedom(snapshot, netWorth);
 
         // Calculate overall score (weighted average)
         int overallScore = calculateOverallScore(netWorth, liquidity, budgetRule, debtMetrics, freedom);
@@ -48,12 +74,14 @@ public class FinancialHealthAssessmentService {
         return FinancialHealthMetrics.builder()
                 .id(UUID.randomUUID())
                 .userId(userId)
-                .calculatedAt(LocalDate.now())
+                .calculatedAt(snapshot.getAsOf())
                 // Net Worth
                 .netWorth(netWorth.netWorth)
                 .totalAssets(netWorth.totalAssets)
                 .totalLiabilities(netWorth.totalLiabilities)
                 .netWorthRating(netWorth.rating)
+                .netWorthGrowthRate(netWorth.growthRate)
+                .netWorthTrend(netWorth.trend)
                 // Liquidity
                 .liquidAssets(liquidity.liquidAssets)
                 .monthlyEssentialExpenses(liquidity.monthlyEssentialExpenses)
@@ -77,6 +105,7 @@ public class FinancialHealthAssessmentService {
                 .financialFreedomNumber(freedom.fiNumber)
                 .currentProgress(freedom.progressPercent)
                 .yearsToFreedom(freedom.yearsToFI)
+                .monthlySavings(freedom.monthlySavings)
                 .monthlyIncome(budgetRule.needsAmount.add(budgetRule.wantsAmount).add(budgetRule.savingsAmount)) // Total
                                                                                                                  // Income
                                                                                                                  // from
@@ -91,87 +120,88 @@ public class FinancialHealthAssessmentService {
     /**
      * 1. Net Worth Calculator
      */
-    private NetWorthMetrics calculateNetWorth(UUID userId) {
-        List<Account> accounts = accountRepository.findByUserId(userId);
-
-        // Calculate total assets (positive balances)
-        // Calculate total assets (positive balances)
-        BigDecimal totalAssets = accounts.stream()
-                .filter(a -> a.getBalance() != null && a.getBalance().compareTo(BigDecimal.ZERO) > 0)
-                .map(Account::getBalance)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Calculate total liabilities
-        // 1. Credit card debt (negative balances)
-        BigDecimal creditDebt = accounts.stream()
-                .filter(a -> a.getType() == AccountType.CREDIT)
-                .filter(a -> a.getBalance() != null && a.getBalance().compareTo(BigDecimal.ZERO) < 0)
-                .map(a -> a.getBalance().abs())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // 2. Loan debt (BORROW type, ACTIVE status)
-        BigDecimal loanDebt = debtRepository.findByUserId(userId).stream()
-                .filter(d -> d.getType() == DebtType.BORROW)
-                .filter(d -> "ACTIVE".equals(d.getStatus()))
-                .filter(d -> d.getAmount() != null)
-                .map(Debt::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalLiabilities = creditDebt.add(loanDebt);
+    private NetWorthMetrics calculateNetWorth(FinancialSnapshot snapshot) {
+        // Total assets (positive balances)
+        BigDecimal totalAssets = snapshot.getTotalAssets();
+
+        // Total liabilities: credit card debt (negative balances) + loan debt (BORROW, ACTIVE)
+        BigDecimal totalLiabilities = snapshot.getCreditCardDebt().add(snapshot.getActiveLoanDebt());
 
         // Calculate net worth
         BigDecimal netWorth = totalAssets.subtract(totalLiabilities);
 
+        // Growth and trend against the persisted daily snapshots
+        LocalDate asOf = snapshot.getAsOf();
+        BigDecimal growthRate = findHistoricalNetWorth(snapshot.getUserId(), asOf.minusYears(1))
+                .map(yearAgo -> calculateGrowthRate(netWorth, yearAgo))
+                .orElse(null);
+        String trend = findHistoricalNetWorth(snapshot.getUserId(), asOf.minusMonths(1))
+                .map(monthAgo -> determineTrend(netWorth, monthAgo))
+                .orElse("STABLE");
+
         // Determine rating
-        NetWorthRating rating = determineNetWorthRating(netWorth, userId);
+        NetWorthRating rating = determineNetWorthRating(netWorth, growthRate);
 
-        return new NetWorthMetrics(netWorth, totalAssets, totalLiabilities, rating);
+        return new NetWorthMetrics(netWorth, totalAssets, totalLiabilities, rating, growthRate, trend);
     }
 
-    private NetWorthRating determineNetWorthRating(BigDecimal netWorth, UUID userId) {
+    private NetWorthRating determineNetWorthRating(BigDecimal netWorth, BigDecimal growthRate) {
         if (netWorth.compareTo(BigDecimal.ZERO) <= 0) {
             return NetWorthRating.POOR;
         }
 
-        // TODO: Calculate YoY growth rate from historical data
-        // For now, use simple thresholds
-        BigDecimal growthRate = BigDecimal.ZERO; // Placeholder
+        // Without a year of history there is no growth to reward
+        if (growthRate == null) {
+            return NetWorthRating.FAIR;
+        }
 
-        if (growthRate.compareTo(new BigDecimal("0.20")) > 0) {
+        if (growthRate.compareTo(EXCELLENT_GROWTH_RATE) > 0) {
             return NetWorthRating.EXCELLENT;
-        } else if (growthRate.compareTo(new BigDecimal("0.05")) >= 0) {
+        } else if (growthRate.compareTo(GOOD_GROWTH_RATE) >= 0) {
             return NetWorthRating.GOOD;
         } else {
             return NetWorthRating.FAIR;
         }
     }
 
+    private Optional<BigDecimal> findHistoricalNetWorth(UUID userId, LocalDate date) {
+        return snapshotRepository.findLatestOnOrBefore(userId, date)
+                .filter(s -> !s.getSnapshotDate().isBefore(date.minusDays(SNAPSHOT_TOLERANCE_DAYS)))
+                .map(HealthSnapshot::getNetWorth);
+    }
+
+    private BigDecimal calculateGrowthRate(BigDecimal current, BigDecimal previous) {
+        // Growth from a zero or negative base is not meaningful
+        if (previous.compareTo(BigDecimal.ZERO) <= 0) {
+            return null;
+        }
+        return current.subtract(previous).divide(previous, 4, RoundingMode.HALF_UP);
+    }
+
+    private String determineTrend(BigDecimal current, BigDecimal previous) {
+        BigDecimal change = current.subtract(previous);
+        if (previous.signum() == 0) {
+            return change.signum() > 0 ? "UP" : change.signum() < 0 ? "DOWN" : "STABLE";
+        }
+        BigDecimal relative = change.divide(previous.abs(), 4, RoundingMode.HALF_UP);
+        if (relative.compareTo(TREND_THRESHOLD) > 0) {
+            return "UP";
+        } else if (relative.compareTo(TREND_THRESHOLD.negate()) < 0) {
+            return "DOWN";
+        }
+        return "STABLE";
+    }
+
     /**
      * 2. Liquidity Ratio Calculator
      */
-    private LiquidityMetrics calculateLiquidity(UUID userId) {
-        // Calculate liquid assets (CASH, BANK, E_WALLET)
-        BigDecimal liquidAssets = accountRepository.findByUserId(userId).stream()
-                .filter(a -> a.getBalance() != null)
-                .filter(a -> a.getType() == AccountType.CASH ||
-                        a.getType() == AccountType.BANK ||
-                        a.getType() == AccountType.E_WALLET)
-                .map(Account::getBalance)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Calculate average monthly essential expenses (last 3 months)
-        LocalDate threeMonthsAgo = LocalDate.now().minusMonths(3);
-        BigDecimal totalEssentialExpenses = transactionRepository
-                .findByUserId(userId).stream()
-                .filter(t -> t.getDate() != null && t.getDate().isAfter(threeMonthsAgo))
-                .filter(t -> "EXPENSE".equals(t.getType()))
-                .filter(t -> t.getCategory() != null && ESSENTIAL_CATEGORIES.contains(t.getCategory()))
-                .filter(t -> t.getAmount() != null)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal monthlyEssentialExpenses = totalEssentialExpenses.divide(
-                new BigDecimal("3"), 2, RoundingMode.HALF_UP);
+    private LiquidityMetrics calculateLiquidity(FinancialSnapshot snapshot) {
+        // Liquid assets (CASH, BANK, E_WALLET)
+        BigDecimal liquidAssets = snapshot.getLiquidAssets();
+
+        // Average monthly essential expenses (last 3 months)
+        BigDecimal monthlyEssentialExpenses = snapshot.getEssentialExpensesLast3Months().divide(
+                THREE, 2, RoundingMode.HALF_UP);
 
         // Calculate liquidity months
         BigDecimal liquidityMonths = monthlyEssentialExpenses.compareTo(BigDecimal.ZERO) > 0
@@ -185,13 +215,13 @@ public class FinancialHealthAssessmentService {
     }
 
     private LiquiditySafetyLevel determineSafetyLevel(BigDecimal months) {
-        if (months.compareTo(new BigDecimal("12")) > 0) {
+        if (months.compareTo(TWELVE) > 0) {
             return LiquiditySafetyLevel.EXCELLENT;
-        } else if (months.compareTo(new BigDecimal("6")) >= 0) {
+        } else if (months.compareTo(SIX) >= 0) {
             return LiquiditySafetyLevel.VERY_SAFE;
-        } else if (months.compareTo(new BigDecimal("3")) >= 0) {
+        } else if (months.compareTo(THREE) >= 0) {
             return LiquiditySafetyLevel.SAFE;
-        } else if (months.compareTo(new BigDecimal("1")) >= 0) {
+        } else if (months.compareTo(BigDecimal.ONE) >= 0) {
             return LiquiditySafetyLevel.LOW;
         } else {
             return LiquiditySafetyLevel.CRITICAL;
@@ -201,33 +231,11 @@ public class FinancialHealthAssessmentService {
     /**
      * 3. 50/30/20 Rule Calculator
      */
-    private BudgetRuleMetrics calculate503020Rule(UUID userId) {
-        // Get transactions from the last 30 days
-        LocalDate lastMonth = LocalDate.now().minusMonths(1);
-
-        List<Transaction> transactions = transactionRepository.findByUserId(userId).stream()
-                .filter(t -> t.getDate() != null && (t.getDate().isAfter(lastMonth) || t.getDate().isEqual(lastMonth)))
-                .filter(t -> t.getAmount() != null)
-                .collect(Collectors.toList());
-
-        // Calculate total income
-        BigDecimal totalIncome = transactions.stream()
-                .filter(t -> "INCOME".equals(t.getType()))
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Categorize expenses
-        BigDecimal needsExpense = transactions.stream()
-                .filter(t -> "EXPENSE".equals(t.getType()))
-                .filter(t -> t.getCategory() != null && ESSENTIAL_CATEGORIES.contains(t.getCategory()))
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal wantsExpense = transactions.stream()
-                .filter(t -> "EXPENSE".equals(t.getType()))
-                .filter(t -> t.getCategory() != null && WANTS_CATEGORIES.contains(t.getCategory()))
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private BudgetRuleMetrics calculate503020Rule(FinancialSnapshot snapshot) {
+        // Income and categorized expenses from the last month
+        BigDecimal totalIncome = snapshot.getIncomeLastMonth();
+        BigDecimal needsExpense = snapshot.getNeedsLastMonth();
+        BigDecimal wantsExpense = snapshot.getWantsLastMonth();
 
         // Savings = Income - Needs - Wants
         BigDecimal savingsAmount = totalIncome.subtract(needsExpense).subtract(wantsExpense);
@@ -248,15 +256,15 @@ public class FinancialHealthAssessmentService {
     }
 
     private BudgetCompliance determineBudgetCompliance(BigDecimal needs, BigDecimal wants, BigDecimal savings) {
-        if (needs.compareTo(new BigDecimal("50")) <= 0 &&
-                wants.compareTo(new BigDecimal("30")) <= 0 &&
-                savings.compareTo(new BigDecimal("20")) >= 0) {
+        if (needs.compareTo(FIFTY) <= 0 &&
+                wants.compareTo(THIRTY) <= 0 &&
+                savings.compareTo(TWENTY) >= 0) {
             return BudgetCompliance.EXCELLENT;
-        } else if (needs.compareTo(new BigDecimal("60")) <= 0 &&
-                savings.compareTo(new BigDecimal("15")) >= 0) {
+        } else if (needs.compareTo(SIXTY) <= 0 &&
+                savings.compareTo(FIFTEEN) >= 0) {
             return BudgetCompliance.GOOD;
-        } else if (needs.compareTo(new BigDecimal("70")) <= 0 &&
-                savings.compareTo(new BigDecimal("10")) >= 0) {
+        } else if (needs.compareTo(SEVENTY) <= 0 &&
+                savings.compareTo(BigDecimal.TEN) >= 0) {
             return BudgetCompliance.FAIR;
         } else {
             return BudgetCompliance.POOR;
@@ -266,32 +274,23 @@ public class FinancialHealthAssessmentService {
     /**
      * 4. Debt-to-Income Ratio Calculator
      */
-    private DebtMetrics calculateDebtToIncome(UUID userId) {
+    private DebtMetrics calculateDebtToIncome(FinancialSnapshot snapshot) {
         // Calculate average monthly income (last 3 months)
-        BigDecimal monthlyIncome = calculateAverageMonthlyIncome(userId, 3);
+        BigDecimal monthlyIncome = averageMonthly(snapshot.getIncomeLast3Months(), 3);
 
         // Calculate monthly debt payments
         // 1. Credit card minimum payments (assume 3% of balance)
-        BigDecimal creditCardPayments = accountRepository.findByUserId(userId).stream()
-                .filter(a -> a.getType() == AccountType.CREDIT)
-                .filter(a -> a.getBalance() != null && a.getBalance().compareTo(BigDecimal.ZERO) < 0)
-                .map(a -> a.getBalance().abs().multiply(new BigDecimal("0.03")))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal creditCardPayments = snapshot.getCreditCardMinimumPayments();
 
         // 2. Loan payments (assume 1/12 of total for simplicity)
-        BigDecimal loanPayments = debtRepository.findByUserId(userId).stream()
-                .filter(d -> d.getType() == DebtType.BORROW)
-                .filter(d -> "ACTIVE".equals(d.getStatus()))
-                .filter(d -> d.getAmount() != null)
-                .map(d -> d.getAmount().divide(new BigDecimal("12"), 2, RoundingMode.HALF_UP))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal loanPayments = snapshot.getActiveLoanMonthlyPayments();
 
         BigDecimal totalMonthlyDebtPayments = creditCardPayments.add(loanPayments);
 
         // Calculate DTI ratio
         BigDecimal dtiRatio = monthlyIncome.compareTo(BigDecimal.ZERO) > 0
                 ? totalMonthlyDebtPayments.divide(monthlyIncome, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"))
+                        .multiply(HUNDRED)
                 : BigDecimal.ZERO;
 
         // Determine risk level
@@ -301,13 +300,13 @@ public class FinancialHealthAssessmentService {
     }
 
     private DebtRiskLevel determineDebtRiskLevel(BigDecimal dtiRatio) {
-        if (dtiRatio.compareTo(new BigDecimal("20")) < 0) {
+        if (dtiRatio.compareTo(TWENTY) < 0) {
             return DebtRiskLevel.EXCELLENT;
-        } else if (dtiRatio.compareTo(new BigDecimal("30")) < 0) {
+        } else if (dtiRatio.compareTo(THIRTY) < 0) {
             return DebtRiskLevel.GOOD;
-        } else if (dtiRatio.compareTo(new BigDecimal("40")) < 0) {
+        } else if (dtiRatio.compareTo(FORTY) < 0) {
             return DebtRiskLevel.MODERATE;
-        } else if (dtiRatio.compareTo(new BigDecimal("50")) < 0) {
+        } else if (dtiRatio.compareTo(FIFTY) < 0) {
             return DebtRiskLevel.HIGH;
         } else {
             return DebtRiskLevel.CRITICAL;
@@ -317,54 +316,31 @@ public class FinancialHealthAssessmentService {
     /**
      * 5. Financial Freedom Calculator (4% Rule)
      */
-    private FinancialFreedomMetrics calculateFinancialFreedom(UUID userId) {
+    private FinancialFreedomMetrics calculateFinancialFreedom(FinancialSnapshot snapshot, NetWorthMetrics netWorth) {
         // Calculate average monthly expenses (last 12 months)
-        BigDecimal monthlyExpenses = calculateAverageMonthlyExpenses(userId, 12);
-        BigDecimal annualExpenses = monthlyExpenses.multiply(new BigDecimal("12"));
+        BigDecimal monthlyExpenses = averageMonthly(snapshot.getExpensesLast12Months(), 12);
+        BigDecimal annualExpenses = monthlyExpenses.multiply(TWELVE);
 
         // Calculate FI number (4% rule = 25x annual expenses)
-        BigDecimal fiNumber = annualExpenses.multiply(new BigDecimal("25"));
+        BigDecimal fiNumber = annualExpenses.multiply(FI_MULTIPLIER);
 
-        // Get current net worth
-        NetWorthMetrics netWorth = calculateNetWorth(userId);
+        // Current net worth
         BigDecimal currentNetWorth = netWorth.netWorth;
 
         // Calculate progress percentage
         BigDecimal progressPercent = fiNumber.compareTo(BigDecimal.ZERO) > 0
                 ? currentNetWorth.divide(fiNumber, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"))
+                        .multiply(HUNDRED)
                 : BigDecimal.ZERO;
 
         // Calculate years to FI (assuming 10% annual return)
-        BigDecimal monthlySavings = calculateMonthlySavings(userId);
-        BigDecimal yearsToFI = calculateYearsToFI(currentNetWorth, fiNumber, monthlySavings, new BigDecimal("0.10"));
+        BigDecimal monthlySavings = calculateMonthlySavings(snapshot);
+        BigDecimal yearsToFI = FinancialFreedomSolver.yearsToTarget(currentNetWorth, fiNumber, monthlySavings,
+                ASSUMED_ANNUAL_RETURN);
 
         return new FinancialFreedomMetrics(
                 monthlyExpenses, annualExpenses, fiNumber,
-                currentNetWorth, progressPercent, yearsToFI);
-    }
-
-    private BigDecimal calculateYearsToFI(BigDecimal current, BigDecimal target,
-            BigDecimal monthlySavings, BigDecimal annualReturn) {
-        if (monthlySavings.compareTo(BigDecimal.ZERO) <= 0) {
-            return new BigDecimal("-1"); // Cannot reach FI without savings
-        }
-
-        if (current.compareTo(target) >= 0) {
-            return BigDecimal.ZERO; // Already at FI
-        }
-
-        BigDecimal monthlyRate = annualReturn.divide(new BigDecimal("12"), 6, RoundingMode.HALF_UP);
-        int months = 0;
-        BigDecimal accumulated = current;
-
-        while (accumulated.compareTo(target) < 0 && months < 1200) { // Max 100 years
-            accumulated = accumulated.multiply(BigDecimal.ONE.add(monthlyRate))
-                    .add(monthlySavings);
-            months++;
-        }
-
-        return new BigDecimal(months).divide(new BigDecimal("12"), 1, RoundingMode.HALF_UP);
+                currentNetWorth, progressPercent, yearsToFI, monthlySavings);
     }
 
     /**
@@ -430,36 +406,16 @@ public class FinancialHealthAssessmentService {
             return BigDecimal.ZERO;
         }
         return amount.divide(total, 4, RoundingMode.HALF_UP)
-                .multiply(new BigDecimal("100"));
+                .multiply(HUNDRED);
     }
 
-    private BigDecimal calculateAverageMonthlyIncome(UUID userId, int months) {
-        LocalDate startDate = LocalDate.now().minusMonths(months);
-        BigDecimal totalIncome = transactionRepository.findByUserId(userId).stream()
-                .filter(t -> t.getDate() != null && t.getDate().isAfter(startDate))
-                .filter(t -> "INCOME".equals(t.getType()))
-                .filter(t -> t.getAmount() != null)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return totalIncome.divide(new BigDecimal(months), 2, RoundingMode.HALF_UP);
-    }
-
-    private BigDecimal calculateAverageMonthlyExpenses(UUID userId, int months) {
-        LocalDate startDate = LocalDate.now().minusMonths(months);
-        BigDecimal totalExpenses = transactionRepository.findByUserId(userId).stream()
-                .filter(t -> t.getDate() != null && t.getDate().isAfter(startDate))
-                .filter(t -> "EXPENSE".equals(t.getType()))
-                .filter(t -> t.getAmount() != null)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return totalExpenses.divide(new BigDecimal(months), 2, RoundingMode.HALF_UP);
+    private BigDecimal averageMonthly(BigDecimal total, int months) {
+        return total.divide(BigDecimal.valueOf(months), 2, RoundingMode.HALF_UP);
     }
 
-    private BigDecimal calculateMonthlySavings(UUID userId) {
-        BigDecimal monthlyIncome = calculateAverageMonthlyIncome(userId, 3);
-        BigDecimal monthlyExpenses = calculateAverageMonthlyExpenses(userId, 3);
+    private BigDecimal calculateMonthlySavings(FinancialSnapshot snapshot) {
+        BigDecimal monthlyIncome = averageMonthly(snapshot.getIncomeLast3Months(), 3);
+        BigDecimal monthlyExpenses = averageMonthly(snapshot.getExpensesLast3Months(), 3);
         return monthlyIncome.subtract(monthlyExpenses);
     }
 
@@ -469,13 +425,17 @@ public class FinancialHealthAssessmentService {
         final BigDecimal totalAssets;
         final BigDecimal totalLiabilities;
         final NetWorthRating rating;
+        final BigDecimal growthRate;
+        final String trend;
 
         NetWorthMetrics(BigDecimal netWorth, BigDecimal totalAssets, BigDecimal totalLiabilities,
-                NetWorthRating rating) {
+                NetWorthRating rating, BigDecimal growthRate, String trend) {
             this.netWorth = netWorth;
             this.totalAssets = totalAssets;
             this.totalLiabilities = totalLiabilities;
             this.rating = rating;
+            this.growthRate = growthRate;
+            this.trend = trend;
         }
     }
 
@@ -538,15 +498,18 @@ public class FinancialHealthAssessmentService {
         final BigDecimal currentNetWorth;
         final BigDecimal progressPercent;
         final BigDecimal yearsToFI;
+        final BigDecimal monthlySavings;
 
         FinancialFreedomMetrics(BigDecimal monthlyExpenses, BigDecimal annualExpenses, BigDecimal fiNumber,
-                BigDecimal currentNetWorth, BigDecimal progressPercent, BigDecimal yearsToFI) {
+                BigDecimal currentNetWorth, BigDecimal progressPercent, BigDecimal yearsToFI,
+                BigDecimal monthlySavings) {
             this.monthlyExpenses = monthlyExpenses;
             this.annualExpenses = annualExpenses;
             this.fiNumber = fiNumber;
             this.currentNetWorth = currentNetWorth;
             this.progressPercent = progressPercent;
             this.yearsToFI = yearsToFI;
+            this.monthlySavings = monthlySavings;
         }
     }
 }
@@ -1,11 +1,12 @@
 package com.chitieu.domain.service;
 
+import com.chitieu.domain.finance.MoneyAccumulator;
 import com.chitieu.domain.model.Account;
 import com.chitieu.domain.model.AccountType;
 import com.chitieu.domain.model.FinancialHealthScore;
-import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.model.MonthlyRollup;
 import com.chitieu.domain.repository.AccountRepositoryPort;
-import com.chitieu.domain.repository.TransactionRepositoryPort;
+import com.chitieu.domain.repository.TransactionRollupRepositoryPort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -18,20 +19,28 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class FinancialHealthServiceImpl implements FinancialHealthService {
 
-    private final TransactionRepositoryPort transactionRepository;
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final BigDecimal LOW_DEBT_RATIO = new BigDecimal("0.30");
+    private static final BigDecimal HIGH_DEBT_RATIO = new BigDecimal("0.70");
+
+    private final TransactionRollupRepositoryPort rollupRepository;
     private final AccountRepositoryPort accountRepository;
+    private final ExchangeRateService exchangeRateService;
 
     @Override
     public FinancialHealthScore calculateHealthScore(UUID userId) {
-        List<Transaction> transactions = transactionRepository.findByUserId(userId);
-        List<Account> accounts = accountRepository.findByUserId(userId);
+        List<MonthlyRollup> rollups = rollupRepository.findByUserId(userId);
+        List<Account> accounts = exchangeRateService.inCurrency(accountRepository.findByUserId(userId),
+                exchangeRateService.baseCurrencyOf(userId));
 
-        BigDecimal totalBalance = accounts.stream()
-                .map(Account::getBalance)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        MoneyAccumulator balances = new MoneyAccumulator();
+        for (Account account : accounts) {
+            balances.add(account.getBalance());
+        }
+        BigDecimal totalBalance = balances.toBigDecimal();
 
         // Savings Rate factor (40% weight)
-        int savingsScore = calculateSavingsScore(transactions);
+        int savingsScore = calculateSavingsScore(rollups);
 
         // Debt Ratio factor (60% weight)
         int debtScore = calculateDebtScore(accounts);
@@ -46,43 +55,47 @@ public class FinancialHealthServiceImpl implements FinancialHealthService {
                 .build();
     }
 
-    private int calculateSavingsScore(List<Transaction> transactions) {
-        BigDecimal income = transactions.stream()
-                .filter(t -> "INCOME".equals(t.getType()))
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal expense = transactions.stream()
-                .filter(t -> "EXPENSE".equals(t.getType()))
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private int calculateSavingsScore(List<MonthlyRollup> rollups) {
+        MoneyAccumulator incomeTotal = new MoneyAccumulator();
+        MoneyAccumulator expenseTotal = new MoneyAccumulator();
+        for (MonthlyRollup rollup : rollups) {
+            if ("INCOME".equals(rollup.getType())) {
+                incomeTotal.add(rollup.getTotalAmount());
+            } else if ("EXPENSE".equals(rollup.getType())) {
+                expenseTotal.add(rollup.getTotalAmount());
+            }
+        }
+        BigDecimal income = incomeTotal.toBigDecimal();
+        BigDecimal expense = expenseTotal.toBigDecimal();
 
         if (income.compareTo(BigDecimal.ZERO) <= 0)
             return expense.compareTo(BigDecimal.ZERO) > 0 ? 0 : 70;
 
         BigDecimal savingsRate = income.subtract(expense).divide(income, 2, RoundingMode.HALF_UP)
-                .multiply(new BigDecimal("100"));
+                .multiply(HUNDRED);
         return Math.min(100, Math.max(0, savingsRate.intValue()));
     }
 
     private int calculateDebtScore(List<Account> accounts) {
-        BigDecimal creditDebt = accounts.stream()
-                .filter(a -> a.getType() == AccountType.CREDIT && a.getBalance().compareTo(BigDecimal.ZERO) < 0)
-                .map(a -> a.getBalance().abs())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalAssets = accounts.stream()
-                .filter(a -> a.getType() != AccountType.CREDIT)
-                .map(Account::getBalance)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        MoneyAccumulator creditBalances = new MoneyAccumulator(); // Negative CREDIT balances
+        MoneyAccumulator assetBalances = new MoneyAccumulator();
+        for (Account account : accounts) {
+            if (account.getType() != AccountType.CREDIT) {
+                assetBalances.add(account.getBalance());
+            } else if (account.getBalance().signum() < 0) {
+                creditBalances.add(account.getBalance());
+            }
+        }
+        BigDecimal creditDebt = creditBalances.toBigDecimal().negate();
+        BigDecimal totalAssets = assetBalances.toBigDecimal();
 
         if (totalAssets.compareTo(BigDecimal.ZERO) <= 0)
             return creditDebt.compareTo(BigDecimal.ZERO) > 0 ? 0 : 80;
 
         BigDecimal debtRatio = creditDebt.divide(totalAssets, 2, RoundingMode.HALF_UP);
-        if (debtRatio.compareTo(new BigDecimal("0.30")) <= 0)
+        if (debtRatio.compareTo(LOW_DEBT_RATIO) <= 0)
             return 100;
-        if (debtRatio.compareTo(new BigDecimal("0.70")) <= 0)
+        if (debtRatio.compareTo(HIGH_DEBT_RATIO) <= 0)
             return 50;
         return 0;
     }
@@ -0,0 +1,269 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.finance.MoneyAccumulator;
+import com.chitieu.domain.model.*;
+import com.chitieu.domain.repository.AccountRepositoryPort;
+import com.chitieu.domain.repository.DebtRepositoryPort;
+import com.chitieu.domain.repository.TransactionRepositoryPort;
+import com.chitieu.domain.repository.TransactionRollupRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Loads a user's accounts, debts and transactions exactly once and folds them
+ * into a {@link FinancialSnapshot} in a single pass per source.
+ * <p>
+ * Whole months are read from the monthly rollups. The three months that
+ * contain a window boundary are split at the boundary dates and each piece is
+ * summed by the database, so no transaction rows are loaded.
+ */
+@Component
+@RequiredArgsConstructor
+public class FinancialSnapshotAggregator {
+
+    static final Set<String> ESSENTIAL_CATEGORIES = Set.of(
+            "Food", "Housing", "Transportation", "Healthcare", "Utilities");
+
+    static final Set<String> WANTS_CATEGORIES = Set.of(
+            "Entertainment", "Shopping", "Dining", "Travel", "Hobbies");
+
+    private static final BigDecimal CREDIT_MINIMUM_PAYMENT_RATE = new BigDecimal("0.03");
+    private static final BigDecimal MONTHS_PER_YEAR = new BigDecimal("12");
+
+    private final AccountRepositoryPort accountRepository;
+    private final DebtRepositoryPort debtRepository;
+    private final TransactionRepositoryPort transactionRepository;
+    private final TransactionRollupRepositoryPort rollupRepository;
+    private final ExchangeRateService exchangeRateService;
+
+    public FinancialSnapshot load(UUID userId) {
+        return load(userId, LocalDate.now());
+    }
+
+    FinancialSnapshot load(UUID userId, LocalDate today) {
+        Windows windows = new Windows(today);
+
+        Map<LocalDate, List<CategoryTotal>> boundaryTotals = new LinkedHashMap<>();
+        for (LocalDate[] piece : windows.boundaryPieces()) {
+            if (windows.counts(piece[0])) {
+                boundaryTotals.put(piece[0],
+                        transactionRepository.sumByTypeAndCategory(userId, piece[0], piece[1]));
+            }
+        }
+
+        List<Account> accounts = exchangeRateService.inCurrency(accountRepository.findByUserId(userId),
+                exchangeRateService.baseCurrencyOf(userId));
+        return aggregate(userId, today, accounts,
+                debtRepository.findByUserId(userId),
+                rollupRepository.findByUserIdFromMonth(userId, windows.twelveMonthBoundary),
+                boundaryTotals);
+    }
+
+    /**
+     * Folds the sources into a snapshot. Accounts must already be in one
+     * currency. Rollups falling in a boundary month are ignored; those months
+     * must be supplied as totals keyed by the first day of each piece, where a
+     * piece never straddles a window boundary.
+     */
+    public FinancialSnapshot aggregate(UUID userId, LocalDate today, List<Account> accounts, List<Debt> debts,
+            List<MonthlyRollup> rollups, Map<LocalDate, List<CategoryTotal>> boundaryTotals) {
+        FinancialSnapshot.FinancialSnapshotBuilder snapshot = FinancialSnapshot.builder()
+                .userId(userId)
+                .asOf(today);
+        foldAccounts(accounts, snapshot);
+        foldDebts(debts, snapshot);
+        foldTransactions(rollups, boundaryTotals, new Windows(today), snapshot);
+        return snapshot.build();
+    }
+
+    private void foldAccounts(List<Account> accounts, FinancialSnapshot.FinancialSnapshotBuilder snapshot) {
+        MoneyAccumulator totalAssets = new MoneyAccumulator();
+        MoneyAccumulator liquidAssets = new MoneyAccumulator();
+        MoneyAccumulator creditBalances = new MoneyAccumulator(); // Negative CREDIT balances
+
+        for (Account account : accounts) {
+            BigDecimal balance = account.getBalance();
+            if (balance == null) {
+                continue;
+            }
+            int sign = balance.signum();
+            if (sign > 0) {
+                totalAssets.add(balance);
+            }
+            AccountType type = account.getType();
+            if (type == AccountType.CASH || type == AccountType.BANK || type == AccountType.E_WALLET) {
+                liquidAssets.add(balance);
+            } else if (type == AccountType.CREDIT && sign < 0) {
+                creditBalances.add(balance);
+            }
+        }
+
+        BigDecimal creditCardDebt = creditBalances.toBigDecimal().negate();
+        snapshot.totalAssets(totalAssets.toBigDecimal())
+                .liquidAssets(liquidAssets.toBigDecimal())
+                .creditCardDebt(creditCardDebt)
+                .creditCardMinimumPayments(creditCardDebt.multiply(CREDIT_MINIMUM_PAYMENT_RATE));
+    }
+
+    private void foldDebts(List<Debt> debts, FinancialSnapshot.FinancialSnapshotBuilder snapshot) {
+        MoneyAccumulator loanDebt = new MoneyAccumulator();
+        MoneyAccumulator loanPayments = new MoneyAccumulator();
+
+        for (Debt debt : debts) {
+            if (debt.getType() != DebtType.BORROW || !"ACTIVE".equals(debt.getStatus())
+                    || debt.getAmount() == null) {
+                continue;
+            }
+            loanDebt.add(debt.getAmount());
+            loanPayments.add(debt.getAmount().divide(MONTHS_PER_YEAR, 2, RoundingMode.HALF_UP));
+        }
+
+        snapshot.activeLoanDebt(loanDebt.toBigDecimal())
+                .activeLoanMonthlyPayments(loanPayments.toBigDecimal());
+    }
+
+    private void foldTransactions(List<MonthlyRollup> rollups, Map<LocalDate, List<CategoryTotal>> boundaryTotals,
+            Windows windows, FinancialSnapshot.FinancialSnapshotBuilder snapshot) {
+        WindowSums sums = new WindowSums();
+
+        for (MonthlyRollup rollup : rollups) {
+            YearMonth month = rollup.getMonth();
+            if (rollup.getTotalAmount() == null || windows.isBoundary(month)
+                    || !month.isAfter(windows.twelveMonthBoundary)) {
+                continue;
+            }
+            sums.add(rollup.getType(), rollup.getCategory(), rollup.getTotalAmount(),
+                    month.isAfter(windows.oneMonthBoundary),
+                    month.isAfter(windows.threeMonthBoundary),
+                    true);
+        }
+
+        for (Map.Entry<LocalDate, List<CategoryTotal>> piece : boundaryTotals.entrySet()) {
+            LocalDate start = piece.getKey();
+            // 50/30/20 window includes the start date itself
+            boolean inLastMonth = !start.isBefore(windows.oneMonthAgo);
+            boolean inLast3Months = start.isAfter(windows.threeMonthsAgo);
+            boolean inLast12Months = start.isAfter(windows.twelveMonthsAgo);
+            for (CategoryTotal total : piece.getValue()) {
+                if (total.getTotalAmount() != null) {
+                    sums.add(total.getType(), total.getCategory(), total.getTotalAmount(),
+                            inLastMonth, inLast3Months, inLast12Months);
+                }
+            }
+        }
+
+        snapshot.incomeLastMonth(sums.income1m.toBigDecimal())
+                .needsLastMonth(sums.needs1m.toBigDecimal())
+                .wantsLastMonth(sums.wants1m.toBigDecimal())
+                .incomeLast3Months(sums.income3m.toBigDecimal())
+                .expensesLast3Months(sums.expenses3m.toBigDecimal())
+                .essentialExpensesLast3Months(sums.essential3m.toBigDecimal())
+                .expensesLast12Months(sums.expenses12m.toBigDecimal());
+    }
+
+    private static final class Windows {
+        final LocalDate oneMonthAgo;
+        final LocalDate threeMonthsAgo;
+        final LocalDate twelveMonthsAgo;
+        final YearMonth oneMonthBoundary;
+        final YearMonth threeMonthBoundary;
+        final YearMonth twelveMonthBoundary;
+
+        Windows(LocalDate today) {
+            this.oneMonthAgo = today.minusMonths(1);
+            this.threeMonthsAgo = today.minusMonths(3);
+            this.twelveMonthsAgo = today.minusMonths(12);
+            this.oneMonthBoundary = YearMonth.from(oneMonthAgo);
+            this.threeMonthBoundary = YearMonth.from(threeMonthsAgo);
+            this.twelveMonthBoundary = YearMonth.from(twelveMonthsAgo);
+        }
+
+        /**
+         * Splits each boundary month at the first day inside each window, so
+         * every piece lies wholly inside or outside each window
+         */
+        List<LocalDate[]> boundaryPieces() {
+            List<LocalDate> windowStarts = List.of(
+                    twelveMonthsAgo.plusDays(1), threeMonthsAgo.plusDays(1), oneMonthAgo);
+            List<LocalDate[]> pieces = new ArrayList<>();
+            for (YearMonth month : List.of(twelveMonthBoundary, threeMonthBoundary, oneMonthBoundary)) {
+                LocalDate start = month.atDay(1);
+                LocalDate end = month.atEndOfMonth();
+                for (LocalDate split : windowStarts) {
+                    if (split.isAfter(start) && !split.isAfter(end)) {
+                        pieces.add(new LocalDate[] { start, split.minusDays(1) });
+                        start = split;
+                    }
+                }
+                pieces.add(new LocalDate[] { start, end });
+            }
+            return pieces;
+        }
+
+        boolean counts(LocalDate pieceStart) {
+            return pieceStart.isAfter(twelveMonthsAgo);
+        }
+
+        boolean isBoundary(YearMonth month) {
+            return month.equals(oneMonthBoundary) || month.equals(threeMonthBoundary)
+                    || month.equals(twelveMonthBoundary);
+        }
+    }
+
+    private static final class WindowSums {
+        final MoneyAccumulator income1m = new MoneyAccumulator();
+        final MoneyAccumulator needs1m = new MoneyAccumulator();
+        final MoneyAccumulator wants1m = new MoneyAccumulator();
+        final MoneyAccumulator income3m = new MoneyAccumulator();
+        final MoneyAccumulator expenses3m = new MoneyAccumulator();
+        final MoneyAccumulator essential3m = new MoneyAccumulator();
+        final MoneyAccumulator expenses12m = new MoneyAccumulator();
+
+        void add(String type, String category, BigDecimal amount, boolean inLastMonth, boolean inLast3Months,
+                boolean inLast12Months) {
+            boolean income = "INCOME".equals(type);
+            boolean expense = !income && "EXPENSE".equals(type);
+            if (!income && !expense) {
+                return;
+            }
+            boolean essential = expense && category != null && ESSENTIAL_CATEGORIES.contains(category);
+            boolean wants = expense && category != null && WANTS_CATEGORIES.contains(category);
+
+            if (inLastMonth) {
+                if (income) {
+                    income1m.add(amount);
+                } else if (essential) {
+                    needs1m.add(amount);
+                } else if (wants) {
+                    wants1m.add(amount);
+                }
+            }
+
+            if (inLast3Months) {
+                if (income) {
+                    income3m.add(amount);
+                } else {
+                    expenses3m.add(amount);
+                    if (essential) {
+                        essential3m.add(amount);
+                    }
+                }
+            }
+
+            if (expense && inLast12Months) {
+                expenses12m.add(amount);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.finance.MonteCarloFreedomSimulator;
+import com.chitieu.domain.model.FinancialHealthMetrics;
+import com.chitieu.domain.model.FreedomSimulation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs Monte Carlo financial freedom simulations from a user's current
+ * health metrics. Simulations share one bounded fork-join pool, and each
+ * request is capped in paths, horizon and total path-months.
+ */
+@Service
+@Slf4j
+public class FreedomSimulationService {
+
+    private static final BigDecimal MONTHS_PER_YEAR = BigDecimal.valueOf(12);
+    private static final BigDecimal NOT_REACHED = BigDecimal.valueOf(-1);
+
+    private final FinancialHealthAssessmentService assessmentService;
+    private final ForkJoinPool pool;
+    private final MonteCarloFreedomSimulator simulator;
+    private final int maxPaths;
+    private final int maxHorizonMonths;
+    private final long maxPathMonths;
+
+    public FreedomSimulationService(FinancialHealthAssessmentService assessmentService,
+            @Value("${chitieu.fi-simulation.parallelism:0}") int parallelism,
+            @Value("${chitieu.fi-simulation.max-paths:20000}") int maxPaths,
+            @Value("${chitieu.fi-simulation.max-horizon-months:1200}") int maxHorizonMonths,
+            @Value("${chitieu.fi-simulation.max-path-months:12000000}") long maxPathMonths) {
+        this.assessmentService = assessmentService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.simulator = new MonteCarloFreedomSimulator(pool);
+        this.maxPaths = maxPaths;
+        this.maxHorizonMonths = maxHorizonMonths;
+        this.maxPathMonths = maxPathMonths;
+    }
+
+    /**
+     * Simulates years to reach the user's FI number. Paths and horizon are
+     * clamped to the configured caps; the path count is reduced further if
+     * the total path-months would exceed the budget.
+     */
+    public FreedomSimulation simulate(UUID userId, int paths, int horizonMonths, BigDecimal annualReturn,
+            BigDecimal returnVolatility, BigDecimal savingsVolatility, Long seed) {
+        FinancialHealthMetrics metrics = assessmentService.calculateFinancialHealth(userId);
+
+        int horizon = Math.max(1, Math.min(horizonMonths, maxHorizonMonths));
+        int pathCount = (int) Math.max(1, Math.min(Math.min(paths, maxPaths), maxPathMonths / horizon));
+        long effectiveSeed = seed != null ? seed : System.nanoTime();
+
+        long started = System.nanoTime();
+        int[] months = simulator.simulate(
+                metrics.getNetWorth().doubleValue(),
+                metrics.getFinancialFreedomNumber().doubleValue(),
+                metrics.getMonthlySavings().doubleValue(),
+                annualReturn.doubleValue(),
+                returnVolatility.doubleValue(),
+                savingsVolatility.doubleValue(),
+                pathCount, horizon, effectiveSeed);
+        int[] bands = MonteCarloFreedomSimulator.percentiles(months, horizon, 0.10, 0.50, 0.90);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        long reached = 0;
+        for (int m : months) {
+            if (m <= horizon) {
+                reached++;
+            }
+        }
+        log.info("Simulated {} paths x {} months for user {} in {} ms", pathCount, horizon, userId, elapsedMillis);
+
+        return FreedomSimulation.builder()
+                .userId(userId)
+                .currentNetWorth(metrics.getNetWorth())
+                .targetAmount(metrics.getFinancialFreedomNumber())
+                .monthlySavings(metrics.getMonthlySavings())
+                .expectedAnnualReturn(annualReturn)
+                .returnVolatility(returnVolatility)
+                .savingsVolatility(savingsVolatility)
+                .paths(pathCount)
+                .horizonMonths(horizon)
+                .seed(effectiveSeed)
+                .yearsP10(toYears(bands[0], horizon))
+                .yearsP50(toYears(bands[1], horizon))
+                .yearsP90(toYears(bands[2], horizon))
+                .probabilityOfFreedom(BigDecimal.valueOf(reached)
+                        .divide(BigDecimal.valueOf(pathCount), 4, RoundingMode.HALF_UP))
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static BigDecimal toYears(int months, int horizon) {
+        if (months > horizon) {
+            return NOT_REACHED;
+        }
+        return BigDecimal.valueOf(months).divide(MONTHS_PER_YEAR, 1, RoundingMode.HALF_UP);
+    }
+}
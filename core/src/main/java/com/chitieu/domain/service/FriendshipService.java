@@ -21,6 +21,10 @@ public class FriendshipService {
     private final UserRepositoryPort userRepository;
     private final com.chitieu.domain.repository.AccountRepositoryPort accountRepositoryPort;
     private final PrivacyService privacyService;
+    private final ExchangeRateService exchangeRateService;
+
+    /** Currency the rank thresholds below are set in */
+    private static final String RANK_CURRENCY = "VND";
 
     // ... (constructors generated by Lombok)
 
@@ -50,7 +54,10 @@ public class FriendshipService {
         try {
             Map<UUID, java.math.BigDecimal> wealthMap = accountRepositoryPort
                     .findTotalBalanceByUserIds(Collections.singletonList(friend.getId()));
-            totalWealth = wealthMap.getOrDefault(friend.getId(), java.math.BigDecimal.ZERO);
+            // Summed in the base currency of the rates table
+            totalWealth = exchangeRateService.convert(
+                    wealthMap.getOrDefault(friend.getId(), java.math.BigDecimal.ZERO),
+                    exchangeRateService.current().getBaseCurrency(), RANK_CURRENCY);
         } catch (Exception e) {
             log.warn("Failed to fetch wealth for user {}", friend.getId());
         }
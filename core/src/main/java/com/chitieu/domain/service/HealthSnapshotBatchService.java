@@ -0,0 +1,191 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.model.BatchCheckpoint;
+import com.chitieu.domain.model.FinancialHealthMetrics;
+import com.chitieu.domain.model.HealthSnapshot;
+import com.chitieu.domain.repository.BatchCheckpointRepositoryPort;
+import com.chitieu.domain.repository.HealthSnapshotRepositoryPort;
+import com.chitieu.domain.repository.UserRepositoryPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nightly job that scores every user and stores one {@link HealthSnapshot} per
+ * user per day. Users are read in keyset pages and scored on a bounded pool;
+ * the checkpoint is saved after each page so an interrupted run resumes where
+ * it stopped. Peer benchmark sketches are updated as users are scored and
+ * flushed with each checkpoint.
+ */
+@Service
+@Slf4j
+public class HealthSnapshotBatchService {
+
+    static final String JOB_NAME = "health-snapshot";
+
+    private final UserRepositoryPort userRepository;
+    private final FinancialHealthAssessmentService assessmentService;
+    private final HealthSnapshotRepositoryPort snapshotRepository;
+    private final BatchCheckpointRepositoryPort checkpointRepository;
+    private final PeerBenchmarkService peerBenchmarkService;
+    private final int pageSize;
+    private final int parallelism;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public HealthSnapshotBatchService(UserRepositoryPort userRepository,
+            FinancialHealthAssessmentService assessmentService,
+            HealthSnapshotRepositoryPort snapshotRepository,
+            BatchCheckpointRepositoryPort checkpointRepository,
+            PeerBenchmarkService peerBenchmarkService,
+            @Value("${chitieu.health-snapshot.page-size:500}") int pageSize,
+            @Value("${chitieu.health-snapshot.parallelism:4}") int parallelism) {
+        this.userRepository = userRepository;
+        this.assessmentService = assessmentService;
+        this.snapshotRepository = snapshotRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.peerBenchmarkService = peerBenchmarkService;
+        this.pageSize = Math.max(1, pageSize);
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    @Scheduled(cron = "${chitieu.health-snapshot.cron:0 0 2 * * *}")
+    public void runNightly() {
+        run(LocalDate.now());
+    }
+
+    /**
+     * Snapshots all users for {@code runDate}, resuming from the checkpoint if a
+     * run for the same date was interrupted. Returns the number of users scored
+     * by this call.
+     */
+    public long run(LocalDate runDate) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Health snapshot batch already running, skipping");
+            return 0;
+        }
+        try {
+            return runPages(runDate);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long runPages(LocalDate runDate) {
+        UUID cursor = null;
+        long processedTotal = 0;
+
+        BatchCheckpoint checkpoint = checkpointRepository.findByJobName(JOB_NAME).orElse(null);
+        if (checkpoint != null && runDate.equals(checkpoint.getRunDate())) {
+            if (checkpoint.isCompleted()) {
+                log.info("Health snapshots for {} already completed", runDate);
+                return 0;
+            }
+            cursor = checkpoint.getLastUserId();
+            processedTotal = checkpoint.getProcessedCount();
+            log.info("Resuming health snapshots for {} after {} users", runDate, processedTotal);
+        }
+
+        long start = System.nanoTime();
+        long processedNow = 0;
+        long failed = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            while (true) {
+                List<UUID> page = userRepository.findIdsAfter(cursor, pageSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                List<Future<?>> futures = new ArrayList<>(page.size());
+                for (UUID userId : page) {
+                    futures.add(executor.submit(() -> snapshotUser(userId, runDate)));
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        futures.get(i).get();
+                    } catch (ExecutionException e) {
+                        failed++;
+                        log.error("Health snapshot failed for user {}", page.get(i), e.getCause());
+                    }
+                }
+
+                cursor = page.get(page.size() - 1);
+                processedNow += page.size();
+                processedTotal += page.size();
+                peerBenchmarkService.flush();
+                saveCheckpoint(runDate, cursor, processedTotal, false);
+                log.debug("Health snapshots: {} users done, {} users/s", processedTotal,
+                        usersPerSecond(processedNow, start));
+
+                if (page.size() < pageSize) {
+                    break;
+                }
+            }
+            saveCheckpoint(runDate, cursor, processedTotal, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Health snapshot batch interrupted after {} users; will resume from checkpoint", processedTotal);
+            return processedNow;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        log.info("Health snapshots for {}: {} users ({} failed) in {} ms, {} users/s", runDate, processedNow, failed,
+                (System.nanoTime() - start) / 1_000_000, usersPerSecond(processedNow, start));
+        return processedNow;
+    }
+
+    private void snapshotUser(UUID userId, LocalDate runDate) {
+        FinancialHealthMetrics metrics = assessmentService.computeFinancialHealth(userId);
+        HealthSnapshot previous = snapshotRepository.findLatest(userId).orElse(null);
+        HealthSnapshot snapshot = HealthSnapshot.builder()
+                .userId(userId)
+                .snapshotDate(runDate)
+                .overallScore(metrics.getOverallScore())
+                .netWorth(metrics.getNetWorth())
+                .totalAssets(metrics.getTotalAssets())
+                .totalLiabilities(metrics.getTotalLiabilities())
+                .netWorthRating(metrics.getNetWorthRating())
+                .liquidAssets(metrics.getLiquidAssets())
+                .liquidityMonths(metrics.getLiquidityMonths())
+                .savingsPercent(metrics.getSavingsPercent())
+                .debtToIncomeRatio(metrics.getDebtToIncomeRatio())
+                .currentProgress(metrics.getCurrentProgress())
+                .yearsToFreedom(metrics.getYearsToFreedom())
+                .build();
+        snapshotRepository.save(snapshot);
+
+        // Peer sketches track each user's latest snapshot; a back-dated run leaves them alone
+        if (previous == null || !previous.getSnapshotDate().isAfter(runDate)) {
+            peerBenchmarkService.record(previous, snapshot);
+        }
+    }
+
+    private void saveCheckpoint(LocalDate runDate, UUID lastUserId, long processed, boolean completed) {
+        checkpointRepository.save(BatchCheckpoint.builder()
+                .jobName(JOB_NAME)
+                .runDate(runDate)
+                .lastUserId(lastUserId)
+                .processedCount(processed)
+                .completed(completed)
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static long usersPerSecond(long users, long startNanos) {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        return users * 1_000_000_000L / elapsedNanos;
+    }
+}
@@ -0,0 +1,118 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.cache.SingleFlightCache;
+import com.chitieu.domain.model.IdempotencyRecord;
+import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.repository.IdempotencyKeyRepositoryPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Store of used Idempotency-Keys. Keys are unique per user in the database;
+ * recent ones are also held in memory so a retry is answered without a
+ * query. Keys are forgotten after the retention period.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepositoryPort repository;
+    private final SingleFlightCache<String, Optional<IdempotencyRecord>> recent;
+    private final long retentionHours;
+
+    public IdempotencyService(IdempotencyKeyRepositoryPort repository,
+            @Value("${chitieu.idempotency.cache-ttl-seconds:600}") long ttlSeconds,
+            @Value("${chitieu.idempotency.cache-max-size:100000}") int maxSize,
+            @Value("${chitieu.idempotency.retention-hours:24}") long retentionHours) {
+        this.repository = repository;
+        this.recent = new SingleFlightCache<>(ttlSeconds, TimeUnit.SECONDS, maxSize);
+        this.retentionHours = retentionHours;
+    }
+
+    /**
+     * The completed use of the key, if any. Concurrent lookups of one key
+     * share a single query.
+     */
+    public Optional<IdempotencyRecord> lookup(UUID userId, String key) {
+        return recent.get(cacheKey(userId, key), k -> repository.find(userId, key));
+    }
+
+    /**
+     * Claims the key for the caller's transaction. Returns empty if the caller
+     * now owns the key, or the earlier use if another request got there
+     * first; the claim is undone if the caller's transaction rolls back.
+     */
+    public Optional<IdempotencyRecord> claim(UUID userId, String key, String requestHash) {
+        if (repository.claim(userId, key, requestHash)) {
+            return Optional.empty();
+        }
+        // The competing claim has committed, otherwise the insert would still be waiting
+        recent.invalidate(cacheKey(userId, key));
+        return lookup(userId, key);
+    }
+
+    /**
+     * Records the result of the key's request; the cached lookup is dropped
+     * once the transaction commits so the next retry reads the result.
+     */
+    public void complete(UUID userId, String key, UUID transactionId) {
+        repository.complete(userId, key, transactionId);
+        String cacheKey = cacheKey(userId, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    recent.invalidate(cacheKey);
+                }
+            });
+        } else {
+            recent.invalidate(cacheKey);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chitieu.idempotency.purge-ms:3600000}")
+    public void purgeExpired() {
+        int removed = repository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            log.info("Purged {} idempotency keys older than {} hours", removed, retentionHours);
+        }
+    }
+
+    /**
+     * Fingerprint of the fields a client controls, used to reject a key that
+     * is reused for a different request
+     */
+    public static String fingerprint(Transaction transaction) {
+        String canonical = (transaction.getAmount() == null ? "" : transaction.getAmount().stripTrailingZeros()
+                .toPlainString())
+                + "|" + transaction.getCategory()
+                + "|" + transaction.getType()
+                + "|" + transaction.getAccountId()
+                + "|" + transaction.getDescription();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String cacheKey(UUID userId, String key) {
+        return userId + "|" + key;
+    }
+}
@@ -0,0 +1,402 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.event.FinancialDataChangedEvent;
+import com.chitieu.domain.finance.ExchangeRates;
+import com.chitieu.domain.model.Account;
+import com.chitieu.domain.model.BalanceAsOf;
+import com.chitieu.domain.model.BalanceCheckpoint;
+import com.chitieu.domain.model.BalanceClosing;
+import com.chitieu.domain.model.BatchCheckpoint;
+import com.chitieu.domain.model.JournalEntry;
+import com.chitieu.domain.model.JournalKind;
+import com.chitieu.domain.model.LedgerAccount;
+import com.chitieu.domain.model.LedgerBalance;
+import com.chitieu.domain.model.NetWorthAsOf;
+import com.chitieu.domain.model.Transfer;
+import com.chitieu.domain.repository.AccountRepositoryPort;
+import com.chitieu.domain.repository.BatchCheckpointRepositoryPort;
+import com.chitieu.domain.repository.JournalRepositoryPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Double-entry journal behind account balances. Every change to a balance
+ * is posted as a journal whose legs sum to zero, in the same DB transaction
+ * as the cached balance on the account row. The journal is the record; the
+ * cached balance is a projection of it.
+ * <p>
+ * A checkpoint of the balance is written inline every
+ * {@code checkpointInterval} entries of an account, so rebuilding a balance
+ * sums at most one interval of entries.
+ * <p>
+ * Past balances come from month-end closings keyed by effective date. A
+ * nightly job closes each month once it is over, and a backdated posting
+ * shifts the closings at or after its date in its own DB transaction. A
+ * balance as of any date is the nearest closing at or before it plus the
+ * entries dated in between, at most about a month of them.
+ */
+@Service
+@Slf4j
+public class LedgerService {
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final int RECONCILE_PAGE = 500;
+    private static final String EFFECTIVE_DATE_BACKFILL = "journal-effective-date-backfill";
+
+    private final AccountRepositoryPort accountRepository;
+    private final JournalRepositoryPort journalRepository;
+    private final BatchCheckpointRepositoryPort checkpointRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExchangeRateService exchangeRateService;
+    private final long checkpointInterval;
+
+    public LedgerService(AccountRepositoryPort accountRepository, JournalRepositoryPort journalRepository,
+            BatchCheckpointRepositoryPort checkpointRepository,
+            ApplicationEventPublisher eventPublisher, ExchangeRateService exchangeRateService,
+            @Value("${chitieu.ledger.checkpoint-interval:1000}") long checkpointInterval) {
+        this.accountRepository = accountRepository;
+        this.journalRepository = journalRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.eventPublisher = eventPublisher;
+        this.exchangeRateService = exchangeRateService;
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+    }
+
+    /**
+     * Posts the legs as one journal and returns the new balance of each
+     * account touched. Accounts are locked in id order so concurrent journals
+     * over the same accounts cannot deadlock.
+     *
+     * @throws IllegalArgumentException if the legs do not sum to zero
+     */
+    @Transactional
+    public Map<UUID, BigDecimal> post(UUID userId, JournalKind kind, String memo, List<JournalEntry> legs) {
+        return post(UUID.randomUUID(), userId, kind, memo, LocalDate.now(), legs);
+    }
+
+    /**
+     * As {@link #post(UUID, JournalKind, String, List)}, with the date the
+     * journal takes effect on, e.g. a backdated transaction's date
+     */
+    @Transactional
+    public Map<UUID, BigDecimal> post(UUID userId, JournalKind kind, String memo, LocalDate effectiveDate,
+            List<JournalEntry> legs) {
+        return post(UUID.randomUUID(), userId, kind, memo, effectiveDate != null ? effectiveDate : LocalDate.now(),
+                legs);
+    }
+
+    private Map<UUID, BigDecimal> post(UUID journalId, UUID userId, JournalKind kind, String memo,
+            LocalDate effectiveDate, List<JournalEntry> legs) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (JournalEntry leg : legs) {
+            if ((leg.getLedger() == LedgerAccount.ACCOUNT) != (leg.getAccountId() != null)) {
+                throw new IllegalArgumentException("Only ACCOUNT legs name an account");
+            }
+            sum = sum.add(leg.getAmount());
+        }
+        if (legs.isEmpty() || sum.signum() != 0) {
+            throw new IllegalArgumentException("Journal does not balance: " + sum);
+        }
+
+        List<JournalEntry> ordered = new ArrayList<>(legs);
+        ordered.sort(Comparator.comparing(JournalEntry::getAccountId,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+        // Closings only exist for past days, so only a backdated entry can change one
+        boolean backdated = effectiveDate.isBefore(LocalDate.now());
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        List<JournalEntry> entries = new ArrayList<>(ordered.size());
+        for (JournalEntry leg : ordered) {
+            Long sequence = null;
+            if (leg.getAccountId() != null) {
+                LedgerBalance updated = accountRepository.incrementBalance(userId, leg.getAccountId(), leg.getAmount())
+                        .orElseThrow(() -> new RuntimeException("Account not found"));
+                sequence = updated.getSequence();
+                if (sequence == 1) {
+                    // Whatever the balance was before its first entry, e.g. an account older than the journal
+                    journalRepository.saveCheckpoint(leg.getAccountId(), 0,
+                            updated.getBalance().subtract(leg.getAmount()));
+                }
+                if (sequence % checkpointInterval == 0) {
+                    journalRepository.saveCheckpoint(leg.getAccountId(), sequence, updated.getBalance());
+                }
+                if (backdated) {
+                    journalRepository.shiftClosings(leg.getAccountId(), effectiveDate, leg.getAmount());
+                }
+                balances.put(leg.getAccountId(), updated.getBalance());
+            }
+            // Taken under the account's row lock, so an account's entries are in time order
+            LocalDateTime now = LocalDateTime.now();
+            entries.add(JournalEntry.builder()
+                    .journalId(journalId)
+                    .userId(userId)
+                    .accountId(leg.getAccountId())
+                    .ledger(leg.getLedger())
+                    .amount(leg.getAmount())
+                    .sequence(sequence)
+                    .kind(kind)
+                    .memo(memo)
+                    .effectiveDate(effectiveDate)
+                    .createdAt(now)
+                    .build());
+        }
+        journalRepository.append(entries);
+        return balances;
+    }
+
+    /**
+     * Moves {@code amount} between two of the user's accounts as one journal:
+     * both balances change or neither does
+     *
+     * @throws IllegalArgumentException for a non-positive amount, the same
+     *                                  account twice, or different currencies
+     */
+    @Transactional
+    public Transfer transfer(UUID userId, UUID fromAccountId, UUID toAccountId, BigDecimal amount, String note) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (fromAccountId == null || toAccountId == null || fromAccountId.equals(toAccountId)) {
+            throw new IllegalArgumentException("Transfer needs two different accounts");
+        }
+        Account from = ownedAccount(userId, fromAccountId);
+        Account to = ownedAccount(userId, toAccountId);
+        if (!from.getCurrency().equals(to.getCurrency())) {
+            throw new IllegalArgumentException("Accounts hold different currencies");
+        }
+
+        UUID journalId = UUID.randomUUID();
+        Map<UUID, BigDecimal> balances = post(journalId, userId, JournalKind.TRANSFER, note, LocalDate.now(), List.of(
+                accountLeg(fromAccountId, amount.negate()),
+                accountLeg(toAccountId, amount)));
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId));
+        return Transfer.builder()
+                .journalId(journalId)
+                .fromAccountId(fromAccountId)
+                .toAccountId(toAccountId)
+                .amount(amount)
+                .note(note)
+                .fromBalance(balances.get(fromAccountId))
+                .toBalance(balances.get(toAccountId))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    public List<JournalEntry> getJournal(UUID userId, UUID accountId, int limit) {
+        ownedAccount(userId, accountId);
+        return journalRepository.findByAccountId(accountId, limit);
+    }
+
+    /**
+     * Balance of the user's account at the end of {@code date}, counting
+     * entries by their effective date. A backdated transaction changes the
+     * answer for the days since its date, as it does the transaction list.
+     */
+    public BalanceAsOf getBalanceAsOf(UUID userId, UUID accountId, LocalDate date) {
+        return balanceAsOf(ownedAccount(userId, accountId), date);
+    }
+
+    /**
+     * Sum of the user's current accounts at the end of {@code date}, in the
+     * user's base currency at today's rates. Accounts in a currency without a
+     * rate are listed but left out of the sum.
+     */
+    public NetWorthAsOf getNetWorthAsOf(UUID userId, LocalDate date) {
+        String currency = exchangeRateService.baseCurrencyOf(userId);
+        ExchangeRates rates = exchangeRateService.current();
+        List<BalanceAsOf> balances = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Account account : accountRepository.findByUserId(userId)) {
+            BalanceAsOf balance = balanceAsOf(account, date);
+            balances.add(balance);
+            if (!rates.supports(account.getCurrency()) || !rates.supports(currency)) {
+                log.warn("Leaving account {} out of net worth: no exchange rate between {} and {}", account.getId(),
+                        account.getCurrency(), currency);
+                continue;
+            }
+            total = total.add(rates.convert(balance.getBalance(), account.getCurrency(), currency));
+        }
+        return NetWorthAsOf.builder()
+                .userId(userId)
+                .asOf(date)
+                .netWorth(total)
+                .currency(currency)
+                .accounts(balances)
+                .build();
+    }
+
+    /**
+     * The nearest closing at or before {@code date} plus the entries dated
+     * after it, summed over a range of idx_journal_entries_account_effective.
+     * Before the account's first closing only backdated entries can be dated,
+     * so the balance before its first entry plus those is as short a sum.
+     */
+    private BalanceAsOf balanceAsOf(Account account, LocalDate date) {
+        Optional<LedgerBalance> ledger = accountRepository.findLedgerBalance(account.getId());
+        // Never journaled: the balance has no history to replay
+        BigDecimal balance = account.getBalance();
+        long sequence = 0;
+        if (ledger.isPresent()) {
+            sequence = ledger.get().getSequence();
+            Optional<BalanceClosing> closing = journalRepository.findClosing(account.getId(), date);
+            if (closing.isPresent()) {
+                balance = closing.get().getBalance().add(journalRepository.sumEffectiveBetween(account.getId(),
+                        closing.get().getClosingDate(), date));
+            } else {
+                balance = journalRepository.findCheckpoint(account.getId(), 0)
+                        .map(BalanceCheckpoint::getBalance)
+                        .orElse(BigDecimal.ZERO)
+                        .add(journalRepository.sumEffectiveBetween(account.getId(), null, date));
+            }
+        }
+        return BalanceAsOf.builder()
+                .accountId(account.getId())
+                .accountName(account.getName())
+                .currency(account.getCurrency())
+                .asOf(date)
+                .balance(balance)
+                .sequence(sequence)
+                .build();
+    }
+
+    @Scheduled(cron = "${chitieu.ledger.close-cron:0 45 4 * * *}")
+    public void closeMonths() {
+        closeMonths(LocalDate.now());
+    }
+
+    /**
+     * Closes every month of every journaled account that ended before
+     * yesterday and is not closed yet. An account's first closing is the
+     * month end before its earliest entry. The day's margin means a posting
+     * that still took its date as the month's last day has committed by the
+     * time that month is closed.
+     */
+    void closeMonths(LocalDate today) {
+        LocalDate lastClosable = YearMonth.from(today.minusDays(1)).minusMonths(1).atEndOfMonth();
+        int closed = 0;
+        List<UUID> page = accountRepository.findJournaledAccountIds(FIRST_ID, RECONCILE_PAGE);
+        while (!page.isEmpty()) {
+            for (UUID accountId : page) {
+                Optional<YearMonth> next = journalRepository.findLatestClosingDate(accountId)
+                        .map(date -> YearMonth.from(date).plusMonths(1))
+                        .or(() -> journalRepository.findFirstEffectiveDate(accountId)
+                                .map(date -> YearMonth.from(date).minusMonths(1)));
+                if (next.isEmpty()) {
+                    continue;
+                }
+                for (YearMonth month = next.get(); !month.atEndOfMonth().isAfter(lastClosable);
+                        month = month.plusMonths(1)) {
+                    journalRepository.closeBalance(accountId, month.atEndOfMonth());
+                    closed++;
+                }
+            }
+            page = accountRepository.findJournaledAccountIds(page.get(page.size() - 1), RECONCILE_PAGE);
+        }
+        log.info("Closed {} account months up to {}", closed, lastClosable);
+    }
+
+    /**
+     * Dates entries journaled before value dates were recorded by when they
+     * were posted. Runs until it has completed once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillEffectiveDates() {
+        if (checkpointRepository.findByJobName(EFFECTIVE_DATE_BACKFILL).map(BatchCheckpoint::isCompleted)
+                .orElse(false)) {
+            return;
+        }
+        int dated = journalRepository.backfillEffectiveDates();
+        checkpointRepository.save(BatchCheckpoint.builder()
+                .jobName(EFFECTIVE_DATE_BACKFILL)
+                .runDate(LocalDate.now())
+                .processedCount(dated)
+                .completed(true)
+                .updatedAt(LocalDateTime.now())
+                .build());
+        log.info("Dated {} journal entries by when they were posted", dated);
+    }
+
+    /**
+     * Balance after the account's first {@code sequence} entries, from the
+     * latest checkpoint at or before it
+     */
+    public BigDecimal replayBalance(UUID accountId, long sequence) {
+        Optional<BalanceCheckpoint> checkpoint = journalRepository.findCheckpoint(accountId, sequence);
+        long from = checkpoint.map(BalanceCheckpoint::getSequence).orElse(0L);
+        BigDecimal base = checkpoint.map(BalanceCheckpoint::getBalance).orElse(BigDecimal.ZERO);
+        return base.add(journalRepository.sumBetween(accountId, from, sequence));
+    }
+
+    /**
+     * Rebuilds every journaled balance and repairs cached ones that drifted,
+     * e.g. after a manual edit of the accounts table
+     */
+    @Scheduled(cron = "${chitieu.ledger.reconcile-cron:0 15 4 * * *}")
+    public void reconcile() {
+        int checked = 0;
+        int repaired = 0;
+        List<UUID> page = accountRepository.findJournaledAccountIds(FIRST_ID, RECONCILE_PAGE);
+        while (!page.isEmpty()) {
+            for (UUID accountId : page) {
+                Optional<LedgerBalance> cached = accountRepository.findLedgerBalance(accountId);
+                if (cached.isEmpty()) {
+                    continue;
+                }
+                checked++;
+                long sequence = cached.get().getSequence();
+                BigDecimal replayed = replayBalance(accountId, sequence);
+                if (replayed.compareTo(cached.get().getBalance()) != 0) {
+                    log.error("Balance of account {} is {} but its journal gives {} at entry {}",
+                            accountId, cached.get().getBalance(), replayed, sequence);
+                    // Skipped if an entry was posted meanwhile; the next run looks again
+                    if (accountRepository.repairBalance(accountId, sequence, replayed)) {
+                        repaired++;
+                        accountRepository.findById(accountId).ifPresent(account -> eventPublisher.publishEvent(
+                                new FinancialDataChangedEvent(account.getUserId())));
+                    }
+                }
+            }
+            page = accountRepository.findJournaledAccountIds(page.get(page.size() - 1), RECONCILE_PAGE);
+        }
+        log.info("Reconciled {} account balances against the journal, repaired {}", checked, repaired);
+    }
+
+    static JournalEntry accountLeg(UUID accountId, BigDecimal amount) {
+        return JournalEntry.builder()
+                .ledger(LedgerAccount.ACCOUNT)
+                .accountId(accountId)
+                .amount(amount)
+                .build();
+    }
+
+    static JournalEntry nominalLeg(LedgerAccount ledger, BigDecimal amount) {
+        return JournalEntry.builder()
+                .ledger(ledger)
+                .amount(amount)
+                .build();
+    }
+
+    private Account ownedAccount(UUID userId, UUID accountId) {
+        return accountRepository.findById(accountId)
+                .filter(account -> account.getUserId().equals(userId))
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+    }
+}
@@ -0,0 +1,221 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.benchmark.QuantileSketch;
+import com.chitieu.domain.model.HealthSnapshot;
+import com.chitieu.domain.model.PeerBenchmark;
+import com.chitieu.domain.model.PeerMetric;
+import com.chitieu.domain.model.PeerSketchShard;
+import com.chitieu.domain.repository.HealthSnapshotRepositoryPort;
+import com.chitieu.domain.repository.PeerSketchRepositoryPort;
+import com.chitieu.domain.repository.UserRepositoryPort;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Peer percentiles of health metrics per cohort, kept in quantile sketches
+ * that hold the latest snapshot value of every user.
+ * <p>
+ * Each node updates its own shard of every sketch as snapshots are
+ * recomputed and persists it; the ranks served are the merge of all nodes'
+ * shards, refreshed after every flush and periodically.
+ */
+@Service
+@Slf4j
+public class PeerBenchmarkService {
+
+    public static final String ALL_USERS = "ALL";
+
+    private static final String NET_WORTH_COHORT_PREFIX = "NET_WORTH_";
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final PeerSketchRepositoryPort sketchRepository;
+    private final HealthSnapshotRepositoryPort snapshotRepository;
+    private final UserRepositoryPort userRepository;
+    private final String nodeId;
+
+    // This node's shards, keyed by metric and cohort
+    private final Map<ShardKey, QuantileSketch> local = new ConcurrentHashMap<>();
+    private volatile Map<ShardKey, QuantileSketch.Ranks> ranks = Map.of();
+
+    public PeerBenchmarkService(PeerSketchRepositoryPort sketchRepository,
+            HealthSnapshotRepositoryPort snapshotRepository,
+            UserRepositoryPort userRepository,
+            @Value("${chitieu.peer-benchmark.node-id:${HOSTNAME:local}}") String nodeId) {
+        this.sketchRepository = sketchRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.userRepository = userRepository;
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Replaces a user's previous snapshot values with the current ones. The
+     * previous snapshot must be the one last recorded for the user, or null.
+     */
+    public void record(HealthSnapshot previous, HealthSnapshot current) {
+        for (PeerMetric metric : PeerMetric.values()) {
+            if (previous != null) {
+                apply(metric, previous, false);
+            }
+            apply(metric, current, true);
+        }
+    }
+
+    /**
+     * Persists this node's shards and refreshes the served ranks
+     */
+    public void flush() {
+        LocalDateTime now = LocalDateTime.now();
+        local.forEach((key, sketch) -> sketchRepository.save(PeerSketchShard.builder()
+                .nodeId(nodeId)
+                .metric(key.metric)
+                .cohort(key.cohort)
+                .data(sketch.toBytes())
+                .sampleCount(sketch.getTotal())
+                .updatedAt(now)
+                .build()));
+        refresh();
+    }
+
+    /**
+     * Merges every node's shards into the rank tables served to users
+     */
+    @Scheduled(fixedDelayString = "${chitieu.peer-benchmark.refresh-ms:300000}")
+    public void refresh() {
+        Map<ShardKey, QuantileSketch> merged = new HashMap<>();
+        for (PeerSketchShard shard : sketchRepository.findAll()) {
+            // This node's rows may lag its in-memory shards; use the latter
+            if (!nodeId.equals(shard.getNodeId())) {
+                merged.computeIfAbsent(new ShardKey(shard.getMetric(), shard.getCohort()), k -> new QuantileSketch())
+                        .merge(QuantileSketch.fromBytes(shard.getData()));
+            }
+        }
+        local.forEach((key, sketch) -> merged.computeIfAbsent(key, k -> new QuantileSketch()).merge(sketch));
+
+        Map<ShardKey, QuantileSketch.Ranks> frozen = new HashMap<>(merged.size() * 2);
+        merged.forEach((key, sketch) -> frozen.put(key, sketch.freeze()));
+        ranks = frozen;
+    }
+
+    /**
+     * Percentiles of the user's latest snapshot among all users and among
+     * users with the same net worth rating
+     */
+    public List<PeerBenchmark> benchmark(UUID userId) {
+        HealthSnapshot snapshot = snapshotRepository.findLatest(userId).orElse(null);
+        if (snapshot == null) {
+            return List.of();
+        }
+        Map<ShardKey, QuantileSketch.Ranks> current = ranks;
+        List<PeerBenchmark> benchmarks = new ArrayList<>();
+        for (PeerMetric metric : PeerMetric.values()) {
+            BigDecimal value = metric.valueOf(snapshot);
+            if (value == null) {
+                continue;
+            }
+            for (String cohort : cohortsOf(snapshot)) {
+                QuantileSketch.Ranks table = current.get(new ShardKey(metric, cohort));
+                if (table == null || table.getTotal() <= 0) {
+                    continue;
+                }
+                double below = table.rank(value.doubleValue());
+                double betterThan = metric.isHigherBetter() ? below : 1 - below;
+                benchmarks.add(PeerBenchmark.builder()
+                        .metric(metric)
+                        .cohort(cohort)
+                        .value(value)
+                        .betterThanPercent(BigDecimal.valueOf(betterThan * 100).setScale(1, RoundingMode.HALF_UP))
+                        .sampleSize(table.getTotal())
+                        .build());
+            }
+        }
+        return benchmarks;
+    }
+
+    /**
+     * Restores this node's shards and, if no sketches exist anywhere yet,
+     * builds them from the latest snapshot of every user
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        List<PeerSketchShard> stored = sketchRepository.findAll();
+        if (stored.isEmpty()) {
+            rebuild();
+            return;
+        }
+        for (PeerSketchShard shard : stored) {
+            if (nodeId.equals(shard.getNodeId())) {
+                local.put(new ShardKey(shard.getMetric(), shard.getCohort()),
+                        QuantileSketch.fromBytes(shard.getData()));
+            }
+        }
+        refresh();
+    }
+
+    private void rebuild() {
+        log.info("Peer benchmark sketches are empty, building from latest health snapshots");
+        long users = 0;
+        UUID cursor = null;
+        while (true) {
+            List<UUID> page = userRepository.findIdsAfter(cursor, REBUILD_PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            for (HealthSnapshot snapshot : snapshotRepository.findLatestByUserIds(page)) {
+                record(null, snapshot);
+                users++;
+            }
+            cursor = page.get(page.size() - 1);
+            if (page.size() < REBUILD_PAGE_SIZE) {
+                break;
+            }
+        }
+        flush();
+        log.info("Peer benchmark sketches built from {} users", users);
+    }
+
+    private void apply(PeerMetric metric, HealthSnapshot snapshot, boolean add) {
+        BigDecimal value = metric.valueOf(snapshot);
+        if (value == null) {
+            return;
+        }
+        double v = value.doubleValue();
+        for (String cohort : cohortsOf(snapshot)) {
+            QuantileSketch sketch = local.computeIfAbsent(new ShardKey(metric, cohort), k -> new QuantileSketch());
+            if (add) {
+                sketch.add(v);
+            } else {
+                sketch.remove(v);
+            }
+        }
+    }
+
+    private static List<String> cohortsOf(HealthSnapshot snapshot) {
+        if (snapshot.getNetWorthRating() == null) {
+            return List.of(ALL_USERS);
+        }
+        return List.of(ALL_USERS, NET_WORTH_COHORT_PREFIX + snapshot.getNetWorthRating().name());
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class ShardKey {
+        private final PeerMetric metric;
+        private final String cohort;
+    }
+}
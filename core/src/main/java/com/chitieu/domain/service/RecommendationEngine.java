@@ -0,0 +1,202 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.model.FinancialHealthMetrics;
+import com.chitieu.domain.model.RecommendationRule;
+import com.chitieu.domain.model.RuleStats;
+import com.chitieu.domain.repository.RecommendationRuleRepositoryPort;
+import com.chitieu.domain.rules.Facts;
+import com.chitieu.domain.rules.RuleSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+/**
+ * Evaluates declarative recommendation rules. Rules come from the bundled
+ * defaults, an optional external file and the database, each overriding the
+ * previous by id. They are compiled into a {@link RuleSet} and recompiled
+ * whenever a source changes, without a restart.
+ */
+@Service
+@Slf4j
+public class RecommendationEngine {
+
+    public static final String HEALTH = "health";
+    public static final String SPENDING = "spending";
+
+    private static final String DEFAULT_RULES = "/rules/recommendations.properties";
+    private static final int DEFAULT_PRIORITY = 100;
+
+    private final RecommendationRuleRepositoryPort ruleRepository;
+    private final String externalLocation;
+    private volatile RuleSet ruleSet;
+    private volatile String fingerprint;
+
+    public RecommendationEngine(RecommendationRuleRepositoryPort ruleRepository,
+            @Value("${chitieu.rules.location:}") String externalLocation) {
+        this.ruleRepository = ruleRepository;
+        this.externalLocation = externalLocation;
+        // Bundled defaults until the database is reachable
+        install(new ArrayList<>(loadDefaults().values()));
+    }
+
+    /**
+     * Messages of all matching rules of the group, in priority order
+     */
+    public List<String> recommend(String group, Consumer<Facts> facts) {
+        RuleSet current = ruleSet;
+        Facts values = current.newFacts();
+        facts.accept(values);
+        return current.evaluate(group, values, false);
+    }
+
+    /**
+     * Message of the first matching rule of the group
+     */
+    public Optional<String> firstMatch(String group, Consumer<Facts> facts) {
+        RuleSet current = ruleSet;
+        Facts values = current.newFacts();
+        facts.accept(values);
+        return current.evaluate(group, values, true).stream().findFirst();
+    }
+
+    public List<String> recommendForHealth(FinancialHealthMetrics metrics) {
+        return recommend(HEALTH, facts -> facts
+                .set("netWorth", metrics.getNetWorth())
+                .setSymbol("netWorthRating", metrics.getNetWorthRating())
+                .set("netWorthGrowthRate", metrics.getNetWorthGrowthRate())
+                .setSymbol("netWorthTrend", metrics.getNetWorthTrend())
+                .set("liquidityMonths", metrics.getLiquidityMonths())
+                .setSymbol("liquiditySafetyLevel", metrics.getLiquiditySafetyLevel())
+                .set("needsPercent", metrics.getNeedsPercent())
+                .set("wantsPercent", metrics.getWantsPercent())
+                .set("savingsPercent", metrics.getSavingsPercent())
+                .setSymbol("budgetCompliance", metrics.getBudgetCompliance())
+                .set("monthlyIncome", metrics.getMonthlyIncome())
+                .set("monthlyExpense", metrics.getMonthlyExpense())
+                .set("monthlySavings", metrics.getMonthlySavings())
+                .set("debtToIncomeRatio", metrics.getDebtToIncomeRatio())
+                .setSymbol("debtRiskLevel", metrics.getDebtRiskLevel())
+                .set("currentProgress", metrics.getCurrentProgress())
+                .set("yearsToFreedom", metrics.getYearsToFreedom())
+                .set("overallScore", metrics.getOverallScore()));
+    }
+
+    public List<RuleStats> stats() {
+        return ruleSet.stats();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${chitieu.rules.reload-ms:60000}", initialDelayString = "${chitieu.rules.reload-ms:60000}")
+    public void reload() {
+        Map<String, RecommendationRule> rules = loadDefaults();
+        if (!externalLocation.isBlank()) {
+            try (Reader reader = Files.newBufferedReader(Path.of(externalLocation), StandardCharsets.UTF_8)) {
+                rules.putAll(parse(reader));
+            } catch (IOException e) {
+                log.warn("Could not read recommendation rules from {}: {}", externalLocation, e.getMessage());
+            }
+        }
+        for (RecommendationRule rule : ruleRepository.findAll()) {
+            rules.put(rule.getId(), rule);
+        }
+        install(new ArrayList<>(rules.values()));
+    }
+
+    private synchronized void install(List<RecommendationRule> rules) {
+        String next = fingerprintOf(rules);
+        if (next.equals(fingerprint)) {
+            return;
+        }
+        List<String> errors = new ArrayList<>();
+        ruleSet = RuleSet.compile(rules, ruleSet, errors);
+        fingerprint = next;
+        errors.forEach(error -> log.warn("Skipping recommendation rule {}", error));
+        log.info("Compiled {} recommendation rules ({} invalid)", rules.size() - errors.size(), errors.size());
+    }
+
+    private Map<String, RecommendationRule> loadDefaults() {
+        try (InputStream in = RecommendationEngine.class.getResourceAsStream(DEFAULT_RULES)) {
+            if (in == null) {
+                log.warn("Bundled recommendation rules not found");
+                return new LinkedHashMap<>();
+            }
+            return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load bundled recommendation rules", e);
+        }
+    }
+
+    // Keys are <group>.<id>.<field>
+    static Map<String, RecommendationRule> parse(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+
+        Map<String, Map<String, String>> fields = new LinkedHashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            int first = key.indexOf('.');
+            int last = key.lastIndexOf('.');
+            if (first <= 0 || last <= first + 1) {
+                continue;
+            }
+            fields.computeIfAbsent(key.substring(0, last), k -> new LinkedHashMap<>())
+                    .put(key.substring(last + 1), properties.getProperty(key).trim());
+        }
+
+        Map<String, RecommendationRule> rules = new LinkedHashMap<>();
+        fields.forEach((qualifiedId, values) -> {
+            String id = qualifiedId.substring(qualifiedId.indexOf('.') + 1);
+            int priority;
+            try {
+                priority = values.containsKey("priority") ? Integer.parseInt(values.get("priority"))
+                        : DEFAULT_PRIORITY;
+            } catch (NumberFormatException e) {
+                log.warn("Skipping recommendation rule {}: invalid priority", id);
+                return;
+            }
+            rules.put(id, RecommendationRule.builder()
+                    .id(id)
+                    .group(qualifiedId.substring(0, qualifiedId.indexOf('.')))
+                    .priority(priority)
+                    .condition(values.getOrDefault("when", "false"))
+                    .message(values.getOrDefault("message", ""))
+                    .fallback(Boolean.parseBoolean(values.getOrDefault("fallback", "false")))
+                    .enabled(Boolean.parseBoolean(values.getOrDefault("enabled", "true")))
+                    .build());
+        });
+        return rules;
+    }
+
+    private static String fingerprintOf(List<RecommendationRule> rules) {
+        List<RecommendationRule> sorted = new ArrayList<>(rules);
+        sorted.sort(Comparator.comparing(RecommendationRule::getId));
+        StringBuilder sb = new StringBuilder();
+        for (RecommendationRule rule : sorted) {
+            sb.append(rule.getId()).append('\u0000')
+                    .append(rule.getGroup()).append('\u0000')
+                    .append(rule.getPriority()).append('\u0000')
+                    .append(rule.getCondition()).append('\u0000')
+                    .append(rule.getMessage()).append('\u0000')
+                    .append(rule.isFallback()).append(rule.isEnabled()).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,278 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.model.Account;
+import com.chitieu.domain.model.RecurringTransaction;
+import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.repository.RecurringTransactionRepositoryPort;
+import com.chitieu.domain.schedule.RecurrenceSchedule;
+import com.chitieu.domain.schedule.TimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records recurring transactions when their schedules come due.
+ * <p>
+ * Only runs within the horizon are held in memory, on a timing wheel, so
+ * the database is read once per refresh as a range scan of next_run_at
+ * rather than polled per schedule. A run is recorded in the same DB
+ * transaction that moves its schedule to the following run, conditional on
+ * the schedule still being at this run, so every run is recorded exactly
+ * once however many nodes race for it. Runs missed while no node was up
+ * are overdue on the first refresh and recorded one by one, each dated on
+ * its own day.
+ */
+@Service
+@Slf4j
+public class RecurringTransactionService {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int WHEEL_SIZE = 64;
+
+    private final RecurringTransactionRepositoryPort recurringRepository;
+    private final TransactionService transactionService;
+    private final AccountService accountService;
+    private final TransactionCategorizer categorizer;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final long tickMillis;
+    private final Duration horizon;
+    private final int pageSize;
+
+    // Runs on the wheel or being recorded, so refreshes don't queue them twice
+    private final Map<UUID, LocalDateTime> scheduled = new ConcurrentHashMap<>();
+    private TimingWheel<Run> wheel; // Guarded by this
+    private LocalDateTime loadedUntil = EARLIEST; // Guarded by this
+    private volatile boolean started;
+
+    public RecurringTransactionService(RecurringTransactionRepositoryPort recurringRepository,
+            TransactionService transactionService, AccountService accountService,
+            TransactionCategorizer categorizer, PlatformTransactionManager transactionManager,
+            @Value("${chitieu.recurring.threads:2}") int threads,
+            @Value("${chitieu.recurring.tick-ms:1000}") long tickMillis,
+            @Value("${chitieu.recurring.horizon-minutes:360}") long horizonMinutes,
+            @Value("${chitieu.recurring.page-size:1000}") int pageSize) {
+        this.recurringRepository = recurringRepository;
+        this.transactionService = transactionService;
+        this.accountService = accountService;
+        this.categorizer = categorizer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.tickMillis = tickMillis;
+        this.horizon = Duration.ofMinutes(horizonMinutes);
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the schedule, amount or type is invalid
+     */
+    public RecurringTransaction create(UUID userId, RecurringTransaction request) {
+        RecurrenceSchedule schedule = RecurrenceSchedule.parse(request.getSchedule());
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        String type = request.getType() != null ? request.getType() : "EXPENSE";
+        if (!"INCOME".equals(type) && !"EXPENSE".equals(type)) {
+            throw new IllegalArgumentException("Unknown type " + type);
+        }
+        if (request.getAccountId() != null) {
+            Account account = accountService.getAccountById(request.getAccountId());
+            if (!userId.equals(account.getUserId())) {
+                throw new RuntimeException("Account not found");
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        RecurringTransaction saved = recurringRepository.save(RecurringTransaction.builder()
+                .userId(userId)
+                .accountId(request.getAccountId())
+                .amount(request.getAmount())
+                .category(request.getCategory() != null ? request.getCategory() : AnalyticsService.UNCATEGORIZED)
+                .type(type)
+                .description(request.getDescription())
+                .schedule(schedule.getExpression())
+                .nextRunAt(schedule.next(now))
+                .createdAt(now)
+                .build());
+        offer(saved.getId(), saved.getNextRunAt());
+        return saved;
+    }
+
+    public List<RecurringTransaction> getUserRecurringTransactions(UUID userId) {
+        return recurringRepository.findByUserId(userId);
+    }
+
+    /**
+     * A run already on the wheel finds the schedule gone and does nothing
+     */
+    public void delete(UUID userId, UUID id) {
+        RecurringTransaction recurring = recurringRepository.findById(id)
+                .filter(found -> found.getUserId().equals(userId))
+                .orElseThrow(() -> new RuntimeException("Recurring transaction not found"));
+        recurringRepository.deleteById(recurring.getId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        synchronized (this) {
+            wheel = new TimingWheel<>(tickMillis, WHEEL_SIZE, System.currentTimeMillis());
+        }
+        started = true;
+        refresh();
+    }
+
+    /**
+     * Loads runs up to the new horizon, plus any overdue run that no node has
+     * recorded (e.g. its node died, or recording it failed)
+     */
+    @Scheduled(fixedDelayString = "${chitieu.recurring.refresh-ms:60000}")
+    public void refresh() {
+        if (!started) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(horizon);
+        LocalDateTime from;
+        synchronized (this) {
+            from = loadedUntil;
+            // Set first, so schedules created during the load are offered too
+            loadedUntil = until;
+        }
+        int loaded = 0;
+        if (from.isAfter(EARLIEST)) {
+            loaded += load(EARLIEST, now);
+        }
+        loaded += load(from, until);
+        if (loaded > 0) {
+            log.debug("Loaded {} recurring transaction runs before {}", loaded, until);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chitieu.recurring.tick-ms:1000}")
+    public synchronized void tick() {
+        if (started) {
+            wheel.advance(System.currentTimeMillis(), this::dispatch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        started = false;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private int load(LocalDateTime from, LocalDateTime to) {
+        int loaded = 0;
+        List<RecurringTransaction> page = recurringRepository.findRunsBetween(from, to, pageSize);
+        while (!page.isEmpty()) {
+            for (RecurringTransaction recurring : page) {
+                offer(recurring.getId(), recurring.getNextRunAt());
+            }
+            loaded += page.size();
+            if (page.size() < pageSize) {
+                break;
+            }
+            RecurringTransaction last = page.get(page.size() - 1);
+            page = recurringRepository.findRunsAfter(last.getNextRunAt(), last.getId(), to, pageSize);
+        }
+        return loaded;
+    }
+
+    /**
+     * Puts the run on the wheel if it falls within the loaded horizon; later
+     * runs are picked up by the refresh that reaches them
+     */
+    private synchronized void offer(UUID id, LocalDateTime runAt) {
+        if (!started || runAt == null || !runAt.isBefore(loadedUntil) || runAt.equals(scheduled.put(id, runAt))) {
+            return;
+        }
+        Run run = new Run(id, runAt);
+        if (!wheel.add(run, runAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())) {
+            dispatch(run);
+        }
+    }
+
+    private void dispatch(Run run) {
+        try {
+            executor.execute(() -> fire(run));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the run stays due in the database
+            scheduled.remove(run.id, run.runAt);
+        }
+    }
+
+    private void fire(Run run) {
+        try {
+            LocalDateTime runAt = run.runAt;
+            // Catch up one run at a time until the next one is in the future
+            while (runAt != null && !runAt.isAfter(LocalDateTime.now())) {
+                LocalDateTime due = runAt;
+                runAt = transactionTemplate.execute(status -> record(run.id, due).orElse(null));
+            }
+            scheduled.remove(run.id, run.runAt);
+            offer(run.id, runAt);
+        } catch (RuntimeException e) {
+            scheduled.remove(run.id, run.runAt);
+            log.warn("Could not record recurring transaction {} due {}; retrying on the next refresh",
+                    run.id, run.runAt, e);
+        }
+    }
+
+    /**
+     * Records the run and returns the schedule's next run, or empty if the
+     * run is no longer the schedule's next (already recorded, edited or
+     * deleted) or the schedule has ended
+     */
+    private Optional<LocalDateTime> record(UUID id, LocalDateTime due) {
+        Optional<RecurringTransaction> found = recurringRepository.findById(id);
+        if (found.isEmpty() || !due.equals(found.get().getNextRunAt())) {
+            return Optional.empty();
+        }
+        RecurringTransaction recurring = found.get();
+        LocalDateTime next = RecurrenceSchedule.parse(recurring.getSchedule()).next(due);
+        if (!recurringRepository.advance(id, due, next)) {
+            return Optional.empty();
+        }
+        // Categorised like any other, but a template's category is not the user filing this run
+        transactionService.recordCategorized(recurring.getUserId(), categorizer.categorize(recurring.getUserId(),
+                Transaction.builder()
+                        .amount(recurring.getAmount())
+                        .category(recurring.getCategory())
+                        .type(recurring.getType())
+                        .date(due.toLocalDate())
+                        .accountId(recurring.getAccountId())
+                        .description(recurring.getDescription())
+                        .build()));
+        return Optional.ofNullable(next);
+    }
+
+    private static final class Run {
+        final UUID id;
+        final LocalDateTime runAt;
+
+        Run(UUID id, LocalDateTime runAt) {
+            this.id = id;
+            this.runAt = runAt;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.anomaly.SpendingStatsTable;
+import com.chitieu.domain.model.AnomalyCheckpoint;
+import com.chitieu.domain.model.SpendingAnomaly;
+import com.chitieu.domain.model.SpendingAnomalyType;
+import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.repository.AnomalyCheckpointRepositoryPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Flags unusual expenses as they are recorded: amounts far above the user's
+ * norm for the category, and bursts of expenses in a category the user only
+ * just started using. State lives in memory and is checkpointed periodically,
+ * so scoring never touches the database.
+ */
+@Service
+@Slf4j
+public class SpendingAnomalyDetector {
+
+    private final SpendingStatsTable table;
+    private final NotificationService notificationService;
+    private final AnomalyCheckpointRepositoryPort checkpointRepository;
+    private final String nodeId;
+
+    public SpendingAnomalyDetector(NotificationService notificationService,
+            AnomalyCheckpointRepositoryPort checkpointRepository,
+            @Value("${chitieu.anomaly.node-id:${HOSTNAME:local}}") String nodeId,
+            @Value("${chitieu.anomaly.stripes:64}") int stripes,
+            @Value("${chitieu.anomaly.alpha:0.1}") double alpha,
+            @Value("${chitieu.anomaly.z-threshold:3.0}") double zThreshold,
+            @Value("${chitieu.anomaly.min-observations:5}") int minObservations,
+            @Value("${chitieu.anomaly.burst-count:3}") double burstCount,
+            @Value("${chitieu.anomaly.new-category-days:7}") int newCategoryDays,
+            @Value("${chitieu.anomaly.cooldown-hours:24}") int cooldownHours) {
+        this.notificationService = notificationService;
+        this.checkpointRepository = checkpointRepository;
+        this.nodeId = nodeId;
+        this.table = new SpendingStatsTable(stripes, alpha, zThreshold, minObservations, burstCount,
+                Duration.ofDays(newCategoryDays).toMillis(), Duration.ofHours(cooldownHours).toMillis());
+    }
+
+    /**
+     * Scores a recorded transaction and notifies the user if it is unusual.
+     * Never throws; detection must not fail the write.
+     */
+    public void observe(UUID userId, Transaction transaction) {
+        BigDecimal amount = transaction.getAmount();
+        if (!"EXPENSE".equals(transaction.getType()) || amount == null || amount.signum() <= 0
+                || transaction.getCategory() == null) {
+            return;
+        }
+        try {
+            SpendingAnomaly anomaly = table.observe(userId, transaction.getCategory(), amount.doubleValue(),
+                    System.currentTimeMillis());
+            if (anomaly != null) {
+                notify(anomaly);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Spending anomaly detection failed for user {}", userId, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chitieu.anomaly.checkpoint-ms:60000}")
+    public void checkpoint() {
+        LocalDateTime now = LocalDateTime.now();
+        int written = 0;
+        for (int stripe = 0; stripe < table.stripeCount(); stripe++) {
+            byte[] data = table.snapshotIfDirty(stripe);
+            if (data == null) {
+                continue;
+            }
+            checkpointRepository.save(AnomalyCheckpoint.builder()
+                    .nodeId(nodeId)
+                    .stripe(stripe)
+                    .data(data)
+                    .entries(ByteBuffer.wrap(data, 4, 4).getInt())
+                    .updatedAt(now)
+                    .build());
+            written++;
+        }
+        if (written > 0) {
+            log.debug("Checkpointed {} spending anomaly stripes", written);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        for (AnomalyCheckpoint checkpoint : checkpointRepository.findByNodeId(nodeId)) {
+            try {
+                table.restore(checkpoint.getData());
+            } catch (IllegalArgumentException e) {
+                // Written by an older version; the statistics rebuild from new expenses
+                log.warn("Discarding anomaly checkpoint of stripe {}: {}", checkpoint.getStripe(), e.getMessage());
+            }
+        }
+        log.info("Restored spending statistics for {} user categories", table.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    private void notify(SpendingAnomaly anomaly) {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("category", anomaly.getCategory());
+        metadata.put("amount", format(anomaly.getAmount()));
+        metadata.put("anomalyType", anomaly.getType().name());
+
+        if (anomaly.getType() == SpendingAnomalyType.AMOUNT_SPIKE) {
+            notificationService.sendNotification(anomaly.getUserId(),
+                    "Chi tiêu bất thường",
+                    String.format("Khoản chi %s cho %s cao hơn nhiều so với mức thường ngày (khoảng %s).",
+                            format(anomaly.getAmount()), anomaly.getCategory(), format(anomaly.getTypicalAmount())),
+                    "SPENDING_ANOMALY", metadata);
+        } else {
+            notificationService.sendNotification(anomaly.getUserId(),
+                    "Chi tiêu tăng đột biến",
+                    String.format("Bạn vừa có %d khoản chi cho danh mục mới %s trong thời gian ngắn.",
+                            Math.round(anomaly.getScore()), anomaly.getCategory()),
+                    "SPENDING_ANOMALY", metadata);
+        }
+    }
+
+    private static String format(double amount) {
+        return BigDecimal.valueOf(amount).setScale(0, RoundingMode.HALF_UP).toPlainString();
+    }
+}
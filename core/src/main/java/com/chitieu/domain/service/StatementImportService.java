@@ -0,0 +1,436 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.event.FinancialDataChangedEvent;
+import com.chitieu.domain.finance.MoneyAccumulator;
+import com.chitieu.domain.model.Account;
+import com.chitieu.domain.model.StatementImportStatus;
+import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.repository.TransactionRepositoryPort;
+import com.chitieu.domain.statement.StatementEntry;
+import com.chitieu.domain.statement.StatementFormat;
+import com.chitieu.domain.statement.StatementParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Imports bank statements (CSV, OFX, QIF) into one account in the background.
+ * <p>
+ * Files are parsed as a stream and written in batches: each batch is checked
+ * against the transactions already stored for its date range, then inserted
+ * with JDBC batching together with its rollup deltas, the account balance and
+ * budgets, all in one DB transaction per batch. The balance is journaled once
+ * per day of the batch rather than once per row. Only rows dated in the month
+ * of the import are charged to budgets: a statement reaches back over months
+ * whose spending is already over, and charging it would fill this month's
+ * budgets and raise their alerts at once. Derived caches are refreshed once per
+ * import, and the anomaly detector is bypassed because historical rows would
+ * raise stale alerts. Rows without a category are categorised inline from
+ * their description.
+ */
+@Service
+@Slf4j
+public class StatementImportService {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final TransactionRepositoryPort transactionRepository;
+    private final AccountService accountService;
+    private final BudgetService budgetService;
+    private final TransactionCategorizer categorizer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int batchSize;
+    private final long retentionMillis;
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public StatementImportService(TransactionRepositoryPort transactionRepository, AccountService accountService,
+            BudgetService budgetService, TransactionCategorizer categorizer, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${chitieu.import.threads:2}") int threads,
+            @Value("${chitieu.import.max-queued:16}") int maxQueued,
+            @Value("${chitieu.import.batch-size:1000}") int batchSize,
+            @Value("${chitieu.import.retention-minutes:60}") long retentionMinutes) {
+        this.transactionRepository = transactionRepository;
+        this.accountService = accountService;
+        this.budgetService = budgetService;
+        this.categorizer = categorizer;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued));
+        this.batchSize = batchSize;
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(retentionMinutes);
+    }
+
+    /**
+     * Queues an import of {@code file} into the user's account. The file is
+     * owned by the service from here on and deleted when the job ends.
+     *
+     * @throws RejectedExecutionException if the import queue is full
+     */
+    public StatementImportStatus submit(UUID userId, UUID accountId, StatementFormat format, Path file)
+            throws IOException {
+        Account account = accountService.getAccountById(accountId);
+        if (!userId.equals(account.getUserId())) {
+            Files.deleteIfExists(file);
+            throw new RuntimeException("Account not found");
+        }
+        evictFinished();
+
+        ImportJob job = new ImportJob(userId, accountId, format, Files.size(file));
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, file));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return job.status();
+    }
+
+    public Optional<StatementImportStatus> getStatus(UUID userId, UUID jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job.status());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ImportJob job, Path file) {
+        job.state = "RUNNING";
+        job.categories = categorizer.forUser(job.userId);
+        List<Transaction> pending = new ArrayList<>(batchSize);
+        try (Reader reader = new InputStreamReader(new CountingInputStream(Files.newInputStream(file), job),
+                StandardCharsets.UTF_8)) {
+            job.format.parser().parse(reader, new StatementParser.Sink() {
+                @Override
+                public void entry(StatementEntry entry) {
+                    job.rowsRead++;
+                    Transaction transaction = validate(job, entry);
+                    if (transaction != null) {
+                        pending.add(transaction);
+                        if (pending.size() >= batchSize) {
+                            writeBatch(job, pending);
+                        }
+                    }
+                }
+
+                @Override
+                public void error(long record, String message) {
+                    job.rowsRead++;
+                    job.reject(record, message);
+                }
+            });
+            writeBatch(job, pending);
+            job.state = "COMPLETED";
+        } catch (Exception e) {
+            log.error("Statement import {} failed for user {}", job.id, job.userId, e);
+            job.reportError("import stopped: " + e.getMessage());
+            job.state = "FAILED";
+        } finally {
+            if (job.imported > 0) {
+                eventPublisher.publishEvent(new FinancialDataChangedEvent(job.userId));
+            }
+            job.finishedAt = Instant.now();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete statement upload {}", file, e);
+            }
+            log.info("Statement import {} {}: {} rows, {} imported, {} duplicates, {} rejected",
+                    job.id, job.state, job.rowsRead, job.imported, job.duplicates, job.rejected);
+        }
+    }
+
+    private Transaction validate(ImportJob job, StatementEntry entry) {
+        if (entry.getAmount().signum() == 0) {
+            job.reject(entry.getRecord(), "zero amount");
+            return null;
+        }
+        if (entry.getDate().isAfter(job.today)) {
+            job.reject(entry.getRecord(), "date " + entry.getDate() + " is in the future");
+            return null;
+        }
+        String category = truncate(entry.getCategory());
+        if (TransactionCategorizer.isMissing(category)) {
+            category = truncate(job.categories.apply(entry.getDescription()));
+        }
+        return Transaction.builder()
+                .amount(entry.getAmount())
+                .category(category != null ? category : AnalyticsService.UNCATEGORIZED)
+                .type(entry.getType())
+                .date(entry.getDate())
+                .accountId(job.accountId)
+                .description(truncate(entry.getDescription()))
+                .build();
+    }
+
+    /**
+     * Drops rows already stored for the account, then inserts the rest. Stored
+     * rows are matched as a multiset, so re-importing a statement adds nothing
+     * while two identical purchases in a new statement are both kept.
+     */
+    private void writeBatch(ImportJob job, List<Transaction> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        LocalDate min = pending.get(0).getDate();
+        LocalDate max = min;
+        for (Transaction transaction : pending) {
+            min = transaction.getDate().isBefore(min) ? transaction.getDate() : min;
+            max = transaction.getDate().isAfter(max) ? transaction.getDate() : max;
+        }
+        job.loadExisting(min, max);
+
+        List<Transaction> fresh = new ArrayList<>(pending.size());
+        for (Transaction transaction : pending) {
+            if (job.consumeExisting(fingerprint(transaction))) {
+                job.duplicates++;
+            } else {
+                fresh.add(transaction);
+            }
+        }
+        pending.clear();
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> write(job, fresh));
+        job.imported += fresh.size();
+    }
+
+    /**
+     * The rows, one balance journal per day they are dated and the budget
+     * charges of the batch in one DB transaction, so an import that stops
+     * part way leaves only whole batches behind
+     */
+    private void write(ImportJob job, List<Transaction> batch) {
+        Map<LocalDate, MoneyAccumulator[]> byDay = new TreeMap<>(); // Income, expense
+        Map<String, MoneyAccumulator> spentByCategory = new HashMap<>();
+        for (Transaction transaction : batch) {
+            MoneyAccumulator[] day = byDay.computeIfAbsent(transaction.getDate(),
+                    d -> new MoneyAccumulator[] { new MoneyAccumulator(), new MoneyAccumulator() });
+            if ("INCOME".equals(transaction.getType())) {
+                day[0].add(transaction.getAmount());
+            } else {
+                day[1].add(transaction.getAmount());
+                if (YearMonth.from(transaction.getDate()).equals(job.month)) {
+                    spentByCategory.computeIfAbsent(transaction.getCategory(), c -> new MoneyAccumulator())
+                            .add(transaction.getAmount());
+                }
+            }
+        }
+        byDay.forEach((date, day) -> accountService.applyDailyTotals(job.userId, job.accountId, date,
+                day[0].toBigDecimal(), day[1].toBigDecimal()));
+        // After the balance, like the other write paths, so locks are always taken account first
+        transactionRepository.saveAll(job.userId, job.accountId, batch);
+
+        Map<String, BigDecimal> spent = new HashMap<>();
+        spentByCategory.forEach((category, total) -> spent.put(category, total.toBigDecimal()));
+        budgetService.applySpending(job.userId, spent);
+    }
+
+    private void evictFinished() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.toEpochMilli() < cutoff);
+    }
+
+    static String fingerprint(Transaction transaction) {
+        String description = transaction.getDescription() == null ? ""
+                : transaction.getDescription().trim().toLowerCase();
+        return transaction.getDate() + "|" + transaction.getType() + "|"
+                + transaction.getAmount().stripTrailingZeros().toPlainString() + "|" + description;
+    }
+
+    private static String truncate(String value) {
+        return value == null || value.length() <= MAX_TEXT_LENGTH ? value : value.substring(0, MAX_TEXT_LENGTH);
+    }
+
+    /**
+     * Mutable job state. Only the worker thread writes it; readers take
+     * snapshots through {@link #status()}.
+     */
+    private final class ImportJob {
+        final UUID id = UUID.randomUUID();
+        final UUID userId;
+        final UUID accountId;
+        final StatementFormat format;
+        final long totalBytes;
+        final LocalDate today = LocalDate.now();
+        final YearMonth month = YearMonth.from(today);
+        final Instant startedAt = Instant.now();
+        final List<String> errors = new ArrayList<>();
+        Function<String, String> categories; // Description to category, or null
+
+        // Remaining stored rows per fingerprint over [loadedFrom, loadedTo]
+        final Map<String, Integer> existing = new HashMap<>();
+        LocalDate loadedFrom;
+        LocalDate loadedTo;
+
+        volatile String state = "QUEUED";
+        volatile long bytesRead;
+        volatile long rowsRead;
+        volatile long imported;
+        volatile long duplicates;
+        volatile long rejected;
+        volatile Instant finishedAt;
+
+        ImportJob(UUID userId, UUID accountId, StatementFormat format, long totalBytes) {
+            this.userId = userId;
+            this.accountId = accountId;
+            this.format = format;
+            this.totalBytes = totalBytes;
+        }
+
+        /**
+         * Widens the loaded range to cover [from, to]. The range only grows and
+         * stays contiguous, so rows inserted by earlier batches are never read
+         * back as pre-existing.
+         */
+        void loadExisting(LocalDate from, LocalDate to) {
+            if (loadedFrom == null) {
+                count(from, to);
+                loadedFrom = from;
+                loadedTo = to;
+                return;
+            }
+            if (from.isBefore(loadedFrom)) {
+                count(from, loadedFrom.minusDays(1));
+                loadedFrom = from;
+            }
+            if (to.isAfter(loadedTo)) {
+                count(loadedTo.plusDays(1), to);
+                loadedTo = to;
+            }
+        }
+
+        private void count(LocalDate from, LocalDate to) {
+            for (Transaction stored : transactionRepository.findByAccountIdAndDateBetween(userId, accountId, from,
+                    to)) {
+                existing.merge(fingerprint(stored), 1, Integer::sum);
+            }
+        }
+
+        boolean consumeExisting(String fingerprint) {
+            Integer remaining = existing.get(fingerprint);
+            if (remaining == null) {
+                return false;
+            }
+            if (remaining == 1) {
+                existing.remove(fingerprint);
+            } else {
+                existing.put(fingerprint, remaining - 1);
+            }
+            return true;
+        }
+
+        void reject(long record, String message) {
+            rejected++;
+            reportError("line " + record + ": " + message);
+        }
+
+        void reportError(String message) {
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(message);
+                }
+            }
+        }
+
+        StatementImportStatus status() {
+            List<String> errorsSnapshot;
+            synchronized (errors) {
+                errorsSnapshot = List.copyOf(errors);
+            }
+            long read = bytesRead;
+            int percent = totalBytes == 0 ? 100 : (int) Math.min(100, read * 100 / totalBytes);
+            return StatementImportStatus.builder()
+                    .jobId(id)
+                    .accountId(accountId)
+                    .format(format.name())
+                    .status(state)
+                    .totalBytes(totalBytes)
+                    .bytesRead(read)
+                    .percentComplete(finishedAt != null ? 100 : percent)
+                    .rowsRead(rowsRead)
+                    .imported(imported)
+                    .duplicates(duplicates)
+                    .rejected(rejected)
+                    .errors(errorsSnapshot)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+
+    /**
+     * Publishes how far the parser has read into the file
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final ImportJob job;
+        private long count;
+
+        CountingInputStream(InputStream in, ImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                job.bytesRead = ++count;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+                job.bytesRead = count;
+            }
+            return n;
+        }
+    }
+}
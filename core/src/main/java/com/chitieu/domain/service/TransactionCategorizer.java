@@ -0,0 +1,285 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.cache.SingleFlightCache;
+import com.chitieu.domain.categorize.CategoryMatcher;
+import com.chitieu.domain.model.CategoryOverride;
+import com.chitieu.domain.model.CategoryRule;
+import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.repository.CategoryOverrideRepositoryPort;
+import com.chitieu.domain.repository.CategoryRuleRepositoryPort;
+import com.chitieu.domain.search.SearchText;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Fills in the category of transactions that arrive without one, from the
+ * merchant and keyword patterns in their description.
+ * <p>
+ * Rules come from the bundled defaults, an optional external file and the
+ * database, each overriding the previous by pattern. They are compiled into
+ * one {@link CategoryMatcher} and recompiled whenever a source changes, then
+ * swapped in without a restart. A user who files a merchant under another
+ * category teaches an override that wins over the rules for that user, once
+ * the transaction has committed.
+ */
+@Service
+@Slf4j
+public class TransactionCategorizer {
+
+    private static final String DEFAULT_RULES = "/rules/categories.txt";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final CategoryRuleRepositoryPort ruleRepository;
+    private final CategoryOverrideRepositoryPort overrideRepository;
+    private final String externalLocation;
+    private final SingleFlightCache<UUID, Map<String, String>> overrides;
+    private volatile CategoryMatcher matcher;
+    private volatile String fingerprint;
+
+    public TransactionCategorizer(CategoryRuleRepositoryPort ruleRepository,
+            CategoryOverrideRepositoryPort overrideRepository,
+            @Value("${chitieu.categories.location:}") String externalLocation,
+            @Value("${chitieu.categories.override-ttl-minutes:10}") long overrideTtlMinutes,
+            @Value("${chitieu.categories.override-cache-size:10000}") int overrideCacheSize) {
+        this.ruleRepository = ruleRepository;
+        this.overrideRepository = overrideRepository;
+        this.externalLocation = externalLocation;
+        this.overrides = new SingleFlightCache<>(overrideTtlMinutes, TimeUnit.MINUTES, overrideCacheSize);
+        // Bundled defaults until the database is reachable
+        install(new ArrayList<>(loadDefaults().values()));
+    }
+
+    /**
+     * The transaction with its category filled in if it had none and a rule
+     * or override matches
+     */
+    public Transaction categorize(UUID userId, Transaction transaction) {
+        String description = transaction.getDescription();
+        if (description == null || description.isBlank() || !isMissing(transaction.getCategory())) {
+            return transaction;
+        }
+        String category = classify(matcher, overridesOf(userId), description);
+        if (category == null) {
+            return transaction;
+        }
+        return Transaction.builder()
+                .id(transaction.getId())
+                .amount(transaction.getAmount())
+                .category(category)
+                .type(transaction.getType())
+                .date(transaction.getDate())
+                .accountId(transaction.getAccountId())
+                .description(description)
+                .build();
+    }
+
+    /**
+     * Classifier for many descriptions of one user, e.g. a statement import:
+     * the rules and the user's overrides are read once. Returns null for a
+     * description nothing matches.
+     */
+    public Function<String, String> forUser(UUID userId) {
+        CategoryMatcher current = matcher;
+        Map<String, String> learned = overridesOf(userId);
+        return description -> description == null ? null : classify(current, learned, description);
+    }
+
+    public static boolean isMissing(String category) {
+        return category == null || category.isBlank() || AnalyticsService.UNCATEGORIZED.equalsIgnoreCase(category);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${chitieu.categories.reload-ms:60000}", initialDelayString = "${chitieu.categories.reload-ms:60000}")
+    public void reload() {
+        Map<String, CategoryRule> rules = loadDefaults();
+        if (!externalLocation.isBlank()) {
+            try (BufferedReader reader = Files.newBufferedReader(Path.of(externalLocation), StandardCharsets.UTF_8)) {
+                rules.putAll(parse(reader, externalLocation));
+            } catch (IOException e) {
+                log.warn("Could not read category rules from {}: {}", externalLocation, e.getMessage());
+            }
+        }
+        for (CategoryRule rule : ruleRepository.findAll()) {
+            rules.put(SearchText.fold(rule.getPattern()), rule);
+        }
+        install(new ArrayList<>(rules.values()));
+    }
+
+    private static String classify(CategoryMatcher matcher, Map<String, String> learned, String description) {
+        String folded = SearchText.fold(description);
+        return classify(matcher, learned, folded, matcher.match(folded));
+    }
+
+    private static String classify(CategoryMatcher matcher, Map<String, String> learned, String folded, int match) {
+        if (!learned.isEmpty()) {
+            String category = learned.get(descriptionKey(folded));
+            if (category == null && match >= 0) {
+                category = learned.get(matcher.pattern(match));
+            }
+            if (category != null) {
+                return category;
+            }
+        }
+        return match >= 0 ? matcher.rule(match).getCategory() : null;
+    }
+
+    /**
+     * Learns the category a user filed a transaction under for its merchant,
+     * if it differs from what would have been chosen. Only for committed
+     * transactions the user entered a category for themselves.
+     */
+    public void learn(UUID userId, Transaction entered) {
+        String description = entered.getDescription();
+        if (description == null || description.isBlank() || isMissing(entered.getCategory())) {
+            return;
+        }
+        try {
+            learn(userId, description, entered.getCategory());
+        } catch (RuntimeException e) {
+            log.warn("Could not learn category override for user {}", userId, e);
+        }
+    }
+
+    private void learn(UUID userId, String description, String category) {
+        CategoryMatcher current = matcher;
+        String folded = SearchText.fold(description);
+        int match = current.match(folded);
+        Map<String, String> learned = overridesOf(userId);
+        if (category.equals(classify(current, learned, folded, match))) {
+            return;
+        }
+        // A matched merchant generalises to its other transactions; free text only to
+        // itself, as does a description learned before, which would otherwise still win
+        String descriptionKey = descriptionKey(folded);
+        String key = match >= 0 && !learned.containsKey(descriptionKey) ? current.pattern(match) : descriptionKey;
+        if (key.isEmpty()) {
+            return;
+        }
+        overrideRepository.save(CategoryOverride.builder()
+                .userId(userId)
+                .merchantKey(key)
+                .category(category)
+                .updatedAt(LocalDateTime.now())
+                .build());
+        overrides.invalidate(userId);
+    }
+
+    private Map<String, String> overridesOf(UUID userId) {
+        return overrides.get(userId, id -> {
+            Map<String, String> learned = new HashMap<>();
+            for (CategoryOverride override : overrideRepository.findByUserId(id)) {
+                learned.put(override.getMerchantKey(), override.getCategory());
+            }
+            return learned;
+        });
+    }
+
+    /**
+     * Folded description without words containing digits (card numbers,
+     * references, amounts), which vary between transactions of a merchant
+     */
+    private static String descriptionKey(String folded) {
+        StringBuilder key = new StringBuilder(folded.length());
+        for (String word : folded.split(" ")) {
+            if (word.isEmpty() || word.chars().anyMatch(Character::isDigit)) {
+                continue;
+            }
+            if (key.length() + word.length() + 1 > MAX_KEY_LENGTH) {
+                break;
+            }
+            if (key.length() > 0) {
+                key.append(' ');
+            }
+            key.append(word);
+        }
+        return key.toString();
+    }
+
+    private synchronized void install(List<CategoryRule> rules) {
+        String next = fingerprintOf(rules);
+        if (next.equals(fingerprint)) {
+            return;
+        }
+        List<String> errors = new ArrayList<>();
+        long started = System.nanoTime();
+        CategoryMatcher compiled = CategoryMatcher.compile(rules, errors);
+        matcher = compiled;
+        fingerprint = next;
+        errors.forEach(error -> log.warn("Skipping category rule {}", error));
+        log.info("Compiled {} category patterns into {} states in {} ms ({} invalid)", compiled.size(),
+                compiled.states(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), errors.size());
+    }
+
+    private Map<String, CategoryRule> loadDefaults() {
+        try (InputStream in = TransactionCategorizer.class.getResourceAsStream(DEFAULT_RULES)) {
+            if (in == null) {
+                log.warn("Bundled category rules not found");
+                return new LinkedHashMap<>();
+            }
+            return parse(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), DEFAULT_RULES);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load bundled category rules", e);
+        }
+    }
+
+    // One rule per line: <pattern>=<category>; # starts a comment
+    static Map<String, CategoryRule> parse(BufferedReader reader, String source) throws IOException {
+        Map<String, CategoryRule> rules = new LinkedHashMap<>();
+        String line;
+        int number = 0;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            int separator = trimmed.lastIndexOf('=');
+            if (separator <= 0 || separator == trimmed.length() - 1) {
+                log.warn("Skipping category rule {}:{}: expected <pattern>=<category>", source, number);
+                continue;
+            }
+            String pattern = trimmed.substring(0, separator).trim();
+            rules.put(SearchText.fold(pattern), CategoryRule.builder()
+                    .id(source + ":" + number)
+                    .pattern(pattern)
+                    .category(trimmed.substring(separator + 1).trim())
+                    .enabled(true)
+                    .build());
+        }
+        return rules;
+    }
+
+    private static String fingerprintOf(List<CategoryRule> rules) {
+        List<CategoryRule> sorted = new ArrayList<>(rules);
+        sorted.sort(Comparator.comparing(CategoryRule::getPattern));
+        StringBuilder sb = new StringBuilder();
+        for (CategoryRule rule : sorted) {
+            sb.append(rule.getPattern()).append('\u0000')
+                    .append(rule.getCategory()).append('\u0000')
+                    .append(rule.isEnabled()).append('\n');
+        }
+        return sb.toString();
+    }
+}
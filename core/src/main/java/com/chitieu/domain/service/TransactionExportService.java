@@ -0,0 +1,67 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.repository.TransactionRepositoryPort;
+import com.chitieu.domain.statement.ExportFormat;
+import com.chitieu.domain.statement.TransactionExportWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Streams a user's transactions straight from the database cursor to the
+ * response, so heap use stays flat whatever the size of the history.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportService {
+
+    static final LocalDate EARLIEST = LocalDate.of(1970, 1, 1);
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private final TransactionRepositoryPort transactionRepository;
+
+    /**
+     * Writes transactions dated within [from, to], oldest first. Missing bounds
+     * default to the whole history up to today. The stream is flushed, not
+     * closed.
+     */
+    public long export(UUID userId, LocalDate from, LocalDate to, ExportFormat format, OutputStream out)
+            throws IOException {
+        LocalDate start = from != null ? from : EARLIEST;
+        LocalDate end = to != null ? to : LocalDate.now();
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+        TransactionExportWriter rows = new TransactionExportWriter(format, writer);
+        long[] count = new long[1];
+
+        long started = System.nanoTime();
+        rows.writeHeader();
+        try {
+            transactionRepository.forEachByUserIdAndDateBetween(userId, start, end, transaction -> {
+                try {
+                    rows.write(transaction);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor is closed by the repository
+            throw e.getCause();
+        }
+        writer.flush();
+
+        log.info("Exported {} transactions as {} for user {} in {} ms", count[0], format, userId,
+                (System.nanoTime() - started) / 1_000_000);
+        return count[0];
+    }
+}
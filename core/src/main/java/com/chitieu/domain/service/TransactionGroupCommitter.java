@@ -0,0 +1,318 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.benchmark.QuantileSketch;
+import com.chitieu.domain.event.FinancialDataChangedEvent;
+import com.chitieu.domain.finance.MoneyAccumulator;
+import com.chitieu.domain.model.GroupCommitStats;
+import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.model.TransactionCommand;
+import com.chitieu.domain.repository.TransactionRepositoryPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records transactions from many requests in shared DB transactions. A
+ * single writer drains a bounded queue, waits up to the window for more
+ * work, then commits the batch with batched inserts and one balance journal
+ * per transaction. Each caller's future completes once its row is committed.
+ * <p>
+ * Off by default; without {@code chitieu.group-commit.enabled} every
+ * submission is recorded on the caller's thread as before.
+ */
+@Service
+@Slf4j
+public class TransactionGroupCommitter {
+
+    private final TransactionService transactionService;
+    private final TransactionRepositoryPort transactionRepository;
+    private final AccountService accountService;
+    private final BudgetService budgetService;
+    private final SpendingAnomalyDetector anomalyDetector;
+    private final TransactionCategorizer categorizer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int queueCapacity;
+    private final int maxBatch;
+    private final long windowNanos;
+    private final long enqueueTimeoutMillis;
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+    private volatile boolean running;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong committed = new AtomicLong();
+    private final AtomicLong fallbackBatches = new AtomicLong();
+    private final QuantileSketch batchSizes = new QuantileSketch(); // Written by the writer thread only
+    private final QuantileSketch commitMillis = new QuantileSketch();
+    private volatile long maxBatchSize;
+    private volatile double maxCommitMillis;
+
+    public TransactionGroupCommitter(TransactionService transactionService,
+            TransactionRepositoryPort transactionRepository, AccountService accountService,
+            BudgetService budgetService, SpendingAnomalyDetector anomalyDetector, TransactionCategorizer categorizer,
+            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+            @Value("${chitieu.group-commit.enabled:false}") boolean enabled,
+            @Value("${chitieu.group-commit.queue-capacity:10000}") int queueCapacity,
+            @Value("${chitieu.group-commit.max-batch:500}") int maxBatch,
+            @Value("${chitieu.group-commit.window-ms:5}") long windowMillis,
+            @Value("${chitieu.group-commit.enqueue-timeout-ms:100}") long enqueueTimeoutMillis) {
+        this.transactionService = transactionService;
+        this.transactionRepository = transactionRepository;
+        this.accountService = accountService;
+        this.budgetService = budgetService;
+        this.anomalyDetector = anomalyDetector;
+        this.categorizer = categorizer;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.queueCapacity = queueCapacity;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.enqueueTimeoutMillis = enqueueTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::drain, "transaction-group-commit");
+        this.writer.setDaemon(true);
+        if (enabled) {
+            running = true;
+            writer.start();
+            log.info("Transaction group commit enabled: batches of up to {} within {} ms", maxBatch, windowMillis);
+        }
+    }
+
+    /**
+     * Queues the transaction for the next batch. The future fails with
+     * {@link RejectedExecutionException} if the queue stays full for the
+     * enqueue timeout, so callers can shed load instead of piling up.
+     */
+    public CompletableFuture<UUID> submit(UUID userId, Transaction transaction) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(transactionService.recordTransaction(userId, transaction));
+        }
+        Pending pending = new Pending(TransactionCommand.builder()
+                .userId(userId)
+                .transaction(categorizer.categorize(userId, transaction))
+                .build(), transaction);
+        try {
+            if (running && queue.offer(pending, enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                submitted.increment();
+                return pending.future;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return CompletableFuture.failedFuture(new RejectedExecutionException("Transaction queue is full"));
+    }
+
+    public GroupCommitStats getStats() {
+        QuantileSketch.Ranks sizes;
+        QuantileSketch.Ranks latencies;
+        synchronized (this) {
+            sizes = batchSizes.freeze();
+            latencies = commitMillis.freeze();
+        }
+        return GroupCommitStats.builder()
+                .enabled(enabled)
+                .queueDepth(queue.size())
+                .queueCapacity(queueCapacity)
+                .submitted(submitted.sum())
+                .rejected(rejected.sum())
+                .batches(batches.get())
+                .committed(committed.get())
+                .fallbackBatches(fallbackBatches.get())
+                .batchSizeP50(sizes.quantile(0.5))
+                .batchSizeP99(sizes.quantile(0.99))
+                .maxBatchSize(maxBatchSize)
+                .commitMillisP50(latencies.quantile(0.5))
+                .commitMillisP99(latencies.quantile(0.99))
+                .maxCommitMillis(maxCommitMillis)
+                .build();
+    }
+
+    /**
+     * Stops taking work and commits what is already queued
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        // Anything that slipped in after the writer finished
+        List<Pending> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        for (Pending pending : leftover) {
+            pending.future.completeExceptionally(new RejectedExecutionException("Shutting down"));
+        }
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Group commit writer failed", e);
+                for (Pending pending : batch) {
+                    pending.future.completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        long start = System.nanoTime();
+        List<UUID> ids;
+        try {
+            ids = transactionTemplate.execute(status -> write(batch));
+        } catch (RuntimeException e) {
+            // One bad row (e.g. someone else's account) must not fail its neighbours
+            log.warn("Group commit of {} transactions failed, recording them one by one", batch.size(), e);
+            fallbackBatches.incrementAndGet();
+            recordEach(batch);
+            return;
+        }
+        record(batch.size(), (System.nanoTime() - start) / 1e6);
+
+        for (int i = 0; i < batch.size(); i++) {
+            TransactionCommand command = batch.get(i).command;
+            anomalyDetector.observe(command.getUserId(), command.getTransaction());
+            batch.get(i).future.complete(ids.get(i));
+        }
+        // After the callers are answered; rarely writes
+        for (Pending pending : batch) {
+            categorizer.learn(pending.command.getUserId(), pending.entered);
+        }
+    }
+
+    /**
+     * The batch's writes in one DB transaction: one balance journal per
+     * transaction as on the single path, in account order so concurrent
+     * writers lock rows in the same order, then the rows and rollups, then
+     * budgets and one change event per user.
+     */
+    private List<UUID> write(List<Pending> batch) {
+        Map<UUID, Map<String, MoneyAccumulator>> spending = new HashMap<>();
+        Set<UUID> users = new LinkedHashSet<>();
+        List<TransactionCommand> commands = new ArrayList<>(batch.size());
+
+        for (Pending pending : batch) {
+            TransactionCommand command = pending.command;
+            Transaction transaction = command.getTransaction();
+            commands.add(command);
+            users.add(command.getUserId());
+            if ("EXPENSE".equals(transaction.getType())) {
+                spending.computeIfAbsent(command.getUserId(), key -> new HashMap<>())
+                        .computeIfAbsent(transaction.getCategory(), key -> new MoneyAccumulator())
+                        .add(transaction.getAmount());
+            }
+        }
+
+        List<TransactionCommand> byAccount = new ArrayList<>(commands);
+        byAccount.removeIf(command -> command.getTransaction().getAccountId() == null);
+        byAccount.sort(Comparator.comparing(command -> command.getTransaction().getAccountId()));
+        for (TransactionCommand command : byAccount) {
+            Transaction transaction = command.getTransaction();
+            accountService.updateBalance(command.getUserId(), transaction.getAccountId(), transaction.getAmount(),
+                    transaction.getType(), transaction.getDate());
+        }
+
+        List<UUID> ids = transactionRepository.saveAll(commands);
+
+        for (Map.Entry<UUID, Map<String, MoneyAccumulator>> entry : spending.entrySet()) {
+            Map<String, BigDecimal> byCategory = new HashMap<>();
+            entry.getValue().forEach((category, amount) -> byCategory.put(category, amount.toBigDecimal()));
+            budgetService.applySpending(entry.getKey(), byCategory).forEach(budgetService::validateHardLimit);
+        }
+
+        for (UUID userId : users) {
+            eventPublisher.publishEvent(new FinancialDataChangedEvent(userId));
+        }
+        return ids;
+    }
+
+    private void recordEach(List<Pending> batch) {
+        for (Pending pending : batch) {
+            TransactionCommand command = pending.command;
+            long start = System.nanoTime();
+            try {
+                // Already categorised on submission; not learned from, as for a retry
+                UUID id = transactionService.recordCategorized(command.getUserId(), command.getTransaction());
+                record(1, (System.nanoTime() - start) / 1e6);
+                pending.future.complete(id);
+            } catch (RuntimeException e) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private synchronized void record(int size, double millis) {
+        batches.incrementAndGet();
+        committed.addAndGet(size);
+        batchSizes.add(size);
+        commitMillis.add(millis);
+        maxBatchSize = Math.max(maxBatchSize, size);
+        maxCommitMillis = Math.max(maxCommitMillis, millis);
+    }
+
+    private static final class Pending {
+        final TransactionCommand command;
+        final Transaction entered; // As submitted, before categorising
+        final CompletableFuture<UUID> future = new CompletableFuture<>();
+
+        Pending(TransactionCommand command, Transaction entered) {
+            this.command = command;
+            this.entered = entered;
+        }
+    }
+}
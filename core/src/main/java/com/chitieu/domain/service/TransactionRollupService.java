@@ -0,0 +1,97 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.repository.TransactionRollupRepositoryPort;
+import com.chitieu.domain.repository.UserRepositoryPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Regenerates the monthly transaction rollups from raw transactions, one user
+ * per task, for backfill and drift repair.
+ */
+@Service
+@Slf4j
+public class TransactionRollupService {
+
+    private final TransactionRollupRepositoryPort rollupRepository;
+    private final UserRepositoryPort userRepository;
+    private final int parallelism;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    public TransactionRollupService(TransactionRollupRepositoryPort rollupRepository,
+            UserRepositoryPort userRepository,
+            @Value("${chitieu.rollup.rebuild-parallelism:4}") int parallelism) {
+        this.rollupRepository = rollupRepository;
+        this.userRepository = userRepository;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public void rebuildUser(UUID userId) {
+        rollupRepository.rebuildForUser(userId);
+    }
+
+    /**
+     * Rebuilds every user's rollups on a bounded pool. Returns the number of
+     * users rebuilt, or -1 if a rebuild is already running.
+     */
+    public int rebuildAll() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.warn("Rollup rebuild already in progress, skipping");
+            return -1;
+        }
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<UUID> userIds = userRepository.findAllIds();
+            List<Future<?>> futures = new ArrayList<>(userIds.size());
+            for (UUID userId : userIds) {
+                futures.add(executor.submit(() -> rollupRepository.rebuildForUser(userId)));
+            }
+
+            int rebuilt = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                    rebuilt++;
+                } catch (ExecutionException e) {
+                    log.error("Rollup rebuild failed for user {}", userIds.get(i), e.getCause());
+                }
+            }
+            log.info("Rebuilt transaction rollups for {}/{} users in {} ms",
+                    rebuilt, userIds.size(), System.currentTimeMillis() - start);
+            return rebuilt;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } finally {
+            executor.shutdownNow();
+            rebuilding.set(false);
+        }
+    }
+
+    @Scheduled(cron = "${chitieu.rollup.rebuild-cron:0 30 3 * * *}")
+    public void repairDrift() {
+        rebuildAll();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.isEmpty()) {
+            log.info("Transaction rollups are empty, backfilling from raw transactions");
+            rebuildAll();
+        }
+    }
+}
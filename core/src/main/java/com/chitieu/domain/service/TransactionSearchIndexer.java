@@ -0,0 +1,71 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.model.BatchCheckpoint;
+import com.chitieu.domain.repository.BatchCheckpointRepositoryPort;
+import com.chitieu.domain.repository.TransactionRepositoryPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Prepares transaction search at startup: creates the trigram index and
+ * fills the search text of rows stored before it existed. New rows get
+ * their search text on insert, so the backfill runs until it has completed
+ * once. Without the index search would scan every row of a user, so
+ * startup fails if it cannot be created.
+ */
+@Service
+@Slf4j
+public class TransactionSearchIndexer {
+
+    private static final String SEARCH_TEXT_BACKFILL = "transaction-search-text-backfill";
+
+    private final TransactionRepositoryPort transactionRepository;
+    private final BatchCheckpointRepositoryPort checkpointRepository;
+    private final int batchSize;
+
+    public TransactionSearchIndexer(TransactionRepositoryPort transactionRepository,
+            BatchCheckpointRepositoryPort checkpointRepository,
+            @Value("${chitieu.search.backfill-batch-size:1000}") int batchSize) {
+        this.transactionRepository = transactionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepare() {
+        try {
+            transactionRepository.createSearchIndex();
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Could not create the transaction search index "
+                    + "(needs the pg_trgm and btree_gin extensions)", e);
+        }
+
+        if (checkpointRepository.findByJobName(SEARCH_TEXT_BACKFILL).map(BatchCheckpoint::isCompleted)
+                .orElse(false)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int batches = 0;
+        UUID last = transactionRepository.backfillSearchText(null, batchSize);
+        while (last != null) {
+            batches++;
+            last = transactionRepository.backfillSearchText(last, batchSize);
+        }
+        checkpointRepository.save(BatchCheckpoint.builder()
+                .jobName(SEARCH_TEXT_BACKFILL)
+                .runDate(LocalDate.now())
+                .processedCount(batches)
+                .completed(true)
+                .updatedAt(LocalDateTime.now())
+                .build());
+        log.info("Backfilled transaction search text in {} batches in {} ms",
+                batches, System.currentTimeMillis() - start);
+    }
+}
@@ -1,10 +1,47 @@
 package com.chitieu.domain.service;
 
+import com.chitieu.domain.model.RecordedTransaction;
 import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.model.TransactionCursor;
+import com.chitieu.domain.model.TransactionFilter;
+import com.chitieu.domain.model.TransactionPage;
+import java.util.List;
 import java.util.UUID;
 
 public interface TransactionService {
-    void recordTransaction(UUID userId, Transaction transaction);
+    /**
+     * Categorises and records a transaction the user entered; a category they
+     * chose is learned for the merchant once it commits
+     *
+     * @return id of the stored transaction
+     */
+    UUID recordTransaction(UUID userId, Transaction transaction);
 
-    java.util.List<Transaction> getUserTransactions(UUID userId);
+    /**
+     * Records a transaction that has already been through the categorizer,
+     * without classifying it again or learning from it
+     */
+    UUID recordCategorized(UUID userId, Transaction transaction);
+
+    /**
+     * Records the transaction at most once per idempotency key. A retry with
+     * the same key returns the first result without touching the account or
+     * budgets, also when both requests arrive at the same time.
+     */
+    RecordedTransaction recordTransaction(UUID userId, Transaction transaction, String idempotencyKey);
+
+    /**
+     * Page of the user's transactions, newest first; {@code cursor} is null
+     * for the first page and the limit is capped
+     */
+    TransactionPage getUserTransactions(UUID userId, TransactionFilter filter, TransactionCursor cursor, int limit);
+
+    /**
+     * The user's transactions whose description or category matches the
+     * query, best match first; accents and case are ignored and small typos
+     * tolerated
+     *
+     * @throws IllegalArgumentException if the query has no words
+     */
+    List<Transaction> searchTransactions(UUID userId, String query, int limit);
 }
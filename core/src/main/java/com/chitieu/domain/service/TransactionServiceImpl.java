@@ -1,14 +1,25 @@
 package com.chitieu.domain.service;
 
+import com.chitieu.domain.event.FinancialDataChangedEvent;
+import com.chitieu.domain.model.IdempotencyRecord;
+import com.chitieu.domain.model.RecordedTransaction;
 import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.model.TransactionCursor;
+import com.chitieu.domain.model.TransactionFilter;
+import com.chitieu.domain.model.TransactionPage;
 import com.chitieu.domain.model.Budget;
-import com.chitieu.domain.repository.BudgetRepositoryPort;
 import com.chitieu.domain.repository.TransactionRepositoryPort;
+import com.chitieu.domain.search.SearchText;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -16,46 +27,117 @@ import java.util.UUID;
 @Slf4j
 public class TransactionServiceImpl implements TransactionService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    static final int DEFAULT_SEARCH_RESULTS = 20;
+    static final int MAX_SEARCH_RESULTS = 100;
+
     private final TransactionRepositoryPort transactionRepository;
-    private final BudgetRepositoryPort budgetRepository;
     private final BudgetService budgetService;
     private final AccountService accountService;
+    private final SpendingAnomalyDetector anomalyDetector;
+    private final IdempotencyService idempotencyService;
+    private final TransactionCategorizer categorizer;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * One DB transaction of single-statement writes: balance increment,
+     * journal insert, transaction insert, rollup upsert and budget increment.
+     * Nothing is read back before writing, so concurrent transactions on one
+     * account or budget cannot lose updates. Balance history is recorded
+     * after commit, off this path.
+     */
     @Override
-    public void recordTransaction(UUID userId, Transaction transaction) {
-        // Strict Validation & Persistence
-        transactionRepository.save(userId, transaction);
+    @Transactional
+    public UUID recordTransaction(UUID userId, Transaction transaction) {
+        // Before budgets see it, so an uncategorised purchase counts where it belongs
+        UUID transactionId = recordCategorized(userId, categorizer.categorize(userId, transaction));
+        afterCommit(() -> categorizer.learn(userId, transaction));
+        return transactionId;
+    }
 
-        // Update Account Balance
+    @Override
+    @Transactional
+    public UUID recordCategorized(UUID userId, Transaction transaction) {
+        // Update Account Balance; the conditional UPDATE also proves the account is the user's
         if (transaction.getAccountId() != null) {
-            accountService.updateBalance(transaction.getAccountId(), transaction.getAmount(), transaction.getType());
+            accountService.updateBalance(userId, transaction.getAccountId(), transaction.getAmount(),
+                    transaction.getType(), transaction.getDate());
         }
 
+        // Strict Validation & Persistence
+        UUID transactionId = transactionRepository.save(userId, transaction);
+
         // Update and Check Budgets (Alerts at 50%, 80%, 100%)
-        budgetService.updateAndCheckBudgets(userId, transaction);
+        Optional<Budget> budget = budgetService.updateAndCheckBudgets(userId, transaction);
+
+        // O(1) in-memory scoring; alerts go out through NotificationService, so only for committed expenses
+        afterCommit(() -> anomalyDetector.observe(userId, transaction));
+
+        // Derived financial views for this user are now stale
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId));
 
         // Final Rule: Throw exception if budget exceeded (Hard lock)
-        if ("EXPENSE".equals(transaction.getType())) {
-            validateHardLimit(userId, transaction);
+        budget.ifPresent(budgetService::validateHardLimit);
+        return transactionId;
+    }
+
+    @Override
+    @Transactional
+    public RecordedTransaction recordTransaction(UUID userId, Transaction transaction, String idempotencyKey) {
+        String requestHash = IdempotencyService.fingerprint(transaction);
+
+        // In-memory for recent keys; nothing below runs for a plain retry
+        Optional<IdempotencyRecord> previous = idempotencyService.lookup(userId, idempotencyKey);
+        if (previous.isEmpty()) {
+            previous = idempotencyService.claim(userId, idempotencyKey, requestHash);
+        }
+        if (previous.isPresent()) {
+            IdempotencyRecord record = previous.get();
+            return RecordedTransaction.builder()
+                    .transactionId(record.getTransactionId())
+                    .outcome(record.getRequestHash().equals(requestHash)
+                            ? RecordedTransaction.Outcome.REPLAYED
+                            : RecordedTransaction.Outcome.KEY_REUSED)
+                    .build();
         }
+
+        // Same DB transaction as the claim, so a failure frees the key for a retry
+        UUID transactionId = recordTransaction(userId, transaction);
+        idempotencyService.complete(userId, idempotencyKey, transactionId);
+        return RecordedTransaction.builder()
+                .transactionId(transactionId)
+                .outcome(RecordedTransaction.Outcome.CREATED)
+                .build();
     }
 
-    private void validateHardLimit(UUID userId, Transaction transaction) {
-        List<Budget> budgets = budgetRepository.findByUserId(userId);
-        budgets.stream()
-                .filter(b -> b.getCategory().equals(transaction.getCategory()))
-                .findFirst()
-                .ifPresent(budget -> {
-                    if (budget.getSpentAmount().compareTo(budget.getLimitAmount()) > 0) {
-                        log.error("STRICT_LIMIT_EXCEEDED: Budget overflown for {}", transaction.getCategory());
-                        // Optional: Throw exception here if we want to BLOCK the transaction
-                        // However, per requirements, we primarily need alerts.
-                    }
-                });
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     @Override
-    public List<Transaction> getUserTransactions(UUID userId) {
-        return transactionRepository.findByUserId(userId);
+    public TransactionPage getUserTransactions(UUID userId, TransactionFilter filter, TransactionCursor cursor,
+            int limit) {
+        int pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        return transactionRepository.findPage(userId, filter, cursor, pageSize);
+    }
+
+    @Override
+    public List<Transaction> searchTransactions(UUID userId, String query, int limit) {
+        List<String> terms = SearchText.terms(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query has no words");
+        }
+        int results = limit <= 0 ? DEFAULT_SEARCH_RESULTS : Math.min(limit, MAX_SEARCH_RESULTS);
+        return transactionRepository.search(userId, terms, results);
     }
 }
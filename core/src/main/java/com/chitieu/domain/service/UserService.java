@@ -7,6 +7,9 @@ import java.util.UUID;
 public interface UserService {
     User getProfile(UUID userId);
 
+    /**
+     * @throws IllegalArgumentException if the base currency has no exchange rate
+     */
     User updateProfile(UUID userId, User userUpdate);
 
     List<User> searchUsers(String query);
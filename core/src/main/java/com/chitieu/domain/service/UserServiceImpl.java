@@ -16,6 +16,7 @@ public class UserServiceImpl implements UserService {
     private final com.chitieu.domain.repository.TransactionRepositoryPort transactionRepository;
     private final com.chitieu.domain.repository.FriendshipRepositoryPort friendshipRepository;
     private final com.chitieu.domain.repository.GoalRepositoryPort goalRepository;
+    private final ExchangeRateService exchangeRateService;
 
     @Override
     public User getProfile(UUID userId) {
@@ -34,8 +35,16 @@ public class UserServiceImpl implements UserService {
         if (userUpdate.getEmail() != null) {
             existingUser.setEmail(userUpdate.getEmail());
         }
+        if (userUpdate.getBaseCurrency() != null) {
+            if (!exchangeRateService.supports(userUpdate.getBaseCurrency())) {
+                throw new IllegalArgumentException("No exchange rate for " + userUpdate.getBaseCurrency());
+            }
+            existingUser.setBaseCurrency(userUpdate.getBaseCurrency());
+        }
 
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        exchangeRateService.invalidateBaseCurrency(userId);
+        return saved;
     }
 
     @Override
@@ -0,0 +1,163 @@
+package com.chitieu.domain.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Header-driven CSV statement reader. Columns are matched by name in either
+ * order, the separator (',' or ';') is taken from the header line, and the
+ * amount is either one signed column, a positive amount plus a type column,
+ * or separate debit and credit columns. Quoted fields may not span lines.
+ */
+public class CsvStatementParser implements StatementParser {
+
+    private static final List<String> DATE = List.of("date", "transaction_date", "posted", "ngay", "ngay_gd");
+    private static final List<String> AMOUNT = List.of("amount", "so_tien", "sotien");
+    private static final List<String> DEBIT = List.of("debit", "withdrawal", "ghi_no", "no");
+    private static final List<String> CREDIT = List.of("credit", "deposit", "ghi_co", "co");
+    private static final List<String> TYPE = List.of("type", "loai");
+    private static final List<String> CATEGORY = List.of("category", "danh_muc");
+    private static final List<String> DESCRIPTION = List.of("description", "memo", "payee", "note", "noi_dung",
+            "dien_giai");
+
+    @Override
+    public void parse(Reader reader, Sink sink) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String headerLine = in.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        if (!headerLine.isEmpty() && headerLine.charAt(0) == '\uFEFF') {
+            headerLine = headerLine.substring(1);
+        }
+        char separator = count(headerLine, ';') > count(headerLine, ',') ? ';' : ',';
+        List<String> header = split(headerLine, separator);
+        Columns columns = new Columns(header);
+        if (columns.date < 0 || (columns.amount < 0 && columns.debit < 0 && columns.credit < 0)) {
+            sink.error(1, "header needs a date column and an amount, debit or credit column");
+            return;
+        }
+
+        long line = 1;
+        String row;
+        while ((row = in.readLine()) != null) {
+            line++;
+            if (row.isBlank()) {
+                continue;
+            }
+            try {
+                sink.entry(columns.read(line, split(row, separator)));
+            } catch (IllegalArgumentException e) {
+                sink.error(line, e.getMessage());
+            }
+        }
+    }
+
+    private static final class Columns {
+        final int date;
+        final int amount;
+        final int debit;
+        final int credit;
+        final int type;
+        final int category;
+        final int description;
+
+        Columns(List<String> header) {
+            this.date = indexOf(header, DATE);
+            this.amount = indexOf(header, AMOUNT);
+            this.debit = indexOf(header, DEBIT);
+            this.credit = indexOf(header, CREDIT);
+            this.type = indexOf(header, TYPE);
+            this.category = indexOf(header, CATEGORY);
+            this.description = indexOf(header, DESCRIPTION);
+        }
+
+        StatementEntry read(long line, List<String> fields) {
+            BigDecimal signed;
+            if (amount >= 0) {
+                signed = StatementValues.parseAmount(field(fields, amount));
+                String declared = StatementValues.emptyToNull(field(fields, type));
+                if (declared != null) {
+                    String upper = declared.toUpperCase(Locale.ROOT);
+                    if (!"INCOME".equals(upper) && !"EXPENSE".equals(upper)) {
+                        throw new IllegalArgumentException("invalid type '" + declared + "'");
+                    }
+                    signed = "EXPENSE".equals(upper) ? signed.abs().negate() : signed.abs();
+                }
+            } else {
+                String out = StatementValues.emptyToNull(field(fields, debit));
+                String in = StatementValues.emptyToNull(field(fields, credit));
+                BigDecimal outAmount = out != null ? StatementValues.parseAmount(out).abs() : BigDecimal.ZERO;
+                BigDecimal inAmount = in != null ? StatementValues.parseAmount(in).abs() : BigDecimal.ZERO;
+                signed = inAmount.subtract(outAmount);
+            }
+            return StatementEntry.signed(line,
+                    StatementValues.parseDate(field(fields, date), StatementValues.DAY_FIRST),
+                    signed,
+                    StatementValues.emptyToNull(field(fields, category)),
+                    StatementValues.emptyToNull(field(fields, description)));
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index) : null;
+        }
+
+        private static int indexOf(List<String> header, List<String> names) {
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).toLowerCase(Locale.ROOT).replace(' ', '_');
+                if (names.contains(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Splits one line on the separator, honouring double quotes and "" escapes
+     */
+    static List<String> split(String line, char separator) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static int count(String text, char c) {
+        int n = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
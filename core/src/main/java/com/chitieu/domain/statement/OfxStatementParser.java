@@ -0,0 +1,90 @@
+package com.chitieu.domain.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * OFX/QFX statement reader for both the SGML (unclosed leaf tags) and XML
+ * dialects. The stream is scanned tag by tag and only the fields of the
+ * current STMTTRN block are held.
+ */
+public class OfxStatementParser implements StatementParser {
+
+    private static final int MAX_TEXT = 4096;
+
+    @Override
+    public void parse(Reader reader, Sink sink) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        Map<String, String> fields = null;
+        long record = 0;
+
+        int c = in.read();
+        while (c != -1 && c != '<') {
+            c = in.read(); // SGML header lines
+        }
+        StringBuilder name = new StringBuilder();
+        StringBuilder text = new StringBuilder();
+        while (c == '<') {
+            name.setLength(0);
+            while ((c = in.read()) != -1 && c != '>') {
+                if (name.length() < MAX_TEXT) {
+                    name.append((char) c);
+                }
+            }
+            text.setLength(0);
+            while (c != -1 && (c = in.read()) != -1 && c != '<') {
+                if (text.length() < MAX_TEXT) {
+                    text.append((char) c);
+                }
+            }
+
+            String tag = name.toString().trim().toUpperCase(Locale.ROOT);
+            if ("STMTTRN".equals(tag)) {
+                fields = new HashMap<>();
+                record++;
+            } else if ("/STMTTRN".equals(tag)) {
+                if (fields != null) {
+                    emit(record, fields, sink);
+                }
+                fields = null;
+            } else if (fields != null && !tag.startsWith("/")) {
+                String value = text.toString().trim();
+                if (!value.isEmpty()) {
+                    fields.put(tag, unescape(value));
+                }
+            }
+        }
+    }
+
+    private static void emit(long record, Map<String, String> fields, Sink sink) {
+        try {
+            String posted = fields.get("DTPOSTED");
+            if (posted == null || posted.length() < 8) {
+                throw new IllegalArgumentException("missing DTPOSTED");
+            }
+            String name = fields.get("NAME");
+            String memo = fields.get("MEMO");
+            String description = name == null ? memo
+                    : memo == null || memo.equals(name) ? name : name + " - " + memo;
+            sink.entry(StatementEntry.signed(record,
+                    StatementValues.parseDate(posted.substring(0, 8), StatementValues.DAY_FIRST),
+                    StatementValues.parseAmount(fields.get("TRNAMT")),
+                    null,
+                    description));
+        } catch (IllegalArgumentException e) {
+            sink.error(record, e.getMessage());
+        }
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('&') < 0) {
+            return value;
+        }
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+}
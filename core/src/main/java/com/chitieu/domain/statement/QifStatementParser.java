@@ -0,0 +1,82 @@
+package com.chitieu.domain.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Quicken interchange reader. Records are terminated by '^'; dates follow
+ * the usual month-first QIF convention, including the M/d'yy form. Transfer
+ * categories written as [Account] are dropped.
+ */
+public class QifStatementParser implements StatementParser {
+
+    @Override
+    public void parse(Reader reader, Sink sink) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        Record current = new Record();
+        long line = 0;
+        String row;
+        while ((row = in.readLine()) != null) {
+            line++;
+            if (row.isEmpty() || row.charAt(0) == '!') {
+                continue;
+            }
+            if (current.start == 0) {
+                current.start = line;
+            }
+            String value = row.substring(1).trim();
+            switch (row.charAt(0)) {
+                case 'D':
+                    current.date = value;
+                    break;
+                case 'T':
+                case 'U':
+                    current.amount = value;
+                    break;
+                case 'P':
+                    current.payee = value;
+                    break;
+                case 'M':
+                    current.memo = value;
+                    break;
+                case 'L':
+                    current.category = value.startsWith("[") ? null : value;
+                    break;
+                case '^':
+                    current.emit(sink);
+                    current = new Record();
+                    break;
+                default:
+                    break; // Check numbers, cleared flags, splits
+            }
+        }
+        if (current.date != null || current.amount != null) {
+            current.emit(sink);
+        }
+    }
+
+    private static final class Record {
+        long start;
+        String date;
+        String amount;
+        String payee;
+        String memo;
+        String category;
+
+        void emit(Sink sink) {
+            try {
+                String description = payee == null ? memo
+                        : memo == null || memo.equals(payee) ? payee : payee + " - " + memo;
+                String normalisedDate = date == null ? null : date.replace('\'', '/').replace(" ", "");
+                sink.entry(StatementEntry.signed(start,
+                        StatementValues.parseDate(normalisedDate, StatementValues.MONTH_FIRST),
+                        StatementValues.parseAmount(amount),
+                        StatementValues.emptyToNull(category),
+                        StatementValues.emptyToNull(description)));
+            } catch (IllegalArgumentException e) {
+                sink.error(start, e.getMessage());
+            }
+        }
+    }
+}
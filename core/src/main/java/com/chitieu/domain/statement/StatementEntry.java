@@ -0,0 +1,33 @@
+package com.chitieu.domain.statement;
+
+import lombok.Builder;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One parsed statement line. The amount is always positive; the direction is
+ * carried by the type. Category and description may be null.
+ */
+@Getter
+@Builder
+public class StatementEntry {
+    private final long record; // Line or record number in the source file
+    private final LocalDate date;
+    private final BigDecimal amount;
+    private final String type; // INCOME, EXPENSE
+    private final String category;
+    private final String description;
+
+    static StatementEntry signed(long record, LocalDate date, BigDecimal signedAmount, String category,
+            String description) {
+        return StatementEntry.builder()
+                .record(record)
+                .date(date)
+                .amount(signedAmount.abs())
+                .type(signedAmount.signum() < 0 ? "EXPENSE" : "INCOME")
+                .category(category)
+                .description(description)
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.chitieu.domain.statement;
+
+import java.util.Locale;
+
+public enum StatementFormat {
+    CSV,
+    OFX,
+    QIF;
+
+    public StatementParser parser() {
+        switch (this) {
+            case OFX:
+                return new OfxStatementParser();
+            case QIF:
+                return new QifStatementParser();
+            default:
+                return new CsvStatementParser();
+        }
+    }
+
+    /**
+     * Format implied by the file extension, or null if it is not recognised
+     */
+    public static StatementFormat fromFileName(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ofx") || name.endsWith(".qfx")) {
+            return OFX;
+        }
+        if (name.endsWith(".qif")) {
+            return QIF;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.chitieu.domain.statement;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming reader for one statement file format. Entries are handed to the
+ * sink as they are read, so memory use does not grow with the file.
+ */
+public interface StatementParser {
+
+    /**
+     * Reads the whole statement. A malformed record is reported to
+     * {@link Sink#error} and parsing carries on with the next one.
+     */
+    void parse(Reader reader, Sink sink) throws IOException;
+
+    interface Sink {
+        void entry(StatementEntry entry);
+
+        void error(long record, String message);
+    }
+}
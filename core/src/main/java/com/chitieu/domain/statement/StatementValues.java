@@ -0,0 +1,103 @@
+package com.chitieu.domain.statement;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Lenient amount and date parsing shared by the statement parsers. Both
+ * throw {@link IllegalArgumentException} with a message fit for the import
+ * report.
+ */
+final class StatementValues {
+
+    static final List<DateTimeFormatter> DAY_FIRST = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("d/M/uuuu"),
+            DateTimeFormatter.ofPattern("d-M-uuuu"),
+            DateTimeFormatter.ofPattern("d.M.uuuu"),
+            DateTimeFormatter.ofPattern("uuuu/M/d"),
+            DateTimeFormatter.BASIC_ISO_DATE);
+
+    static final List<DateTimeFormatter> MONTH_FIRST = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("M/d/uuuu"),
+            DateTimeFormatter.ofPattern("M/d/uu"),
+            DateTimeFormatter.BASIC_ISO_DATE);
+
+    private StatementValues() {
+    }
+
+    /**
+     * Parses the date part of {@code text}; a trailing time is ignored
+     */
+    static LocalDate parseDate(String text, List<DateTimeFormatter> formats) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("missing date");
+        }
+        String value = text.trim();
+        int timeStart = value.indexOf('T') > 0 ? value.indexOf('T') : value.indexOf(' ');
+        if (timeStart > 0) {
+            value = value.substring(0, timeStart);
+        }
+        for (DateTimeFormatter format : formats) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException ignored) {
+                // Try the next format
+            }
+        }
+        throw new IllegalArgumentException("invalid date '" + text.trim() + "'");
+    }
+
+    /**
+     * Parses a signed amount. Currency symbols are dropped and "(x)" is
+     * negative. A lone ',' or '.' followed by exactly three digits is a
+     * thousands separator (1.000 VND); otherwise the last separator is the
+     * decimal point.
+     */
+    static BigDecimal parseAmount(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("missing amount");
+        }
+        StringBuilder digits = new StringBuilder(text.length());
+        boolean negative = false;
+        int lastSeparator = -1;
+        int separators = 0;
+        char separator = 0;
+        boolean mixed = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c == '-' || c == '(') {
+                negative = true;
+            } else if (c == ',' || c == '.') {
+                mixed |= separator != 0 && separator != c;
+                separator = c;
+                separators++;
+                lastSeparator = digits.length();
+            }
+        }
+        if (digits.length() == 0) {
+            throw new IllegalArgumentException("invalid amount '" + text.trim() + "'");
+        }
+        int fraction = lastSeparator < 0 ? 0 : digits.length() - lastSeparator;
+        boolean decimal = lastSeparator >= 0 && (mixed || (separators == 1 && fraction != 3));
+        BigDecimal amount = new BigDecimal(digits.toString());
+        if (decimal) {
+            amount = amount.movePointLeft(fraction);
+        }
+        return negative ? amount.negate() : amount;
+    }
+
+    static String emptyToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
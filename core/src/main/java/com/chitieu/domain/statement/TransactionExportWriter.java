@@ -0,0 +1,115 @@
+package com.chitieu.domain.statement;
+
+import com.chitieu.domain.model.Transaction;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes transactions one at a time as CSV or NDJSON without building any
+ * intermediate objects per row. The CSV header uses the column names the
+ * {@link CsvStatementParser} reads, so an export can be imported again.
+ */
+public final class TransactionExportWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ExportFormat format;
+    private final Writer out;
+
+    public TransactionExportWriter(ExportFormat format, Writer out) {
+        this.format = format;
+        this.out = out;
+    }
+
+    public void writeHeader() throws IOException {
+        if (format == ExportFormat.CSV) {
+            out.write("id,date,type,amount,category,account_id,description\n");
+        }
+    }
+
+    public void write(Transaction transaction) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeCsv(transaction);
+        } else {
+            writeJson(transaction);
+        }
+    }
+
+    private void writeCsv(Transaction t) throws IOException {
+        out.write(String.valueOf(t.getId()));
+        out.write(',');
+        out.write(t.getDate().toString());
+        out.write(',');
+        out.write(t.getType());
+        out.write(',');
+        out.write(t.getAmount().toPlainString());
+        out.write(',');
+        csvField(t.getCategory());
+        out.write(',');
+        if (t.getAccountId() != null) {
+            out.write(t.getAccountId().toString());
+        }
+        out.write(',');
+        csvField(t.getDescription());
+        out.write('\n');
+    }
+
+    private void csvField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private void writeJson(Transaction t) throws IOException {
+        out.write("{\"id\":\"");
+        out.write(String.valueOf(t.getId()));
+        out.write("\",\"date\":\"");
+        out.write(t.getDate().toString());
+        out.write("\",\"type\":");
+        jsonString(t.getType());
+        out.write(",\"amount\":");
+        out.write(t.getAmount().toPlainString());
+        out.write(",\"category\":");
+        jsonString(t.getCategory());
+        out.write(",\"accountId\":");
+        jsonString(t.getAccountId() != null ? t.getAccountId().toString() : null);
+        out.write(",\"description\":");
+        jsonString(t.getDescription());
+        out.write("}\n");
+    }
+
+    private void jsonString(String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write("\\u00");
+                out.write(HEX[c >> 4]);
+                out.write(HEX[c & 0xF]);
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,137 @@
+package com.chitieu.domain.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightCacheTest {
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<>(1, TimeUnit.MINUTES, 100);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("k", key -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return 42;
+            })));
+            loading.await();
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get("k", key -> {
+                    loads.incrementAndGet();
+                    return -1;
+                })));
+            }
+            // Let the others reach the load in flight before it finishes
+            while (cache.stats().getCoalesced() < callers - 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().getMisses()).isEqualTo(1);
+        assertThat(cache.stats().getCoalesced()).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void servesCachedValueUntilInvalidated() {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<>(1, TimeUnit.MINUTES, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("k", key -> loads.incrementAndGet())).isEqualTo(1);
+        assertThat(cache.get("k", key -> loads.incrementAndGet())).isEqualTo(1);
+        assertThat(cache.stats().getHits()).isEqualTo(1);
+
+        cache.invalidate("k");
+        assertThat(cache.get("k", key -> loads.incrementAndGet())).isEqualTo(2);
+        assertThat(cache.stats().getInvalidations()).isEqualTo(1);
+    }
+
+    @Test
+    void loadStartedBeforeInvalidationIsNotStored() throws Exception {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(1, TimeUnit.MINUTES, 100);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> stale = executor.submit(() -> cache.get("k", key -> {
+                loading.countDown();
+                await(release);
+                return "stale";
+            }));
+            loading.await();
+            cache.invalidate("k");
+            release.countDown();
+            assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cache.get("k", key -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(1, TimeUnit.MINUTES, 100);
+
+        assertThatThrownBy(() -> cache.get("k", key -> {
+            throw new IllegalStateException("down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get("k", key -> "up")).isEqualTo("up");
+    }
+
+    @Test
+    void expiredValueIsReloaded() throws Exception {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<>(20, TimeUnit.MILLISECONDS, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("k", key -> loads.incrementAndGet());
+        Thread.sleep(40);
+
+        assertThat(cache.get("k", key -> loads.incrementAndGet())).isEqualTo(2);
+    }
+
+    @Test
+    void evictsBackUnderCapacity() {
+        SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>(1, TimeUnit.MINUTES, 10);
+        for (int i = 0; i < 50; i++) {
+            cache.get(i, key -> key);
+        }
+
+        assertThat(cache.stats().getSize()).isLessThanOrEqualTo(11);
+        assertThat(cache.stats().getEvictions()).isPositive();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.chitieu.domain.cache;
+
+import com.chitieu.domain.event.FinancialDataChangedEvent;
+import com.chitieu.domain.model.CategorySpendingReport;
+import com.chitieu.domain.model.TimeResolution;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpendingAnalyticsCacheTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    private final SpendingAnalyticsCache cache = new SpendingAnalyticsCache(300, 100);
+
+    @Test
+    void changeReloadsEveryWindowOfThatUserOnly() {
+        UUID changed = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<CategorySpendingReport> loader = () -> {
+            loads.incrementAndGet();
+            return CategorySpendingReport.builder().build();
+        };
+
+        cache.get(changed, FROM, TO, null, loader);
+        cache.get(changed, FROM, TO, TimeResolution.MONTH, loader);
+        cache.get(other, FROM, TO, null, loader);
+        assertThat(loads).hasValue(3);
+
+        cache.onFinancialDataChanged(new FinancialDataChangedEvent(changed));
+
+        cache.get(changed, FROM, TO, null, loader);
+        cache.get(changed, FROM, TO, TimeResolution.MONTH, loader);
+        cache.get(other, FROM, TO, null, loader);
+        assertThat(loads).hasValue(5);
+    }
+}
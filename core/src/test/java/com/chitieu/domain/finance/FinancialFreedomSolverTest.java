@@ -0,0 +1,130 @@
+package com.chitieu.domain.finance;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class FinancialFreedomSolverTest {
+
+    @Test
+    void matchesMonthByMonthCompounding() {
+        Random random = new Random(20240501);
+        for (int i = 0; i < 300; i++) {
+            BigDecimal current = BigDecimal.valueOf(random.nextInt(2_000_000_000) - 200_000_000L);
+            BigDecimal target = BigDecimal.valueOf(500_000_000L + random.nextInt(2_000_000_000));
+            BigDecimal savings = BigDecimal.valueOf(1_000_000L + random.nextInt(50_000_000));
+            BigDecimal annualReturn = BigDecimal.valueOf(random.nextInt(16), 2);
+
+            assertThat(FinancialFreedomSolver.yearsToTarget(current, target, savings, annualReturn))
+                    .as("current %s, target %s, savings %s, return %s", current, target, savings, annualReturn)
+                    .isEqualByComparingTo(iterativeYears(current, target, savings, annualReturn));
+        }
+    }
+
+    @Test
+    void matchesMonthByMonthAtTheHorizonCap() {
+        BigDecimal current = BigDecimal.ZERO;
+        BigDecimal target = new BigDecimal("1000000000000");
+        BigDecimal savings = new BigDecimal("100000");
+        BigDecimal annualReturn = new BigDecimal("0.01");
+
+        assertThat(FinancialFreedomSolver.yearsToTarget(current, target, savings, annualReturn))
+                .isEqualByComparingTo(iterativeYears(current, target, savings, annualReturn))
+                .isEqualByComparingTo("100.0");
+    }
+
+    @Test
+    void handlesZeroReturnExactly() {
+        // 1,000 short at 100 a month: exactly 10 months
+        assertThat(FinancialFreedomSolver.monthsToTarget(new BigDecimal("9000"), new BigDecimal("10000"),
+                new BigDecimal("100"), BigDecimal.ZERO)).isEqualTo(10);
+        assertThat(FinancialFreedomSolver.monthsToTarget(new BigDecimal("9000"), new BigDecimal("10001"),
+                new BigDecimal("100"), BigDecimal.ZERO)).isEqualTo(11);
+    }
+
+    @Test
+    void reportsUnreachableAndAlreadyReached() {
+        assertThat(FinancialFreedomSolver.yearsToTarget(BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO,
+                new BigDecimal("0.10"))).isEqualByComparingTo("-1");
+        assertThat(FinancialFreedomSolver.yearsToTarget(BigDecimal.TEN, BigDecimal.ONE, BigDecimal.ONE,
+                new BigDecimal("0.10"))).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void batchFormAgreesWithinAMonth() {
+        Random random = new Random(7);
+        int n = 200;
+        double[] current = new double[n];
+        double[] target = new double[n];
+        double[] savings = new double[n];
+        double[] annualReturn = new double[n];
+        for (int i = 0; i < n; i++) {
+            current[i] = random.nextInt(1_000_000_000);
+            target[i] = 1_000_000_000.0 + random.nextInt(2_000_000_000);
+            savings[i] = 1_000_000 + random.nextInt(30_000_000);
+            annualReturn[i] = random.nextInt(13) / 100.0;
+        }
+        // Unreachable and already reached
+        savings[0] = 0;
+        current[1] = target[1];
+
+        double[] years = FinancialFreedomSolver.yearsToTarget(current, target, savings, annualReturn);
+
+        assertThat(years[0]).isEqualTo(-1);
+        assertThat(years[1]).isEqualTo(0);
+        for (int i = 2; i < n; i++) {
+            int exact = FinancialFreedomSolver.monthsToTarget(BigDecimal.valueOf(current[i]),
+                    BigDecimal.valueOf(target[i]), BigDecimal.valueOf(savings[i]),
+                    FinancialFreedomSolver.monthlyRate(BigDecimal.valueOf(annualReturn[i])));
+            assertThat(years[i] * 12).isCloseTo(exact, within(1.0));
+        }
+    }
+
+    @Test
+    void batchRateRoundsLikeTheDecimalRate() {
+        // Every return in basis points, and the six-place ties 0.000006 / 12 and 0.000018 / 12
+        for (int bp = -500; bp <= 3000; bp++) {
+            double annualReturn = bp / 10_000.0;
+            assertThat(FinancialFreedomSolver.monthlyRate(annualReturn))
+                    .as("return %s", annualReturn)
+                    .isEqualTo(FinancialFreedomSolver.monthlyRate(BigDecimal.valueOf(annualReturn)).doubleValue());
+        }
+        assertThat(FinancialFreedomSolver.monthlyRate(0.000006)).isEqualTo(0.000001);
+        assertThat(FinancialFreedomSolver.monthlyRate(0.000018)).isEqualTo(0.000002);
+    }
+
+    @Test
+    void batchFormSettlesWholeMonthTies() {
+        // 1,000 short at 100 a month: exactly 10 months, or 11 for one more unit
+        double[] years = FinancialFreedomSolver.yearsToTarget(new double[] { 9000, 9000 },
+                new double[] { 10000, 10001 }, new double[] { 100, 100 }, new double[] { 0, 0 });
+
+        assertThat(years).containsExactly(10 / 12.0, 11 / 12.0);
+    }
+
+    /**
+     * The loop the solver replaced: compound month by month up to the cap
+     */
+    private static BigDecimal iterativeYears(BigDecimal current, BigDecimal target, BigDecimal monthlySavings,
+            BigDecimal annualReturn) {
+        if (monthlySavings.signum() <= 0) {
+            return new BigDecimal("-1");
+        }
+        if (current.compareTo(target) >= 0) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal monthlyRate = annualReturn.divide(new BigDecimal("12"), 6, RoundingMode.HALF_UP);
+        int months = 0;
+        BigDecimal accumulated = current;
+        while (accumulated.compareTo(target) < 0 && months < FinancialFreedomSolver.MAX_MONTHS) {
+            accumulated = accumulated.multiply(BigDecimal.ONE.add(monthlyRate)).add(monthlySavings);
+            months++;
+        }
+        return new BigDecimal(months).divide(new BigDecimal("12"), 1, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,96 @@
+package com.chitieu.domain.finance;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoneyAccumulatorTest {
+
+    @Test
+    void equalsBigDecimalReduceIncludingScale() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            List<BigDecimal> amounts = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                amounts.add(randomAmount(random));
+            }
+
+            MoneyAccumulator accumulator = new MoneyAccumulator();
+            amounts.forEach(accumulator::add);
+            BigDecimal expected = amounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            // Same value and same scale, as callers compare with equals and print the result
+            assertThat(accumulator.toBigDecimal()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void keepsDigitsBeyondMinorUnits() {
+        MoneyAccumulator accumulator = new MoneyAccumulator()
+                .add(new BigDecimal("0.001"))
+                .add(new BigDecimal("0.004"))
+                .add(new BigDecimal("1.10"));
+
+        assertThat(accumulator.isCompact()).isFalse();
+        assertThat(accumulator.toBigDecimal()).isEqualTo(new BigDecimal("1.105"));
+    }
+
+    @Test
+    void spillsInsteadOfOverflowing() {
+        BigDecimal large = BigDecimal.valueOf(Long.MAX_VALUE / 2, Money.SCALE);
+        MoneyAccumulator accumulator = new MoneyAccumulator().add(large).add(large).add(large);
+
+        assertThat(accumulator.toBigDecimal()).isEqualTo(large.multiply(BigDecimal.valueOf(3)));
+        assertThat(accumulator.signum()).isPositive();
+    }
+
+    @Test
+    void mergesAccumulatorsAndMoney() {
+        MoneyAccumulator left = new MoneyAccumulator().add(new BigDecimal("10.5")).add(new BigDecimal("0.125"));
+        MoneyAccumulator right = new MoneyAccumulator().add(Money.ofMinor(-1050)).add(Money.ofMinor(Long.MAX_VALUE));
+
+        left.add(right);
+
+        BigDecimal expected = new BigDecimal("10.5").add(new BigDecimal("0.125")).add(new BigDecimal("-10.50"))
+                .add(BigDecimal.valueOf(Long.MAX_VALUE, Money.SCALE));
+        assertThat(left.toBigDecimal()).isEqualTo(expected);
+    }
+
+    @Test
+    void compactSumConvertsToMoney() {
+        MoneyAccumulator accumulator = new MoneyAccumulator().add(new BigDecimal("1.1")).add(new BigDecimal("2"));
+
+        assertThat(accumulator.isCompact()).isTrue();
+        assertThat(accumulator.toMoney()).isEqualTo(Money.ofMinor(310));
+        assertThat(accumulator.toBigDecimal()).isEqualTo(new BigDecimal("3.1"));
+    }
+
+    @Test
+    void emptySumIsZeroAtScaleZero() {
+        assertThat(new MoneyAccumulator().toBigDecimal()).isEqualTo(BigDecimal.ZERO);
+        assertThat(new MoneyAccumulator().add((BigDecimal) null).signum()).isZero();
+    }
+
+    private static BigDecimal randomAmount(Random random) {
+        switch (random.nextInt(5)) {
+        case 0:
+            // Whole amounts
+            return BigDecimal.valueOf(random.nextInt(10_000_000) - 1_000_000L);
+        case 1:
+            return BigDecimal.valueOf(random.nextLong() % 1_000_000_000_000L, 2);
+        case 2:
+            // Exchange-rate products and other amounts past two decimals
+            return BigDecimal.valueOf(random.nextLong() % 100_000_000L, 3 + random.nextInt(4));
+        case 3:
+            // Big enough to overflow minor units when added up
+            return BigDecimal.valueOf(Long.MAX_VALUE / 4 - random.nextInt(1000), 2);
+        default:
+            return BigDecimal.valueOf(random.nextInt(1000), -3);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.chitieu.domain.finance;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void convertsExactlyAtAnyScaleUpToTwo() {
+        assertThat(Money.of(new BigDecimal("12")).getMinorUnits()).isEqualTo(1200);
+        assertThat(Money.of(new BigDecimal("12.3")).getMinorUnits()).isEqualTo(1230);
+        assertThat(Money.of(new BigDecimal("-12.34")).getMinorUnits()).isEqualTo(-1234);
+        assertThat(Money.of(new BigDecimal("1.2E+3")).getMinorUnits()).isEqualTo(120000);
+        // Trailing zeros past two decimals lose nothing
+        assertThat(Money.of(new BigDecimal("12.3400")).getMinorUnits()).isEqualTo(1234);
+    }
+
+    @Test
+    void refusesToRound() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("0.005"))).isInstanceOf(ArithmeticException.class);
+        assertThat(Money.isRepresentable(new BigDecimal("0.005"))).isFalse();
+        assertThat(Money.isRepresentable(new BigDecimal("0.050"))).isTrue();
+    }
+
+    @Test
+    void refusesToOverflow() {
+        BigDecimal largest = BigDecimal.valueOf(Long.MAX_VALUE, Money.SCALE);
+        assertThat(Money.of(largest).getMinorUnits()).isEqualTo(Long.MAX_VALUE);
+        assertThatThrownBy(() -> Money.of(largest.add(new BigDecimal("0.01"))))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MIN_VALUE).minus(Money.ofMinor(1)))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void roundTripsThroughBigDecimalAtScaleTwo() {
+        Money money = Money.of(new BigDecimal("1234.5"));
+
+        assertThat(money.toBigDecimal()).isEqualTo(new BigDecimal("1234.50"));
+        assertThat(money.toString()).isEqualTo("1234.50");
+        assertThat(money).isEqualTo(Money.of(new BigDecimal("1234.50")));
+        assertThat(money.plus(Money.of(new BigDecimal("0.5"))).minus(Money.ofMinor(100)))
+                .isEqualTo(Money.of(new BigDecimal("1234")));
+    }
+}
@@ -0,0 +1,218 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.model.Account;
+import com.chitieu.domain.model.AccountType;
+import com.chitieu.domain.model.CategoryTotal;
+import com.chitieu.domain.model.Debt;
+import com.chitieu.domain.model.DebtType;
+import com.chitieu.domain.model.FinancialSnapshot;
+import com.chitieu.domain.model.MonthlyRollup;
+import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.repository.AccountRepositoryPort;
+import com.chitieu.domain.repository.DebtRepositoryPort;
+import com.chitieu.domain.repository.TransactionRepositoryPort;
+import com.chitieu.domain.repository.TransactionRollupRepositoryPort;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class FinancialSnapshotAggregatorTest {
+
+    private static final List<String> CATEGORIES = Arrays.asList(
+            "Food", "Housing", "Dining", "Shopping", "Salary", "Gifts", null);
+
+    private final UUID userId = UUID.randomUUID();
+
+    /**
+     * Compares every windowed sum with the per-metric filters the assessment
+     * service ran over the full transaction list before the snapshot, on
+     * dates whose window starts fall mid-month, on a month's last day and on
+     * the first of a month. Boundary months are summed by the database once
+     * per piece inside the 12-month window, so the expected query count
+     * depends on where the window starts fall.
+     */
+    @ParameterizedTest
+    @CsvSource({ "2024-06-15, 5", "2024-07-31, 3", "2024-03-31, 3", "2024-01-01, 4" })
+    void snapshotMatchesThePerMetricSumsWithinItsQueryBudget(LocalDate today, int boundaryQueries) {
+        List<Transaction> transactions = transactions(today);
+        List<Account> accounts = List.of(
+                account(AccountType.BANK, "1500.00"),
+                account(AccountType.CASH, "-20.00"),
+                account(AccountType.E_WALLET, "75.25"),
+                account(AccountType.CREDIT, "-1200.00"),
+                account(AccountType.CREDIT, "300.00"),
+                account(AccountType.INVESTMENT, "5000.00"),
+                account(AccountType.BANK, null));
+        List<Debt> debts = List.of(
+                debt(DebtType.BORROW, "ACTIVE", "1000.00"),
+                debt(DebtType.BORROW, "ACTIVE", "250.00"),
+                debt(DebtType.BORROW, "PAID", "900.00"),
+                debt(DebtType.LEND, "ACTIVE", "400.00"),
+                debt(DebtType.BORROW, "ACTIVE", null));
+
+        AccountRepositoryPort accountRepository = mock(AccountRepositoryPort.class);
+        when(accountRepository.findByUserId(userId)).thenReturn(accounts);
+        DebtRepositoryPort debtRepository = mock(DebtRepositoryPort.class);
+        when(debtRepository.findByUserId(userId)).thenReturn(debts);
+        TransactionRepositoryPort transactionRepository = mock(TransactionRepositoryPort.class);
+        when(transactionRepository.sumByTypeAndCategory(eq(userId), any(), any()))
+                .thenAnswer(call -> sumByTypeAndCategory(transactions, call.getArgument(1), call.getArgument(2)));
+        TransactionRollupRepositoryPort rollupRepository = mock(TransactionRollupRepositoryPort.class);
+        when(rollupRepository.findByUserIdFromMonth(eq(userId), any()))
+                .thenAnswer(call -> rollups(transactions, call.getArgument(1)));
+        ExchangeRateService exchangeRateService = mock(ExchangeRateService.class);
+        when(exchangeRateService.baseCurrencyOf(userId)).thenReturn("VND");
+        when(exchangeRateService.inCurrency(any(), eq("VND"))).thenAnswer(call -> call.getArgument(0));
+
+        FinancialSnapshot snapshot = new FinancialSnapshotAggregator(accountRepository, debtRepository,
+                transactionRepository, rollupRepository, exchangeRateService).load(userId, today);
+
+        LocalDate oneMonthAgo = today.minusMonths(1);
+        LocalDate threeMonthsAgo = today.minusMonths(3);
+        LocalDate twelveMonthsAgo = today.minusMonths(12);
+        Predicate<Transaction> lastMonth = t -> !t.getDate().isBefore(oneMonthAgo);
+        Predicate<Transaction> last3Months = t -> t.getDate().isAfter(threeMonthsAgo);
+        Predicate<Transaction> last12Months = t -> t.getDate().isAfter(twelveMonthsAgo);
+        Predicate<Transaction> income = t -> "INCOME".equals(t.getType());
+        Predicate<Transaction> expense = t -> "EXPENSE".equals(t.getType());
+        Predicate<Transaction> essential = t -> t.getCategory() != null
+                && FinancialSnapshotAggregator.ESSENTIAL_CATEGORIES.contains(t.getCategory());
+        Predicate<Transaction> wants = t -> t.getCategory() != null
+                && FinancialSnapshotAggregator.WANTS_CATEGORIES.contains(t.getCategory());
+
+        assertThat(snapshot.getIncomeLastMonth())
+                .isEqualByComparingTo(sum(transactions, lastMonth.and(income)));
+        assertThat(snapshot.getNeedsLastMonth())
+                .isEqualByComparingTo(sum(transactions, lastMonth.and(expense).and(essential)));
+        assertThat(snapshot.getWantsLastMonth())
+                .isEqualByComparingTo(sum(transactions, lastMonth.and(expense).and(wants)));
+        assertThat(snapshot.getIncomeLast3Months())
+                .isEqualByComparingTo(sum(transactions, last3Months.and(income)));
+        assertThat(snapshot.getExpensesLast3Months())
+                .isEqualByComparingTo(sum(transactions, last3Months.and(expense)));
+        assertThat(snapshot.getEssentialExpensesLast3Months())
+                .isEqualByComparingTo(sum(transactions, last3Months.and(expense).and(essential)));
+        assertThat(snapshot.getExpensesLast12Months())
+                .isEqualByComparingTo(sum(transactions, last12Months.and(expense)));
+
+        assertThat(snapshot.getTotalAssets()).isEqualByComparingTo("6875.25");
+        assertThat(snapshot.getLiquidAssets()).isEqualByComparingTo("1555.25");
+        assertThat(snapshot.getCreditCardDebt()).isEqualByComparingTo("1200.00");
+        assertThat(snapshot.getCreditCardMinimumPayments()).isEqualByComparingTo("36.00");
+        assertThat(snapshot.getActiveLoanDebt()).isEqualByComparingTo("1250.00");
+        assertThat(snapshot.getActiveLoanMonthlyPayments()).isEqualByComparingTo(
+                new BigDecimal("1000.00").divide(new BigDecimal("12"), 2, RoundingMode.HALF_UP)
+                        .add(new BigDecimal("250.00").divide(new BigDecimal("12"), 2, RoundingMode.HALF_UP)));
+
+        // One read per source, and no transaction rows at all
+        verify(accountRepository).findByUserId(userId);
+        verify(debtRepository).findByUserId(userId);
+        verify(rollupRepository).findByUserIdFromMonth(userId, YearMonth.from(twelveMonthsAgo));
+        verify(transactionRepository, times(boundaryQueries)).sumByTypeAndCategory(eq(userId), any(), any());
+        verifyNoMoreInteractions(accountRepository, debtRepository, rollupRepository, transactionRepository);
+    }
+
+    /**
+     * A few transactions a day from 13 months back to a few days ahead, with
+     * every type and category the windows tell apart
+     */
+    private List<Transaction> transactions(LocalDate today) {
+        Random random = new Random(today.toEpochDay());
+        List<Transaction> transactions = new ArrayList<>();
+        for (LocalDate date = today.minusMonths(13); !date.isAfter(today.plusDays(3)); date = date.plusDays(1)) {
+            for (int i = random.nextInt(4); i > 0; i--) {
+                String type = random.nextInt(10) < 3 ? "INCOME" : random.nextInt(10) == 0 ? "TRANSFER" : "EXPENSE";
+                transactions.add(Transaction.builder()
+                        .id(UUID.randomUUID())
+                        .amount(random.nextInt(20) == 0 ? null : BigDecimal.valueOf(random.nextInt(500_000), 2))
+                        .type(type)
+                        .category(CATEGORIES.get(random.nextInt(CATEGORIES.size())))
+                        .date(date)
+                        .build());
+            }
+        }
+        return transactions;
+    }
+
+    private static List<CategoryTotal> sumByTypeAndCategory(List<Transaction> transactions, LocalDate from,
+            LocalDate to) {
+        return transactions.stream()
+                .filter(t -> t.getAmount() != null && !t.getDate().isBefore(from) && !t.getDate().isAfter(to))
+                .collect(Collectors.groupingBy(t -> Arrays.asList(t.getType(), t.getCategory())))
+                .entrySet().stream()
+                .map(group -> CategoryTotal.builder()
+                        .periodStart(from)
+                        .type(group.getKey().get(0))
+                        .category(group.getKey().get(1))
+                        .totalAmount(sum(group.getValue(), t -> true))
+                        .transactionCount(group.getValue().size())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private List<MonthlyRollup> rollups(List<Transaction> transactions, YearMonth fromMonth) {
+        Map<List<Object>, List<Transaction>> groups = transactions.stream()
+                .filter(t -> t.getAmount() != null && !YearMonth.from(t.getDate()).isBefore(fromMonth))
+                .collect(Collectors.groupingBy(
+                        t -> Arrays.asList(YearMonth.from(t.getDate()), t.getType(), t.getCategory())));
+        return groups.entrySet().stream()
+                .map(group -> MonthlyRollup.builder()
+                        .userId(userId)
+                        .month((YearMonth) group.getKey().get(0))
+                        .type((String) group.getKey().get(1))
+                        .category((String) group.getKey().get(2))
+                        .totalAmount(sum(group.getValue(), t -> true))
+                        .transactionCount(group.getValue().size())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static BigDecimal sum(List<Transaction> transactions, Predicate<Transaction> filter) {
+        return transactions.stream()
+                .filter(t -> t.getAmount() != null)
+                .filter(filter)
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private Account account(AccountType type, String balance) {
+        return Account.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .type(type)
+                .balance(balance != null ? new BigDecimal(balance) : null)
+                .currency("VND")
+                .build();
+    }
+
+    private Debt debt(DebtType type, String status, String amount) {
+        return Debt.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .type(type)
+                .status(status)
+                .amount(amount != null ? new BigDecimal(amount) : null)
+                .build();
+    }
+}
@@ -0,0 +1,300 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.model.Account;
+import com.chitieu.domain.model.BalanceCheckpoint;
+import com.chitieu.domain.model.BalanceClosing;
+import com.chitieu.domain.model.JournalEntry;
+import com.chitieu.domain.model.JournalKind;
+import com.chitieu.domain.model.LedgerAccount;
+import com.chitieu.domain.model.LedgerBalance;
+import com.chitieu.domain.repository.AccountRepositoryPort;
+import com.chitieu.domain.repository.BatchCheckpointRepositoryPort;
+import com.chitieu.domain.repository.JournalRepositoryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LedgerServiceTest {
+
+    private static final long CHECKPOINT_INTERVAL = 3;
+    private static final BigDecimal OPENING = new BigDecimal("100.00");
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+
+    // In-memory account row and journal behind the mocked ports
+    private BigDecimal cachedBalance = OPENING;
+    private long cachedSequence;
+    private final List<JournalEntry> journal = new ArrayList<>();
+    private final TreeMap<Long, BigDecimal> checkpoints = new TreeMap<>();
+    private final TreeMap<LocalDate, BigDecimal> closings = new TreeMap<>();
+
+    private AccountRepositoryPort accountRepository;
+    private JournalRepositoryPort journalRepository;
+    private LedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepositoryPort.class);
+        journalRepository = mock(JournalRepositoryPort.class);
+
+        when(accountRepository.incrementBalance(eq(userId), eq(accountId), any())).thenAnswer(call -> {
+            cachedBalance = cachedBalance.add(call.getArgument(2));
+            cachedSequence++;
+            return Optional.of(ledgerBalance());
+        });
+        when(accountRepository.findLedgerBalance(accountId))
+                .thenAnswer(call -> cachedSequence == 0 ? Optional.empty() : Optional.of(ledgerBalance()));
+        when(accountRepository.findJournaledAccountIds(any(), anyInt()))
+                .thenAnswer(call -> call.getArgument(0).equals(accountId) ? List.of() : List.of(accountId));
+        when(accountRepository.repairBalance(eq(accountId), anyLong(), any())).thenReturn(true);
+
+        doAnswer(call -> journal.addAll(call.getArgument(0)))
+                .when(journalRepository).append(any());
+        doAnswer(call -> checkpoints.put(call.getArgument(1), call.getArgument(2)))
+                .when(journalRepository).saveCheckpoint(eq(accountId), anyLong(), any());
+        when(journalRepository.findCheckpoint(eq(accountId), anyLong())).thenAnswer(call -> {
+            Map.Entry<Long, BigDecimal> latest = checkpoints.floorEntry(call.getArgument(1));
+            return Optional.ofNullable(latest).map(entry -> BalanceCheckpoint.builder()
+                    .accountId(accountId)
+                    .sequence(entry.getKey())
+                    .balance(entry.getValue())
+                    .build());
+        });
+        when(journalRepository.sumBetween(eq(accountId), anyLong(), anyLong())).thenAnswer(call -> {
+            long after = call.getArgument(1);
+            long upTo = call.getArgument(2);
+            return journal.stream()
+                    .filter(entry -> accountId.equals(entry.getAccountId()))
+                    .filter(entry -> entry.getSequence() > after && entry.getSequence() <= upTo)
+                    .map(JournalEntry::getAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        });
+
+        when(accountRepository.findById(accountId)).thenAnswer(call -> Optional.of(Account.builder()
+                .id(accountId)
+                .userId(userId)
+                .balance(cachedBalance)
+                .build()));
+        when(journalRepository.sumEffectiveBetween(eq(accountId), any(), any())).thenAnswer(call -> {
+            LocalDate after = call.getArgument(1);
+            LocalDate upTo = call.getArgument(2);
+            return journal.stream()
+                    .filter(entry -> accountId.equals(entry.getAccountId()))
+                    .filter(entry -> after == null || entry.getEffectiveDate().isAfter(after))
+                    .filter(entry -> !entry.getEffectiveDate().isAfter(upTo))
+                    .map(JournalEntry::getAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        });
+        when(journalRepository.findFirstEffectiveDate(accountId)).thenAnswer(call -> journal.stream()
+                .filter(entry -> accountId.equals(entry.getAccountId()))
+                .map(JournalEntry::getEffectiveDate)
+                .min(LocalDate::compareTo));
+        when(journalRepository.findClosing(eq(accountId), any())).thenAnswer(call -> {
+            Map.Entry<LocalDate, BigDecimal> nearest = closings.floorEntry(call.getArgument(1));
+            return Optional.ofNullable(nearest).map(entry -> closing(entry.getKey(), entry.getValue()));
+        });
+        when(journalRepository.findLatestClosingDate(accountId))
+                .thenAnswer(call -> Optional.ofNullable(closings.isEmpty() ? null : closings.lastKey()));
+        doAnswer(call -> {
+            BigDecimal amount = call.getArgument(2);
+            closings.tailMap(call.getArgument(1), true).replaceAll((date, balance) -> balance.add(amount));
+            return null;
+        }).when(journalRepository).shiftClosings(eq(accountId), any(), any());
+        when(journalRepository.closeBalance(eq(accountId), any())).thenAnswer(call -> {
+            LocalDate date = call.getArgument(1);
+            BigDecimal balance = checkpoints.getOrDefault(0L, OPENING)
+                    .add(journalRepository.sumEffectiveBetween(accountId, null, date));
+            closings.put(date, balance);
+            return closing(date, balance);
+        });
+
+        ledgerService = new LedgerService(accountRepository, journalRepository,
+                mock(BatchCheckpointRepositoryPort.class), mock(ApplicationEventPublisher.class),
+                mock(ExchangeRateService.class), CHECKPOINT_INTERVAL);
+    }
+
+    @Test
+    void checkpointsTheOpeningBalanceAndEveryIntervalEntries() {
+        List<BigDecimal> running = postAll("25.50", "-10.00", "4.25", "-100.00", "60.00", "0.75", "-3.10");
+
+        assertThat(checkpoints.keySet()).containsExactly(0L, 3L, 6L);
+        assertThat(checkpoints.get(0L)).isEqualByComparingTo(OPENING);
+        assertThat(checkpoints.get(3L)).isEqualByComparingTo(running.get(3));
+        assertThat(checkpoints.get(6L)).isEqualByComparingTo(running.get(6));
+    }
+
+    @Test
+    void replayMatchesTheRunningBalanceAtEverySequence() {
+        List<BigDecimal> running = postAll("25.50", "-10.00", "4.25", "-100.00", "60.00", "0.75", "-3.10", "12.00");
+
+        for (int sequence = 0; sequence < running.size(); sequence++) {
+            assertThat(ledgerService.replayBalance(accountId, sequence))
+                    .as("after %d entries", sequence)
+                    .isEqualByComparingTo(running.get(sequence));
+        }
+    }
+
+    @Test
+    void replayStartsFromTheLatestCheckpoint() {
+        postAll("1", "2", "3", "4", "5", "6", "7", "8");
+
+        ledgerService.replayBalance(accountId, 8);
+
+        verify(journalRepository).sumBetween(accountId, 6, 8);
+    }
+
+    @Test
+    void reconcileRepairsADriftedBalanceFromTheJournal() {
+        List<BigDecimal> running = postAll("25.50", "-10.00", "4.25", "-100.00");
+        cachedBalance = cachedBalance.add(new BigDecimal("999"));
+
+        ledgerService.reconcile();
+
+        verify(accountRepository).repairBalance(eq(accountId), eq(4L),
+                argThat(balance -> balance.compareTo(running.get(4)) == 0));
+    }
+
+    @Test
+    void reconcileLeavesAMatchingBalanceAlone() {
+        postAll("25.50", "-10.00", "4.25", "-100.00");
+
+        ledgerService.reconcile();
+
+        verify(accountRepository, never()).repairBalance(any(), anyLong(), any());
+    }
+
+    @Test
+    void rejectsUnbalancedJournals() {
+        assertThatThrownBy(() -> ledgerService.post(userId, JournalKind.TRANSACTION, null, List.of(
+                LedgerService.accountLeg(accountId, BigDecimal.TEN),
+                LedgerService.nominalLeg(LedgerAccount.INCOME, BigDecimal.ONE.negate()))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(journal).isEmpty();
+    }
+
+    @Test
+    void balanceAsOfReplaysOnlyTheGapAfterTheNearestClosing() {
+        postOn(LocalDate.of(2024, 1, 10), "50.00");
+        postOn(LocalDate.of(2024, 2, 5), "-20.00");
+        postOn(LocalDate.of(2024, 2, 20), "7.50");
+        closings.put(LocalDate.of(2024, 1, 31), new BigDecimal("150.00"));
+
+        assertThat(ledgerService.getBalanceAsOf(userId, accountId, LocalDate.of(2024, 2, 10)).getBalance())
+                .isEqualByComparingTo("130.00");
+        verify(journalRepository).sumEffectiveBetween(accountId, LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 10));
+    }
+
+    @Test
+    void balanceAsOfBeforeTheFirstClosingStartsFromTheOpeningBalance() {
+        postOn(LocalDate.of(2024, 1, 10), "50.00");
+        postOn(LocalDate.of(2024, 3, 5), "-20.00");
+        closings.put(LocalDate.of(2024, 2, 29), new BigDecimal("150.00"));
+
+        assertThat(ledgerService.getBalanceAsOf(userId, accountId, LocalDate.of(2024, 1, 9)).getBalance())
+                .isEqualByComparingTo(OPENING);
+        assertThat(ledgerService.getBalanceAsOf(userId, accountId, LocalDate.of(2024, 1, 15)).getBalance())
+                .isEqualByComparingTo("150.00");
+    }
+
+    @Test
+    void backdatedPostingShiftsTheClosingsSinceItsDate() {
+        postOn(LocalDate.of(2024, 1, 10), "50.00");
+        closings.put(LocalDate.of(2024, 1, 31), new BigDecimal("150.00"));
+        closings.put(LocalDate.of(2024, 2, 29), new BigDecimal("150.00"));
+
+        postOn(LocalDate.of(2024, 2, 14), "-30.00");
+        postAll("5.00");
+
+        assertThat(closings.get(LocalDate.of(2024, 1, 31))).isEqualByComparingTo("150.00");
+        assertThat(closings.get(LocalDate.of(2024, 2, 29))).isEqualByComparingTo("120.00");
+        verify(journalRepository, never()).shiftClosings(eq(accountId), eq(LocalDate.now()), any());
+    }
+
+    @Test
+    void closeMonthsClosesEveryMonthEndedSinceTheLatestClosing() {
+        postOn(LocalDate.of(2024, 1, 10), "50.00");
+        postOn(LocalDate.of(2024, 3, 15), "-20.00");
+        closings.put(LocalDate.of(2024, 1, 31), new BigDecimal("150.00"));
+
+        ledgerService.closeMonths(LocalDate.of(2024, 5, 10));
+
+        assertThat(closings.keySet()).containsExactly(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29),
+                LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 30));
+        assertThat(closings.get(LocalDate.of(2024, 4, 30))).isEqualByComparingTo("130.00");
+    }
+
+    @Test
+    void closeMonthsLeavesTheMonthOpenUntilADayAfterItEnds() {
+        postOn(LocalDate.of(2024, 4, 10), "50.00");
+
+        ledgerService.closeMonths(LocalDate.of(2024, 5, 1));
+
+        assertThat(closings.keySet()).containsExactly(LocalDate.of(2024, 3, 31));
+    }
+
+    /**
+     * Posts each amount as its own income or expense journal; returns the
+     * balance after 0, 1, ... entries
+     */
+    private List<BigDecimal> postAll(String... amounts) {
+        List<BigDecimal> running = new ArrayList<>();
+        BigDecimal balance = OPENING;
+        running.add(balance);
+        for (String value : amounts) {
+            BigDecimal amount = new BigDecimal(value);
+            ledgerService.post(userId, JournalKind.TRANSACTION, null, List.of(
+                    LedgerService.accountLeg(accountId, amount),
+                    LedgerService.nominalLeg(amount.signum() > 0 ? LedgerAccount.INCOME : LedgerAccount.EXPENSE,
+                            amount.negate())));
+            balance = balance.add(amount);
+            running.add(balance);
+        }
+        return running;
+    }
+
+    private void postOn(LocalDate effectiveDate, String value) {
+        BigDecimal amount = new BigDecimal(value);
+        ledgerService.post(userId, JournalKind.TRANSACTION, null, effectiveDate, List.of(
+                LedgerService.accountLeg(accountId, amount),
+                LedgerService.nominalLeg(amount.signum() > 0 ? LedgerAccount.INCOME : LedgerAccount.EXPENSE,
+                        amount.negate())));
+    }
+
+    private BalanceClosing closing(LocalDate date, BigDecimal balance) {
+        return BalanceClosing.builder()
+                .accountId(accountId)
+                .closingDate(date)
+                .balance(balance)
+                .build();
+    }
+
+    private LedgerBalance ledgerBalance() {
+        return LedgerBalance.builder()
+                .balance(cachedBalance)
+                .sequence(cachedSequence)
+                .build();
+    }
+}
@@ -0,0 +1,181 @@
+package com.chitieu.domain.service;
+
+import com.chitieu.domain.model.Account;
+import com.chitieu.domain.model.Budget;
+import com.chitieu.domain.model.JournalEntry;
+import com.chitieu.domain.model.LedgerBalance;
+import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.repository.AccountRepositoryPort;
+import com.chitieu.domain.repository.BatchCheckpointRepositoryPort;
+import com.chitieu.domain.repository.BudgetRepositoryPort;
+import com.chitieu.domain.repository.JournalRepositoryPort;
+import com.chitieu.domain.repository.TransactionRepositoryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionServiceImplTest {
+
+    private static final int THREADS = 16;
+    private static final int PER_THREAD = 500;
+    private static final BigDecimal OPENING = new BigDecimal("1000.00");
+    private static final BigDecimal INCOME = new BigDecimal("7.25");
+    private static final BigDecimal EXPENSE = new BigDecimal("3.10");
+    private static final String CATEGORY = "Food";
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+
+    // The rows behind the ports; each increment is atomic, as one UPDATE ... RETURNING is
+    private final Row account = new Row(OPENING);
+    private final Row budget = new Row(BigDecimal.ZERO);
+    private final List<JournalEntry> journal = Collections.synchronizedList(new ArrayList<>());
+
+    private TransactionServiceImpl transactionService;
+
+    @BeforeEach
+    void setUp() {
+        AccountRepositoryPort accountRepository = mock(AccountRepositoryPort.class);
+        when(accountRepository.incrementBalance(eq(userId), eq(accountId), any())).thenAnswer(call -> {
+            Row updated = account.add(call.getArgument(2));
+            return Optional.of(LedgerBalance.builder()
+                    .balance(updated.amount)
+                    .sequence(updated.sequence)
+                    .build());
+        });
+        when(accountRepository.findById(accountId)).thenAnswer(call -> Optional.of(Account.builder()
+                .id(accountId)
+                .userId(userId)
+                .balance(account.snapshot().amount)
+                .currency("VND")
+                .build()));
+
+        JournalRepositoryPort journalRepository = mock(JournalRepositoryPort.class);
+        doAnswer(call -> journal.addAll(call.getArgument(0))).when(journalRepository).append(any());
+
+        BudgetRepositoryPort budgetRepository = mock(BudgetRepositoryPort.class);
+        when(budgetRepository.incrementSpent(eq(userId), eq(CATEGORY), any())).thenAnswer(call -> {
+            Row updated = budget.add(call.getArgument(2));
+            return Optional.of(Budget.builder()
+                    .userId(userId)
+                    .category(CATEGORY)
+                    .limitAmount(new BigDecimal("1000000"))
+                    .spentAmount(updated.amount)
+                    .build());
+        });
+
+        TransactionRepositoryPort transactionRepository = mock(TransactionRepositoryPort.class);
+        when(transactionRepository.save(eq(userId), any())).thenAnswer(call -> UUID.randomUUID());
+
+        TransactionCategorizer categorizer = mock(TransactionCategorizer.class);
+        when(categorizer.categorize(any(), any())).thenAnswer(call -> call.getArgument(1));
+
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        LedgerService ledgerService = new LedgerService(accountRepository, journalRepository,
+                mock(BatchCheckpointRepositoryPort.class), eventPublisher, mock(ExchangeRateService.class), 1000);
+        transactionService = new TransactionServiceImpl(transactionRepository,
+                new BudgetService(budgetRepository),
+                new AccountServiceImpl(accountRepository, ledgerService, eventPublisher),
+                mock(SpendingAnomalyDetector.class), mock(IdempotencyService.class), categorizer, eventPublisher);
+    }
+
+    @Test
+    void concurrentTransactionsOnOneAccountAndBudgetLoseNoUpdates() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        boolean income = i % 2 == 0;
+                        transactionService.recordTransaction(userId, Transaction.builder()
+                                .amount(income ? INCOME : EXPENSE)
+                                .type(income ? "INCOME" : "EXPENSE")
+                                .category(CATEGORY)
+                                .date(LocalDate.now())
+                                .accountId(accountId)
+                                .build());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long incomes = (long) THREADS * ((PER_THREAD + 1) / 2);
+        long expenses = (long) THREADS * (PER_THREAD / 2);
+        BigDecimal net = INCOME.multiply(BigDecimal.valueOf(incomes))
+                .subtract(EXPENSE.multiply(BigDecimal.valueOf(expenses)));
+
+        assertThat(account.snapshot().amount).isEqualByComparingTo(OPENING.add(net));
+        assertThat(budget.snapshot().amount).isEqualByComparingTo(EXPENSE.multiply(BigDecimal.valueOf(expenses)));
+
+        List<JournalEntry> accountEntries;
+        synchronized (journal) {
+            accountEntries = journal.stream()
+                    .filter(entry -> accountId.equals(entry.getAccountId()))
+                    .collect(Collectors.toList());
+            assertThat(journal.stream().map(JournalEntry::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add))
+                    .isEqualByComparingTo(BigDecimal.ZERO);
+        }
+        assertThat(accountEntries.stream().map(JournalEntry::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isEqualByComparingTo(net);
+        // Every entry got its own place in the account's sequence
+        assertThat(accountEntries.stream().map(JournalEntry::getSequence))
+                .containsExactlyInAnyOrderElementsOf(
+                        LongStream.rangeClosed(1, (long) THREADS * PER_THREAD).boxed().collect(Collectors.toList()));
+    }
+
+    /**
+     * A row with an amount and an update counter
+     */
+    private static final class Row {
+        private BigDecimal amount;
+        private long sequence;
+
+        Row(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        synchronized Row add(BigDecimal delta) {
+            amount = amount.add(delta);
+            sequence++;
+            return snapshot();
+        }
+
+        synchronized Row snapshot() {
+            Row copy = new Row(amount);
+            copy.sequence = sequence;
+            return copy;
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package com.chitieu.persistence;
 
 import com.chitieu.domain.model.Account;
+import com.chitieu.domain.model.LedgerBalance;
 import com.chitieu.domain.repository.AccountRepositoryPort;
 import com.chitieu.persistence.entity.AccountEntity;
 import com.chitieu.persistence.entity.UserEntity;
 import com.chitieu.persistence.repository.AccountRepository;
 import com.chitieu.persistence.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,25 +38,58 @@ public class AccountRepositoryAdapter implements AccountRepositoryPort {
     }
 
     @Override
+    @Transactional
     public Account save(Account account) {
-        UserEntity user = userRepository.findById(account.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        AccountEntity entity = AccountEntity.builder()
-                .id(account.getId())
-                .name(account.getName())
-                .type(account.getType())
-                .balance(account.getBalance())
-                .currency(account.getCurrency() != null ? account.getCurrency() : "VND")
-                .creditLimit(account.getCreditLimit())
-                .user(user)
-                .build();
+        AccountEntity entity;
+        if (account.getId() != null) {
+            // Balance and journal position belong to the ledger
+            entity = accountRepository.findById(account.getId())
+                    .orElseThrow(() -> new RuntimeException("Account not found"));
+        } else {
+            UserEntity user = userRepository.findById(account.getUserId())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            entity = AccountEntity.builder()
+                    .balance(account.getBalance() != null ? account.getBalance() : BigDecimal.ZERO)
+                    .journalSeq(0L)
+                    .user(user)
+                    .build();
+        }
+        entity.setName(account.getName());
+        entity.setType(account.getType());
+        entity.setCurrency(account.getCurrency() != null ? account.getCurrency() : "VND");
+        entity.setCreditLimit(account.getCreditLimit());
 
-        AccountEntity saved = accountRepository.save(entity);
-        return mapToDomain(saved);
+        return mapToDomain(accountRepository.save(entity));
+    }
+
+    @Override
+    @Transactional
+    public Optional<LedgerBalance> incrementBalance(UUID userId, UUID accountId, BigDecimal delta) {
+        return accountRepository.incrementBalance(accountId, userId, delta).stream()
+                .findFirst()
+                .map(this::mapToLedgerBalance);
     }
 
     @Override
+    public Optional<LedgerBalance> findLedgerBalance(UUID accountId) {
+        return accountRepository.findLedgerBalance(accountId).stream()
+                .findFirst()
+                .map(this::mapToLedgerBalance);
+    }
+
+    @Override
+    @Transactional
+    public boolean repairBalance(UUID accountId, long sequence, BigDecimal balance) {
+        return accountRepository.repairBalance(accountId, sequence, balance) > 0;
+    }
+
+    @Override
+    public List<UUID> findJournaledAccountIds(UUID after, int limit) {
+        return accountRepository.findJournaledIdsAfter(after, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional
     public void deleteById(UUID id) {
         accountRepository.deleteById(id);
     }
@@ -71,6 +108,13 @@ public class AccountRepositoryAdapter implements AccountRepositoryPort {
                         row -> (java.math.BigDecimal) row[1]));
     }
 
+    private LedgerBalance mapToLedgerBalance(Object[] row) {
+        return LedgerBalance.builder()
+                .balance((BigDecimal) row[0])
+                .sequence(((Number) row[1]).longValue())
+                .build();
+    }
+
     private Account mapToDomain(AccountEntity entity) {
         return Account.builder()
                 .id(entity.getId())
@@ -0,0 +1,43 @@
+package com.chitieu.persistence;
+
+import com.chitieu.domain.model.AnomalyCheckpoint;
+import com.chitieu.domain.repository.AnomalyCheckpointRepositoryPort;
+import com.chitieu.persistence.entity.AnomalyCheckpointEntity;
+import com.chitieu.persistence.repository.AnomalyCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class AnomalyCheckpointRepositoryAdapter implements AnomalyCheckpointRepositoryPort {
+
+    private final AnomalyCheckpointRepository checkpointRepository;
+
+    @Override
+    public List<AnomalyCheckpoint> findByNodeId(String nodeId) {
+        return checkpointRepository.findByNodeId(nodeId).stream()
+                .map(entity -> AnomalyCheckpoint.builder()
+                        .nodeId(entity.getNodeId())
+                        .stripe(entity.getStripe())
+                        .data(entity.getData())
+                        .entries(entity.getEntries())
+                        .updatedAt(entity.getUpdatedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void save(AnomalyCheckpoint checkpoint) {
+        checkpointRepository.save(AnomalyCheckpointEntity.builder()
+                .checkpointKey(checkpoint.getNodeId() + "|" + checkpoint.getStripe())
+                .nodeId(checkpoint.getNodeId())
+                .stripe(checkpoint.getStripe())
+                .data(checkpoint.getData())
+                .entries(checkpoint.getEntries())
+                .updatedAt(checkpoint.getUpdatedAt())
+                .build());
+    }
+}
@@ -0,0 +1,79 @@
+package com.chitieu.persistence;
+
+import com.chitieu.domain.model.BalanceHistoryEntry;
+import com.chitieu.domain.model.TimeResolution;
+import com.chitieu.domain.repository.BalanceHistoryRepositoryPort;
+import com.chitieu.persistence.entity.BalanceHistoryEntity;
+import com.chitieu.persistence.repository.BalanceHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class BalanceHistoryRepositoryAdapter implements BalanceHistoryRepositoryPort {
+
+    private final BalanceHistoryRepository historyRepository;
+
+    @Override
+    @Transactional
+    public void recordCurrent(UUID userId, LocalDate day) {
+        // Without it, a recording that read older balances could write after a newer one
+        historyRepository.lockUser(userId);
+        historyRepository.upsertAccountDays(userId, day);
+        historyRepository.upsertTotalDay(userId, day);
+    }
+
+    @Override
+    public List<BalanceHistoryEntry> findInRange(UUID userId, UUID accountId, LocalDate from, LocalDate to) {
+        return historyRepository.findSeriesInRange(seriesId(userId, accountId), seriesType(accountId), from, to)
+                .stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<BalanceHistoryEntry> findLatestBefore(UUID userId, UUID accountId, LocalDate date) {
+        return historyRepository
+                .findFirstBySeriesIdAndSeriesTypeAndBucketStartLessThanOrderByBucketStartDesc(
+                        seriesId(userId, accountId), seriesType(accountId), date)
+                .map(this::toDomain);
+    }
+
+    @Override
+    @Transactional
+    public int downsample(TimeResolution source, TimeResolution target, LocalDate olderThan) {
+        // Only fold whole target buckets, so a bucket is never split across runs
+        LocalDate cutoff = target.bucketStart(olderThan);
+        historyRepository.foldInto(source.name(), target.name(), target.name().toLowerCase(), cutoff);
+        return historyRepository.deleteOlderThan(source.name(), cutoff);
+    }
+
+    private UUID seriesId(UUID userId, UUID accountId) {
+        return accountId != null ? accountId : userId;
+    }
+
+    private String seriesType(UUID accountId) {
+        return accountId != null ? BalanceHistoryEntity.SERIES_ACCOUNT : BalanceHistoryEntity.SERIES_TOTAL;
+    }
+
+    private BalanceHistoryEntry toDomain(BalanceHistoryEntity entity) {
+        return BalanceHistoryEntry.builder()
+                .userId(entity.getUserId())
+                .accountId(BalanceHistoryEntity.SERIES_ACCOUNT.equals(entity.getSeriesType())
+                        ? entity.getSeriesId()
+                        : null)
+                .resolution(TimeResolution.valueOf(entity.getResolution()))
+                .bucketStart(entity.getBucketStart())
+                .balance(entity.getBalance())
+                .minBalance(entity.getMinBalance())
+                .maxBalance(entity.getMaxBalance())
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.chitieu.persistence;
+
+import com.chitieu.domain.model.BatchCheckpoint;
+import com.chitieu.domain.repository.BatchCheckpointRepositoryPort;
+import com.chitieu.persistence.entity.BatchCheckpointEntity;
+import com.chitieu.persistence.repository.BatchCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class BatchCheckpointRepositoryAdapter implements BatchCheckpointRepositoryPort {
+
+    private final BatchCheckpointRepository checkpointRepository;
+
+    @Override
+    public Optional<BatchCheckpoint> findByJobName(String jobName) {
+        return checkpointRepository.findById(jobName).map(this::toDomain);
+    }
+
+    @Override
+    public void save(BatchCheckpoint checkpoint) {
+        checkpointRepository.save(BatchCheckpointEntity.builder()
+                .jobName(checkpoint.getJobName())
+                .runDate(checkpoint.getRunDate())
+                .lastUserId(checkpoint.getLastUserId())
+                .processedCount(checkpoint.getProcessedCount())
+                .completed(checkpoint.isCompleted())
+                .updatedAt(checkpoint.getUpdatedAt())
+                .build());
+    }
+
+    private BatchCheckpoint toDomain(BatchCheckpointEntity entity) {
+        return BatchCheckpoint.builder()
+                .jobName(entity.getJobName())
+                .runDate(entity.getRunDate())
+                .lastUserId(entity.getLastUserId())
+                .processedCount(entity.getProcessedCount())
+                .completed(entity.isCompleted())
+                .updatedAt(entity.getUpdatedAt())
+                .build();
+    }
+}
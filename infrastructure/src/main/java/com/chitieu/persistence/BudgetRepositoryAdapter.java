@@ -8,8 +8,11 @@ import com.chitieu.persistence.repository.BudgetRepository;
 import com.chitieu.persistence.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -43,6 +46,20 @@ public class BudgetRepositoryAdapter implements BudgetRepositoryPort {
         budgetRepository.save(entity);
     }
 
+    @Override
+    @Transactional
+    public Optional<Budget> incrementSpent(UUID userId, String category, BigDecimal delta) {
+        return budgetRepository.incrementSpent(userId, category, delta).stream()
+                .findFirst()
+                .map(row -> Budget.builder()
+                        .id(UUID.fromString((String) row[0]))
+                        .category(category)
+                        .limitAmount((BigDecimal) row[1])
+                        .spentAmount((BigDecimal) row[2])
+                        .userId(userId)
+                        .build());
+    }
+
     private Budget mapToDomain(BudgetEntity entity) {
         return Budget.builder()
                 .id(entity.getId())
@@ -0,0 +1,46 @@
+package com.chitieu.persistence;
+
+import com.chitieu.domain.model.CategoryOverride;
+import com.chitieu.domain.repository.CategoryOverrideRepositoryPort;
+import com.chitieu.persistence.entity.CategoryOverrideEntity;
+import com.chitieu.persistence.repository.CategoryOverrideRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class CategoryOverrideRepositoryAdapter implements CategoryOverrideRepositoryPort {
+
+    private final CategoryOverrideRepository overrideRepository;
+
+    @Override
+    public List<CategoryOverride> findByUserId(UUID userId) {
+        return overrideRepository.findByUserId(userId).stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void save(CategoryOverride override) {
+        overrideRepository.save(CategoryOverrideEntity.builder()
+                .overrideKey(override.getUserId() + "|" + override.getMerchantKey())
+                .userId(override.getUserId())
+                .merchantKey(override.getMerchantKey())
+                .category(override.getCategory())
+                .updatedAt(override.getUpdatedAt())
+                .build());
+    }
+
+    private CategoryOverride toDomain(CategoryOverrideEntity entity) {
+        return CategoryOverride.builder()
+                .userId(entity.getUserId())
+                .merchantKey(entity.getMerchantKey())
+                .category(entity.getCategory())
+                .updatedAt(entity.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.chitieu.persistence;
+
+import com.chitieu.domain.model.CategoryRule;
+import com.chitieu.domain.repository.CategoryRuleRepositoryPort;
+import com.chitieu.persistence.entity.CategoryRuleEntity;
+import com.chitieu.persistence.repository.CategoryRuleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class CategoryRuleRepositoryAdapter implements CategoryRuleRepositoryPort {
+
+    private final CategoryRuleRepository ruleRepository;
+
+    @Override
+    public List<CategoryRule> findAll() {
+        return ruleRepository.findAll().stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    private CategoryRule toDomain(CategoryRuleEntity entity) {
+        return CategoryRule.builder()
+                .id(entity.getRuleId())
+                .pattern(entity.getPattern())
+                .category(entity.getCategory())
+                .enabled(entity.isEnabled())
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.chitieu.persistence;
+
+import com.chitieu.domain.repository.ExchangeRateRepositoryPort;
+import com.chitieu.persistence.entity.ExchangeRateEntity;
+import com.chitieu.persistence.repository.ExchangeRateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class ExchangeRateRepositoryAdapter implements ExchangeRateRepositoryPort {
+
+    private final ExchangeRateRepository exchangeRateRepository;
+
+    @Override
+    public Map<String, BigDecimal> findAll() {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (ExchangeRateEntity entity : exchangeRateRepository.findAll()) {
+            rates.put(entity.getCurrency(), entity.getRate());
+        }
+        return rates;
+    }
+
+    @Override
+    public void saveAll(Map<String, BigDecimal> ratesToBase) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ExchangeRateEntity> entities = ratesToBase.entrySet().stream()
+                .map(rate -> ExchangeRateEntity.builder()
+                        .currency(rate.getKey())
+                        .rate(rate.getValue())
+                        .updatedAt(now)
+                        .build())
+                .collect(Collectors.toList());
+        exchangeRateRepository.saveAll(entities);
+    }
+
+    @Override
+    public List<String> findAccountCurrenciesWithoutRate() {
+        return exchangeRateRepository.findAccountCurrenciesWithoutRate();
+    }
+}
@@ -84,25 +84,19 @@ public class GoalRepositoryAdapter implements GoalRepositoryPort {
         @Override
         @Transactional
         public void updateContribution(UUID goalId, UUID userId, BigDecimal amount) {
-                GoalEntity goal = goalRepository.findById(goalId)
-                                .orElseThrow(() -> new RuntimeException("Goal not found"));
-                GoalMemberEntity member = goalMemberRepository.findByGoalIdAndUserId(goalId, userId)
-                                .orElseThrow(() -> new RuntimeException("Member not found in this goal"));
-
-                member.setContributedAmount(member.getContributedAmount().add(amount));
-                goal.setCurrentAmount(goal.getCurrentAmount().add(amount));
-
-                goalMemberRepository.save(member);
-                goalRepository.save(goal);
+                // The member row exists only if the goal does, so it is checked first
+                if (goalMemberRepository.incrementContribution(goalId, userId, amount) == 0) {
+                        throw new RuntimeException("Member not found in this goal");
+                }
+                goalRepository.incrementCurrentAmount(goalId, amount);
         }
 
         @Override
         @Transactional
         public void deductAmount(UUID goalId, BigDecimal amount) {
-                GoalEntity goal = goalRepository.findById(goalId)
-                                .orElseThrow(() -> new RuntimeException("Goal not found"));
-                goal.setCurrentAmount(goal.getCurrentAmount().subtract(amount));
-                goalRepository.save(goal);
+                if (goalRepository.incrementCurrentAmount(goalId, amount.negate()) == 0) {
+                        throw new RuntimeException("Goal not found");
+                }
         }
 
         private Goal mapToDomain(GoalEntity entity) {
@@ -0,0 +1,84 @@
+package com.chitieu.persistence;
+
+import com.chitieu.domain.model.HealthSnapshot;
+import com.chitieu.domain.model.NetWorthRating;
+import com.chitieu.domain.repository.HealthSnapshotRepositoryPort;
+import com.chitieu.persistence.entity.HealthSnapshotEntity;
+import com.chitieu.persistence.repository.HealthSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class HealthSnapshotRepositoryAdapter implements HealthSnapshotRepositoryPort {
+
+    private final HealthSnapshotRepository snapshotRepository;
+
+    @Override
+    @Transactional
+    public void save(HealthSnapshot snapshot) {
+        snapshotRepository.upsert(UUID.randomUUID(), snapshot.getUserId(), snapshot.getSnapshotDate(),
+                snapshot.getOverallScore(), snapshot.getNetWorth(), snapshot.getTotalAssets(),
+                snapshot.getTotalLiabilities(),
+                snapshot.getNetWorthRating() != null ? snapshot.getNetWorthRating().name() : null,
+                snapshot.getLiquidAssets(), snapshot.getLiquidityMonths(), snapshot.getSavingsPercent(),
+                snapshot.getDebtToIncomeRatio(), snapshot.getCurrentProgress(), snapshot.getYearsToFreedom());
+    }
+
+    @Override
+    public Optional<HealthSnapshot> findLatest(UUID userId) {
+        return snapshotRepository.findFirstByUserIdOrderBySnapshotDateDesc(userId).map(this::toDomain);
+    }
+
+    @Override
+    public List<HealthSnapshot> findLatestByUserIds(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return snapshotRepository.findLatestByUserIds(userIds).stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<HealthSnapshot> findLatestOnOrBefore(UUID userId, LocalDate date) {
+        return snapshotRepository.findFirstByUserIdAndSnapshotDateLessThanEqualOrderBySnapshotDateDesc(userId, date)
+                .map(this::toDomain);
+    }
+
+    @Override
+    public List<HealthSnapshot> findByUserIdBetween(UUID userId, LocalDate from, LocalDate to) {
+        return snapshotRepository.findByUserIdAndSnapshotDateBetweenOrderBySnapshotDateAsc(userId, from, to)
+                .stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    private HealthSnapshot toDomain(HealthSnapshotEntity entity) {
+        return HealthSnapshot.builder()
+                .userId(entity.getUserId())
+                .snapshotDate(entity.getSnapshotDate())
+                .overallScore(entity.getOverallScore())
+                .netWorth(entity.getNetWorth())
+                .totalAssets(entity.getTotalAssets())
+                .totalLiabilities(entity.getTotalLiabilities())
+                .netWorthRating(entity.getNetWorthRating() != null
+                        ? NetWorthRating.valueOf(entity.getNetWorthRating())
+                        : null)
+                .liquidAssets(entity.getLiquidAssets())
+                .liquidityMonths(entity.getLiquidityMonths())
+                .savingsPercent(entity.getSavingsPercent())
+                .debtToIncomeRatio(entity.getDebtToIncomeRatio())
+                .currentProgress(entity.getCurrentProgress())
+                .yearsToFreedom(entity.getYearsToFreedom())
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.chitieu.persistence;
+
+import com.chitieu.domain.model.IdempotencyRecord;
+import com.chitieu.domain.repository.IdempotencyKeyRepositoryPort;
+import com.chitieu.persistence.repository.IdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyRepositoryAdapter implements IdempotencyKeyRepositoryPort {
+
+    private final IdempotencyKeyRepository keyRepository;
+
+    @Override
+    public Optional<IdempotencyRecord> find(UUID userId, String key) {
+        return keyRepository.findById(keyId(userId, key))
+                .map(entity -> IdempotencyRecord.builder()
+                        .userId(entity.getUserId())
+                        .key(entity.getIdempotencyKey())
+                        .requestHash(entity.getRequestHash())
+                        .transactionId(entity.getTransactionId())
+                        .createdAt(entity.getCreatedAt())
+                        .build());
+    }
+
+    @Override
+    @Transactional
+    public boolean claim(UUID userId, String key, String requestHash) {
+        return keyRepository.insertIfAbsent(keyId(userId, key), userId, key, requestHash, LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    @Transactional
+    public void complete(UUID userId, String key, UUID transactionId) {
+        keyRepository.setTransactionId(keyId(userId, key), transactionId);
+    }
+
+    @Override
+    @Transactional
+    public int deleteCreatedBefore(LocalDateTime cutoff) {
+        return keyRepository.deleteCreatedBefore(cutoff);
+    }
+
+    private static String keyId(UUID userId, String key) {
+        return userId + "|" + key;
+    }
+}
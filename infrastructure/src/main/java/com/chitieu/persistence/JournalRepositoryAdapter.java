@@ -0,0 +1,169 @@
+package com.chitieu.persistence;
+
+import com.chitieu.domain.model.BalanceCheckpoint;
+import com.chitieu.domain.model.BalanceClosing;
+import com.chitieu.domain.model.JournalEntry;
+import com.chitieu.domain.repository.JournalRepositoryPort;
+import com.chitieu.persistence.entity.BalanceCheckpointEntity;
+import com.chitieu.persistence.entity.BalanceClosingEntity;
+import com.chitieu.persistence.entity.JournalEntryEntity;
+import com.chitieu.persistence.repository.AccountRepository;
+import com.chitieu.persistence.repository.BalanceCheckpointRepository;
+import com.chitieu.persistence.repository.BalanceClosingRepository;
+import com.chitieu.persistence.repository.JournalEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class JournalRepositoryAdapter implements JournalRepositoryPort {
+
+    private final JournalEntryRepository entryRepository;
+    private final BalanceCheckpointRepository checkpointRepository;
+    private final BalanceClosingRepository closingRepository;
+    private final AccountRepository accountRepository;
+
+    @Override
+    @Transactional
+    public void append(List<JournalEntry> entries) {
+        entryRepository.saveAll(entries.stream()
+                .map(entry -> JournalEntryEntity.builder()
+                        .journalId(entry.getJournalId())
+                        .userId(entry.getUserId())
+                        .accountId(entry.getAccountId())
+                        .ledger(entry.getLedger())
+                        .amount(entry.getAmount())
+                        .sequence(entry.getSequence())
+                        .kind(entry.getKind())
+                        .memo(entry.getMemo())
+                        .effectiveDate(entry.getEffectiveDate())
+                        .createdAt(entry.getCreatedAt())
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public List<JournalEntry> findByAccountId(UUID accountId, int limit) {
+        return entryRepository.findByAccountIdOrderBySequenceDesc(accountId, PageRequest.of(0, limit)).stream()
+                .map(entity -> JournalEntry.builder()
+                        .id(entity.getId())
+                        .journalId(entity.getJournalId())
+                        .userId(entity.getUserId())
+                        .accountId(entity.getAccountId())
+                        .ledger(entity.getLedger())
+                        .amount(entity.getAmount())
+                        .sequence(entity.getSequence())
+                        .kind(entity.getKind())
+                        .memo(entity.getMemo())
+                        .effectiveDate(entity.getEffectiveDate())
+                        .createdAt(entity.getCreatedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public BigDecimal sumEffectiveBetween(UUID accountId, LocalDate after, LocalDate upTo) {
+        return after != null
+                ? entryRepository.sumEffectiveBetween(accountId, after, upTo)
+                : entryRepository.sumEffectiveUpTo(accountId, upTo);
+    }
+
+    @Override
+    public Optional<LocalDate> findFirstEffectiveDate(UUID accountId) {
+        return Optional.ofNullable(entryRepository.findFirstEffectiveDate(accountId));
+    }
+
+    @Override
+    @Transactional
+    public int backfillEffectiveDates() {
+        return entryRepository.backfillEffectiveDates();
+    }
+
+    @Override
+    public BigDecimal sumBetween(UUID accountId, long afterSequence, long upToSequence) {
+        return entryRepository.sumBetween(accountId, afterSequence, upToSequence);
+    }
+
+    @Override
+    @Transactional
+    public void saveCheckpoint(UUID accountId, long sequence, BigDecimal balance) {
+        checkpointRepository.save(BalanceCheckpointEntity.builder()
+                .checkpointId(accountId + "|" + sequence)
+                .accountId(accountId)
+                .sequence(sequence)
+                .balance(balance)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    public Optional<BalanceCheckpoint> findCheckpoint(UUID accountId, long sequence) {
+        return checkpointRepository.findFirstByAccountIdAndSequenceLessThanEqualOrderBySequenceDesc(accountId, sequence)
+                .map(entity -> BalanceCheckpoint.builder()
+                        .accountId(entity.getAccountId())
+                        .sequence(entity.getSequence())
+                        .balance(entity.getBalance())
+                        .createdAt(entity.getCreatedAt())
+                        .build());
+    }
+
+    @Override
+    public Optional<BalanceClosing> findClosing(UUID accountId, LocalDate date) {
+        return closingRepository.findFirstByAccountIdAndClosingDateLessThanEqualOrderByClosingDateDesc(accountId, date)
+                .map(this::toDomain);
+    }
+
+    @Override
+    public Optional<LocalDate> findLatestClosingDate(UUID accountId) {
+        return closingRepository.findFirstByAccountIdOrderByClosingDateDesc(accountId)
+                .map(BalanceClosingEntity::getClosingDate);
+    }
+
+    @Override
+    @Transactional
+    public void shiftClosings(UUID accountId, LocalDate from, BigDecimal amount) {
+        closingRepository.shift(accountId, from, amount, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public BalanceClosing closeBalance(UUID accountId, LocalDate date) {
+        // Sums below start after the lock, so they see every posting that held it before
+        accountRepository.lockById(accountId);
+        Optional<BalanceClosingEntity> previous = closingRepository
+                .findFirstByAccountIdAndClosingDateLessThanEqualOrderByClosingDateDesc(accountId, date.minusDays(1));
+        BigDecimal balance;
+        if (previous.isPresent()) {
+            balance = previous.get().getBalance()
+                    .add(entryRepository.sumEffectiveBetween(accountId, previous.get().getClosingDate(), date));
+        } else {
+            balance = findCheckpoint(accountId, 0).map(BalanceCheckpoint::getBalance).orElse(BigDecimal.ZERO)
+                    .add(entryRepository.sumEffectiveUpTo(accountId, date));
+        }
+        return toDomain(closingRepository.save(BalanceClosingEntity.builder()
+                .closingId(accountId + "|" + date)
+                .accountId(accountId)
+                .closingDate(date)
+                .balance(balance)
+                .updatedAt(LocalDateTime.now())
+                .build()));
+    }
+
+    private BalanceClosing toDomain(BalanceClosingEntity entity) {
+        return BalanceClosing.builder()
+                .accountId(entity.getAccountId())
+                .closingDate(entity.getClosingDate())
+                .balance(entity.getBalance())
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.chitieu.persistence;
+
+import com.chitieu.domain.model.PeerMetric;
+import com.chitieu.domain.model.PeerSketchShard;
+import com.chitieu.domain.repository.PeerSketchRepositoryPort;
+import com.chitieu.persistence.entity.PeerSketchEntity;
+import com.chitieu.persistence.repository.PeerSketchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class PeerSketchRepositoryAdapter implements PeerSketchRepositoryPort {
+
+    private final PeerSketchRepository sketchRepository;
+
+    @Override
+    public List<PeerSketchShard> findAll() {
+        return sketchRepository.findAll().stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<PeerSketchShard> findByNodeId(String nodeId) {
+        return sketchRepository.findByNodeId(nodeId).stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void save(PeerSketchShard shard) {
+        sketchRepository.save(PeerSketchEntity.builder()
+                .shardKey(shard.getNodeId() + "|" + shard.getMetric().name() + "|" + shard.getCohort())
+                .nodeId(shard.getNodeId())
+                .metric(shard.getMetric().name())
+                .cohort(shard.getCohort())
+                .data(shard.getData())
+                .sampleCount(shard.getSampleCount())
+                .updatedAt(shard.getUpdatedAt())
+                .build());
+    }
+
+    private PeerSketchShard toDomain(PeerSketchEntity entity) {
+        return PeerSketchShard.builder()
+                .nodeId(entity.getNodeId())
+                .metric(PeerMetric.valueOf(entity.getMetric()))
+                .cohort(entity.getCohort())
+                .data(entity.getData())
+                .sampleCount(entity.getSampleCount())
+                .updatedAt(entity.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.chitieu.persistence;
+
+import com.chitieu.domain.model.RecommendationRule;
+import com.chitieu.domain.repository.RecommendationRuleRepositoryPort;
+import com.chitieu.persistence.entity.RecommendationRuleEntity;
+import com.chitieu.persistence.repository.RecommendationRuleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class RecommendationRuleRepositoryAdapter implements RecommendationRuleRepositoryPort {
+
+    private final RecommendationRuleRepository ruleRepository;
+
+    @Override
+    public List<RecommendationRule> findAll() {
+        return ruleRepository.findAll().stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    private RecommendationRule toDomain(RecommendationRuleEntity entity) {
+        return RecommendationRule.builder()
+                .id(entity.getRuleId())
+                .group(entity.getRuleGroup())
+                .priority(entity.getPriority())
+                .condition(entity.getConditionExpr())
+                .message(entity.getMessage())
+                .fallback(entity.isFallback())
+                .enabled(entity.isEnabled())
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.chitieu.persistence;
+
+import com.chitieu.domain.model.RecurringTransaction;
+import com.chitieu.domain.repository.RecurringTransactionRepositoryPort;
+import com.chitieu.persistence.entity.RecurringTransactionEntity;
+import com.chitieu.persistence.repository.RecurringTransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class RecurringTransactionRepositoryAdapter implements RecurringTransactionRepositoryPort {
+
+    private final RecurringTransactionRepository recurringRepository;
+
+    @Override
+    public RecurringTransaction save(RecurringTransaction recurringTransaction) {
+        RecurringTransactionEntity entity = RecurringTransactionEntity.builder()
+                .id(recurringTransaction.getId())
+                .userId(recurringTransaction.getUserId())
+                .accountId(recurringTransaction.getAccountId())
+                .amount(recurringTransaction.getAmount())
+                .category(recurringTransaction.getCategory())
+                .type(recurringTransaction.getType())
+                .description(recurringTransaction.getDescription())
+                .schedule(recurringTransaction.getSchedule())
+                .nextRunAt(recurringTransaction.getNextRunAt())
+                .lastRunAt(recurringTransaction.getLastRunAt())
+                .createdAt(recurringTransaction.getCreatedAt())
+                .build();
+        return mapToDomain(recurringRepository.save(entity));
+    }
+
+    @Override
+    public Optional<RecurringTransaction> findById(UUID id) {
+        return recurringRepository.findById(id).map(this::mapToDomain);
+    }
+
+    @Override
+    public List<RecurringTransaction> findByUserId(UUID userId) {
+        return recurringRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(this::mapToDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        recurringRepository.deleteById(id);
+    }
+
+    @Override
+    public List<RecurringTransaction> findRunsBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        return recurringRepository.findRunsBetween(from, to, PageRequest.of(0, limit)).stream()
+                .map(this::mapToDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<RecurringTransaction> findRunsAfter(LocalDateTime afterRunAt, UUID afterId, LocalDateTime to,
+            int limit) {
+        return recurringRepository.findRunsAfter(afterRunAt, afterId, to, PageRequest.of(0, limit)).stream()
+                .map(this::mapToDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public boolean advance(UUID id, LocalDateTime expectedRunAt, LocalDateTime nextRunAt) {
+        return recurringRepository.advance(id, expectedRunAt, nextRunAt) == 1;
+    }
+
+    private RecurringTransaction mapToDomain(RecurringTransactionEntity entity) {
+        return RecurringTransaction.builder()
+                .id(entity.getId())
+                .userId(entity.getUserId())
+                .accountId(entity.getAccountId())
+                .amount(entity.getAmount())
+                .category(entity.getCategory())
+                .type(entity.getType())
+                .description(entity.getDescription())
+                .schedule(entity.getSchedule())
+                .nextRunAt(entity.getNextRunAt())
+                .lastRunAt(entity.getLastRunAt())
+                .createdAt(entity.getCreatedAt())
+                .build();
+    }
+}
@@ -1,48 +1,179 @@
 package com.chitieu.persistence;
 
+import com.chitieu.domain.model.CategoryTotal;
+import com.chitieu.domain.model.TimeResolution;
 import com.chitieu.domain.model.Transaction;
+import com.chitieu.domain.model.TransactionCommand;
+import com.chitieu.domain.model.TransactionCursor;
+import com.chitieu.domain.model.TransactionFilter;
+import com.chitieu.domain.model.TransactionPage;
 import com.chitieu.domain.repository.TransactionRepositoryPort;
+import com.chitieu.domain.repository.TransactionRollupRepositoryPort;
+import com.chitieu.domain.search.SearchText;
 import com.chitieu.persistence.entity.AccountEntity;
 import com.chitieu.persistence.entity.TransactionEntity;
 import com.chitieu.persistence.entity.UserEntity;
-import com.chitieu.persistence.repository.AccountRepository;
 import com.chitieu.persistence.repository.TransactionRepository;
-import com.chitieu.persistence.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 @RequiredArgsConstructor
 public class TransactionRepositoryAdapter implements TransactionRepositoryPort {
 
         private final TransactionRepository transactionRepository;
-        private final AccountRepository accountRepository;
-        private final UserRepository userRepository;
+        private final TransactionRollupRepositoryPort rollupRepository;
+
+        @PersistenceContext
+        private EntityManager entityManager;
 
         @Override
         public List<Transaction> findByUserId(UUID userId) {
                 return transactionRepository.findByUserId(userId).stream()
-                                .map(entity -> Transaction.builder()
-                                                .id(entity.getId())
-                                                .amount(entity.getAmount())
-                                                .category(entity.getCategory())
-                                                .type(entity.getType())
-                                                .date(entity.getTransactionDate().toLocalDate())
-                                                .accountId(entity.getAccount().getId())
+                                .map(this::mapToDomain)
+                                .collect(Collectors.toList());
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public TransactionPage findPage(UUID userId, TransactionFilter filter, TransactionCursor after, int limit) {
+                CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+                CriteriaQuery<TransactionEntity> query = cb.createQuery(TransactionEntity.class);
+                Root<TransactionEntity> t = query.from(TransactionEntity.class);
+                Path<LocalDateTime> date = t.get("transactionDate");
+                Path<UUID> id = t.get("id");
+
+                List<Predicate> where = new ArrayList<>();
+                where.add(cb.equal(t.get("user").get("id"), userId));
+                if (after != null) {
+                        // Redundant date bound lets the index seek straight to the cursor
+                        where.add(cb.lessThanOrEqualTo(date, after.getTransactionDate()));
+                        where.add(cb.or(cb.lessThan(date, after.getTransactionDate()),
+                                        cb.lessThan(id, after.getId())));
+                }
+                if (filter != null) {
+                        addFilter(cb, t, date, filter, where);
+                }
+                query.select(t)
+                                .where(where.toArray(new Predicate[0]))
+                                .orderBy(cb.desc(date), cb.desc(id));
+
+                // One extra row tells whether another page exists without a count query
+                List<TransactionEntity> rows = entityManager.createQuery(query)
+                                .setMaxResults(limit + 1)
+                                .getResultList();
+                boolean hasMore = rows.size() > limit;
+                if (hasMore) {
+                        rows = rows.subList(0, limit);
+                }
+
+                String nextCursor = null;
+                if (hasMore) {
+                        TransactionEntity last = rows.get(rows.size() - 1);
+                        nextCursor = TransactionCursor.builder()
+                                        .transactionDate(last.getTransactionDate())
+                                        .id(last.getId())
+                                        .build()
+                                        .encode();
+                }
+                return TransactionPage.builder()
+                                .items(rows.stream().map(this::mapToDomain).collect(Collectors.toList()))
+                                .nextCursor(nextCursor)
+                                .limit(limit)
+                                .build();
+        }
+
+        @Override
+        public List<Transaction> findByAccountIdAndDateBetween(UUID userId, UUID accountId, LocalDate from,
+                        LocalDate to) {
+                return transactionRepository
+                                .findByAccountIdAndDateRange(userId, accountId, startOf(from), endOf(to))
+                                .stream()
+                                .map(this::mapToDomain)
+                                .collect(Collectors.toList());
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public void forEachByUserIdAndDateBetween(UUID userId, LocalDate from, LocalDate to,
+                        Consumer<Transaction> sink) {
+                try (Stream<TransactionEntity> rows = transactionRepository
+                                .streamByUserIdAndDateRange(userId, startOf(from), endOf(to))) {
+                        rows.forEach(entity -> {
+                                sink.accept(mapToDomain(entity));
+                                // Keep the persistence context flat however many rows pass through
+                                entityManager.detach(entity);
+                        });
+                }
+        }
+
+        @Override
+        public Map<String, BigDecimal> sumByCategory(UUID userId, String type, LocalDate from, LocalDate to) {
+                return toMap(transactionRepository.sumByCategory(userId, type, startOf(from), endOf(to)));
+        }
+
+        @Override
+        public List<CategoryTotal> sumByTypeAndCategory(UUID userId, LocalDate from, LocalDate to) {
+                return transactionRepository.sumByTypeAndCategory(userId, startOf(from), endOf(to)).stream()
+                                .map(row -> CategoryTotal.builder()
+                                                .type((String) row[0])
+                                                .category((String) row[1])
+                                                .totalAmount((BigDecimal) row[2])
+                                                .transactionCount((Long) row[3])
                                                 .build())
                                 .collect(Collectors.toList());
         }
 
         @Override
-        public void save(UUID userId, Transaction transaction) {
-                UserEntity user = userRepository.findById(userId)
-                                .orElseThrow(() -> new RuntimeException("User not found"));
-                AccountEntity account = accountRepository.findById(transaction.getAccountId())
-                                .orElseThrow(() -> new RuntimeException("Account not found"));
+        public List<CategoryTotal> sumByCategoryPerPeriod(UUID userId, String type, LocalDate from, LocalDate to,
+                        TimeResolution resolution) {
+                return transactionRepository
+                                .sumByCategoryPerBucket(userId, type, startOf(from), endOf(to),
+                                                resolution.name().toLowerCase())
+                                .stream()
+                                .map(row -> CategoryTotal.builder()
+                                                .periodStart(((java.sql.Date) row[0]).toLocalDate())
+                                                .type(type)
+                                                .category((String) row[1])
+                                                .totalAmount((BigDecimal) row[2])
+                                                .transactionCount(((Number) row[3]).longValue())
+                                                .build())
+                                .collect(Collectors.toList());
+        }
+
+        @Override
+        @Transactional
+        public UUID save(UUID userId, Transaction transaction) {
+                // References, not lookups: ownership is checked by the balance update and the
+                // foreign keys guard existence
+                UserEntity user = entityManager.getReference(UserEntity.class, userId);
+                AccountEntity account = transaction.getAccountId() != null
+                                ? entityManager.getReference(AccountEntity.class, transaction.getAccountId())
+                                : null;
 
                 TransactionEntity entity = TransactionEntity.builder()
                                 .id(transaction.getId())
@@ -50,15 +181,215 @@ public class TransactionRepositoryAdapter implements TransactionRepositoryPort {
                                 .account(account)
                                 .amount(transaction.getAmount())
                                 .category(transaction.getCategory())
+                                .description(transaction.getDescription())
+                                .searchText(SearchText.of(transaction.getDescription(), transaction.getCategory()))
                                 .type(transaction.getType())
                                 .transactionDate(transaction.getDate().atStartOfDay())
                                 .build();
 
-                transactionRepository.save(entity);
+                UUID transactionId = transactionRepository.save(entity).getId();
+
+                // Keep the monthly rollup in step within the same DB transaction
+                rollupRepository.increment(userId, YearMonth.from(transaction.getDate()), transaction.getType(),
+                                transaction.getCategory(), transaction.getAmount(), 1);
+                return transactionId;
         }
 
         @Override
         public long countByUserId(UUID userId) {
                 return transactionRepository.countByUserId(userId);
         }
+
+        @Override
+        @Transactional
+        public void saveAll(UUID userId, UUID accountId, List<Transaction> transactions) {
+                List<TransactionCommand> commands = new ArrayList<>(transactions.size());
+                for (Transaction transaction : transactions) {
+                        commands.add(TransactionCommand.builder()
+                                        .userId(userId)
+                                        .transaction(Transaction.builder()
+                                                        .amount(transaction.getAmount())
+                                                        .category(transaction.getCategory())
+                                                        .type(transaction.getType())
+                                                        .date(transaction.getDate())
+                                                        .accountId(accountId)
+                                                        .description(transaction.getDescription())
+                                                        .build())
+                                        .build());
+                }
+                saveAll(commands);
+        }
+
+        @Override
+        @Transactional
+        public List<UUID> saveAll(List<TransactionCommand> commands) {
+                // References avoid a SELECT per row; the foreign keys still guard existence
+                Map<List<Object>, RollupDelta> rollups = new HashMap<>();
+                List<TransactionEntity> entities = new ArrayList<>(commands.size());
+
+                for (TransactionCommand command : commands) {
+                        Transaction transaction = command.getTransaction();
+                        TransactionEntity entity = TransactionEntity.builder()
+                                        .user(entityManager.getReference(UserEntity.class, command.getUserId()))
+                                        .account(transaction.getAccountId() != null
+                                                        ? entityManager.getReference(AccountEntity.class,
+                                                                        transaction.getAccountId())
+                                                        : null)
+                                        .amount(transaction.getAmount())
+                                        .category(transaction.getCategory())
+                                        .description(transaction.getDescription())
+                                        .searchText(SearchText.of(transaction.getDescription(),
+                                                        transaction.getCategory()))
+                                        .type(transaction.getType())
+                                        .transactionDate(transaction.getDate().atStartOfDay())
+                                        .build();
+                        entityManager.persist(entity);
+                        entities.add(entity);
+
+                        RollupDelta delta = rollups.computeIfAbsent(
+                                        List.of(command.getUserId(), YearMonth.from(transaction.getDate()),
+                                                        transaction.getType(), transaction.getCategory()),
+                                        key -> new RollupDelta());
+                        delta.amount = delta.amount.add(transaction.getAmount());
+                        delta.count++;
+                }
+                // Inserts go out as hibernate.jdbc.batch_size statements per round trip
+                entityManager.flush();
+                // Only the rows inserted here leave the persistence context; whatever the
+                // caller loaded earlier in its transaction stays managed
+                List<UUID> ids = new ArrayList<>(entities.size());
+                for (TransactionEntity entity : entities) {
+                        ids.add(entity.getId());
+                        entityManager.detach(entity);
+                }
+
+                // In user order, as each increment takes its user's rollup lock
+                List<Map.Entry<List<Object>, RollupDelta>> ordered = new ArrayList<>(rollups.entrySet());
+                ordered.sort(Comparator.comparing(entry -> (UUID) entry.getKey().get(0)));
+                for (Map.Entry<List<Object>, RollupDelta> entry : ordered) {
+                        List<Object> key = entry.getKey();
+                        rollupRepository.increment((UUID) key.get(0), (YearMonth) key.get(1), (String) key.get(2),
+                                        (String) key.get(3), entry.getValue().amount, entry.getValue().count);
+                }
+                return ids;
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        @SuppressWarnings("unchecked")
+        public List<Transaction> search(UUID userId, List<String> terms, int limit) {
+                // Every predicate can be answered from idx_transactions_search_trgm:
+                // user_id by btree_gin, LIKE and <% by the trigrams
+                StringBuilder where = new StringBuilder("t.user_id = :userId");
+                StringBuilder score = new StringBuilder("0");
+                for (int i = 0; i < terms.size(); i++) {
+                        where.append(" AND (t.search_text LIKE :contains").append(i)
+                                        .append(" OR :term").append(i).append(" <% t.search_text)");
+                        score.append(" + word_similarity(:term").append(i).append(", t.search_text)")
+                                        .append(" + CASE WHEN ' ' || t.search_text LIKE :prefix").append(i)
+                                        .append(" THEN 1 ELSE 0 END");
+                }
+                Query query = entityManager.createNativeQuery("SELECT t.* FROM transactions t WHERE " + where
+                                + " ORDER BY " + score + " DESC, t.transaction_date DESC, t.id DESC LIMIT :limit",
+                                TransactionEntity.class)
+                                .setParameter("userId", userId)
+                                .setParameter("limit", limit);
+                for (int i = 0; i < terms.size(); i++) {
+                        // Folded terms are [a-z0-9] only, so nothing needs LIKE escaping
+                        String term = terms.get(i);
+                        query.setParameter("term" + i, term)
+                                        .setParameter("contains" + i, "%" + term + "%")
+                                        .setParameter("prefix" + i, "% " + term + "%");
+                }
+                return ((List<TransactionEntity>) query.getResultList()).stream()
+                                .map(this::mapToDomain)
+                                .collect(Collectors.toList());
+        }
+
+        @Override
+        @Transactional
+        public void createSearchIndex() {
+                entityManager.createNativeQuery("CREATE EXTENSION IF NOT EXISTS pg_trgm").executeUpdate();
+                entityManager.createNativeQuery("CREATE EXTENSION IF NOT EXISTS btree_gin").executeUpdate();
+                entityManager.createNativeQuery("CREATE INDEX IF NOT EXISTS idx_transactions_search_trgm "
+                                + "ON transactions USING gin (user_id, search_text gin_trgm_ops)").executeUpdate();
+        }
+
+        @Override
+        @Transactional
+        public UUID backfillSearchText(UUID after, int limit) {
+                TypedQuery<TransactionEntity> query = entityManager.createQuery(after == null
+                                ? "SELECT t FROM TransactionEntity t WHERE t.searchText IS NULL ORDER BY t.id"
+                                : "SELECT t FROM TransactionEntity t WHERE t.searchText IS NULL AND t.id > :after "
+                                                + "ORDER BY t.id",
+                                TransactionEntity.class);
+                if (after != null) {
+                        query.setParameter("after", after);
+                }
+                List<TransactionEntity> rows = query.setMaxResults(limit).getResultList();
+                for (TransactionEntity row : rows) {
+                        // Dirty checking writes these back as batched updates on commit
+                        row.setSearchText(SearchText.of(row.getDescription(), row.getCategory()));
+                }
+                return rows.isEmpty() ? null : rows.get(rows.size() - 1).getId();
+        }
+
+        private void addFilter(CriteriaBuilder cb, Root<TransactionEntity> t, Path<LocalDateTime> date,
+                        TransactionFilter filter, List<Predicate> where) {
+                if (filter.getFrom() != null) {
+                        where.add(cb.greaterThanOrEqualTo(date, startOf(filter.getFrom())));
+                }
+                if (filter.getTo() != null) {
+                        where.add(cb.lessThan(date, endOf(filter.getTo())));
+                }
+                if (filter.getType() != null) {
+                        where.add(cb.equal(t.get("type"), filter.getType()));
+                }
+                if (filter.getCategories() != null && !filter.getCategories().isEmpty()) {
+                        where.add(t.get("category").in(filter.getCategories()));
+                }
+                if (filter.getAccountId() != null) {
+                        where.add(cb.equal(t.get("account").get("id"), filter.getAccountId()));
+                }
+                if (filter.getMinAmount() != null) {
+                        where.add(cb.greaterThanOrEqualTo(t.get("amount"), filter.getMinAmount()));
+                }
+                if (filter.getMaxAmount() != null) {
+                        where.add(cb.lessThanOrEqualTo(t.get("amount"), filter.getMaxAmount()));
+                }
+        }
+
+        private LocalDateTime startOf(LocalDate from) {
+                return from.atStartOfDay();
+        }
+
+        // Exclusive upper bound covering the whole of the inclusive end date
+        private LocalDateTime endOf(LocalDate to) {
+                return to.plusDays(1).atStartOfDay();
+        }
+
+        private Map<String, BigDecimal> toMap(List<Object[]> rows) {
+                Map<String, BigDecimal> totals = new HashMap<>(rows.size() * 2);
+                for (Object[] row : rows) {
+                        totals.put((String) row[0], (BigDecimal) row[1]);
+                }
+                return totals;
+        }
+
+        private static final class RollupDelta {
+                BigDecimal amount = BigDecimal.ZERO;
+                long count;
+        }
+
+        private Transaction mapToDomain(TransactionEntity entity) {
+                return Transaction.builder()
+                                .id(entity.getId())
+                                .amount(entity.getAmount())
+                                .category(entity.getCategory())
+                                .type(entity.getType())
+                                .date(entity.getTransactionDate().toLocalDate())
+                                .accountId(entity.getAccount() != null ? entity.getAccount().getId() : null)
+                                .description(entity.getDescription())
+                                .build();
+        }
 }
@@ -0,0 +1,69 @@
+package com.chitieu.persistence;
+
+import com.chitieu.domain.model.MonthlyRollup;
+import com.chitieu.domain.repository.TransactionRollupRepositoryPort;
+import com.chitieu.persistence.entity.TransactionRollupEntity;
+import com.chitieu.persistence.repository.TransactionRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class TransactionRollupRepositoryAdapter implements TransactionRollupRepositoryPort {
+
+    private final TransactionRollupRepository rollupRepository;
+
+    @Override
+    public List<MonthlyRollup> findByUserId(UUID userId) {
+        return rollupRepository.findByUserId(userId).stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<MonthlyRollup> findByUserIdFromMonth(UUID userId, YearMonth fromMonth) {
+        return rollupRepository.findByUserIdFromMonth(userId, fromMonth.atDay(1)).stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void increment(UUID userId, YearMonth month, String type, String category, BigDecimal amount,
+            long count) {
+        rollupRepository.upsert(UUID.randomUUID(), userId, month.atDay(1), type, category, amount, count);
+    }
+
+    @Override
+    @Transactional
+    public void rebuildForUser(UUID userId) {
+        // Held until commit: an increment either lands before the lock (and its row is
+        // then counted by the INSERT ... SELECT) or waits and applies on top of the rebuild
+        rollupRepository.lockUser(userId);
+        rollupRepository.deleteByUserId(userId);
+        rollupRepository.insertFromTransactions(userId);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return rollupRepository.count() == 0;
+    }
+
+    private MonthlyRollup toDomain(TransactionRollupEntity entity) {
+        return MonthlyRollup.builder()
+                .userId(entity.getUserId())
+                .month(YearMonth.from(entity.getPeriodMonth()))
+                .type(entity.getType())
+                .category(entity.getCategory())
+                .totalAmount(entity.getTotalAmount())
+                .transactionCount(entity.getTransactionCount())
+                .build();
+    }
+}
@@ -5,6 +5,7 @@ import com.chitieu.domain.repository.UserRepositoryPort;
 import com.chitieu.persistence.entity.UserEntity;
 import com.chitieu.persistence.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -43,6 +44,19 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<UUID> findAllIds() {
+        return userRepository.findAllIds();
+    }
+
+    @Override
+    public List<UUID> findIdsAfter(UUID afterId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return afterId == null
+                ? userRepository.findIdsOrderById(page)
+                : userRepository.findIdsAfter(afterId, page);
+    }
+
     @Override
     public User save(User user) {
         return toDomain(userRepository.save(toEntity(user)));
@@ -55,6 +69,7 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
                 .email(entity.getEmail())
                 .fullName(entity.getFullName())
                 .password(entity.getPassword())
+                .baseCurrency(entity.getBaseCurrency())
                 .build();
     }
 
@@ -65,6 +80,7 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
                 .email(domain.getEmail())
                 .fullName(domain.getFullName())
                 .password(domain.getPassword())
+                .baseCurrency(domain.getBaseCurrency())
                 .build();
     }
 }
@@ -36,6 +36,10 @@ public class AccountEntity {
 
     private BigDecimal creditLimit;
 
+    // Journal entries reflected in the balance; null until the first one
+    @Column(name = "journal_seq")
+    private Long journalSeq;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private UserEntity user;
@@ -0,0 +1,35 @@
+package com.chitieu.persistence.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "anomaly_checkpoints", indexes = @Index(name = "idx_anomaly_checkpoint_node",
+        columnList = "node_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnomalyCheckpointEntity {
+    @Id
+    @Column(name = "checkpoint_key")
+    private String checkpointKey; // node_id|stripe
+
+    @Column(name = "node_id", nullable = false)
+    private String nodeId;
+
+    @Column(name = "stripe", nullable = false)
+    private int stripe;
+
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    @Column(name = "entries", nullable = false)
+    private int entries;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.chitieu.persistence.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "account_balance_checkpoints", indexes = @Index(name = "idx_balance_checkpoints_account_seq",
+        columnList = "account_id, account_seq"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceCheckpointEntity {
+    @Id
+    @Column(name = "checkpoint_id", length = 60)
+    private String checkpointId; // account_id|account_seq
+
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    @Column(name = "account_seq", nullable = false)
+    private long sequence;
+
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,35 @@
+package com.chitieu.persistence.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "account_balance_closings", indexes = @Index(name = "idx_balance_closings_account_date",
+        columnList = "account_id, closing_date", unique = true))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceClosingEntity {
+    @Id
+    @Column(name = "closing_id", length = 50)
+    private String closingId; // account_id|closing_date
+
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    @Column(name = "closing_date", nullable = false)
+    private LocalDate closingDate;
+
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,57 @@
+package com.chitieu.persistence.entity;
+
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "balance_history", uniqueConstraints = @UniqueConstraint(
+        name = "uk_balance_history_series_bucket",
+        columnNames = { "series_id", "resolution", "bucket_start" }),
+        indexes = @Index(name = "idx_balance_history_series_start", columnList = "series_id, bucket_start"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceHistoryEntity {
+    public static final String SERIES_ACCOUNT = "ACCOUNT";
+    public static final String SERIES_TOTAL = "TOTAL";
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    private UUID id;
+
+    @Column(name = "series_id", nullable = false)
+    private UUID seriesId; // Account id, or user id for the user's total
+
+    @Column(name = "series_type", nullable = false)
+    private String seriesType; // ACCOUNT, TOTAL
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "resolution", nullable = false)
+    private String resolution; // DAY, WEEK, MONTH
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "balance", nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "min_balance", nullable = false)
+    private BigDecimal minBalance;
+
+    @Column(name = "max_balance", nullable = false)
+    private BigDecimal maxBalance;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -8,7 +8,8 @@ import java.math.BigDecimal;
 import java.util.UUID;
 
 @Entity
-@Table(name = "budgets")
+@Table(name = "budgets", indexes = @Index(name = "idx_budgets_user_category",
+        columnList = "user_id, category"))
 @Getter
 @Setter
 @NoArgsConstructor
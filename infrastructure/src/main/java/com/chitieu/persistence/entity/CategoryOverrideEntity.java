@@ -0,0 +1,33 @@
+package com.chitieu.persistence.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "category_overrides", indexes = @Index(name = "idx_category_override_user",
+        columnList = "user_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryOverrideEntity {
+    @Id
+    @Column(name = "override_key")
+    private String overrideKey; // user_id|merchant_key
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "merchant_key", nullable = false, length = 255)
+    private String merchantKey;
+
+    @Column(name = "category", nullable = false)
+    private String category;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,31 @@
+package com.chitieu.persistence.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "category_rules")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryRuleEntity {
+    @Id
+    @Column(name = "rule_id")
+    private String ruleId;
+
+    @Column(name = "pattern", nullable = false, length = 255)
+    private String pattern;
+
+    @Column(name = "category", nullable = false)
+    private String category;
+
+    @Column(name = "enabled", nullable = false)
+    private boolean enabled;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
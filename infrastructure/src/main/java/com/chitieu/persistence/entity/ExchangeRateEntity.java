@@ -0,0 +1,26 @@
+package com.chitieu.persistence.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "exchange_rates")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExchangeRateEntity {
+    @Id
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Column(name = "rate", nullable = false, precision = 24, scale = 10)
+    private BigDecimal rate; // Units of the base currency per unit
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
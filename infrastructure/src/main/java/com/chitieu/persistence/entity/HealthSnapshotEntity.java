@@ -0,0 +1,64 @@
+package com.chitieu.persistence.entity;
+
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Entity
+@Table(name = "financial_health_snapshots", uniqueConstraints = @UniqueConstraint(
+        name = "uk_health_snapshot_user_date",
+        columnNames = { "user_id", "snapshot_date" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HealthSnapshotEntity {
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "overall_score", nullable = false)
+    private int overallScore;
+
+    @Column(name = "net_worth")
+    private BigDecimal netWorth;
+
+    @Column(name = "total_assets")
+    private BigDecimal totalAssets;
+
+    @Column(name = "total_liabilities")
+    private BigDecimal totalLiabilities;
+
+    @Column(name = "net_worth_rating")
+    private String netWorthRating;
+
+    @Column(name = "liquid_assets")
+    private BigDecimal liquidAssets;
+
+    @Column(name = "liquidity_months")
+    private BigDecimal liquidityMonths;
+
+    @Column(name = "savings_percent")
+    private BigDecimal savingsPercent;
+
+    @Column(name = "debt_to_income_ratio")
+    private BigDecimal debtToIncomeRatio;
+
+    @Column(name = "current_progress")
+    private BigDecimal currentProgress;
+
+    @Column(name = "years_to_freedom")
+    private BigDecimal yearsToFreedom;
+}
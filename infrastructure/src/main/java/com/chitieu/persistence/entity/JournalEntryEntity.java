@@ -0,0 +1,63 @@
+package com.chitieu.persistence.entity;
+
+import com.chitieu.domain.model.JournalKind;
+import com.chitieu.domain.model.LedgerAccount;
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "journal_entries", indexes = {
+        @Index(name = "idx_journal_entries_account_seq", columnList = "account_id, account_seq", unique = true),
+        @Index(name = "idx_journal_entries_account_effective", columnList = "account_id, effective_date, account_seq"),
+        @Index(name = "idx_journal_entries_journal", columnList = "journal_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JournalEntryEntity {
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    private UUID id;
+
+    @Column(name = "journal_id", nullable = false)
+    private UUID journalId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    // No foreign key: the journal outlives deleted accounts
+    @Column(name = "account_id")
+    private UUID accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private LedgerAccount ledger;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "account_seq")
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JournalKind kind;
+
+    private String memo;
+
+    // Null only on entries journaled before value dates were recorded, until backfilled
+    @Column(name = "effective_date")
+    private LocalDate effectiveDate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
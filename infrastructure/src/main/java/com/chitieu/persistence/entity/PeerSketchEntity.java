@@ -0,0 +1,38 @@
+package com.chitieu.persistence.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "peer_benchmark_sketches", indexes = @Index(name = "idx_peer_sketch_node",
+        columnList = "node_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PeerSketchEntity {
+    @Id
+    @Column(name = "shard_key")
+    private String shardKey; // node_id|metric|cohort
+
+    @Column(name = "node_id", nullable = false)
+    private String nodeId;
+
+    @Column(name = "metric", nullable = false)
+    private String metric;
+
+    @Column(name = "cohort", nullable = false)
+    private String cohort;
+
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    @Column(name = "sample_count", nullable = false)
+    private long sampleCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,40 @@
+package com.chitieu.persistence.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "recommendation_rules")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecommendationRuleEntity {
+    @Id
+    @Column(name = "rule_id")
+    private String ruleId;
+
+    @Column(name = "rule_group", nullable = false)
+    private String ruleGroup;
+
+    @Column(name = "priority", nullable = false)
+    private int priority;
+
+    @Column(name = "condition_expr", nullable = false, length = 2000)
+    private String conditionExpr;
+
+    @Column(name = "message", nullable = false, length = 1000)
+    private String message;
+
+    @Column(name = "fallback", nullable = false)
+    private boolean fallback;
+
+    @Column(name = "enabled", nullable = false)
+    private boolean enabled;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,55 @@
+package com.chitieu.persistence.entity;
+
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "recurring_transactions", indexes = {
+        @Index(name = "idx_recurring_transactions_next_run", columnList = "next_run_at, id"),
+        @Index(name = "idx_recurring_transactions_user", columnList = "user_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecurringTransactionEntity {
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "account_id")
+    private UUID accountId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false)
+    private String type;
+
+    private String description;
+
+    @Column(nullable = false, length = 100)
+    private String schedule;
+
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
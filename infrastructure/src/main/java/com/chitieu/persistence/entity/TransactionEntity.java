@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = @Index(name = "idx_transactions_user_date_id",
+        columnList = "user_id, transaction_date, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -37,7 +38,11 @@ public class TransactionEntity {
 
     private String description;
 
-    @Column(nullable = false)
+    // Folded description and category, see SearchText; trigram indexed at startup
+    @Column(name = "search_text", length = 500)
+    private String searchText;
+
+    @Column(name = "transaction_date", nullable = false)
     private LocalDateTime transactionDate;
 
     @Column(nullable = false)
@@ -0,0 +1,43 @@
+package com.chitieu.persistence.entity;
+
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Entity
+@Table(name = "transaction_monthly_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_rollup_user_month_type_category",
+        columnNames = { "user_id", "period_month", "type", "category" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionRollupEntity {
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "period_month", nullable = false)
+    private LocalDate periodMonth; // First day of the month
+
+    @Column(name = "type", nullable = false)
+    private String type; // INCOME, EXPENSE
+
+    @Column(name = "category", nullable = false)
+    private String category;
+
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+}
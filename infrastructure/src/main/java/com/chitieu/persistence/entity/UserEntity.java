@@ -29,4 +29,7 @@ public class UserEntity {
     private String password;
 
     private String fullName;
+
+    @Column(name = "base_currency", length = 3)
+    private String baseCurrency;
 }
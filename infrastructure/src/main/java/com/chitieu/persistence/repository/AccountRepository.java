@@ -9,14 +9,46 @@ import java.util.UUID;
 public interface AccountRepository extends JpaRepository<AccountEntity, UUID> {
     List<AccountEntity> findByUserId(UUID userId);
 
-    @org.springframework.data.jpa.repository.Query("SELECT u.id as userId, u.fullName as fullName, u.username as username, SUM(a.balance) as totalWealth "
+    // A RETURNING statement runs as a query; no row means no such account for the user
+    @org.springframework.data.jpa.repository.Query(value = "UPDATE accounts SET balance = balance + :delta, "
+            + "journal_seq = COALESCE(journal_seq, 0) + 1 "
+            + "WHERE id = :id AND user_id = :userId RETURNING balance, journal_seq", nativeQuery = true)
+    List<Object[]> incrementBalance(
+            @org.springframework.data.repository.query.Param("id") UUID id,
+            @org.springframework.data.repository.query.Param("userId") UUID userId,
+            @org.springframework.data.repository.query.Param("delta") java.math.BigDecimal delta);
+
+    // Waits for postings in flight on the account and holds later ones off until commit
+    @org.springframework.data.jpa.repository.Query(value = "SELECT 1 FROM accounts WHERE id = :id FOR UPDATE",
+            nativeQuery = true)
+    Integer lockById(@org.springframework.data.repository.query.Param("id") UUID id);
+
+    @org.springframework.data.jpa.repository.Query("SELECT a.balance, a.journalSeq FROM AccountEntity a "
+            + "WHERE a.id = :id AND a.journalSeq IS NOT NULL")
+    List<Object[]> findLedgerBalance(@org.springframework.data.repository.query.Param("id") UUID id);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE AccountEntity a SET a.balance = :balance "
+            + "WHERE a.id = :id AND a.journalSeq = :sequence")
+    int repairBalance(@org.springframework.data.repository.query.Param("id") UUID id,
+            @org.springframework.data.repository.query.Param("sequence") long sequence,
+            @org.springframework.data.repository.query.Param("balance") java.math.BigDecimal balance);
+
+    @org.springframework.data.jpa.repository.Query("SELECT a.id FROM AccountEntity a "
+            + "WHERE a.journalSeq IS NOT NULL AND a.id > :after ORDER BY a.id")
+    List<UUID> findJournaledIdsAfter(@org.springframework.data.repository.query.Param("after") UUID after,
+            org.springframework.data.domain.Pageable pageable);
+
+    // Totals below are in the base currency; accounts in a currency without a rate are left out
+    @org.springframework.data.jpa.repository.Query("SELECT u.id as userId, u.fullName as fullName, u.username as username, ROUND(SUM(a.balance * r.rate), 2) as totalWealth "
             +
-            "FROM AccountEntity a JOIN a.user u " +
+            "FROM AccountEntity a JOIN a.user u JOIN ExchangeRateEntity r ON r.currency = a.currency " +
             "GROUP BY u.id, u.fullName, u.username " +
             "ORDER BY totalWealth DESC")
     List<WealthProjection> findTopWealthyUsers(org.springframework.data.domain.Pageable pageable);
 
-    @org.springframework.data.jpa.repository.Query("SELECT a.user.id, SUM(a.balance) FROM AccountEntity a WHERE a.user.id IN :userIds GROUP BY a.user.id")
+    @org.springframework.data.jpa.repository.Query("SELECT a.user.id, ROUND(SUM(a.balance * r.rate), 2) FROM AccountEntity a "
+            + "JOIN ExchangeRateEntity r ON r.currency = a.currency WHERE a.user.id IN :userIds GROUP BY a.user.id")
     List<Object[]> findTotalBalanceByUserIds(
             @org.springframework.data.repository.query.Param("userIds") List<UUID> userIds);
 }
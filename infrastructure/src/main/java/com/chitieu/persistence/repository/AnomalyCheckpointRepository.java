@@ -0,0 +1,12 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.AnomalyCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AnomalyCheckpointRepository extends JpaRepository<AnomalyCheckpointEntity, String> {
+    List<AnomalyCheckpointEntity> findByNodeId(String nodeId);
+}
@@ -0,0 +1,15 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.BalanceCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpointEntity, String> {
+
+    Optional<BalanceCheckpointEntity> findFirstByAccountIdAndSequenceLessThanEqualOrderBySequenceDesc(
+            UUID accountId, long sequence);
+}
@@ -0,0 +1,29 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.BalanceClosingEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BalanceClosingRepository extends JpaRepository<BalanceClosingEntity, String> {
+
+    Optional<BalanceClosingEntity> findFirstByAccountIdAndClosingDateLessThanEqualOrderByClosingDateDesc(
+            UUID accountId, LocalDate date);
+
+    Optional<BalanceClosingEntity> findFirstByAccountIdOrderByClosingDateDesc(UUID accountId);
+
+    @Modifying
+    @Query("UPDATE BalanceClosingEntity c SET c.balance = c.balance + :amount, c.updatedAt = :updatedAt "
+            + "WHERE c.accountId = :accountId AND c.closingDate >= :from")
+    int shift(@Param("accountId") UUID accountId, @Param("from") LocalDate from,
+            @Param("amount") BigDecimal amount, @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,96 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.BalanceHistoryEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BalanceHistoryRepository extends JpaRepository<BalanceHistoryEntity, UUID> {
+
+    int HISTORY_LOCK = 0x42414c48; // "BALH"
+
+    @Query("SELECT h FROM BalanceHistoryEntity h WHERE h.seriesId = :seriesId AND h.seriesType = :seriesType "
+            + "AND h.bucketStart >= :from AND h.bucketStart <= :to ORDER BY h.bucketStart")
+    List<BalanceHistoryEntity> findSeriesInRange(@Param("seriesId") UUID seriesId,
+            @Param("seriesType") String seriesType, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    Optional<BalanceHistoryEntity> findFirstBySeriesIdAndSeriesTypeAndBucketStartLessThanOrderByBucketStartDesc(
+            UUID seriesId, String seriesType, LocalDate before);
+
+    /**
+     * Transaction-scoped advisory lock on the user's history, so recordings of
+     * one user run one after another and each reads balances committed after
+     * the previous one wrote. The first key keeps it apart from other
+     * advisory locks.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(" + HISTORY_LOCK + ", hashtext(CAST(:userId AS text)))",
+            nativeQuery = true)
+    Integer lockUser(@Param("userId") UUID userId);
+
+    // Each of the user's accounts at its committed balance
+    @Modifying
+    @Query(value = "INSERT INTO balance_history "
+            + "(id, series_id, series_type, user_id, resolution, bucket_start, balance, min_balance, max_balance, "
+            + "updated_at) "
+            + "SELECT gen_random_uuid(), a.id, 'ACCOUNT', a.user_id, 'DAY', :day, a.balance, a.balance, a.balance, "
+            + "now() FROM accounts a WHERE a.user_id = :userId "
+            + "ON CONFLICT (series_id, resolution, bucket_start) DO UPDATE SET "
+            + "balance = EXCLUDED.balance, "
+            + "min_balance = LEAST(balance_history.min_balance, EXCLUDED.balance), "
+            + "max_balance = GREATEST(balance_history.max_balance, EXCLUDED.balance), "
+            + "updated_at = now()",
+            nativeQuery = true)
+    void upsertAccountDays(@Param("userId") UUID userId, @Param("day") LocalDate day);
+
+    // The user's total in the base currency; accounts in a currency without a rate are left out
+    @Modifying
+    @Query(value = "INSERT INTO balance_history "
+            + "(id, series_id, series_type, user_id, resolution, bucket_start, balance, min_balance, max_balance, "
+            + "updated_at) "
+            + "SELECT gen_random_uuid(), :userId, 'TOTAL', :userId, 'DAY', :day, t.total, t.total, t.total, now() "
+            + "FROM (SELECT COALESCE(ROUND(SUM(a.balance * r.rate), 2), 0) AS total FROM accounts a "
+            + "  JOIN exchange_rates r ON r.currency = a.currency WHERE a.user_id = :userId) t "
+            + "ON CONFLICT (series_id, resolution, bucket_start) DO UPDATE SET "
+            + "balance = EXCLUDED.balance, "
+            + "min_balance = LEAST(balance_history.min_balance, EXCLUDED.balance), "
+            + "max_balance = GREATEST(balance_history.max_balance, EXCLUDED.balance), "
+            + "updated_at = now()",
+            nativeQuery = true)
+    void upsertTotalDay(@Param("userId") UUID userId, @Param("day") LocalDate day);
+
+    // One row per (series, target bucket): the closing balance of its latest source bucket
+    @Modifying
+    @Query(value = "INSERT INTO balance_history "
+            + "(id, series_id, series_type, user_id, resolution, bucket_start, balance, min_balance, max_balance, "
+            + "updated_at) "
+            + "SELECT gen_random_uuid(), g.series_id, g.series_type, g.user_id, :target, g.bucket, g.balance, "
+            + "g.min_balance, g.max_balance, now() FROM ("
+            + "  SELECT DISTINCT ON (s.series_id, s.bucket) s.series_id, s.series_type, s.user_id, s.bucket, "
+            + "    s.balance, MIN(s.min_balance) OVER w AS min_balance, MAX(s.max_balance) OVER w AS max_balance "
+            + "  FROM (SELECT h.*, CAST(date_trunc(:unit, CAST(h.bucket_start AS timestamp)) AS date) AS bucket "
+            + "    FROM balance_history h WHERE h.resolution = :source AND h.bucket_start < :cutoff) s "
+            + "  WINDOW w AS (PARTITION BY s.series_id, s.bucket) "
+            + "  ORDER BY s.series_id, s.bucket, s.bucket_start DESC"
+            + ") g "
+            + "ON CONFLICT (series_id, resolution, bucket_start) DO UPDATE SET "
+            + "balance = EXCLUDED.balance, "
+            + "min_balance = LEAST(balance_history.min_balance, EXCLUDED.min_balance), "
+            + "max_balance = GREATEST(balance_history.max_balance, EXCLUDED.max_balance), "
+            + "updated_at = now()",
+            nativeQuery = true)
+    int foldInto(@Param("source") String source, @Param("target") String target, @Param("unit") String unit,
+            @Param("cutoff") LocalDate cutoff);
+
+    @Modifying
+    @Query(value = "DELETE FROM balance_history WHERE resolution = :source AND bucket_start < :cutoff",
+            nativeQuery = true)
+    int deleteOlderThan(@Param("source") String source, @Param("cutoff") LocalDate cutoff);
+}
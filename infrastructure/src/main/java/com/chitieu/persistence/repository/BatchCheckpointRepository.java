@@ -0,0 +1,9 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.BatchCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BatchCheckpointRepository extends JpaRepository<BatchCheckpointEntity, String> {
+}
@@ -2,12 +2,23 @@ package com.chitieu.persistence.repository;
 
 import com.chitieu.persistence.entity.BudgetEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface BudgetRepository extends JpaRepository<BudgetEntity, UUID> {
     List<BudgetEntity> findByUserId(UUID userId);
+
+    // Charges the first budget of the category, as the read-modify-write path did
+    @Query(value = "UPDATE budgets SET spent_amount = COALESCE(spent_amount, 0) + :delta "
+            + "WHERE id = (SELECT b.id FROM budgets b WHERE b.user_id = :userId AND b.category = :category "
+            + "ORDER BY b.id LIMIT 1) "
+            + "RETURNING CAST(id AS varchar), limit_amount, spent_amount", nativeQuery = true)
+    List<Object[]> incrementSpent(@Param("userId") UUID userId, @Param("category") String category,
+            @Param("delta") BigDecimal delta);
 }
@@ -0,0 +1,13 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.CategoryOverrideEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CategoryOverrideRepository extends JpaRepository<CategoryOverrideEntity, String> {
+    List<CategoryOverrideEntity> findByUserId(UUID userId);
+}
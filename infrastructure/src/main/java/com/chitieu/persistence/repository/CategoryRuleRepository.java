@@ -0,0 +1,9 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.CategoryRuleEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategoryRuleRepository extends JpaRepository<CategoryRuleEntity, String> {
+}
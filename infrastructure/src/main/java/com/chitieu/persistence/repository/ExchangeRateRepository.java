@@ -0,0 +1,16 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.ExchangeRateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRateEntity, String> {
+
+    @Query("SELECT DISTINCT a.currency FROM AccountEntity a "
+            + "WHERE NOT EXISTS (SELECT r FROM ExchangeRateEntity r WHERE r.currency = a.currency)")
+    List<String> findAccountCurrenciesWithoutRate();
+}
@@ -2,7 +2,11 @@ package com.chitieu.persistence.repository;
 
 import com.chitieu.persistence.entity.GoalMemberEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
@@ -10,4 +14,10 @@ public interface GoalMemberRepository extends JpaRepository<GoalMemberEntity, UU
     List<GoalMemberEntity> findByGoalId(UUID goalId);
 
     java.util.Optional<GoalMemberEntity> findByGoalIdAndUserId(UUID goalId, UUID userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE GoalMemberEntity m SET m.contributedAmount = m.contributedAmount + :delta "
+            + "WHERE m.goal.id = :goalId AND m.user.id = :userId")
+    int incrementContribution(@Param("goalId") UUID goalId, @Param("userId") UUID userId,
+            @Param("delta") BigDecimal delta);
 }
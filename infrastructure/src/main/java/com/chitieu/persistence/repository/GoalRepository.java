@@ -2,9 +2,11 @@ package com.chitieu.persistence.repository;
 
 import com.chitieu.persistence.entity.GoalEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,4 +14,8 @@ public interface GoalRepository extends JpaRepository<GoalEntity, UUID> {
 
     @Query("SELECT DISTINCT g FROM GoalEntity g JOIN GoalMemberEntity gm ON g.id = gm.goal.id WHERE gm.user.id = :userId OR g.owner.id = :userId")
     List<GoalEntity> findAllByUserId(@Param("userId") UUID userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE GoalEntity g SET g.currentAmount = g.currentAmount + :delta WHERE g.id = :id")
+    int incrementCurrentAmount(@Param("id") UUID id, @Param("delta") BigDecimal delta);
 }
@@ -0,0 +1,57 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.HealthSnapshotEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface HealthSnapshotRepository extends JpaRepository<HealthSnapshotEntity, UUID> {
+
+    Optional<HealthSnapshotEntity> findFirstByUserIdOrderBySnapshotDateDesc(UUID userId);
+
+    @Query(value = "SELECT DISTINCT ON (s.user_id) s.* FROM financial_health_snapshots s "
+            + "WHERE s.user_id IN (:userIds) ORDER BY s.user_id, s.snapshot_date DESC", nativeQuery = true)
+    List<HealthSnapshotEntity> findLatestByUserIds(@Param("userIds") Collection<UUID> userIds);
+
+    Optional<HealthSnapshotEntity> findFirstByUserIdAndSnapshotDateLessThanEqualOrderBySnapshotDateDesc(
+            UUID userId, LocalDate date);
+
+    List<HealthSnapshotEntity> findByUserIdAndSnapshotDateBetweenOrderBySnapshotDateAsc(UUID userId,
+            LocalDate from, LocalDate to);
+
+    // Re-running the batch for the same day replaces that day's row
+    @Modifying
+    @Query(value = "INSERT INTO financial_health_snapshots "
+            + "(id, user_id, snapshot_date, overall_score, net_worth, total_assets, total_liabilities, "
+            + "net_worth_rating, liquid_assets, liquidity_months, savings_percent, debt_to_income_ratio, "
+            + "current_progress, years_to_freedom) "
+            + "VALUES (:id, :userId, :snapshotDate, :overallScore, :netWorth, :totalAssets, :totalLiabilities, "
+            + ":netWorthRating, :liquidAssets, :liquidityMonths, :savingsPercent, :debtToIncomeRatio, "
+            + ":currentProgress, :yearsToFreedom) "
+            + "ON CONFLICT (user_id, snapshot_date) DO UPDATE SET "
+            + "overall_score = EXCLUDED.overall_score, net_worth = EXCLUDED.net_worth, "
+            + "total_assets = EXCLUDED.total_assets, total_liabilities = EXCLUDED.total_liabilities, "
+            + "net_worth_rating = EXCLUDED.net_worth_rating, liquid_assets = EXCLUDED.liquid_assets, "
+            + "liquidity_months = EXCLUDED.liquidity_months, savings_percent = EXCLUDED.savings_percent, "
+            + "debt_to_income_ratio = EXCLUDED.debt_to_income_ratio, "
+            + "current_progress = EXCLUDED.current_progress, years_to_freedom = EXCLUDED.years_to_freedom",
+            nativeQuery = true)
+    void upsert(@Param("id") UUID id, @Param("userId") UUID userId, @Param("snapshotDate") LocalDate snapshotDate,
+            @Param("overallScore") int overallScore, @Param("netWorth") BigDecimal netWorth,
+            @Param("totalAssets") BigDecimal totalAssets, @Param("totalLiabilities") BigDecimal totalLiabilities,
+            @Param("netWorthRating") String netWorthRating, @Param("liquidAssets") BigDecimal liquidAssets,
+            @Param("liquidityMonths") BigDecimal liquidityMonths, @Param("savingsPercent") BigDecimal savingsPercent,
+            @Param("debtToIncomeRatio") BigDecimal debtToIncomeRatio,
+            @Param("currentProgress") BigDecimal currentProgress,
+            @Param("yearsToFreedom") BigDecimal yearsToFreedom);
+}
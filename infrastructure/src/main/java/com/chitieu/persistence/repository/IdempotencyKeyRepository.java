@@ -0,0 +1,31 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    // Returns 0 when the key exists; waits for an uncommitted insert of the same key first
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (key_id, user_id, idempotency_key, request_hash, created_at) "
+            + "VALUES (:keyId, :userId, :key, :requestHash, :createdAt) ON CONFLICT (key_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("keyId") String keyId, @Param("userId") UUID userId, @Param("key") String key,
+            @Param("requestHash") String requestHash, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKeyEntity k SET k.transactionId = :transactionId WHERE k.keyId = :keyId")
+    int setTransactionId(@Param("keyId") String keyId, @Param("transactionId") UUID transactionId);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
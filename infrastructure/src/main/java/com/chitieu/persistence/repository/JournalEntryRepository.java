@@ -0,0 +1,44 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.JournalEntryEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface JournalEntryRepository extends JpaRepository<JournalEntryEntity, UUID> {
+
+    List<JournalEntryEntity> findByAccountIdOrderBySequenceDesc(UUID accountId, Pageable pageable);
+
+    // Range scans of idx_journal_entries_account_effective
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM JournalEntryEntity e WHERE e.accountId = :accountId "
+            + "AND e.effectiveDate > :after AND e.effectiveDate <= :upTo")
+    BigDecimal sumEffectiveBetween(@Param("accountId") UUID accountId, @Param("after") LocalDate after,
+            @Param("upTo") LocalDate upTo);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM JournalEntryEntity e WHERE e.accountId = :accountId "
+            + "AND e.effectiveDate <= :upTo")
+    BigDecimal sumEffectiveUpTo(@Param("accountId") UUID accountId, @Param("upTo") LocalDate upTo);
+
+    @Query("SELECT MIN(e.effectiveDate) FROM JournalEntryEntity e WHERE e.accountId = :accountId")
+    LocalDate findFirstEffectiveDate(@Param("accountId") UUID accountId);
+
+    @Modifying
+    @Query(value = "UPDATE journal_entries SET effective_date = CAST(created_at AS date) "
+            + "WHERE effective_date IS NULL", nativeQuery = true)
+    int backfillEffectiveDates();
+
+    // Range scan of idx_journal_entries_account_seq, at most one checkpoint interval long
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM JournalEntryEntity e WHERE e.accountId = :accountId "
+            + "AND e.sequence > :afterSequence AND e.sequence <= :upToSequence")
+    BigDecimal sumBetween(@Param("accountId") UUID accountId, @Param("afterSequence") long afterSequence,
+            @Param("upToSequence") long upToSequence);
+}
@@ -0,0 +1,12 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.PeerSketchEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PeerSketchRepository extends JpaRepository<PeerSketchEntity, String> {
+    List<PeerSketchEntity> findByNodeId(String nodeId);
+}
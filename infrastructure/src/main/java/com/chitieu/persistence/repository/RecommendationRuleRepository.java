@@ -0,0 +1,9 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.RecommendationRuleEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RecommendationRuleRepository extends JpaRepository<RecommendationRuleEntity, String> {
+}
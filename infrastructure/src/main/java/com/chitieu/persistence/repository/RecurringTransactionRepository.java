@@ -0,0 +1,37 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.RecurringTransactionEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RecurringTransactionRepository extends JpaRepository<RecurringTransactionEntity, UUID> {
+
+    List<RecurringTransactionEntity> findByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    // Both range scans walk idx_recurring_transactions_next_run
+    @Query("SELECT r FROM RecurringTransactionEntity r WHERE r.nextRunAt >= :from AND r.nextRunAt < :to "
+            + "ORDER BY r.nextRunAt, r.id")
+    List<RecurringTransactionEntity> findRunsBetween(@Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, Pageable pageable);
+
+    @Query("SELECT r FROM RecurringTransactionEntity r WHERE r.nextRunAt < :to AND (r.nextRunAt > :afterRunAt "
+            + "OR (r.nextRunAt = :afterRunAt AND r.id > :afterId)) ORDER BY r.nextRunAt, r.id")
+    List<RecurringTransactionEntity> findRunsAfter(@Param("afterRunAt") LocalDateTime afterRunAt,
+            @Param("afterId") UUID afterId, @Param("to") LocalDateTime to, Pageable pageable);
+
+    // Row lock makes a concurrent claim of the same run wait, then match nothing
+    @Modifying
+    @Query("UPDATE RecurringTransactionEntity r SET r.nextRunAt = :nextRunAt, r.lastRunAt = :expectedRunAt "
+            + "WHERE r.id = :id AND r.nextRunAt = :expectedRunAt")
+    int advance(@Param("id") UUID id, @Param("expectedRunAt") LocalDateTime expectedRunAt,
+            @Param("nextRunAt") LocalDateTime nextRunAt);
+}
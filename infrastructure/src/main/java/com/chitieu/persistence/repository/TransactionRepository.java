@@ -2,14 +2,55 @@ package com.chitieu.persistence.repository;
 
 import com.chitieu.persistence.entity.TransactionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<TransactionEntity, UUID> {
     List<TransactionEntity> findByUserId(UUID userId);
 
+    @Query("SELECT t FROM TransactionEntity t WHERE t.user.id = :userId AND t.account.id = :accountId "
+            + "AND t.transactionDate >= :from AND t.transactionDate < :to")
+    List<TransactionEntity> findByAccountIdAndDateRange(@Param("userId") UUID userId,
+            @Param("accountId") UUID accountId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Forward-only: the PostgreSQL driver fetches this many rows per round trip inside a transaction
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true") })
+    @Query("SELECT t FROM TransactionEntity t WHERE t.user.id = :userId "
+            + "AND t.transactionDate >= :from AND t.transactionDate < :to ORDER BY t.transactionDate, t.id")
+    Stream<TransactionEntity> streamByUserIdAndDateRange(@Param("userId") UUID userId,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     long countByUserId(UUID userId);
+
+    // Aggregates below share the [from, to) predicate served by idx_transactions_user_date_id
+    @Query("SELECT t.category, SUM(t.amount) FROM TransactionEntity t WHERE t.user.id = :userId "
+            + "AND t.type = :type AND t.transactionDate >= :from AND t.transactionDate < :to GROUP BY t.category")
+    List<Object[]> sumByCategory(@Param("userId") UUID userId, @Param("type") String type,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT t.type, t.category, SUM(t.amount), COUNT(t) FROM TransactionEntity t WHERE t.user.id = :userId "
+            + "AND t.transactionDate >= :from AND t.transactionDate < :to GROUP BY t.type, t.category")
+    List<Object[]> sumByTypeAndCategory(@Param("userId") UUID userId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // unit is a date_trunc field: day, week (ISO, Monday) or month
+    @Query(value = "SELECT CAST(date_trunc(:unit, t.transaction_date) AS date), t.category, SUM(t.amount), COUNT(*) "
+            + "FROM transactions t WHERE t.user_id = :userId AND t.type = :type "
+            + "AND t.transaction_date >= :from AND t.transaction_date < :to GROUP BY 1, 2", nativeQuery = true)
+    List<Object[]> sumByCategoryPerBucket(@Param("userId") UUID userId, @Param("type") String type,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("unit") String unit);
 }
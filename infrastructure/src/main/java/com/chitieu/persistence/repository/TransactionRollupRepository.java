@@ -0,0 +1,64 @@
+package com.chitieu.persistence.repository;
+
+import com.chitieu.persistence.entity.TransactionRollupEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TransactionRollupRepository extends JpaRepository<TransactionRollupEntity, UUID> {
+
+    int ROLLUP_LOCK = 0x524f4c4c; // "ROLL"
+
+    List<TransactionRollupEntity> findByUserId(UUID userId);
+
+    @Query("SELECT r FROM TransactionRollupEntity r WHERE r.userId = :userId AND r.periodMonth >= :fromMonth")
+    List<TransactionRollupEntity> findByUserIdFromMonth(@Param("userId") UUID userId,
+            @Param("fromMonth") LocalDate fromMonth);
+
+    /**
+     * Transaction-scoped advisory lock on the user's rollups, taken by a
+     * rebuild so it never interleaves with an increment. Increments take the
+     * shared form inside their upsert. The first key keeps it apart from
+     * other advisory locks.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(" + ROLLUP_LOCK + ", hashtext(CAST(:userId AS text)))",
+            nativeQuery = true)
+    Integer lockUser(@Param("userId") UUID userId);
+
+    // Atomic upsert: concurrent writers for the same key serialize on the unique index. The
+    // shared lock comes with it, so an increment is one statement that only waits on a rebuild.
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollups "
+            + "(id, user_id, period_month, type, category, total_amount, transaction_count) "
+            + "SELECT :id, :userId, :periodMonth, :type, :category, :amount, :count "
+            + "FROM pg_advisory_xact_lock_shared(" + ROLLUP_LOCK + ", hashtext(CAST(:userId AS text))) "
+            + "ON CONFLICT (user_id, period_month, type, category) DO UPDATE SET "
+            + "total_amount = transaction_monthly_rollups.total_amount + EXCLUDED.total_amount, "
+            + "transaction_count = transaction_monthly_rollups.transaction_count + EXCLUDED.transaction_count",
+            nativeQuery = true)
+    void upsert(@Param("id") UUID id, @Param("userId") UUID userId, @Param("periodMonth") LocalDate periodMonth,
+            @Param("type") String type, @Param("category") String category, @Param("amount") BigDecimal amount,
+            @Param("count") long count);
+
+    @Modifying
+    @Query(value = "DELETE FROM transaction_monthly_rollups WHERE user_id = :userId", nativeQuery = true)
+    void deleteByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollups "
+            + "(id, user_id, period_month, type, category, total_amount, transaction_count) "
+            + "SELECT gen_random_uuid(), t.user_id, CAST(date_trunc('month', t.transaction_date) AS date), "
+            + "t.type, t.category, SUM(t.amount), COUNT(*) "
+            + "FROM transactions t WHERE t.user_id = :userId "
+            + "GROUP BY t.user_id, CAST(date_trunc('month', t.transaction_date) AS date), t.type, t.category",
+            nativeQuery = true)
+    void insertFromTransactions(@Param("userId") UUID userId);
+}
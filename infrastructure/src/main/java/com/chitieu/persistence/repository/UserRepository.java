@@ -20,4 +20,14 @@ public interface UserRepository extends JpaRepository<UserEntity, UUID> {
 
     java.util.List<UserEntity> findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(String usernameQuery,
             String emailQuery);
+
+    @org.springframework.data.jpa.repository.Query("SELECT u.id FROM UserEntity u")
+    java.util.List<UUID> findAllIds();
+
+    @org.springframework.data.jpa.repository.Query("SELECT u.id FROM UserEntity u ORDER BY u.id")
+    java.util.List<UUID> findIdsOrderById(org.springframework.data.domain.Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Query("SELECT u.id FROM UserEntity u WHERE u.id > :afterId ORDER BY u.id")
+    java.util.List<UUID> findIdsAfter(@org.springframework.data.repository.query.Param("afterId") UUID afterId,
+            org.springframework.data.domain.Pageable pageable);
 }